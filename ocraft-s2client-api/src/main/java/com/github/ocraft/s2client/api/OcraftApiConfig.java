@@ -60,6 +60,7 @@ public final class OcraftApiConfig {
     public static final String GAME_CLI_EGL_PATH = GAME_CLI + ".eglpath";
     public static final String CLIENT_NET = CLIENT + ".net";
     public static final String CLIENT_BUFFER = CLIENT + ".buffer";
+    public static final String CLIENT_RUNTIME = CLIENT + ".runtime";
     public static final String CLIENT_NET_RETRY = CLIENT_NET + ".retry";
     public static final String CLIENT_NET_FRAME_SIZE = CLIENT_NET + ".maxWebSocketFrameSizeInBytes";
     public static final String CLIENT_NET_CONNECT_TIMEOUT = CLIENT_NET + ".connectTimeoutInMillis";
@@ -75,6 +76,11 @@ public final class OcraftApiConfig {
     public static final String CLIENT_BUFFER_SIZE_RESPONSE_STREAM = CLIENT_BUFFER_SIZE_RESPONSE + ".stream";
     public static final String CLIENT_BUFFER_SIZE_RESPONSE_BACKPRESSURE = CLIENT_BUFFER_SIZE_RESPONSE + ".backpressure";
     public static final String CLIENT_TRACED = CLIENT + ".traced";
+    public static final String CLIENT_RUNTIME_SHARED = CLIENT_RUNTIME + ".shared";
+    public static final String CLIENT_RUNTIME_EVENT_LOOP_POOL_SIZE = CLIENT_RUNTIME + ".eventLoopPoolSize";
+    public static final String CLIENT_RUNTIME_WORKER_POOL_SIZE = CLIENT_RUNTIME + ".workerPoolSize";
+    public static final String CLIENT_RUNTIME_DIRECT_CHANNEL = CLIENT_RUNTIME + ".directChannel";
+    public static final String CLIENT_RUNTIME_DIRECT_RESPONSES = CLIENT_RUNTIME + ".directResponses";
 
     private static Config config = ConfigFactory.load();
 
@@ -0,0 +1,226 @@
+package com.github.ocraft.s2client.api;
+
+/*-
+ * #%L
+ * ocraft-s2client-api
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import com.github.ocraft.s2client.protocol.request.Request;
+import com.github.ocraft.s2client.protocol.response.Response;
+import com.github.ocraft.s2client.protocol.response.ResponseType;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.reactivex.Maybe;
+import io.reactivex.subjects.MaybeSubject;
+
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.lang.String.format;
+
+/**
+ * Matches responses with pending requests. Responses are correlated by the request id echoed by the game. If the
+ * game does not echo ids (or the waiter does not know the id of its request) responses are matched by type in the
+ * order the waiters were registered. Error responses without a known id complete every matching waiter.
+ * <p>
+ * Waiters registered without a request wait for the next response of a type, so a response correlated by id also
+ * completes the first of them (like it did before responses were correlated).
+ */
+class ResponseCorrelator {
+
+    private static final int NO_ID = 0;
+    private static final long TIMER_TICK_IN_MILLIS = 10;
+
+    // One timer wheel (one thread) for timeouts of all clients.
+    private static final Timer timer = new HashedWheelTimer(
+            new DefaultThreadFactory("ocraft-response-timeout", true), TIMER_TICK_IN_MILLIS, TimeUnit.MILLISECONDS);
+
+    private final long timeoutInMillis;
+    private final Map<Integer, Pending> pendingById = new ConcurrentHashMap<>();
+    private final Map<ResponseType, Queue<Pending>> pendingByType = new EnumMap<>(ResponseType.class);
+
+    ResponseCorrelator(long timeoutInMillis) {
+        this.timeoutInMillis = timeoutInMillis;
+        for (ResponseType responseType : ResponseType.values()) {
+            pendingByType.put(responseType, new ConcurrentLinkedQueue<>());
+        }
+    }
+
+    Maybe<Response> register(Request request) {
+        return register(new Pending(request.responseType(), request.getId()));
+    }
+
+    Maybe<Response> register(ResponseType responseType) {
+        return register(new Pending(responseType, NO_ID));
+    }
+
+    private Maybe<Response> register(Pending pending) {
+        pending.timeout = timer.newTimeout(t -> {
+            if (pending.fail(new TimeoutException(format(
+                    "The source did not signal an event for %d milliseconds.", timeoutInMillis)))) {
+                discard(pending);
+            }
+        }, timeoutInMillis, TimeUnit.MILLISECONDS);
+        if (pending.id != NO_ID) pendingById.put(pending.id, pending);
+        pendingByType.get(pending.type).offer(pending);
+        return pending.subject;
+    }
+
+    void discard(Request request) {
+        Pending pending = pendingById.remove(request.getId());
+        if (pending != null && pending.fail(new IllegalStateException("Request was not sent."))) {
+            pendingByType.get(pending.type).remove(pending);
+        }
+    }
+
+    private void discard(Pending pending) {
+        if (pending.id != NO_ID) pendingById.remove(pending.id, pending);
+        pendingByType.get(pending.type).remove(pending);
+    }
+
+    void complete(Response response) {
+        if (response.getId() != NO_ID) {
+            Pending pending = pendingById.remove(response.getId());
+            if (pending != null) {
+                pendingByType.get(pending.type).remove(pending);
+                pending.complete(response);
+                if (!response.is(ResponseType.ERROR)) completeFirst(pendingByType.get(pending.type), response, true);
+                return;
+            }
+        }
+        // Waiters registered with a request are matched by type only if the game does not echo ids.
+        boolean withoutIdOnly = response.getId() != NO_ID;
+        if (response.is(ResponseType.ERROR)) {
+            pendingByType.values().forEach(queue -> completeEach(queue, response, withoutIdOnly));
+        } else {
+            completeFirst(pendingByType.get(response.getType()), response, withoutIdOnly);
+        }
+    }
+
+    private void completeFirst(Queue<Pending> queue, Response response, boolean withoutIdOnly) {
+        Iterator<Pending> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            Pending pending = iterator.next();
+            if (pending.isDone()) {
+                iterator.remove();
+            } else if (!withoutIdOnly || pending.id == NO_ID) {
+                iterator.remove();
+                if (pending.id != NO_ID) pendingById.remove(pending.id, pending);
+                if (pending.complete(response)) return;
+            }
+        }
+    }
+
+    private void completeEach(Queue<Pending> queue, Response response, boolean withoutIdOnly) {
+        Iterator<Pending> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            Pending pending = iterator.next();
+            if (pending.isDone()) {
+                iterator.remove();
+            } else if (!withoutIdOnly || pending.id == NO_ID) {
+                iterator.remove();
+                if (pending.id != NO_ID) pendingById.remove(pending.id, pending);
+                pending.complete(response);
+            }
+        }
+    }
+
+    void completeAll() {
+        pendingById.clear();
+        pendingByType.values().forEach(queue -> {
+            Pending pending;
+            while ((pending = queue.poll()) != null) pending.complete(null);
+        });
+    }
+
+    void failAll(Throwable error) {
+        pendingById.clear();
+        pendingByType.values().forEach(queue -> {
+            Pending pending;
+            while ((pending = queue.poll()) != null) pending.fail(error);
+        });
+    }
+
+    int pendingCount() {
+        return pendingByType.values().stream().mapToInt(queue -> (int) queue.stream().filter(p -> !p.isDone()).count())
+                .sum();
+    }
+
+    // Entries in the queues including those already done, test purposes only.
+    int queuedCount() {
+        return pendingByType.values().stream().mapToInt(Queue::size).sum();
+    }
+
+    private static final class Pending {
+        private final ResponseType type;
+        private final int id;
+        private final MaybeSubject<Response> subject = MaybeSubject.create();
+        private final AtomicBoolean done = new AtomicBoolean(false);
+        private volatile Timeout timeout;
+
+        private Pending(ResponseType type, int id) {
+            this.type = type;
+            this.id = id;
+        }
+
+        private boolean isDone() {
+            return done.get();
+        }
+
+        /**
+         * @param response Response or null if the stream was completed without one.
+         */
+        private boolean complete(Response response) {
+            if (!done.compareAndSet(false, true)) return false;
+            cancelTimeout();
+            if (response != null) {
+                subject.onSuccess(response);
+            } else {
+                subject.onComplete();
+            }
+            return true;
+        }
+
+        private boolean fail(Throwable error) {
+            if (!done.compareAndSet(false, true)) return false;
+            cancelTimeout();
+            subject.onError(error);
+            return true;
+        }
+
+        private void cancelTimeout() {
+            Timeout localTimeout = timeout;
+            if (localTimeout != null) localTimeout.cancel();
+        }
+    }
+}
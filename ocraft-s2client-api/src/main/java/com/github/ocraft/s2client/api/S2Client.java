@@ -35,6 +35,7 @@ import com.github.ocraft.s2client.api.syntax.WithTracerSyntax;
 import com.github.ocraft.s2client.api.vertx.VertxChannelProvider;
 import com.github.ocraft.s2client.protocol.BuilderSyntax;
 import com.github.ocraft.s2client.protocol.RequestSerializer;
+import com.github.ocraft.s2client.protocol.ObservationProjection;
 import com.github.ocraft.s2client.protocol.ResponseParser;
 import com.github.ocraft.s2client.protocol.request.Request;
 import com.github.ocraft.s2client.protocol.response.Response;
@@ -44,7 +45,6 @@ import io.reactivex.BackpressureStrategy;
 import io.reactivex.Flowable;
 import io.reactivex.Maybe;
 import io.reactivex.schedulers.Schedulers;
-import io.reactivex.subjects.MaybeSubject;
 import io.reactivex.subscribers.DefaultSubscriber;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -63,18 +63,23 @@ public class S2Client extends DefaultSubscriber<Response> {
 
     private final Logger log = LoggerFactory.getLogger(S2Client.class);
 
-    private final ChannelProvider channelProvider = new VertxChannelProvider();
+    private final ChannelProvider channelProvider;
     private final Flowable<Response> responseStream;
 
     private final String connectToIp;
     private final Integer connectToPort;
     private final int requestTimeoutInMillis;
     private final int connectTimeoutInMillis;
+    private final boolean sharedRuntime;
+    private final boolean directChannel;
+    private final boolean directResponses;
     private final AtomicBoolean done = new AtomicBoolean(false);
     private final boolean traced;
     private final DataFlowTracer tracer;
     private final Phaser await = new Phaser(1);
     private final S2Controller game;
+    private final ResponseCorrelator pendingResponses;
+    private volatile ResponseParser responseParser = new ResponseParser();
 
     public static class Builder implements S2ClientSyntax, OptionsSyntax, WithTracerSyntax {
 
@@ -83,6 +88,9 @@ public class S2Client extends DefaultSubscriber<Response> {
         private boolean traced = cfg().getBoolean(OcraftApiConfig.CLIENT_TRACED);
         private int requestTimeoutInMillis = cfg().getInt(OcraftApiConfig.CLIENT_NET_SYNCH_REQUEST_TIMEOUT);
         private int connectTimeoutInMillis = cfg().getInt(OcraftApiConfig.CLIENT_NET_CONNECT_TIMEOUT);
+        private boolean sharedRuntime = cfg().getBoolean(OcraftApiConfig.CLIENT_RUNTIME_SHARED);
+        private boolean directChannel = cfg().getBoolean(OcraftApiConfig.CLIENT_RUNTIME_DIRECT_CHANNEL);
+        private boolean directResponses = cfg().getBoolean(OcraftApiConfig.CLIENT_RUNTIME_DIRECT_RESPONSES);
         private S2Controller game;
         private DataFlowTracer tracer = new DataFlowTracer();
         private Runnable onConnectionLost;
@@ -115,6 +123,24 @@ public class S2Client extends DefaultSubscriber<Response> {
             return this;
         }
 
+        @Override
+        public OptionsSyntax sharedRuntime(Boolean sharedRuntime) {
+            if (isSet(sharedRuntime)) this.sharedRuntime = sharedRuntime;
+            return this;
+        }
+
+        @Override
+        public OptionsSyntax directChannel(Boolean directChannel) {
+            if (isSet(directChannel)) this.directChannel = directChannel;
+            return this;
+        }
+
+        @Override
+        public OptionsSyntax directResponses(Boolean directResponses) {
+            if (isSet(directResponses)) this.directResponses = directResponses;
+            return this;
+        }
+
         @Override
         public OptionsSyntax onConnectionLost(Runnable callback) {
             if (isSet(callback)) this.onConnectionLost = callback;
@@ -153,19 +179,28 @@ public class S2Client extends DefaultSubscriber<Response> {
         connectToPort = builder.connectToPort;
         requestTimeoutInMillis = builder.requestTimeoutInMillis;
         connectTimeoutInMillis = builder.connectTimeoutInMillis;
+        sharedRuntime = builder.sharedRuntime;
+        directChannel = builder.directChannel;
+        directResponses = builder.directResponses;
         traced = builder.traced;
         tracer = builder.tracer;
         game = builder.game;
+        pendingResponses = new ResponseCorrelator(requestTimeoutInMillis);
 
         log.info("Starting: {}", this);
 
+        channelProvider = new VertxChannelProvider(sharedRuntime, directChannel);
         Channel channel = channelProvider.getChannel();
         channel.onConnectionLost(builder.onConnectionLost);
-        responseStream = channel.outputStream().mergeWith(channel.errorStream())
+        Flowable<Response> responses = channel.outputStream().mergeWith(channel.errorStream())
                 .map(this::prepareResponse)
                 .toFlowable(BackpressureStrategy.ERROR)
-                .onBackpressureBuffer(cfg().getInt(OcraftApiConfig.CLIENT_BUFFER_SIZE_RESPONSE_BACKPRESSURE))
-                .observeOn(Schedulers.computation(), false, cfg().getInt(CLIENT_BUFFER_SIZE_RESPONSE_STREAM))
+                .onBackpressureBuffer(cfg().getInt(OcraftApiConfig.CLIENT_BUFFER_SIZE_RESPONSE_BACKPRESSURE));
+        if (!directResponses) {
+            responses = responses
+                    .observeOn(Schedulers.computation(), false, cfg().getInt(CLIENT_BUFFER_SIZE_RESPONSE_STREAM));
+        }
+        responseStream = responses
                 .publish()
                 .autoConnect()
                 .doOnSubscribe(s -> await.register())
@@ -184,7 +219,7 @@ public class S2Client extends DefaultSubscriber<Response> {
 
     private Response prepareResponse(byte[] responseBytes) {
         try {
-            Response response = new ResponseParser().apply(responseBytes);
+            Response response = responseParser.apply(responseBytes);
             if (traced) tracer.fire(response);
             return response;
         } catch (IllegalArgumentException e) {
@@ -211,19 +246,35 @@ public class S2Client extends DefaultSubscriber<Response> {
     }
 
     public <T extends Request> Response requestSync(T requestData) {
-        Maybe<Response> responseMaybe = waitForResponse(requestData.responseType());
-        request(requestData);
-        return responseMaybe.blockingGet();
+        return requestAsync(requestData).blockingGet();
     }
 
+    /**
+     * Sends the request and returns the response correlated with it by the request id. The response is empty if the
+     * client was stopped before it came. It fails after the request timeout.
+     */
+    public <T extends Request> Maybe<Response> requestAsync(T requestData) {
+        require("request", requestData);
+        Maybe<Response> responseMaybe = pendingResponses.register(requestData);
+        try {
+            request(requestData);
+        } catch (RuntimeException e) {
+            pendingResponses.discard(requestData);
+            throw e;
+        }
+        return responseMaybe;
+    }
+
+    public <T extends Request> Maybe<Response> requestAsync(BuilderSyntax<T> requestDataBuilder) {
+        return requestAsync(requestDataBuilder.build());
+    }
+
+    /**
+     * Waits for the next response of the given type (or an error). Prefer {@link #requestAsync(Request)} which
+     * correlates the response with the request id.
+     */
     public Maybe<Response> waitForResponse(ResponseType responseType) {
-        MaybeSubject<Response> maybeSubject = MaybeSubject.create();
-        responseStream()
-                .filter(response -> response.is(responseType) || response.is(ResponseType.ERROR))
-                .firstElement()
-                .timeout(requestTimeoutInMillis, TimeUnit.MILLISECONDS)
-                .subscribe(maybeSubject);
-        return maybeSubject;
+        return pendingResponses.register(responseType);
     }
 
     public <T extends Request> Response requestSync(BuilderSyntax<T> requestDataBuilder) {
@@ -277,11 +328,12 @@ public class S2Client extends DefaultSubscriber<Response> {
 
     @Override
     public void onNext(Response response) {
-        // Client is passive, nothing to do here.
+        pendingResponses.complete(response);
     }
 
     @Override
     public void onError(Throwable throwable) {
+        pendingResponses.failAll(throwable);
         if (!(throwable instanceof ResponseParseException)) {
             stop();
         }
@@ -289,6 +341,7 @@ public class S2Client extends DefaultSubscriber<Response> {
 
     @Override
     public void onComplete() {
+        pendingResponses.completeAll();
         stop();
     }
 
@@ -308,10 +361,36 @@ public class S2Client extends DefaultSubscriber<Response> {
         return connectTimeoutInMillis;
     }
 
+    public boolean isSharedRuntime() {
+        return sharedRuntime;
+    }
+
+    public boolean isDirectChannel() {
+        return directChannel;
+    }
+
+    public boolean isDirectResponses() {
+        return directResponses;
+    }
+
     public boolean isTraced() {
         return traced;
     }
 
+    /**
+     * Sets which observation sections are parsed from now on. Sections left out are skipped at the wire level and seen
+     * as absent in received observations.
+     */
+    public S2Client projectObservations(ObservationProjection projection) {
+        require("observation projection", projection);
+        this.responseParser = new ResponseParser(projection);
+        return this;
+    }
+
+    public ObservationProjection getObservationProjection() {
+        return responseParser.getProjection();
+    }
+
     public S2Client untilReady() throws TimeoutException {
         return untilReady(() -> {
         });
@@ -366,8 +445,12 @@ public class S2Client extends DefaultSubscriber<Response> {
                 ", connectToPort=" + connectToPort +
                 ", requestTimeoutInMillis=" + requestTimeoutInMillis +
                 ", connectTimeoutInMillis=" + connectTimeoutInMillis +
+                ", sharedRuntime=" + sharedRuntime +
+                ", directChannel=" + directChannel +
+                ", directResponses=" + directResponses +
                 ", done=" + done +
                 ", traced=" + traced +
+                ", observationProjection=" + getObservationProjection() +
                 '}';
     }
 }
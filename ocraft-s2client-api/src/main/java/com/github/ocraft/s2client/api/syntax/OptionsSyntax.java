@@ -31,5 +31,16 @@ public interface OptionsSyntax extends TracedSyntax {
 
     OptionsSyntax connectTimeout(Integer timeoutInMillis);
 
+    OptionsSyntax sharedRuntime(Boolean sharedRuntime);
+
+    OptionsSyntax directChannel(Boolean directChannel);
+
+    /**
+     * Delivers responses to subscribers (and to threads waiting for them) from the thread that received them, without
+     * the hop to the RxJava computation scheduler. Meant for blocking clients, e.g. one (virtual) thread per agent
+     * waiting for each response. Subscribers of the response stream must not block in this mode.
+     */
+    OptionsSyntax directResponses(Boolean directResponses);
+
     OptionsSyntax onConnectionLost(Runnable callback);
 }
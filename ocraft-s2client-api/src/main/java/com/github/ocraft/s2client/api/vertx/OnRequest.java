@@ -27,6 +27,7 @@ package com.github.ocraft.s2client.api.vertx;
  */
 
 import com.github.ocraft.s2client.api.OcraftApiConfig;
+import io.netty.buffer.Unpooled;
 import io.reactivex.observers.DefaultObserver;
 import io.vertx.reactivex.core.http.WebSocket;
 import org.slf4j.Logger;
@@ -52,11 +53,18 @@ class OnRequest extends DefaultObserver<byte[]> implements ConnectionHandler {
     private final Queue<byte[]> queue = new ConcurrentLinkedQueue<>();
     private final AtomicBoolean connected = new AtomicBoolean(false);
     private final AtomicInteger counter = new AtomicInteger();
+    private final Object sendLock = new Object();
+    private volatile boolean subscribed;
 
     OnRequest(VertxChannel channel) {
         this.channel = channel;
     }
 
+    @Override
+    protected void onStart() {
+        subscribed = true;
+    }
+
     @Override
     public void onComplete() {
         log.debug("OnRequest.onComplete");
@@ -76,7 +84,7 @@ class OnRequest extends DefaultObserver<byte[]> implements ConnectionHandler {
     public void onNext(byte[] msg) {
         log.debug("input stream: received message");
         if (counter.incrementAndGet() > requestQueueMaxSize) {
-            cancel();
+            if (subscribed) cancel();
             onError(new BufferOverflowException());
             return;
         }
@@ -84,12 +92,17 @@ class OnRequest extends DefaultObserver<byte[]> implements ConnectionHandler {
         drain();
     }
 
+    // Requests can arrive on the caller thread (direct channel) while the event loop drains the queue on connect.
+    // Sending one at a time keeps the order of requests, every caller sends what is pending (its own request included)
+    // so the queue only holds requests waiting for the connection.
     private void drain() {
-        while (connected.get() && !queue.isEmpty()) {
-            byte[] msg = queue.poll();
-            counter.decrementAndGet();
-            if (msg != null) {
-                send(msg);
+        synchronized (sendLock) {
+            while (connected.get() && !queue.isEmpty()) {
+                byte[] msg = queue.poll();
+                counter.decrementAndGet();
+                if (msg != null) {
+                    send(msg);
+                }
             }
         }
     }
@@ -97,7 +110,9 @@ class OnRequest extends DefaultObserver<byte[]> implements ConnectionHandler {
     private void send(byte[] msg) {
         WebSocket localWebSocket = this.webSocket;
         if (isSet(localWebSocket) && connected.get()) {
-            localWebSocket.getDelegate().writeBinaryMessage(io.vertx.core.buffer.Buffer.buffer(msg));
+            // Wrapped, not copied: the serialized request is not touched after it is handed to the channel.
+            io.vertx.core.buffer.Buffer frame = io.vertx.core.buffer.Buffer.buffer(Unpooled.wrappedBuffer(msg));
+            localWebSocket.getDelegate().writeBinaryMessage(frame);
         }
     }
 
@@ -26,7 +26,9 @@ package com.github.ocraft.s2client.api.vertx;
  * #L%
  */
 
+import io.netty.buffer.ByteBuf;
 import io.reactivex.observers.DefaultObserver;
+import io.vertx.reactivex.core.buffer.Buffer;
 import io.vertx.reactivex.core.http.WebSocket;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -77,6 +79,18 @@ class OnResponse extends DefaultObserver<byte[]> implements ConnectionHandler {
     @Override
     public void onConnected(WebSocket webSocket) {
         log.debug("Connected");
-        webSocket.toObservable().map(b -> b.getDelegate().getBytes()).subscribe(this);
+        webSocket.toObservable().map(OnResponse::frameBytes).subscribe(this);
+    }
+
+    /**
+     * Vert.x hands over websocket payloads in unpooled heap buffers sized exactly to the frame, so the backing array
+     * can be used as is instead of being copied. Any other kind of buffer is copied.
+     */
+    static byte[] frameBytes(Buffer frame) {
+        ByteBuf buf = frame.getDelegate().getByteBuf();
+        if (buf.hasArray() && buf.arrayOffset() == 0 && buf.array().length == frame.length()) {
+            return buf.array();
+        }
+        return frame.getDelegate().getBytes();
     }
 }
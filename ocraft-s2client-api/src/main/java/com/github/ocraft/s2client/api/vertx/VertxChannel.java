@@ -28,8 +28,10 @@ package com.github.ocraft.s2client.api.vertx;
 
 import com.github.ocraft.s2client.api.Channel;
 import io.reactivex.Observable;
+import io.reactivex.subjects.CompletableSubject;
 import io.reactivex.subjects.PublishSubject;
 import io.reactivex.subjects.Subject;
+import io.vertx.core.eventbus.DeliveryOptions;
 import io.vertx.reactivex.core.eventbus.EventBus;
 import io.vertx.reactivex.core.eventbus.Message;
 import io.vertx.reactivex.core.eventbus.MessageProducer;
@@ -46,14 +48,18 @@ public class VertxChannel implements Channel {
 
     private final Logger log = LoggerFactory.getLogger(VertxChannel.class);
 
-    private static final String OUTPUT_STREAM = "OUTPUT_" + UUID.randomUUID().toString();
-    private static final String INPUT_STREAM = "INPUT_" + UUID.randomUUID().toString();
+    // Addresses are unique per channel because many channels can share one event bus.
+    private final String outputStreamAddress = "OUTPUT_" + UUID.randomUUID().toString();
+    private final String inputStreamAddress = "INPUT_" + UUID.randomUUID().toString();
 
+    private final CompletableSubject closed = CompletableSubject.create();
     private final Observable<byte[]> outputStream;
     private final Observable<byte[]> inputStream;
     private final Subject<byte[]> errorStream = PublishSubject.<byte[]>create().toSerialized();
     private final MessageProducer<byte[]> inputMessageProducer;
     private final MessageProducer<byte[]> outputMessageProducer;
+    private final Subject<byte[]> directInput;
+    private final Subject<byte[]> directOutput;
     private volatile boolean connected;
     private Runnable onConnectionLost;
 
@@ -61,36 +67,67 @@ public class VertxChannel implements Channel {
         return new VertxChannel(eventBus);
     }
 
+    /**
+     * Creates a channel that bypasses the event bus: requests are written to the websocket from the calling thread
+     * and responses are passed to subscribers straight from the event loop that received them.
+     */
+    static VertxChannel direct() {
+        return new VertxChannel();
+    }
+
     private VertxChannel(EventBus eventBus) {
         outputStream = initOutputStream(eventBus);
         inputStream = initInputStream(eventBus);
 
+        DeliveryOptions frameDelivery = new DeliveryOptions().setCodecName(FrameCodec.NAME);
+
         outputMessageProducer = eventBus
-                .<byte[]>publisher(OUTPUT_STREAM)
+                .<byte[]>publisher(outputStreamAddress, frameDelivery)
                 .setWriteQueueMaxSize(cfg().getInt(CLIENT_BUFFER_SIZE_RESPONSE_EVENT_BUS));
 
         inputMessageProducer = eventBus
-                .<byte[]>sender(INPUT_STREAM)
+                .<byte[]>sender(inputStreamAddress, frameDelivery)
                 .setWriteQueueMaxSize(cfg().getInt(CLIENT_BUFFER_SIZE_REQUEST_EVENT_BUS));
+
+        directInput = null;
+        directOutput = null;
+    }
+
+    private VertxChannel() {
+        directInput = PublishSubject.<byte[]>create().toSerialized();
+        directOutput = PublishSubject.<byte[]>create().toSerialized();
+
+        outputStream = directOutput.takeUntil(closed.toObservable()).doOnComplete(errorStream::onComplete);
+        inputStream = directInput.takeUntil(closed.toObservable());
+
+        inputMessageProducer = null;
+        outputMessageProducer = null;
     }
 
     private Observable<byte[]> initOutputStream(EventBus eventBus) {
-        log.debug("registering event bus consumer [{}] for output stream", OUTPUT_STREAM);
+        log.debug("registering event bus consumer [{}] for output stream", outputStreamAddress);
         return eventBus
-                .<byte[]>consumer(OUTPUT_STREAM)
+                .<byte[]>consumer(outputStreamAddress)
                 .toObservable()
                 .map(Message::body)
+                .takeUntil(closed.toObservable())
                 .doOnComplete(errorStream::onComplete);
     }
 
     private Observable<byte[]> initInputStream(EventBus eventBus) {
-        log.debug("registering event bus consumer [{}] for input stream", INPUT_STREAM);
-        return eventBus.<byte[]>consumer(INPUT_STREAM).toObservable().map(Message::body);
+        log.debug("registering event bus consumer [{}] for input stream", inputStreamAddress);
+        return eventBus
+                .<byte[]>consumer(inputStreamAddress)
+                .toObservable()
+                .map(Message::body)
+                .takeUntil(closed.toObservable());
     }
 
     @Override
     public void input(byte[] inputBytes) {
-        if (!inputMessageProducer.writeQueueFull()) {
+        if (isDirect()) {
+            directInput.onNext(inputBytes);
+        } else if (!inputMessageProducer.writeQueueFull()) {
             inputMessageProducer.write(inputBytes);
         } else {
             throw new BufferOverflowException();
@@ -99,7 +136,9 @@ public class VertxChannel implements Channel {
 
     @Override
     public void output(byte[] outputBytes) {
-        if (!outputMessageProducer.writeQueueFull()) {
+        if (isDirect()) {
+            directOutput.onNext(outputBytes);
+        } else if (!outputMessageProducer.writeQueueFull()) {
             outputMessageProducer.write(outputBytes);
         } else {
             throw new BufferOverflowException();
@@ -136,12 +175,24 @@ public class VertxChannel implements Channel {
         this.onConnectionLost = onConnectionLost;
     }
 
+    boolean isDirect() {
+        return isSet(directInput);
+    }
+
     void connected() {
         if (!connected) {
             connected = true;
         }
     }
 
+    /**
+     * Completes the streams and unregisters event bus consumers of this channel. Required when the event bus
+     * outlives the channel (shared runtime) or when there is no event bus at all (direct channel).
+     */
+    void close() {
+        closed.onComplete();
+    }
+
     void disconnected() {
         if (connected) {
             connected = false;
@@ -34,12 +34,39 @@ import io.vertx.reactivex.core.Vertx;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.github.ocraft.s2client.protocol.Preconditions.isSet;
+
 public class VertxChannelProvider implements ChannelProvider {
 
     private Logger log = LoggerFactory.getLogger(VertxChannelProvider.class);
 
-    private final Vertx vertx = VertxFactory.create();
-    private final VertxChannel channel = VertxChannel.from(vertx.eventBus());
+    private final boolean sharedRuntime;
+    private final Vertx vertx;
+    private final VertxChannel channel;
+    private final AtomicBoolean stopped = new AtomicBoolean(false);
+    private final AtomicReference<String> deploymentId = new AtomicReference<>();
+
+    public VertxChannelProvider() {
+        this(false);
+    }
+
+    public VertxChannelProvider(boolean sharedRuntime) {
+        this(sharedRuntime, false);
+    }
+
+    /**
+     * @param sharedRuntime If true the channel is multiplexed on the runtime shared by all clients of this JVM,
+     *                      otherwise the provider starts (and owns) its own runtime.
+     * @param directChannel If true requests and responses bypass the event bus (see {@link VertxChannel#direct()}).
+     */
+    public VertxChannelProvider(boolean sharedRuntime, boolean directChannel) {
+        this.sharedRuntime = sharedRuntime;
+        this.vertx = sharedRuntime ? VertxFactory.acquireShared() : VertxFactory.create();
+        this.channel = directChannel ? VertxChannel.direct() : VertxChannel.from(vertx.eventBus());
+    }
 
     @Override
     public void start(String ip, int port, int connectTimeoutInMillis) {
@@ -51,6 +78,10 @@ public class VertxChannelProvider implements ChannelProvider {
                         Throwable cause = result.cause();
                         log.error("VertxChannelProvider: deploy failure", cause);
                         channel.error(cause);
+                    } else {
+                        deploymentId.set(result.result());
+                        if (stopped.get()) undeploy(() -> {
+                        });
                     }
                 });
     }
@@ -65,11 +96,37 @@ public class VertxChannelProvider implements ChannelProvider {
 
     @Override
     public void stop() {
-        vertx.close();
+        if (!stopped.compareAndSet(false, true)) return;
+        if (sharedRuntime || channel.isDirect()) channel.close();
+        if (sharedRuntime) {
+            boolean lastUser = VertxFactory.releaseShared();
+            undeploy(() -> {
+                if (lastUser) vertx.close();
+            });
+        } else {
+            vertx.close();
+        }
+    }
+
+    private void undeploy(Runnable onUndeployed) {
+        String id = deploymentId.getAndSet(null);
+        if (isSet(id)) {
+            vertx.getDelegate().undeploy(id, result -> {
+                if (result.failed()) log.debug("VertxChannelProvider: undeploy failure", result.cause());
+                onUndeployed.run();
+            });
+        } else {
+            onUndeployed.run();
+        }
     }
 
     @Override
     public Channel getChannel() {
         return channel;
     }
+
+    // test purposes only
+    Vertx vertx() {
+        return vertx;
+    }
 }
@@ -26,18 +26,67 @@ package com.github.ocraft.s2client.api.vertx;
  * #L%
  */
 
+import com.github.ocraft.s2client.api.OcraftApiConfig;
+import io.vertx.core.VertxOptions;
 import io.vertx.reactivex.core.Vertx;
 
+import static com.github.ocraft.s2client.api.OcraftApiConfig.cfg;
+import static com.github.ocraft.s2client.protocol.Preconditions.isSet;
+
 class VertxFactory {
+
+    private static final Object sharedLock = new Object();
+    private static Vertx shared;
+    private static int sharedUsers;
+
     private VertxFactory() {
         throw new AssertionError("private constructor");
     }
 
     static Vertx create() {
+        configureSystemProperties();
+        return registerCodecs(Vertx.vertx());
+    }
+
+    /**
+     * Returns the runtime shared by all channels of this JVM. The runtime has bounded event loop and worker pools
+     * (see {@link OcraftApiConfig#CLIENT_RUNTIME}) and lives as long as at least one user holds it.
+     */
+    static Vertx acquireShared() {
+        synchronized (sharedLock) {
+            if (!isSet(shared)) {
+                configureSystemProperties();
+                shared = registerCodecs(Vertx.vertx(new VertxOptions()
+                        .setEventLoopPoolSize(cfg().getInt(OcraftApiConfig.CLIENT_RUNTIME_EVENT_LOOP_POOL_SIZE))
+                        .setWorkerPoolSize(cfg().getInt(OcraftApiConfig.CLIENT_RUNTIME_WORKER_POOL_SIZE))));
+            }
+            sharedUsers++;
+            return shared;
+        }
+    }
+
+    /**
+     * @return True if the caller was the last user. The runtime is then detached and the caller is responsible for
+     * closing it (after its own cleanup is done).
+     */
+    static boolean releaseShared() {
+        synchronized (sharedLock) {
+            if (sharedUsers > 0 && --sharedUsers == 0) {
+                shared = null;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private static Vertx registerCodecs(Vertx vertx) {
+        vertx.eventBus().getDelegate().registerCodec(new FrameCodec());
+        return vertx;
+    }
+
+    private static void configureSystemProperties() {
         System.setProperty("vertx.logger-delegate-factory-class-name", "io.vertx.core.logging.SLF4JLogDelegateFactory");
         System.setProperty("vertx.disableFileCaching", "true");
-        return Vertx.vertx();
     }
 
-
 }
@@ -0,0 +1,189 @@
+package com.github.ocraft.s2client.api;
+
+/*-
+ * #%L
+ * ocraft-s2client-api
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import SC2APIProtocol.Sc2Api;
+import com.github.ocraft.s2client.protocol.request.Request;
+import com.github.ocraft.s2client.protocol.response.Response;
+import com.github.ocraft.s2client.protocol.response.ResponseError;
+import com.github.ocraft.s2client.protocol.response.ResponseStep;
+import com.github.ocraft.s2client.protocol.response.ResponseType;
+import io.reactivex.Maybe;
+import io.reactivex.observers.TestObserver;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.github.ocraft.s2client.protocol.request.Requests.nextStep;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCorrelatorTest {
+
+    private static final long TIMEOUT_IN_MILLIS = 10000;
+
+    @Test
+    void correlatesResponsesWithRequestsById() {
+        ResponseCorrelator correlator = new ResponseCorrelator(TIMEOUT_IN_MILLIS);
+        Request step01 = nextStep().build();
+        Request step02 = nextStep().build();
+
+        TestObserver<Response> response01 = correlator.register(step01).test();
+        TestObserver<Response> response02 = correlator.register(step02).test();
+
+        Response stepResponse02 = stepResponse(step02.getId());
+        Response stepResponse01 = stepResponse(step01.getId());
+        correlator.complete(stepResponse02);
+        correlator.complete(stepResponse01);
+
+        response01.assertValue(stepResponse01);
+        response02.assertValue(stepResponse02);
+        assertThat(correlator.pendingCount()).as("pending responses").isZero();
+    }
+
+    @Test
+    void releasesWaitersCorrelatedById() {
+        ResponseCorrelator correlator = new ResponseCorrelator(TIMEOUT_IN_MILLIS);
+
+        for (int i = 0; i < 1000; i++) {
+            Request step = nextStep().build();
+            TestObserver<Response> response = correlator.register(step).test();
+            correlator.complete(stepResponse(step.getId()));
+            response.assertValueCount(1);
+        }
+
+        assertThat(correlator.queuedCount()).as("queued waiters").isZero();
+    }
+
+    @Test
+    void completesWaiterWithoutIdWithCorrelatedResponse() {
+        ResponseCorrelator correlator = new ResponseCorrelator(TIMEOUT_IN_MILLIS);
+        Request step = nextStep().build();
+
+        TestObserver<Response> correlated = correlator.register(step).test();
+        TestObserver<Response> byType01 = correlator.register(ResponseType.STEP).test();
+        TestObserver<Response> byType02 = correlator.register(ResponseType.STEP).test();
+        TestObserver<Response> otherType = correlator.register(ResponseType.OBSERVATION).test();
+
+        Response stepResponse = stepResponse(step.getId());
+        correlator.complete(stepResponse);
+
+        correlated.assertValue(stepResponse);
+        byType01.assertValue(stepResponse);
+        byType02.assertEmpty();
+        otherType.assertEmpty();
+        assertThat(correlator.queuedCount()).as("queued waiters").isEqualTo(2);
+    }
+
+    @Test
+    void matchesResponsesByTypeIfIdIsNotEchoed() {
+        ResponseCorrelator correlator = new ResponseCorrelator(TIMEOUT_IN_MILLIS);
+
+        TestObserver<Response> response01 = correlator.register(nextStep().build()).test();
+        TestObserver<Response> response02 = correlator.register(ResponseType.STEP).test();
+
+        Response stepResponse = stepResponse(0);
+        correlator.complete(stepResponse);
+
+        response01.assertValue(stepResponse);
+        response02.assertEmpty();
+        assertThat(correlator.pendingCount()).as("pending responses").isEqualTo(1);
+    }
+
+    @Test
+    void doesNotMatchResponseWithUnknownIdToOtherRequest() {
+        ResponseCorrelator correlator = new ResponseCorrelator(TIMEOUT_IN_MILLIS);
+        Request step = nextStep().build();
+
+        TestObserver<Response> correlated = correlator.register(step).test();
+        TestObserver<Response> byType = correlator.register(ResponseType.STEP).test();
+
+        Response stepResponse = stepResponse(step.getId() + 1000);
+        correlator.complete(stepResponse);
+
+        correlated.assertEmpty();
+        byType.assertValue(stepResponse);
+    }
+
+    @Test
+    void completesWaitersWithErrorResponse() {
+        ResponseCorrelator correlator = new ResponseCorrelator(TIMEOUT_IN_MILLIS);
+        Request step = nextStep().build();
+
+        TestObserver<Response> correlated = correlator.register(step).test();
+        TestObserver<Response> other = correlator.register(nextStep().build()).test();
+        TestObserver<Response> byType = correlator.register(ResponseType.OBSERVATION).test();
+
+        Response correlatedError = errorResponse(step.getId());
+        correlator.complete(correlatedError);
+
+        correlated.assertValue(correlatedError);
+        other.assertEmpty();
+        byType.assertEmpty();
+
+        Response error = errorResponse(0);
+        correlator.complete(error);
+
+        other.assertValue(error);
+        byType.assertValue(error);
+        assertThat(correlator.pendingCount()).as("pending responses").isZero();
+    }
+
+    @Test
+    void failsAfterTimeout() {
+        ResponseCorrelator correlator = new ResponseCorrelator(50);
+
+        Maybe<Response> response = correlator.register(nextStep().build());
+
+        response.test().awaitDone(1, TimeUnit.SECONDS).assertError(TimeoutException.class);
+        assertThat(correlator.pendingCount()).as("pending responses").isZero();
+    }
+
+    @Test
+    void terminatesAllWaitersWhenStreamEnds() {
+        ResponseCorrelator correlator = new ResponseCorrelator(TIMEOUT_IN_MILLIS);
+
+        TestObserver<Response> completed = correlator.register(nextStep().build()).test();
+        correlator.completeAll();
+        TestObserver<Response> failed = correlator.register(ResponseType.STEP).test();
+        correlator.failAll(new IllegalStateException());
+
+        completed.assertComplete().assertNoValues();
+        failed.assertError(IllegalStateException.class);
+    }
+
+    private Response stepResponse(int id) {
+        return ResponseStep.from(Sc2Api.Response.newBuilder()
+                .setStep(Sc2Api.ResponseStep.newBuilder().build())
+                .setId(id)
+                .build());
+    }
+
+    private Response errorResponse(int id) {
+        return ResponseError.from(Sc2Api.Response.newBuilder().addError("error").setId(id).build());
+    }
+}
@@ -29,9 +29,13 @@ package com.github.ocraft.s2client.api;
 import SC2APIProtocol.Sc2Api;
 import com.github.ocraft.s2client.api.test.GameServer;
 import com.github.ocraft.s2client.protocol.request.Requests;
+import com.github.ocraft.s2client.protocol.response.ResponseStep;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
 import static com.github.ocraft.s2client.api.S2Client.starcraft2Client;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
@@ -73,4 +77,48 @@ class S2ClientIT {
         gameServer.stop();
     }
 
+    @Test
+    void exchangesRequestsOverDirectChannel() throws TimeoutException {
+        int port = 6000;
+        GameServer gameServer = GameServer.create(port);
+        gameServer.start().onRequest(
+                Sc2Api.Request::hasStep,
+                () -> Sc2Api.Response.newBuilder().setStep(Sc2Api.ResponseStep.newBuilder().build()).build());
+        S2Client s2Client = starcraft2Client().connectTo("127.0.0.1", port).directChannel(true).start().untilReady();
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(s2Client.requestSync(Requests.nextStep(), ResponseStep.class)).as("step response").isNotNull();
+        }
+
+        s2Client.stop();
+        gameServer.stop();
+    }
+
+    @Test
+    void deliversResponsesFromReceivingThreadInDirectResponsesMode() throws TimeoutException {
+        assertThat(responseThread(false)).as("responses on computation scheduler").startsWith("RxComputation");
+        assertThat(responseThread(true)).as("direct responses").startsWith("vert.x-eventloop");
+    }
+
+    private String responseThread(boolean directResponses) throws TimeoutException {
+        int port = directResponses ? 6001 : 6002;
+        GameServer gameServer = GameServer.create(port);
+        gameServer.start().onRequest(
+                Sc2Api.Request::hasStep,
+                () -> Sc2Api.Response.newBuilder().setStep(Sc2Api.ResponseStep.newBuilder().build()).build());
+        S2Client s2Client = starcraft2Client()
+                .connectTo("127.0.0.1", port)
+                .directResponses(directResponses)
+                .start()
+                .untilReady();
+        AtomicReference<String> responseThread = new AtomicReference<>();
+        s2Client.responseStream().subscribe(response -> responseThread.set(Thread.currentThread().getName()));
+
+        assertThat(s2Client.requestSync(Requests.nextStep(), ResponseStep.class)).as("step response").isNotNull();
+
+        s2Client.stop();
+        gameServer.stop();
+        return responseThread.get();
+    }
+
 }
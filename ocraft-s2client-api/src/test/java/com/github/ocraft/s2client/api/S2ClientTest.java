@@ -120,6 +120,9 @@ class S2ClientTest {
         System.setProperty(OcraftApiConfig.CLIENT_NET_PORT, "1000");
         System.setProperty(OcraftApiConfig.CLIENT_NET_SYNCH_REQUEST_TIMEOUT, "100");
         System.setProperty(OcraftApiConfig.CLIENT_NET_CONNECT_TIMEOUT, "101");
+        System.setProperty(OcraftApiConfig.CLIENT_RUNTIME_SHARED, "true");
+        System.setProperty(OcraftApiConfig.CLIENT_RUNTIME_DIRECT_CHANNEL, "true");
+        System.setProperty(OcraftApiConfig.CLIENT_RUNTIME_DIRECT_RESPONSES, "true");
         refreshConfig();
 
         S2Client s2Client = starcraft2Client().start();
@@ -128,11 +131,17 @@ class S2ClientTest {
         assertThat(s2Client.getConnectToPort()).as("default game port").isEqualTo(1000);
         assertThat(s2Client.getRequestTimeoutInMillis()).as("default synchronous request timeout").isEqualTo(100);
         assertThat(s2Client.getConnectTimeoutInMillis()).as("default connect timeout").isEqualTo(101);
+        assertThat(s2Client.isSharedRuntime()).as("default shared runtime").isTrue();
+        assertThat(s2Client.isDirectChannel()).as("default direct channel").isTrue();
+        assertThat(s2Client.isDirectResponses()).as("default direct responses").isTrue();
 
         System.clearProperty(OcraftApiConfig.CLIENT_NET_IP);
         System.clearProperty(OcraftApiConfig.CLIENT_NET_PORT);
         System.clearProperty(OcraftApiConfig.CLIENT_NET_SYNCH_REQUEST_TIMEOUT);
         System.clearProperty(OcraftApiConfig.CLIENT_NET_CONNECT_TIMEOUT);
+        System.clearProperty(OcraftApiConfig.CLIENT_RUNTIME_SHARED);
+        System.clearProperty(OcraftApiConfig.CLIENT_RUNTIME_DIRECT_CHANNEL);
+        System.clearProperty(OcraftApiConfig.CLIENT_RUNTIME_DIRECT_RESPONSES);
         refreshConfig();
 
         s2Client.stop();
@@ -0,0 +1,93 @@
+package com.github.ocraft.s2client.api.vertx;
+
+/*-
+ * #%L
+ * ocraft-s2client-api
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import com.github.ocraft.s2client.api.OcraftApiConfig;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.reactivex.core.http.WebSocket;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.BufferOverflowException;
+
+import static com.github.ocraft.s2client.api.Configs.refreshConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.*;
+
+class OnRequestTest {
+
+    @BeforeEach
+    void setUp() {
+        System.setProperty(OcraftApiConfig.CLIENT_BUFFER_SIZE_REQUEST_QUEUE, "2");
+        refreshConfig();
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty(OcraftApiConfig.CLIENT_BUFFER_SIZE_REQUEST_QUEUE);
+        refreshConfig();
+    }
+
+    @Test
+    void sendsRequestsQueuedBeforeConnectionInOrder() {
+        OnRequest onRequest = new OnRequest(mock(VertxChannel.class));
+        io.vertx.core.http.WebSocket webSocket = mock(io.vertx.core.http.WebSocket.class);
+
+        onRequest.onNext(new byte[]{1});
+        onRequest.onNext(new byte[]{2});
+        onRequest.onConnected(webSocket(webSocket));
+        onRequest.onNext(new byte[]{3});
+
+        ArgumentCaptor<Buffer> frames = ArgumentCaptor.forClass(Buffer.class);
+        verify(webSocket, times(3)).writeBinaryMessage(frames.capture());
+        assertThat(frames.getAllValues()).extracting(frame -> frame.getByte(0)).containsExactly(
+                (byte) 1, (byte) 2, (byte) 3);
+    }
+
+    @Test
+    void reportsOverflowOfPendingRequestsWithoutSubscription() {
+        VertxChannel channel = mock(VertxChannel.class);
+        OnRequest onRequest = new OnRequest(channel);
+
+        onRequest.onNext(new byte[]{1});
+        onRequest.onNext(new byte[]{2});
+        onRequest.onNext(new byte[]{3});
+
+        verify(channel).error(isA(BufferOverflowException.class));
+    }
+
+    private WebSocket webSocket(io.vertx.core.http.WebSocket delegate) {
+        WebSocket webSocket = mock(WebSocket.class);
+        when(delegate.writeBinaryMessage(any())).thenReturn(delegate);
+        when(webSocket.getDelegate()).thenReturn(delegate);
+        return webSocket;
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.ocraft.s2client.api.vertx;
+
+/*-
+ * #%L
+ * ocraft-s2client-api
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import io.netty.buffer.Unpooled;
+import io.vertx.reactivex.core.buffer.Buffer;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OnResponseTest {
+
+    @Test
+    void usesBackingArrayOfFrameBuffer() {
+        byte[] frame = {1, 2, 3};
+
+        assertThat(OnResponse.frameBytes(Buffer.buffer(Unpooled.wrappedBuffer(frame)))).isSameAs(frame);
+    }
+
+    @Test
+    void copiesFrameIfBufferDoesNotOwnWholeArray() {
+        byte[] bytes = {1, 2, 3, 4};
+
+        byte[] frame = OnResponse.frameBytes(Buffer.buffer(Unpooled.wrappedBuffer(bytes, 1, 2)));
+
+        assertThat(frame).isNotSameAs(bytes).containsExactly(2, 3);
+    }
+
+    @Test
+    void copiesFrameFromDirectBuffer() {
+        byte[] bytes = {1, 2, 3};
+
+        byte[] frame = OnResponse.frameBytes(Buffer.buffer(Unpooled.directBuffer(3).writeBytes(bytes)));
+
+        assertThat(frame).containsExactly(1, 2, 3);
+    }
+}
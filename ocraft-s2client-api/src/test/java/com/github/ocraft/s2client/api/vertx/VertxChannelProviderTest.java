@@ -27,10 +27,13 @@ package com.github.ocraft.s2client.api.vertx;
  */
 
 import io.reactivex.observers.TestObserver;
+import io.vertx.reactivex.core.Vertx;
 import org.junit.jupiter.api.Test;
 
 import java.util.concurrent.TimeUnit;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 class VertxChannelProviderTest {
 
     @Test
@@ -45,5 +48,100 @@ class VertxChannelProviderTest {
         observer.assertError(NullPointerException.class);
     }
 
+    @Test
+    void sharesRuntimeBetweenProviders() {
+        VertxChannelProvider provider01 = new VertxChannelProvider(true);
+        VertxChannelProvider provider02 = new VertxChannelProvider(true);
+        VertxChannelProvider provider03 = new VertxChannelProvider(false);
+
+        assertThat(provider01.vertx()).as("shared runtime").isSameAs(provider02.vertx());
+        assertThat(provider03.vertx()).as("private runtime").isNotSameAs(provider01.vertx());
+        assertThat(provider01.getChannel()).as("channel per provider").isNotSameAs(provider02.getChannel());
+
+        provider01.stop();
+        provider02.stop();
+        provider03.stop();
+    }
+
+    @Test
+    void releasesSharedRuntimeWhenLastProviderStops() {
+        VertxChannelProvider provider01 = new VertxChannelProvider(true);
+        VertxChannelProvider provider02 = new VertxChannelProvider(true);
+        Vertx sharedRuntime = provider01.vertx();
+
+        provider01.stop();
+        provider01.stop();
+        VertxChannelProvider provider03 = new VertxChannelProvider(true);
+        assertThat(provider03.vertx()).as("runtime still in use").isSameAs(sharedRuntime);
+
+        provider02.stop();
+        provider03.stop();
+        VertxChannelProvider provider04 = new VertxChannelProvider(true);
+        assertThat(provider04.vertx()).as("runtime recreated").isNotSameAs(sharedRuntime);
+
+        provider04.stop();
+    }
+
+    @Test
+    void isolatesChannelsOnSharedRuntime() {
+        VertxChannelProvider provider01 = new VertxChannelProvider(true);
+        VertxChannelProvider provider02 = new VertxChannelProvider(true);
+
+        TestObserver<byte[]> observer01 = new TestObserver<>();
+        TestObserver<byte[]> observer02 = new TestObserver<>();
+        provider01.getChannel().outputStream().subscribe(observer01);
+        provider02.getChannel().outputStream().subscribe(observer02);
+
+        provider01.getChannel().output(new byte[]{1});
+        observer01.awaitCount(1);
+
+        observer01.assertValueCount(1);
+        observer02.assertNoValues();
+
+        provider01.stop();
+        observer01.awaitTerminalEvent(1000, TimeUnit.MILLISECONDS);
+        observer01.assertComplete();
+        observer02.assertNotTerminated();
+
+        provider02.stop();
+    }
+
+    @Test
+    void passesFramesThroughEventBusWithoutCopying() {
+        VertxChannelProvider provider = new VertxChannelProvider();
+
+        TestObserver<byte[]> observer = new TestObserver<>();
+        provider.getChannel().outputStream().subscribe(observer);
+
+        byte[] frame = {1, 2, 3};
+        provider.getChannel().output(frame);
+        observer.awaitCount(1);
+
+        assertThat(observer.values().get(0)).isSameAs(frame);
+
+        provider.stop();
+    }
+
+    @Test
+    void passesFramesDirectlyWithoutEventBus() {
+        VertxChannelProvider provider = new VertxChannelProvider(false, true);
+
+        TestObserver<byte[]> output = new TestObserver<>();
+        TestObserver<byte[]> input = new TestObserver<>();
+        provider.getChannel().outputStream().subscribe(output);
+        provider.getChannel().inputStream().subscribe(input);
+
+        byte[] response = {1};
+        byte[] request = {2};
+        provider.getChannel().output(response);
+        provider.getChannel().input(request);
+
+        output.assertValue(response);
+        input.assertValue(request);
+
+        provider.stop();
+        output.assertComplete();
+        input.assertComplete();
+    }
 
 }
@@ -0,0 +1,105 @@
+package com.github.ocraft.s2client.api;
+
+/*-
+ * #%L
+ * ocraft-s2client-benchmark
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import SC2APIProtocol.Sc2Api;
+import com.github.ocraft.s2client.api.test.GameServer;
+import com.github.ocraft.s2client.protocol.response.Response;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.github.ocraft.s2client.api.S2Client.starcraft2Client;
+import static com.github.ocraft.s2client.protocol.request.Requests.nextStep;
+
+/**
+ * Request/response round trip against the local game server, with frames routed through the event bus and with the
+ * direct channel.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Fork(value = 1, warmups = 1)
+@Threads(1)
+public class RoundTripBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Context {
+
+        private static final String GAME_SERVER_IP = "127.0.0.1";
+        private static final int GAME_SERVER_PORT = 5002;
+
+        @Param({"false", "true"})
+        private boolean directChannel;
+
+        private GameServer gameServer;
+        private S2Client s2Client;
+
+        @Setup(Level.Trial)
+        public void doSetup() throws TimeoutException {
+            gameServer = GameServer.create(GAME_SERVER_PORT)
+                    .onRequest(Sc2Api.Request::hasStep, () -> Sc2Api.Response.newBuilder()
+                            .setStep(Sc2Api.ResponseStep.newBuilder().build())
+                            .setStatus(Sc2Api.Status.in_game)
+                            .build())
+                    .start();
+
+            s2Client = starcraft2Client()
+                    .connectTo(GAME_SERVER_IP, GAME_SERVER_PORT)
+                    .directChannel(directChannel)
+                    .traced(false)
+                    .start()
+                    .untilReady();
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() {
+            s2Client.stop();
+            gameServer.stop();
+        }
+    }
+
+    @Benchmark
+    public Response step(Context ctx) {
+        return ctx.s2Client.requestAsync(nextStep()).blockingGet();
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        Options options = new OptionsBuilder()
+                .include(RoundTripBenchmark.class.getSimpleName())
+                .shouldFailOnError(true).shouldDoGC(true).build();
+
+        new Runner(options).run();
+
+        System.exit(1);
+    }
+}
@@ -0,0 +1,128 @@
+package com.github.ocraft.s2client.api;
+
+/*-
+ * #%L
+ * ocraft-s2client-benchmark
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import SC2APIProtocol.Sc2Api;
+import com.github.ocraft.s2client.api.test.GameServer;
+import com.github.ocraft.s2client.protocol.response.Response;
+import com.github.ocraft.s2client.protocol.response.ResponseType;
+import io.reactivex.Maybe;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.github.ocraft.s2client.api.S2Client.starcraft2Client;
+import static com.github.ocraft.s2client.protocol.request.Requests.nextStep;
+
+/**
+ * Step latency of many concurrent clients connected to the local game server, with private (one runtime per client)
+ * and shared runtimes. The live thread count of the JVM is reported as an auxiliary counter.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Fork(value = 1, warmups = 1)
+@Threads(1)
+public class SharedRuntimeBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Context {
+
+        private static final String GAME_SERVER_IP = "127.0.0.1";
+        private static final int GAME_SERVER_PORT = 5001;
+
+        @Param({"1", "8", "32", "64"})
+        private int clients;
+
+        @Param({"false", "true"})
+        private boolean sharedRuntime;
+
+        private GameServer gameServer;
+        private List<S2Client> s2Clients;
+
+        @Setup(Level.Trial)
+        public void doSetup() throws TimeoutException {
+            gameServer = GameServer.create(GAME_SERVER_PORT)
+                    .onRequest(Sc2Api.Request::hasStep, () -> Sc2Api.Response.newBuilder()
+                            .setStep(Sc2Api.ResponseStep.newBuilder().build())
+                            .setStatus(Sc2Api.Status.in_game)
+                            .build())
+                    .start();
+
+            s2Clients = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                s2Clients.add(starcraft2Client()
+                        .connectTo(GAME_SERVER_IP, GAME_SERVER_PORT)
+                        .sharedRuntime(sharedRuntime)
+                        .traced(false)
+                        .start()
+                        .untilReady());
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() {
+            s2Clients.forEach(S2Client::stop);
+            gameServer.stop();
+        }
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class ThreadCounter {
+        public int liveThreads;
+    }
+
+    @Benchmark
+    public void stepAllClients(Context ctx, ThreadCounter threadCounter) {
+        List<Maybe<Response>> steps = new ArrayList<>(ctx.s2Clients.size());
+        for (S2Client s2Client : ctx.s2Clients) {
+            steps.add(s2Client.waitForResponse(ResponseType.STEP));
+            s2Client.request(nextStep());
+        }
+        steps.forEach(Maybe::blockingGet);
+        threadCounter.liveThreads = ManagementFactory.getThreadMXBean().getThreadCount();
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        Options options = new OptionsBuilder()
+                .include(SharedRuntimeBenchmark.class.getSimpleName())
+                .shouldFailOnError(true).shouldDoGC(true).build();
+
+        new Runner(options).run();
+
+        System.exit(1);
+    }
+}
@@ -0,0 +1,113 @@
+package com.github.ocraft.s2client.api.vertx;
+
+/*-
+ * #%L
+ * ocraft-s2client-benchmark
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import SC2APIProtocol.Common;
+import SC2APIProtocol.Sc2Api;
+import SC2APIProtocol.Spatial;
+import com.github.ocraft.s2client.bot.Fixtures;
+import com.github.ocraft.s2client.protocol.ResponseParser;
+import com.github.ocraft.s2client.protocol.response.Response;
+import com.github.ocraft.s2client.protocol.response.ResponseConverter;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import io.netty.buffer.Unpooled;
+import io.vertx.reactivex.core.buffer.Buffer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Path of an observation frame with render data from the websocket buffer to the parsed response: the copying path
+ * (frame copied out of the buffer, copied again by the default event bus codec and once more by the protobuf parser)
+ * versus the zero-copy path. Run with the GC profiler to compare allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Fork(value = 1, warmups = 1)
+@Threads(1)
+public class InboundFrameBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Context {
+
+        @Param({"64", "256", "1024"})
+        private int resolution;
+
+        private Buffer frame;
+        private FrameCodec codec = new FrameCodec();
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            byte[] pixels = new byte[resolution * resolution * 3];
+            new Random(1).nextBytes(pixels);
+            Common.ImageData image = Common.ImageData.newBuilder()
+                    .setBitsPerPixel(24)
+                    .setSize(Common.Size2DI.newBuilder().setX(resolution).setY(resolution))
+                    .setData(ByteString.copyFrom(pixels))
+                    .build();
+
+            Sc2Api.Response.Builder response = Fixtures.sc2ApiResponseWithObservation().toBuilder();
+            response.getObservationBuilder().getObservationBuilder()
+                    .setRenderData(Spatial.ObservationRender.newBuilder().setMap(image).setMinimap(image));
+
+            frame = Buffer.buffer(Unpooled.wrappedBuffer(response.build().toByteArray()));
+        }
+    }
+
+    @Benchmark
+    public Response copyingFramePath(Context ctx) throws InvalidProtocolBufferException {
+        byte[] frameBytes = ctx.frame.getDelegate().getBytes();
+        byte[] delivered = Arrays.copyOf(frameBytes, frameBytes.length);
+        return new ResponseConverter().apply(Sc2Api.Response.parseFrom(delivered));
+    }
+
+    @Benchmark
+    public Response zeroCopyFramePath(Context ctx) {
+        byte[] delivered = ctx.codec.transform(OnResponse.frameBytes(ctx.frame));
+        return new ResponseParser().apply(delivered);
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        Options options = new OptionsBuilder()
+                .include(InboundFrameBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .shouldFailOnError(true).shouldDoGC(true).build();
+
+        new Runner(options).run();
+
+        System.exit(1);
+    }
+}
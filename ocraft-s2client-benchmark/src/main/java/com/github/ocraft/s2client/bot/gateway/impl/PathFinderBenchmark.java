@@ -0,0 +1,140 @@
+package com.github.ocraft.s2client.bot.gateway.impl;
+
+/*-
+ * #%L
+ * ocraft-s2client-benchmark
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import SC2APIProtocol.Common;
+import com.github.ocraft.s2client.protocol.observation.spatial.BitGrid;
+import com.github.ocraft.s2client.protocol.observation.spatial.ImageData;
+import com.github.ocraft.s2client.protocol.spatial.Point2d;
+import com.google.protobuf.ByteString;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Random;
+
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 5)
+@Fork(value = 1, warmups = 1)
+@Threads(1)
+public class PathFinderBenchmark {
+
+    private static final int STRUCTURE_COUNT = 50;
+
+    @State(Scope.Benchmark)
+    public static class Map {
+        @Param({"128", "200"})
+        private int size;
+
+        private PathFinder pathFinder;
+        private int[] pathableCells;
+        private final Random random = new Random(1);
+
+        // Open ground with walls and chokes, like a simplified melee map.
+        @Setup
+        public void setup() {
+            byte[] data = new byte[size * size];
+            for (int i = 0; i < data.length; i++) data[i] = (byte) 255;
+            for (int wall = 0; wall < size / 8; wall++) {
+                int x = random.nextInt(size);
+                int y = random.nextInt(size);
+                boolean horizontal = random.nextBoolean();
+                int length = size / 8 + random.nextInt(size / 4);
+                for (int i = 0; i < length; i++) {
+                    for (int thickness = 0; thickness < 2; thickness++) {
+                        int wx = horizontal ? x + i : x + thickness;
+                        int wy = horizontal ? y + thickness : y + i;
+                        if (wx < size && wy < size) data[wx + wy * size] = 0;
+                    }
+                }
+            }
+            BitGrid grid = BitGrid.from(ImageData.from(Common.ImageData.newBuilder()
+                    .setBitsPerPixel(8)
+                    .setSize(Common.Size2DI.newBuilder().setX(size).setY(size))
+                    .setData(ByteString.copyFrom(data))
+                    .build()), ImageData.Origin.BOTTOM_LEFT, value -> value != 0);
+            pathFinder = new PathFinder(grid);
+            pathableCells = new int[grid.count()];
+            int cell = 0;
+            for (int y = 0; y < size; y++) {
+                for (int x = 0; x < size; x++) {
+                    if (grid.get(x, y)) pathableCells[cell++] = x + y * size;
+                }
+            }
+        }
+
+        Point2d pathablePoint() {
+            int cell = pathableCells[random.nextInt(pathableCells.length)];
+            return Point2d.of(cell % size + 0.5f, cell / size + 0.5f);
+        }
+    }
+
+    @Benchmark
+    public float straightLineDistance(Map map) {
+        return (float) map.pathablePoint().distance(map.pathablePoint());
+    }
+
+    @Benchmark
+    public float pathingDistance(Map map) {
+        Point2d start = map.pathablePoint();
+        Point2d end = map.pathablePoint();
+        return map.pathFinder.distance(start.getX(), start.getY(), end.getX(), end.getY());
+    }
+
+    @Benchmark
+    public List<Point2d> path(Map map) {
+        Point2d start = map.pathablePoint();
+        Point2d end = map.pathablePoint();
+        return map.pathFinder.path(start.getX(), start.getY(), end.getX(), end.getY());
+    }
+
+    // Per game loop cost of applying structure footprints before the first query.
+    @Benchmark
+    public float blockStructuresAndPathingDistance(Map map) {
+        map.pathFinder.clearBlocked();
+        for (int i = 0; i < STRUCTURE_COUNT; i++) {
+            Point2d position = map.pathablePoint();
+            map.pathFinder.block(position.getX(), position.getY(), 2 + i % 4);
+        }
+        Point2d start = map.pathablePoint();
+        Point2d end = map.pathablePoint();
+        return map.pathFinder.distance(start.getX(), start.getY(), end.getX(), end.getY());
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        Options options = new OptionsBuilder()
+                .include(PathFinderBenchmark.class.getSimpleName())
+                .shouldFailOnError(true).shouldDoGC(true).build();
+
+        new Runner(options).run();
+
+        System.exit(1);
+    }
+}
@@ -0,0 +1,153 @@
+package com.github.ocraft.s2client.bot.gateway.impl;
+
+/*-
+ * #%L
+ * ocraft-s2client-benchmark
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import SC2APIProtocol.Raw;
+import com.github.ocraft.s2client.bot.Fixtures;
+import com.github.ocraft.s2client.bot.gateway.UnitInPool;
+import com.github.ocraft.s2client.protocol.spatial.Point;
+import com.github.ocraft.s2client.protocol.unit.Alliance;
+import com.github.ocraft.s2client.protocol.unit.Tag;
+import com.github.ocraft.s2client.protocol.unit.Unit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 5)
+@Fork(value = 1, warmups = 1)
+@Threads(1)
+public class UnitGridBenchmark {
+
+    private static final float RADIUS = 10.0f;
+    private static final Predicate<UnitInPool> ENEMY = unitInPool -> unitInPool.unit().getAlliance() == Alliance.ENEMY;
+
+    @State(Scope.Benchmark)
+    public static class Context {
+        @Param({"200", "500", "1000"})
+        private int unitCount;
+
+        private final UnitGrid grid = new UnitGrid();
+        private final List<UnitInPool> units = new ArrayList<>();
+        private final Random random = new Random(1);
+
+        @Setup
+        public void setup() {
+            for (int i = 0; i < unitCount; i++) {
+                UnitInPool unitInPool = new UnitInPool(Tag.of(Fixtures.UNIT_TAG + i)).update(Unit.from(
+                        Fixtures.sc2ApiUnit().toBuilder()
+                                .setTag(Fixtures.UNIT_TAG + i)
+                                .setAlliance(i % 2 == 0 ? Raw.Alliance.Enemy : Raw.Alliance.Self)
+                                .setPos(Fixtures.sc2ApiUnit().getPos().toBuilder()
+                                        .setX(random.nextFloat() * 200)
+                                        .setY(random.nextFloat() * 200))
+                                .build()));
+                units.add(unitInPool);
+                grid.put(unitInPool);
+            }
+        }
+
+        float coordinate() {
+            return random.nextFloat() * 200;
+        }
+    }
+
+    @Benchmark
+    public List<UnitInPool> unitsInRadiusByLinearScan(Context ctx) {
+        float x = ctx.coordinate();
+        float y = ctx.coordinate();
+        DistanceFilter inRadius = new DistanceFilter(x, y, RADIUS);
+        List<UnitInPool> found = new ArrayList<>();
+        for (UnitInPool unitInPool : ctx.units) {
+            if (ENEMY.test(unitInPool) && inRadius.test(unitInPool)) found.add(unitInPool);
+        }
+        return found;
+    }
+
+    @Benchmark
+    public List<UnitInPool> unitsInRadiusByGrid(Context ctx) {
+        return ctx.grid.getUnitsInRadius(ctx.coordinate(), ctx.coordinate(), RADIUS, ENEMY);
+    }
+
+    @Benchmark
+    public List<UnitInPool> nearestUnitsBySorting(Context ctx) {
+        DistanceFilter from = new DistanceFilter(ctx.coordinate(), ctx.coordinate(), 0);
+        return ctx.units.stream()
+                .filter(ENEMY)
+                .sorted(Comparator.comparingDouble(from::distanceSquared))
+                .limit(5)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<UnitInPool> nearestUnitsByGrid(Context ctx) {
+        return ctx.grid.getNearestUnits(ctx.coordinate(), ctx.coordinate(), 5, ENEMY);
+    }
+
+    private static final class DistanceFilter implements Predicate<UnitInPool> {
+        private final float x;
+        private final float y;
+        private final float radiusSquared;
+
+        private DistanceFilter(float x, float y, float radius) {
+            this.x = x;
+            this.y = y;
+            this.radiusSquared = radius * radius;
+        }
+
+        private float distanceSquared(UnitInPool unitInPool) {
+            Point position = unitInPool.unit().getPosition();
+            float dx = position.getX() - x;
+            float dy = position.getY() - y;
+            return dx * dx + dy * dy;
+        }
+
+        @Override
+        public boolean test(UnitInPool unitInPool) {
+            return distanceSquared(unitInPool) <= radiusSquared;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        Options options = new OptionsBuilder()
+                .include(UnitGridBenchmark.class.getSimpleName())
+                .shouldFailOnError(true).shouldDoGC(true).build();
+
+        new Runner(options).run();
+
+        System.exit(1);
+    }
+}
@@ -26,24 +26,97 @@ package com.github.ocraft.s2client.protocol;
  * #L%
  */
 
+import SC2APIProtocol.Common;
 import com.github.ocraft.s2client.bot.Fixtures;
+import com.github.ocraft.s2client.protocol.observation.spatial.BitGrid;
 import com.github.ocraft.s2client.protocol.observation.spatial.ImageData;
+import com.github.ocraft.s2client.protocol.spatial.Point2d;
+import com.google.protobuf.ByteString;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
 
+import java.util.Random;
+
 @BenchmarkMode(Mode.Throughput)
 @Warmup(iterations = 5)
 @Fork(value = 1, warmups = 1)
 @Threads(1)
 public class ImageDataBenchmark {
 
+    @State(Scope.Benchmark)
+    public static class Layer {
+        @Param({"64", "256"})
+        private int size;
+
+        @Param({"1", "8"})
+        private int bitsPerPixel;
+
+        private ImageData imageData;
+        private byte[] bytes;
+        private int[] ints;
+        private float[] floats;
+
+        @Setup
+        public void setup() {
+            byte[] data = new byte[size * size * bitsPerPixel / 8];
+            new Random(1).nextBytes(data);
+            imageData = ImageData.from(Common.ImageData.newBuilder()
+                    .setBitsPerPixel(bitsPerPixel)
+                    .setSize(Common.Size2DI.newBuilder().setX(size).setY(size))
+                    .setData(ByteString.copyFrom(data))
+                    .build());
+            bytes = new byte[size * size];
+            ints = new int[size * size];
+            floats = new float[size * size];
+        }
+    }
+
     @Benchmark
     public ImageData deserializeImageData() {
         return ImageData.from(Fixtures.sc2ApiImageData());
     }
 
+    @Benchmark
+    public byte[] copyData(Layer layer) {
+        return layer.imageData.getData();
+    }
+
+    @Benchmark
+    public int sampleAllPixels(Layer layer) {
+        int sum = 0;
+        for (int y = 0; y < layer.size; y++) {
+            for (int x = 0; x < layer.size; x++) {
+                sum += layer.imageData.sample(Point2d.of(x, y), ImageData.Origin.UPPER_LEFT);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public byte[] unpackBytes(Layer layer) {
+        layer.imageData.unpack(layer.bytes, ImageData.Origin.UPPER_LEFT);
+        return layer.bytes;
+    }
+
+    @Benchmark
+    public int[] unpackInts(Layer layer) {
+        layer.imageData.unpack(layer.ints, ImageData.Origin.UPPER_LEFT);
+        return layer.ints;
+    }
+
+    @Benchmark
+    public float[] unpackNormalized(Layer layer) {
+        layer.imageData.unpackNormalized(layer.floats, ImageData.Origin.UPPER_LEFT);
+        return layer.floats;
+    }
+
+    @Benchmark
+    public BitGrid decodeBitGrid(Layer layer) {
+        return BitGrid.from(layer.imageData, ImageData.Origin.UPPER_LEFT, value -> value > 0);
+    }
+
     public static void main(String[] args) throws Exception {
 
         Options options = new OptionsBuilder()
@@ -26,15 +26,33 @@ package com.github.ocraft.s2client.protocol;
  * #L%
  */
 
+import SC2APIProtocol.Sc2Api;
+import com.github.ocraft.s2client.protocol.data.Abilities;
 import com.github.ocraft.s2client.protocol.game.BattlenetMap;
 import com.github.ocraft.s2client.protocol.game.Difficulty;
+import com.github.ocraft.s2client.protocol.request.Request;
+import com.github.ocraft.s2client.protocol.request.RequestAction;
 import com.github.ocraft.s2client.protocol.request.RequestCreateGame;
+import com.github.ocraft.s2client.protocol.request.RequestObservation;
+import com.github.ocraft.s2client.protocol.request.RequestStep;
+import com.github.ocraft.s2client.protocol.spatial.Point2d;
+import com.github.ocraft.s2client.protocol.syntax.action.ActionBuilder;
+import com.github.ocraft.s2client.protocol.unit.Tag;
 import org.openjdk.jmh.annotations.*;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.stream.IntStream;
+
+import static com.github.ocraft.s2client.protocol.action.Action.action;
+import static com.github.ocraft.s2client.protocol.action.raw.ActionRawUnitCommand.unitCommand;
 import static com.github.ocraft.s2client.protocol.game.ComputerPlayerSetup.computer;
 import static com.github.ocraft.s2client.protocol.game.PlayerSetup.participant;
 import static com.github.ocraft.s2client.protocol.game.Race.PROTOSS;
+import static com.github.ocraft.s2client.protocol.request.Requests.actions;
 import static com.github.ocraft.s2client.protocol.request.Requests.createGame;
+import static com.github.ocraft.s2client.protocol.request.Requests.nextStep;
+import static com.github.ocraft.s2client.protocol.request.Requests.observation;
 
 @BenchmarkMode(Mode.Throughput)
 @Warmup(iterations = 10)
@@ -42,6 +60,8 @@ import static com.github.ocraft.s2client.protocol.request.Requests.createGame;
 @Threads(10)
 public class RequestSerializerBenchmark {
 
+    private static final int ACTION_BATCH_SIZE = 200;
+
     @State(Scope.Benchmark)
     public static class Context {
         private RequestCreateGame request = createGame()
@@ -49,6 +69,14 @@ public class RequestSerializerBenchmark {
                 .withPlayerSetup(participant(), computer(PROTOSS, Difficulty.MEDIUM))
                 .disableFog()
                 .build();
+        private RequestStep step = nextStep().build();
+        private RequestObservation observation = observation().build();
+        private RequestAction actions = actions().of(IntStream.range(0, ACTION_BATCH_SIZE)
+                .mapToObj(i -> action().raw(unitCommand()
+                        .forUnits(Tag.from((long) i))
+                        .useAbility(Abilities.ATTACK)
+                        .target(Point2d.of(i % 100, i / 100f))))
+                .toArray(ActionBuilder[]::new)).build();
     }
 
     @Benchmark
@@ -56,4 +84,42 @@ public class RequestSerializerBenchmark {
         return new RequestSerializer().apply(ctx.request);
     }
 
+    @Benchmark
+    public byte[] serializeStepFromTemplate(Context ctx) {
+        return new RequestSerializer().apply(ctx.step);
+    }
+
+    @Benchmark
+    public byte[] serializeObservationFromTemplate(Context ctx) {
+        return new RequestSerializer().apply(ctx.observation);
+    }
+
+    @Benchmark
+    public byte[] serializeStepWithoutTemplate(Context ctx) throws IOException {
+        return serializeWithBuilderCopy(ctx.step);
+    }
+
+    @Benchmark
+    public byte[] serializeObservationWithoutTemplate(Context ctx) throws IOException {
+        return serializeWithBuilderCopy(ctx.observation);
+    }
+
+    @Benchmark
+    public byte[] serializeActionBatch(Context ctx) {
+        return new RequestSerializer().apply(ctx.actions);
+    }
+
+    @Benchmark
+    public byte[] serializeActionBatchWithBuilderCopy(Context ctx) throws IOException {
+        return serializeWithBuilderCopy(ctx.actions);
+    }
+
+    // Serialization path used before request templates and direct writes to CodedOutputStream were introduced.
+    private byte[] serializeWithBuilderCopy(Request request) throws IOException {
+        Sc2Api.Request sc2ApiRequest = request.toSc2Api().toBuilder().setId(request.getId()).build();
+        ByteArrayOutputStream output = new ByteArrayOutputStream(sc2ApiRequest.getSerializedSize());
+        sc2ApiRequest.writeTo(output);
+        return output.toByteArray();
+    }
+
 }
@@ -0,0 +1,132 @@
+package com.github.ocraft.s2client.protocol;
+
+/*-
+ * #%L
+ * ocraft-s2client-benchmark
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import SC2APIProtocol.Raw;
+import SC2APIProtocol.Sc2Api;
+import com.github.ocraft.s2client.bot.Fixtures;
+import com.github.ocraft.s2client.protocol.observation.Observation;
+import com.github.ocraft.s2client.protocol.observation.ObservationSection;
+import com.github.ocraft.s2client.protocol.observation.raw.ObservationRaw;
+import com.github.ocraft.s2client.protocol.response.ResponseObservation;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.stream.IntStream;
+
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 5)
+@Fork(value = 1, warmups = 1)
+@Threads(1)
+public class ResponseObservationBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Context {
+        @Param({"200", "500", "1000"})
+        private int unitCount;
+
+        private byte[] response;
+        private ObservationProjection scoreOnly = ObservationProjection.of(ObservationSection.SCORE);
+
+        @Setup
+        public void setup() {
+            Raw.ObservationRaw.Builder raw = Fixtures.sc2ApiObservationRaw().toBuilder().clearUnits();
+            IntStream.range(0, unitCount).forEach(i -> raw.addUnits(Fixtures.sc2ApiUnit().toBuilder()
+                    .setTag(Fixtures.UNIT_TAG + i)
+                    .setPos(Fixtures.sc2ApiUnit().getPos().toBuilder().setX(i % 100).setY(i / 100f))));
+
+            Sc2Api.ResponseObservation.Builder observation = Fixtures.sc2ApiResponseObservation().toBuilder();
+            observation.setObservation(observation.getObservation().toBuilder().setRawData(raw));
+            response = Fixtures.sc2ApiResponseWithObservation().toBuilder()
+                    .setObservation(observation)
+                    .build()
+                    .toByteArray();
+        }
+    }
+
+    @Benchmark
+    public ResponseObservation parseObservation(Context ctx) {
+        return (ResponseObservation) new ResponseParser().apply(ctx.response);
+    }
+
+    @Benchmark
+    public void parseObservationAndReadUnits(Context ctx, Blackhole blackhole) {
+        ResponseObservation response = (ResponseObservation) new ResponseParser().apply(ctx.response);
+        blackhole.consume(response.getObservation().getRaw().map(ObservationRaw::getUnits));
+    }
+
+    @Benchmark
+    public void parseScoreOnly(Context ctx, Blackhole blackhole) {
+        ResponseObservation response = (ResponseObservation) new ResponseParser(ctx.scoreOnly).apply(ctx.response);
+        blackhole.consume(response.getObservation().getScore());
+        blackhole.consume(response.getObservation().getPlayerCommon());
+    }
+
+    @Benchmark
+    public void parseAllAndReadScore(Context ctx, Blackhole blackhole) {
+        ResponseObservation response = (ResponseObservation) new ResponseParser().apply(ctx.response);
+        blackhole.consume(response.getObservation().getScore());
+        blackhole.consume(response.getObservation().getPlayerCommon());
+    }
+
+    @Benchmark
+    public void parseObservationAndReadAllSections(Context ctx, Blackhole blackhole) {
+        ResponseObservation response = (ResponseObservation) new ResponseParser().apply(ctx.response);
+        blackhole.consume(response.getActions());
+        blackhole.consume(response.getActionErrors());
+        blackhole.consume(response.getPlayerResults());
+        blackhole.consume(response.getChat());
+
+        Observation observation = response.getObservation();
+        blackhole.consume(observation.getAlerts());
+        blackhole.consume(observation.getAvailableAbilities());
+        blackhole.consume(observation.getScore());
+        blackhole.consume(observation.getFeatureLayer());
+        blackhole.consume(observation.getRender());
+        blackhole.consume(observation.getUi());
+        observation.getRaw().ifPresent(raw -> {
+            blackhole.consume(raw.getUnits());
+            blackhole.consume(raw.getUnitSnapshots());
+            blackhole.consume(raw.getEvent());
+            blackhole.consume(raw.getEffects());
+        });
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        Options options = new OptionsBuilder()
+                .include(ResponseObservationBenchmark.class.getSimpleName())
+                .shouldFailOnError(true).shouldDoGC(true).build();
+
+        new Runner(options).run();
+
+        System.exit(1);
+    }
+}
@@ -0,0 +1,112 @@
+package com.github.ocraft.s2client.protocol.data;
+
+/*-
+ * #%L
+ * ocraft-s2client-benchmark
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import SC2APIProtocol.Data;
+import SC2APIProtocol.Raw;
+import com.github.ocraft.s2client.bot.Fixtures;
+import com.github.ocraft.s2client.protocol.unit.Unit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 5)
+@Fork(value = 1, warmups = 1)
+@Threads(1)
+public class AbilityRemapBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Context {
+        @Param({"500"})
+        private int unitCount;
+
+        private List<Raw.Unit> units;
+        private Map<Ability, AbilityData> abilityData;
+        private AbilityRemap abilityRemap;
+
+        @Setup
+        public void setup() {
+            // Data of every ability known to the library, the order ability remaps to a generic one.
+            units = IntStream.range(0, unitCount)
+                    .mapToObj(i -> Fixtures.sc2ApiUnit().toBuilder().setTag(Fixtures.UNIT_TAG + i).build())
+                    .collect(Collectors.toList());
+            abilityData = Arrays.stream(Abilities.values())
+                    .map(ability -> {
+                        Data.AbilityData.Builder data = Data.AbilityData.newBuilder()
+                                .setAbilityId(ability.getAbilityId())
+                                .setLinkName(ability.name())
+                                .setLinkIndex(0);
+                        if (ability.getAbilityId() == Fixtures.PSI_STORM_ABILITY_ID) {
+                            data.setRemapsToAbilityId(Abilities.ATTACK.getAbilityId());
+                        }
+                        return AbilityData.from(data.build());
+                    })
+                    .collect(Collectors.toMap(AbilityData::getAbility, Function.identity()));
+            abilityRemap = AbilityRemap.from(abilityData.values());
+        }
+
+        private Ability generalize(Ability ability) {
+            if (!abilityData.containsKey(ability)) return ability;
+            return abilityData.get(ability).getRemapsToAbility().filter(Ability::isKnown).orElse(ability);
+        }
+    }
+
+    @Benchmark
+    public List<Unit> decodeAndGeneralizeWithAbilityData(Context ctx) {
+        return ctx.units.stream()
+                .map(Unit::from)
+                .map(unit -> unit.generalizeAbility(ctx::generalize))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Unit> decodeGeneralizedWithAbilityRemap(Context ctx) {
+        return ctx.units.stream()
+                .map(unit -> Unit.from(unit, ctx.abilityRemap))
+                .collect(Collectors.toList());
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        Options options = new OptionsBuilder()
+                .include(AbilityRemapBenchmark.class.getSimpleName())
+                .shouldFailOnError(true).shouldDoGC(true).build();
+
+        new Runner(options).run();
+
+        System.exit(1);
+    }
+}
@@ -0,0 +1,118 @@
+package com.github.ocraft.s2client.protocol.observation.raw;
+
+/*-
+ * #%L
+ * ocraft-s2client-benchmark
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import SC2APIProtocol.Raw;
+import com.github.ocraft.s2client.bot.Fixtures;
+import com.github.ocraft.s2client.protocol.unit.Alliance;
+import com.github.ocraft.s2client.protocol.unit.Unit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.stream.IntStream;
+
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 5)
+@Fork(value = 1, warmups = 1)
+@Threads(1)
+public class UnitColumnsBenchmark {
+
+    private static final float RANGE_SQUARED = 15 * 15;
+
+    @State(Scope.Benchmark)
+    public static class Context {
+        @Param({"200", "500", "1000"})
+        private int unitCount;
+
+        private Raw.ObservationRaw sc2ApiObservationRaw;
+        private ObservationRaw observationRaw;
+
+        @Setup
+        public void setup() {
+            Raw.ObservationRaw.Builder raw = Fixtures.sc2ApiObservationRaw().toBuilder().clearUnits();
+            IntStream.range(0, unitCount).forEach(i -> raw.addUnits(Fixtures.sc2ApiUnit().toBuilder()
+                    .setTag(Fixtures.UNIT_TAG + i)
+                    .setAlliance(i % 2 == 0 ? Raw.Alliance.Enemy : Raw.Alliance.Self)
+                    .setHealth(i % 3 == 0 ? 10 : 90)
+                    .setPos(Fixtures.sc2ApiUnit().getPos().toBuilder().setX(i % 100).setY(i / 100f))));
+            sc2ApiObservationRaw = raw.build();
+            observationRaw = ObservationRaw.from(sc2ApiObservationRaw);
+            observationRaw.getUnits();
+            observationRaw.getUnitColumns();
+        }
+    }
+
+    @Benchmark
+    public int decodeUnits(Context ctx) {
+        return ObservationRaw.from(ctx.sc2ApiObservationRaw).getUnits().size();
+    }
+
+    @Benchmark
+    public int decodeUnitColumns(Context ctx) {
+        return ObservationRaw.from(ctx.sc2ApiObservationRaw).getUnitColumns().size();
+    }
+
+    @Benchmark
+    public int scanUnits(Context ctx) {
+        int found = 0;
+        for (Unit unit : ctx.observationRaw.getUnits()) {
+            float dx = unit.getPosition().getX() - 50;
+            float dy = unit.getPosition().getY() - 5;
+            if (unit.getAlliance() == Alliance.ENEMY && dx * dx + dy * dy < RANGE_SQUARED &&
+                    unit.getHealth().orElse(0f) < unit.getHealthMax().orElse(0f) / 2) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int scanUnitColumns(Context ctx) {
+        UnitColumns columns = ctx.observationRaw.getUnitColumns();
+        int found = 0;
+        for (int row = 0; row < columns.size(); row++) {
+            if (columns.getAlliance(row) == Alliance.ENEMY && columns.distanceSquared(row, 50, 5) < RANGE_SQUARED &&
+                    columns.getHealth(row) < columns.getHealthMax(row) / 2) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        Options options = new OptionsBuilder()
+                .include(UnitColumnsBenchmark.class.getSimpleName())
+                .shouldFailOnError(true).shouldDoGC(true).build();
+
+        new Runner(options).run();
+
+        System.exit(1);
+    }
+}
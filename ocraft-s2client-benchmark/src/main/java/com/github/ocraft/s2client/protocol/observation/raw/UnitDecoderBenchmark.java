@@ -0,0 +1,101 @@
+package com.github.ocraft.s2client.protocol.observation.raw;
+
+/*-
+ * #%L
+ * ocraft-s2client-benchmark
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import SC2APIProtocol.Raw;
+import com.github.ocraft.s2client.bot.Fixtures;
+import com.github.ocraft.s2client.protocol.unit.Unit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 5)
+@Fork(value = 1, warmups = 1)
+@Threads(1)
+public class UnitDecoderBenchmark {
+
+    @State(Scope.Thread)
+    public static class Context {
+        @Param({"200", "500", "1000"})
+        private int unitCount;
+
+        @Param({"10"})
+        private int changedPercent;
+
+        private List<List<Raw.Unit>> frames;
+        private int frame;
+        private UnitDecoder decoder = new UnitDecoder();
+
+        @Setup
+        public void setup() {
+            // Two frames alternating positions of every changed unit, the rest of the units do not change.
+            frames = IntStream.range(0, 2).mapToObj(f -> IntStream.range(0, unitCount)
+                    .mapToObj(i -> Fixtures.sc2ApiUnit().toBuilder()
+                            .setTag(Fixtures.UNIT_TAG + i)
+                            .setPos(Fixtures.sc2ApiUnit().getPos().toBuilder()
+                                    .setX(i % 100 + (i % 100 < changedPercent ? f : 0))
+                                    .setY(i / 100f))
+                            .build())
+                    .collect(Collectors.toList()))
+                    .collect(Collectors.toList());
+            decoder.decode(frames.get(1));
+        }
+
+        List<Raw.Unit> nextFrame() {
+            frame ^= 1;
+            return frames.get(frame);
+        }
+    }
+
+    @Benchmark
+    public Set<Unit> decodeAllUnits(Context ctx) {
+        return ctx.nextFrame().stream().map(Unit::from).collect(Collectors.toSet());
+    }
+
+    @Benchmark
+    public Set<Unit> decodeChangedUnits(Context ctx) {
+        return ctx.decoder.decode(ctx.nextFrame());
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        Options options = new OptionsBuilder()
+                .include(UnitDecoderBenchmark.class.getSimpleName())
+                .shouldFailOnError(true).shouldDoGC(true).build();
+
+        new Runner(options).run();
+
+        System.exit(1);
+    }
+}
@@ -0,0 +1,178 @@
+package com.github.ocraft.s2client.protocol.observation.spatial;
+
+/*-
+ * #%L
+ * ocraft-s2client-benchmark
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import SC2APIProtocol.Common;
+import SC2APIProtocol.Spatial;
+import com.github.ocraft.s2client.protocol.spatial.Point2d;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.Message;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.*;
+
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 5)
+@Fork(value = 1, warmups = 1)
+@Threads(1)
+public class FeatureTensorBenchmark {
+
+    private static final int SCREEN = 84;
+    private static final int MINIMAP = 64;
+    private static final Set<String> ONE_BIT = new HashSet<>(Arrays.asList(
+            "creep", "power", "selected", "hallucinations", "cloaked", "blip", "active", "buildable", "pathable",
+            "camera", "alerts"));
+    private static final Set<String> INT32 = new HashSet<>(Arrays.asList(
+            "unit_type", "unit_hit_points", "unit_energy", "unit_shields", "buffs"));
+
+    @State(Scope.Benchmark)
+    public static class Layers {
+        private FeatureLayers screen;
+        private FeatureLayersMinimap minimap;
+        private final Map<FeatureLayers.Layer, LayerEncoding> screenLayers =
+                new EnumMap<>(FeatureLayers.Layer.class);
+        private final Map<FeatureLayers.Layer, LayerEncoding> oneHotLayers =
+                new EnumMap<>(FeatureLayers.Layer.class);
+        private final Map<FeatureLayersMinimap.Layer, LayerEncoding> minimapLayers =
+                new EnumMap<>(FeatureLayersMinimap.Layer.class);
+        private FloatBuffer screenTensor;
+        private FloatBuffer oneHotTensor;
+        private FloatBuffer minimapTensor;
+        private float[] sampled;
+
+        @Setup
+        public void setup() {
+            Random random = new Random(1);
+            screen = FeatureLayers.from(
+                    (Spatial.FeatureLayers) layers(Spatial.FeatureLayers.newBuilder(), SCREEN, random));
+            minimap = FeatureLayersMinimap.from(
+                    (Spatial.FeatureLayersMinimap) layers(Spatial.FeatureLayersMinimap.newBuilder(), MINIMAP, random));
+
+            for (FeatureLayers.Layer layer : FeatureLayers.Layer.values()) {
+                screenLayers.put(layer, screen.getLayer(layer).get().getBitsPerPixel() == 32
+                        ? LayerEncoding.scaled(1.0f / 1000.0f)
+                        : LayerEncoding.normalized());
+            }
+            oneHotLayers.put(FeatureLayers.Layer.PLAYER_RELATIVE, LayerEncoding.oneHot(5));
+            oneHotLayers.put(FeatureLayers.Layer.VISIBILITY_MAP, LayerEncoding.oneHot(4));
+            oneHotLayers.put(FeatureLayers.Layer.HEIGHT_MAP, LayerEncoding.normalized());
+            for (FeatureLayersMinimap.Layer layer : FeatureLayersMinimap.Layer.values()) {
+                if (minimap.getLayer(layer).get().getBitsPerPixel() != 32) {
+                    minimapLayers.put(layer, LayerEncoding.normalized());
+                }
+            }
+
+            screenTensor = direct(SCREEN * SCREEN * LayerEncoding.channels(screenLayers.values()));
+            oneHotTensor = direct(SCREEN * SCREEN * LayerEncoding.channels(oneHotLayers.values()));
+            minimapTensor = direct(MINIMAP * MINIMAP * LayerEncoding.channels(minimapLayers.values()));
+            sampled = new float[SCREEN * SCREEN * screenLayers.size()];
+        }
+
+        private static Message layers(Message.Builder builder, int size, Random random) {
+            for (Descriptors.FieldDescriptor field : builder.getDescriptorForType().getFields()) {
+                if (field.getMessageType().equals(Common.ImageData.getDescriptor())) {
+                    int bitsPerPixel = ONE_BIT.contains(field.getName()) ? 1 : INT32.contains(field.getName()) ? 32 : 8;
+                    byte[] data = new byte[size * size * bitsPerPixel / 8];
+                    random.nextBytes(data);
+                    builder.setField(field, Common.ImageData.newBuilder()
+                            .setBitsPerPixel(bitsPerPixel)
+                            .setSize(Common.Size2DI.newBuilder().setX(size).setY(size))
+                            .setData(ByteString.copyFrom(data))
+                            .build());
+                }
+            }
+            return builder.build();
+        }
+
+        private static FloatBuffer direct(int floats) {
+            return ByteBuffer.allocateDirect(floats * Float.BYTES).order(ByteOrder.nativeOrder()).asFloatBuffer();
+        }
+    }
+
+    @Benchmark
+    public float[] screenBySampling(Layers layers) {
+        int channel = 0;
+        for (FeatureLayers.Layer layer : layers.screenLayers.keySet()) {
+            ImageData imageData = layers.screen.getLayer(layer).get();
+            float scale = imageData.getBitsPerPixel() == 1 ? 1.0f : 1.0f / 255.0f;
+            int offset = channel++ * SCREEN * SCREEN;
+            for (int y = 0; y < SCREEN; y++) {
+                for (int x = 0; x < SCREEN; x++) {
+                    layers.sampled[offset + x + y * SCREEN] =
+                            imageData.sample(Point2d.of(x, y), ImageData.Origin.BOTTOM_LEFT) * scale;
+                }
+            }
+        }
+        return layers.sampled;
+    }
+
+    @Benchmark
+    public FloatBuffer screenChannelsFirst(Layers layers) {
+        layers.screenTensor.clear();
+        layers.screen.toTensor(layers.screenTensor, TensorLayout.CHANNELS_FIRST, layers.screenLayers);
+        return layers.screenTensor;
+    }
+
+    @Benchmark
+    public FloatBuffer screenChannelsLast(Layers layers) {
+        layers.screenTensor.clear();
+        layers.screen.toTensor(layers.screenTensor, TensorLayout.CHANNELS_LAST, layers.screenLayers);
+        return layers.screenTensor;
+    }
+
+    @Benchmark
+    public FloatBuffer screenOneHot(Layers layers) {
+        layers.oneHotTensor.clear();
+        layers.screen.toTensor(layers.oneHotTensor, TensorLayout.CHANNELS_LAST, layers.oneHotLayers);
+        return layers.oneHotTensor;
+    }
+
+    @Benchmark
+    public FloatBuffer minimapChannelsFirst(Layers layers) {
+        layers.minimapTensor.clear();
+        layers.minimap.toTensor(layers.minimapTensor, TensorLayout.CHANNELS_FIRST, layers.minimapLayers);
+        return layers.minimapTensor;
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        Options options = new OptionsBuilder()
+                .include(FeatureTensorBenchmark.class.getSimpleName())
+                .shouldFailOnError(true).shouldDoGC(true).build();
+
+        new Runner(options).run();
+
+        System.exit(1);
+    }
+}
@@ -0,0 +1,139 @@
+package com.github.ocraft.s2client.bot;
+
+/*-
+ * #%L
+ * ocraft-s2client-bot
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs the steps of agents and replay observers of one coordinator. Parallel steps are submitted to an executor owned
+ * by the coordinator (one platform thread per client, created on first use) or supplied by the user, so blocking
+ * waits for game responses never occupy workers of the common ForkJoinPool. The duration of the last step is
+ * remembered for every client.
+ */
+final class ClientScheduler {
+
+    private static final AtomicInteger schedulerCount = new AtomicInteger();
+
+    private final ExecutorService suppliedExecutor;
+    private final int clientCount;
+    private final Map<Object, Long> lastStepNanos = new ConcurrentHashMap<>();
+    private ExecutorService ownExecutor;
+
+    ClientScheduler(ExecutorService suppliedExecutor, int clientCount) {
+        this.suppliedExecutor = suppliedExecutor;
+        this.clientCount = Math.max(clientCount, 1);
+    }
+
+    /**
+     * Runs the step for every client and returns when all steps are done. The first failure is rethrown after all
+     * steps have finished.
+     */
+    <T> void run(List<T> clients, Consumer<T> step, boolean parallel) {
+        if (!parallel || clients.size() == 1) {
+            clients.forEach(client -> timed(client, step));
+            return;
+        }
+        ExecutorService executor = executor();
+        List<Future<?>> steps = new ArrayList<>(clients.size());
+        for (T client : clients) steps.add(executor.submit(() -> timed(client, step)));
+
+        RuntimeException failure = null;
+        for (Future<?> future : steps) {
+            try {
+                await(future);
+            } catch (RuntimeException e) {
+                if (failure == null) failure = e;
+            }
+        }
+        if (failure != null) throw failure;
+    }
+
+    private <T> void timed(T client, Consumer<T> step) {
+        long start = System.nanoTime();
+        try {
+            step.accept(client);
+        } finally {
+            lastStepNanos.put(client, System.nanoTime() - start);
+        }
+    }
+
+    private static void await(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for client step.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException("Client step failed.", cause);
+        }
+    }
+
+    private synchronized ExecutorService executor() {
+        if (suppliedExecutor != null) return suppliedExecutor;
+        if (ownExecutor == null) ownExecutor = Executors.newFixedThreadPool(clientCount, clientThreads());
+        return ownExecutor;
+    }
+
+    private static ThreadFactory clientThreads() {
+        int scheduler = schedulerCount.incrementAndGet();
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "ocraft-client-" + scheduler + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    Optional<Duration> getLastStepTime(Object client) {
+        return Optional.ofNullable(lastStepNanos.get(client)).map(Duration::ofNanos);
+    }
+
+    /**
+     * Stops the threads owned by the scheduler. A supplied executor is left to its owner.
+     */
+    synchronized void shutdown() {
+        if (ownExecutor != null) {
+            ownExecutor.shutdownNow();
+            ownExecutor = null;
+        }
+    }
+}
@@ -38,6 +38,9 @@ public final class OcraftBotConfig {
     public static final String BOT_MAP = BOT + ".map";
     public static final String BOT_REPLAY_RECOVERY = BOT + ".replayRecovery";
     public static final String BOT_TRACED = BOT + ".traced";
+    public static final String BOT_PIPELINED = BOT + ".pipelined";
+    public static final String BOT_PIPELINED_STEP = BOT + ".pipelinedStep";
+    public static final String BOT_LOCAL_PATHING_CROSS_CHECK = BOT + ".localPathingCrossCheck";
 
     private static Config config = ConfigFactory.load();
 
@@ -35,6 +35,7 @@ import com.github.ocraft.s2client.bot.setting.*;
 import com.github.ocraft.s2client.bot.syntax.SettingsSyntax;
 import com.github.ocraft.s2client.bot.syntax.StartGameSyntax;
 import com.github.ocraft.s2client.protocol.game.*;
+import com.github.ocraft.s2client.protocol.observation.ObservationSection;
 import com.github.ocraft.s2client.protocol.response.Response;
 import com.github.ocraft.s2client.protocol.response.ResponseType;
 import com.github.ocraft.s2client.protocol.spatial.SpatialCameraSetup;
@@ -49,7 +50,9 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -76,13 +79,14 @@ public class S2Coordinator {
     private final GameSettings gameSettings;
 
     private final boolean useGeneralizedAbilityId;
-
+    private final ClientScheduler scheduler;
 
     private S2Coordinator(Builder builder) {
         oneOfIsNotEmpty("agents or replay observers", builder.agents, builder.replayObservers);
 
         agents = builder.agents;
         replayObservers = builder.replayObservers;
+        scheduler = new ClientScheduler(builder.clientExecutor, agents.size() + replayObservers.size());
         processSettings = builder.processSettings;
         gameSettings = builder.gameSettings;
 
@@ -106,7 +110,8 @@ public class S2Coordinator {
                 builder.showCloaked,
                 builder.showBurrowed,
                 builder.rawAffectsSelection,
-                builder.rawCropToPlayableArea);
+                builder.rawCropToPlayableArea,
+                builder.observationSections);
         replaySettings = builder.replaySettings;
         useGeneralizedAbilityId = builder.useGeneralizedAbilityId;
 
@@ -165,6 +170,8 @@ public class S2Coordinator {
         private Boolean showBurrowed;
         private Boolean rawAffectsSelection;
         private Boolean rawCropToPlayableArea;
+        private Set<ObservationSection> observationSections;
+        private ExecutorService clientExecutor;
 
         private Builder() {
             if (OcraftBotConfig.cfg().hasPath(OcraftBotConfig.BOT_MAP)) {
@@ -348,6 +355,30 @@ public class S2Coordinator {
             return this;
         }
 
+        @Override
+        public SettingsSyntax setPipelined(Boolean value) {
+            if (isSet(value)) processSettings.setPipelined(value);
+            return this;
+        }
+
+        @Override
+        public SettingsSyntax setPipelinedStep(Boolean value) {
+            if (isSet(value)) processSettings.setPipelinedStep(value);
+            return this;
+        }
+
+        @Override
+        public SettingsSyntax setLocalPathingCrossCheck(Boolean value) {
+            if (isSet(value)) processSettings.setLocalPathingCrossCheck(value);
+            return this;
+        }
+
+        @Override
+        public SettingsSyntax setClientExecutor(ExecutorService executor) {
+            if (isSet(executor)) clientExecutor = executor;
+            return this;
+        }
+
         @Override
         public SettingsSyntax setTmpDir(Path tmpDirPath) {
             if (isSet(tmpDirPath)) processSettings.setTmpDir(tmpDirPath);
@@ -396,6 +427,15 @@ public class S2Coordinator {
             return this;
         }
 
+        @Override
+        public SettingsSyntax setObservationSections(ObservationSection... sections) {
+            if (isSet(sections)) {
+                this.observationSections = EnumSet.noneOf(ObservationSection.class);
+                Collections.addAll(this.observationSections, sections);
+            }
+            return this;
+        }
+
         @Override
         public StartGameSyntax setParticipants(PlayerSettings... participants) {
             if (isEmpty(participants)) return this;
@@ -578,6 +618,8 @@ public class S2Coordinator {
      * Joins agents to the game
      */
     public S2Coordinator joinGame() {
+        // Responses to a step ahead left from the previous game would never be consumed otherwise.
+        agents.forEach(agent -> agent.control().waitStepAhead());
         Map<S2Agent, Maybe<Response>> waitForJoin = new HashMap<>();
         agents.forEach(agent -> waitForJoin.put(agent, agent.control().requestJoinGame(
                 gameSettings.playerSettingsFor(agent).orElseThrow(required("player settings")),
@@ -628,6 +670,8 @@ public class S2Coordinator {
      * client events are dispatched.</li>
      * <li>Call the user's onStep function.</li>
      * </ol>
+     * With {@link SettingsSyntax#setPipelinedStep(Boolean)} the next step and its observation are requested right after
+     * the actions are sent, so the first two points only wait for responses requested by the previous update.
      * <p>
      * Real time applications will perform the following:
      * <ol>
@@ -695,11 +739,7 @@ public class S2Coordinator {
     }
 
     private void stepAgentsRealtime() {
-        if (processSettings.getMultithreaded()) {
-            runParallel(stepAgentRealtime());
-        } else {
-            agents.forEach(stepAgentRealtime());
-        }
+        scheduler.run(agents, stepAgentRealtime(), processSettings.getMultithreaded());
     }
 
     private Consumer<S2Agent> stepAgentRealtime() {
@@ -723,11 +763,7 @@ public class S2Coordinator {
     }
 
     private void stepAgents() {
-        if (agents.size() == 1) {
-            stepAgent().accept(agents.get(0));
-        } else {
-            runParallel(stepAgent());
-        }
+        scheduler.run(agents, stepAgent(), true);
         if (!processSettings.getMultithreaded()) {
             agents.stream()
                     .filter(agent -> agent.control().getAppState() == AppState.NORMAL)
@@ -741,10 +777,15 @@ public class S2Coordinator {
         return agent -> {
             ControlInterface control = agent.control();
             if (control.getAppState() != AppState.NORMAL) return;
-            if (control.pollLeaveGame()) return;
-            if (control.isFinishedGame()) return;
-
-            control.waitStep(control.step(processSettings.getStepSize()));
+            if (control.hasStepAhead()) {
+                // Collected first, requests sent after the step ahead (e.g. leave game) are answered after it.
+                control.waitStepAhead();
+                if (control.pollLeaveGame()) return;
+            } else {
+                if (control.pollLeaveGame()) return;
+                if (control.isFinishedGame()) return;
+                control.waitStep(control.step(processSettings.getStepSize()));
+            }
             if (processSettings.getMultithreaded()) {
                 callOnStep(agent);
             }
@@ -762,10 +803,19 @@ public class S2Coordinator {
         control.issueEvents(actions.commands());
         actions.sendActions();
         agent.actionsFeatureLayer().sendActions();
+        if (processSettings.getPipelinedStep()) stepAhead(agent);
     }
 
-    private void runParallel(Consumer<S2Agent> step) {
-        agents.parallelStream().forEach(step);
+    /**
+     * Requests the next step and its observation as soon as the actions of the current game loop are sent, so the
+     * game simulates while the client returns from the update. The next update collects both responses.
+     */
+    private void stepAhead(S2Agent agent) {
+        ControlInterface control = agent.control();
+        if (control.getAppState() != AppState.NORMAL || !control.isInGame()) return;
+        // The game is being left, nothing would collect the step.
+        if (control.hasResponsePending(ResponseType.LEAVE_GAME)) return;
+        control.stepAhead(processSettings.getStepSize());
     }
 
     private boolean anyObserverAvailable() {
@@ -841,13 +891,8 @@ public class S2Coordinator {
     }
 
     private void stepReplayObservers() {
-        // Run all replay observers.
-        if (replayObservers.size() == 1) {
-            runReplay().accept(replayObservers.get(0));
-        } else {
-            // Run all steps in parallel.
-            replayObservers.parallelStream().forEach(runReplay());
-        }
+        // Run all replay observers, in parallel if there are many.
+        scheduler.run(replayObservers, runReplay(), true);
         // Do everyone's OnStep, if not multi threaded, in single threaded mode.
         if (!processSettings.getMultithreaded()) {
             replayObservers.stream()
@@ -891,13 +936,8 @@ public class S2Coordinator {
     }
 
     private void stepReplayObserversRealtime() {
-        // Run all replay observers.
-        if (replayObservers.size() == 1) {
-            runReplayRealtime().accept(replayObservers.get(0));
-        } else {
-            // Run all steps in parallel.
-            replayObservers.parallelStream().forEach(runReplayRealtime());
-        }
+        // Run all replay observers, in parallel if there are many.
+        scheduler.run(replayObservers, runReplayRealtime(), true);
         // Do everyone's OnStep, if not multi threaded, in single threaded mode.
         if (!processSettings.getMultithreaded()) {
             replayObservers.stream()
@@ -951,6 +991,7 @@ public class S2Coordinator {
      */
     public void leaveGame() {
         // TODO p.picheta to test
+        agents.forEach(agent -> agent.control().waitStepAhead());
         agents.forEach(agent -> agent.control().requestLeaveGame());
     }
 
@@ -1031,6 +1072,22 @@ public class S2Coordinator {
     public void quit() {
         agents.forEach(agent -> agent.control().quit());
         replayObservers.forEach(replayObserver -> replayObserver.control().quit());
+        scheduler.shutdown();
+    }
+
+    /**
+     * Returns how long the last step of the agent took, including waiting for the game and the agent's onStep when
+     * it runs in the same step.
+     */
+    public Optional<Duration> getLastStepTime(S2Agent agent) {
+        return scheduler.getLastStepTime(agent);
+    }
+
+    /**
+     * Returns how long the last step of the replay observer took.
+     */
+    public Optional<Duration> getLastStepTime(S2ReplayObserver replayObserver) {
+        return scheduler.getLastStepTime(replayObserver);
     }
 
     public static PlayerSettings createParticipant(Race race, S2Agent bot) {
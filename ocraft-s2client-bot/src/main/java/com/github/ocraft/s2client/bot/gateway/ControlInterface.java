@@ -76,6 +76,30 @@ public interface ControlInterface {
 
     boolean waitStep(Maybe<Response> waitFor);
 
+    /**
+     * Waits for a step and for an observation that was requested right after the step, without waiting for the step
+     * in between.
+     *
+     * @see #requestObservation()
+     */
+    boolean waitStep(Maybe<Response> step, Maybe<Response> observation);
+
+    /**
+     * Sends the step and the observation request of the game loop it leads to without waiting for them. They are
+     * collected by {@link #waitStepAhead()}, until then {@link #getObservation()} keeps the current observation
+     * instead of requesting another one.
+     */
+    void stepAhead(int count);
+
+    boolean hasStepAhead();
+
+    /**
+     * Waits for the step and the observation sent by {@link #stepAhead(int)}.
+     *
+     * @return False if there is no step ahead to collect or it failed.
+     */
+    boolean waitStepAhead();
+
     boolean saveReplay(Path path) throws IOException;
 
     boolean ping();
@@ -110,6 +134,14 @@ public interface ControlInterface {
 
     boolean getObservation();
 
+    /**
+     * Sends the observation request without waiting for the response. Requested after a step, the observation
+     * describes the game loop the step leads to.
+     */
+    Maybe<Response> requestObservation();
+
+    boolean waitObservation(Maybe<Response> waitFor);
+
     boolean issueEvents(List<Tag> commands);
 
     void onGameStart();
@@ -0,0 +1,214 @@
+package com.github.ocraft.s2client.bot.gateway;
+
+/*-
+ * #%L
+ * ocraft-s2client-bot
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import com.github.ocraft.s2client.protocol.unit.Unit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import static com.github.ocraft.s2client.protocol.Preconditions.require;
+
+/**
+ * Changes of the known units between the previous and the current observation. The delta is computed while the
+ * observation is applied to the unit pool, so walking it costs O(changes) instead of O(all units).
+ * <p>
+ * Changed units are paired by index with a bitmask of the fields that differ, e.g.
+ * <pre>
+ * {@code
+ * ObservationDelta delta = observation().getObservationDelta();
+ * for (int i = 0; i < delta.getChangedUnits().size(); i++) {
+ *     if (delta.hasChanged(i, ObservationDelta.HEALTH)) { ... }
+ * }
+ * }
+ * </pre>
+ */
+public final class ObservationDelta {
+
+    public static final int POSITION = 1;
+    public static final int HEALTH = 1 << 1;
+    public static final int ORDERS = 1 << 2;
+    public static final int BUFFS = 1 << 3;
+    public static final int BUILD_PROGRESS = 1 << 4;
+
+    private static final ObservationDelta EMPTY = new ObservationDelta(new Builder(0));
+
+    private final long gameLoop;
+    private final List<UnitInPool> addedUnits;
+    private final List<UnitInPool> removedUnits;
+    private final List<UnitInPool> changedUnits;
+    private final int[] changedFields;
+
+    public static final class Builder {
+        private final long gameLoop;
+        private final List<UnitInPool> addedUnits = new ArrayList<>();
+        private final List<UnitInPool> removedUnits = new ArrayList<>();
+        private final List<UnitInPool> changedUnits = new ArrayList<>();
+        private int[] changedFields = new int[16];
+
+        private Builder(long gameLoop) {
+            this.gameLoop = gameLoop;
+        }
+
+        public Builder added(UnitInPool unitInPool) {
+            require("unit in pool", unitInPool);
+            addedUnits.add(unitInPool);
+            return this;
+        }
+
+        public Builder removed(UnitInPool unitInPool) {
+            require("unit in pool", unitInPool);
+            removedUnits.add(unitInPool);
+            return this;
+        }
+
+        public Builder changed(UnitInPool unitInPool, int fields) {
+            require("unit in pool", unitInPool);
+            if (changedUnits.size() == changedFields.length) {
+                changedFields = Arrays.copyOf(changedFields, changedFields.length * 2);
+            }
+            changedFields[changedUnits.size()] = fields;
+            changedUnits.add(unitInPool);
+            return this;
+        }
+
+        public ObservationDelta build() {
+            return new ObservationDelta(this);
+        }
+    }
+
+    private ObservationDelta(Builder builder) {
+        gameLoop = builder.gameLoop;
+        addedUnits = Collections.unmodifiableList(builder.addedUnits);
+        removedUnits = Collections.unmodifiableList(builder.removedUnits);
+        changedUnits = Collections.unmodifiableList(builder.changedUnits);
+        changedFields = Arrays.copyOf(builder.changedFields, builder.changedUnits.size());
+    }
+
+    public static Builder builder(long gameLoop) {
+        return new Builder(gameLoop);
+    }
+
+    public static ObservationDelta empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Compares the fields tracked by the delta.
+     *
+     * @param previous State of the unit in the previous observation.
+     * @param current  State of the unit in the current observation.
+     * @return Bitmask of {@link #POSITION}, {@link #HEALTH} (health, shield or energy), {@link #ORDERS}, {@link #BUFFS}
+     * and {@link #BUILD_PROGRESS}.
+     */
+    public static int changedFields(Unit previous, Unit current) {
+        require("previous unit", previous);
+        require("current unit", current);
+        if (previous == current) return 0;
+        int fields = 0;
+        if (!Objects.equals(previous.getPosition(), current.getPosition())) fields |= POSITION;
+        if (!Objects.equals(previous.getHealth(), current.getHealth()) ||
+                !Objects.equals(previous.getShield(), current.getShield()) ||
+                !Objects.equals(previous.getEnergy(), current.getEnergy())) fields |= HEALTH;
+        if (!Objects.equals(previous.getOrders(), current.getOrders())) fields |= ORDERS;
+        if (!Objects.equals(previous.getBuffs(), current.getBuffs())) fields |= BUFFS;
+        if (previous.getBuildProgress() != current.getBuildProgress()) fields |= BUILD_PROGRESS;
+        return fields;
+    }
+
+    /**
+     * @return The game loop of the observation this delta leads to.
+     */
+    public long getGameLoop() {
+        return gameLoop;
+    }
+
+    /**
+     * @return Units that were not known in the previous observation (created or entered vision).
+     */
+    public List<UnitInPool> getAddedUnits() {
+        return addedUnits;
+    }
+
+    /**
+     * @return Units known in the previous observation that are missing from the current one (died or left vision).
+     */
+    public List<UnitInPool> getRemovedUnits() {
+        return removedUnits;
+    }
+
+    /**
+     * @return Units present in both observations with at least one tracked field changed.
+     */
+    public List<UnitInPool> getChangedUnits() {
+        return changedUnits;
+    }
+
+    /**
+     * @param index Index in {@link #getChangedUnits()}.
+     * @return Bitmask of fields changed for the unit at the given index.
+     */
+    public int getChangedFields(int index) {
+        if (index < 0 || index >= changedFields.length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + changedFields.length);
+        }
+        return changedFields[index];
+    }
+
+    public boolean hasChanged(int index, int fields) {
+        return (getChangedFields(index) & fields) != 0;
+    }
+
+    /**
+     * @param fields Bitmask of fields.
+     * @return Changed units with any of the given fields changed.
+     */
+    public List<UnitInPool> getChangedUnits(int fields) {
+        List<UnitInPool> units = new ArrayList<>();
+        for (int i = 0; i < changedFields.length; i++) {
+            if ((changedFields[i] & fields) != 0) units.add(changedUnits.get(i));
+        }
+        return units;
+    }
+
+    public boolean isEmpty() {
+        return addedUnits.isEmpty() && removedUnits.isEmpty() && changedUnits.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "ObservationDelta{" +
+                "gameLoop=" + gameLoop +
+                ", addedUnits=" + addedUnits.size() +
+                ", removedUnits=" + removedUnits.size() +
+                ", changedUnits=" + changedUnits.size() +
+                '}';
+    }
+}
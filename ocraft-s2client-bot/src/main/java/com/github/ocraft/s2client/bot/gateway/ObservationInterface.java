@@ -36,6 +36,9 @@ import com.github.ocraft.s2client.protocol.observation.PlayerResult;
 import com.github.ocraft.s2client.protocol.observation.raw.EffectLocations;
 import com.github.ocraft.s2client.protocol.observation.raw.PowerSource;
 import com.github.ocraft.s2client.protocol.observation.raw.Visibility;
+import com.github.ocraft.s2client.protocol.observation.spatial.BitGrid;
+import com.github.ocraft.s2client.protocol.observation.spatial.ByteGrid;
+import com.github.ocraft.s2client.protocol.observation.spatial.FloatGrid;
 import com.github.ocraft.s2client.protocol.response.ResponseGameInfo;
 import com.github.ocraft.s2client.protocol.score.Score;
 import com.github.ocraft.s2client.protocol.spatial.Point;
@@ -45,6 +48,7 @@ import com.github.ocraft.s2client.protocol.unit.Tag;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Predicate;
 
 /**
@@ -86,10 +90,22 @@ public interface ObservationInterface {
     List<UnitInPool> getUnits(Alliance alliance, Predicate<UnitInPool> filter);
 
     /**
+     * Get all units belonging to a certain alliance. Units are grouped by alliance once per step.
+     *
+     * @param alliance The faction the units belong to.
+     * @return A read-only list of units of the alliance.
      * @see #getUnits(Alliance, Predicate)
      */
     List<UnitInPool> getUnits(Alliance alliance);
 
+    /**
+     * Get all units of a certain type. Units are grouped by type once per step.
+     *
+     * @param unitType The type of the units.
+     * @return A read-only list of units of the type.
+     */
+    List<UnitInPool> getUnits(UnitType unitType);
+
     /**
      * Get all units belonging to self that meet the conditions provided by the filter. The unit structure is data only.
      * Therefore editing that data will not change any in game state. See the ActionInterface for changing Unit state.
@@ -107,6 +123,53 @@ public interface ObservationInterface {
      */
     UnitInPool getUnit(Tag tag);
 
+    /**
+     * Get units within the given distance of a point that meet the conditions provided by the filter. Units are looked
+     * up in a spatial index, only the units near the point are tested.
+     *
+     * @param center Center of the circle.
+     * @param radius Radius of the circle, not negative.
+     * @param filter A functor or lambda used to filter out any unneeded units in the list.
+     * @return A list of units within the circle that meet the conditions provided by the filter.
+     */
+    List<UnitInPool> getUnitsInRadius(Point2d center, float radius, Predicate<UnitInPool> filter);
+
+    /**
+     * Get units within the given rectangle that meet the conditions provided by the filter.
+     *
+     * @param min    Corner of the rectangle with the lowest coordinates.
+     * @param max    Corner of the rectangle with the highest coordinates.
+     * @param filter A functor or lambda used to filter out any unneeded units in the list.
+     * @return A list of units within the rectangle that meet the conditions provided by the filter.
+     */
+    List<UnitInPool> getUnitsInRect(Point2d min, Point2d max, Predicate<UnitInPool> filter);
+
+    /**
+     * Get units nearest to the point that meet the conditions provided by the filter.
+     *
+     * @param point  The point to measure distance from.
+     * @param count  Maximum number of units to return.
+     * @param filter A functor or lambda used to filter out any unneeded units in the list.
+     * @return Up to count units sorted by distance from the point, nearest first.
+     */
+    List<UnitInPool> getNearestUnits(Point2d point, int count, Predicate<UnitInPool> filter);
+
+    /**
+     * Get the units added, removed and changed since the previous observation. Use it to react to changes without
+     * scanning all units every step.
+     *
+     * @return The delta computed when the last observation was applied.
+     */
+    ObservationDelta getObservationDelta();
+
+    /**
+     * Get an immutable copy of the current game loop that can be shared with other threads. The next observation
+     * creates a new snapshot and leaves the returned one unchanged.
+     *
+     * @return The snapshot created when the last observation was applied.
+     */
+    ObservationSnapshot getSnapshot();
+
     /**
      * Gets a list of actions performed as abilities applied to units. For use with the raw option.
      *
@@ -347,6 +410,46 @@ public interface ObservationInterface {
      */
     float terrainHeight(Point2d point);
 
+    /**
+     * Returns the pathing grid decoded once per game, see {@link #isPathable(Point2d)}. Cells are addressed in
+     * game coordinates.
+     *
+     * @return Pathing grid or empty if the game info has no start data.
+     */
+    Optional<BitGrid> getPathingGrid();
+
+    /**
+     * Returns the placement grid decoded once per game, see {@link #isPlacable(Point2d)}. Cells are addressed in
+     * game coordinates.
+     *
+     * @return Placement grid or empty if the game info has no start data.
+     */
+    Optional<BitGrid> getPlacementGrid();
+
+    /**
+     * Returns terrain heights decoded once per game, see {@link #terrainHeight(Point2d)}. Cells are addressed in
+     * game coordinates.
+     *
+     * @return Terrain height grid or empty if the game info has no start data.
+     */
+    Optional<FloatGrid> getTerrainHeightGrid();
+
+    /**
+     * Returns visibility codes (see {@link Visibility#from(int)}) decoded once per observation. Cells are addressed
+     * in game coordinates.
+     *
+     * @return Visibility grid or empty if the observation has no map state.
+     */
+    Optional<ByteGrid> getVisibilityGrid();
+
+    /**
+     * Returns the creep grid decoded once per observation, see {@link #hasCreep(Point2d)}. Cells are addressed in
+     * game coordinates.
+     *
+     * @return Creep grid or empty if the observation has no map state.
+     */
+    Optional<BitGrid> getCreepGrid();
+
     /**
      * Equivalent of UI "red text" errors.
      *
@@ -0,0 +1,309 @@
+package com.github.ocraft.s2client.bot.gateway;
+
+/*-
+ * #%L
+ * ocraft-s2client-bot
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import com.github.ocraft.s2client.protocol.action.ActionError;
+import com.github.ocraft.s2client.protocol.action.raw.ActionRaw;
+import com.github.ocraft.s2client.protocol.action.spatial.ActionSpatial;
+import com.github.ocraft.s2client.protocol.data.Upgrade;
+import com.github.ocraft.s2client.protocol.observation.ChatReceived;
+import com.github.ocraft.s2client.protocol.observation.Observation;
+import com.github.ocraft.s2client.protocol.observation.PlayerResult;
+import com.github.ocraft.s2client.protocol.observation.raw.EffectLocations;
+import com.github.ocraft.s2client.protocol.observation.raw.PowerSource;
+import com.github.ocraft.s2client.protocol.unit.Alliance;
+import com.github.ocraft.s2client.protocol.unit.Tag;
+import com.github.ocraft.s2client.protocol.unit.Unit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import static com.github.ocraft.s2client.protocol.Preconditions.require;
+
+/**
+ * Immutable state of a single game loop. A new snapshot is created every time an observation is applied, and the
+ * previous one is left untouched, so a snapshot can be handed to other threads for per-step analysis while the
+ * game moves on. Units are the immutable protocol {@link Unit} values instead of {@link UnitInPool} entries, which
+ * are updated in place.
+ * <pre>
+ * {@code
+ * ObservationSnapshot snapshot = observation().getSnapshot();
+ * executor.submit(() -> analyze(snapshot.getUnits(Alliance.ENEMY)));
+ * }
+ * </pre>
+ */
+public final class ObservationSnapshot {
+
+    private static final Alliance[] ALLIANCES = Alliance.values();
+    private static final ObservationSnapshot EMPTY = new ObservationSnapshot(new Builder(0, 0));
+
+    private final long gameLoop;
+    private final int playerId;
+    private final Observation observation;
+    private final List<Unit> units;
+    private final List<List<Unit>> unitsByAlliance;
+    private final long[] sortedTags;
+    private final Unit[] unitsSortedByTag;
+    private final List<ActionRaw> rawActions;
+    private final List<ActionSpatial> featureLayerActions;
+    private final List<ActionSpatial> renderedActions;
+    private final List<ChatReceived> chatMessages;
+    private final List<PowerSource> powerSources;
+    private final List<EffectLocations> effects;
+    private final List<Upgrade> upgrades;
+    private final List<PlayerResult> playerResults;
+    private final List<ActionError> actionErrors;
+
+    public static final class Builder {
+        private final long gameLoop;
+        private final int playerId;
+        private Observation observation;
+        private Unit[] units = new Unit[0];
+        private List<ActionRaw> rawActions = Collections.emptyList();
+        private List<ActionSpatial> featureLayerActions = Collections.emptyList();
+        private List<ActionSpatial> renderedActions = Collections.emptyList();
+        private List<ChatReceived> chatMessages = Collections.emptyList();
+        private List<PowerSource> powerSources = Collections.emptyList();
+        private List<EffectLocations> effects = Collections.emptyList();
+        private List<Upgrade> upgrades = Collections.emptyList();
+        private List<PlayerResult> playerResults = Collections.emptyList();
+        private List<ActionError> actionErrors = Collections.emptyList();
+
+        private Builder(long gameLoop, int playerId) {
+            this.gameLoop = gameLoop;
+            this.playerId = playerId;
+        }
+
+        public Builder observation(Observation observation) {
+            this.observation = observation;
+            return this;
+        }
+
+        public Builder units(Collection<Unit> units) {
+            require("units", units);
+            this.units = units.toArray(new Unit[0]);
+            return this;
+        }
+
+        public Builder rawActions(Collection<ActionRaw> rawActions) {
+            this.rawActions = copyOf("raw actions", rawActions);
+            return this;
+        }
+
+        public Builder featureLayerActions(Collection<ActionSpatial> featureLayerActions) {
+            this.featureLayerActions = copyOf("feature layer actions", featureLayerActions);
+            return this;
+        }
+
+        public Builder renderedActions(Collection<ActionSpatial> renderedActions) {
+            this.renderedActions = copyOf("rendered actions", renderedActions);
+            return this;
+        }
+
+        public Builder chatMessages(Collection<ChatReceived> chatMessages) {
+            this.chatMessages = copyOf("chat messages", chatMessages);
+            return this;
+        }
+
+        public Builder powerSources(Collection<PowerSource> powerSources) {
+            this.powerSources = copyOf("power sources", powerSources);
+            return this;
+        }
+
+        public Builder effects(Collection<EffectLocations> effects) {
+            this.effects = copyOf("effects", effects);
+            return this;
+        }
+
+        public Builder upgrades(Collection<Upgrade> upgrades) {
+            this.upgrades = copyOf("upgrades", upgrades);
+            return this;
+        }
+
+        public Builder playerResults(Collection<PlayerResult> playerResults) {
+            this.playerResults = copyOf("player results", playerResults);
+            return this;
+        }
+
+        public Builder actionErrors(Collection<ActionError> actionErrors) {
+            this.actionErrors = copyOf("action errors", actionErrors);
+            return this;
+        }
+
+        public ObservationSnapshot build() {
+            return new ObservationSnapshot(this);
+        }
+
+        private static <T> List<T> copyOf(String name, Collection<T> values) {
+            require(name, values);
+            return values.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(values));
+        }
+    }
+
+    private ObservationSnapshot(Builder builder) {
+        gameLoop = builder.gameLoop;
+        playerId = builder.playerId;
+        observation = builder.observation;
+        units = Collections.unmodifiableList(Arrays.asList(builder.units));
+        unitsByAlliance = groupByAlliance(builder.units);
+        unitsSortedByTag = builder.units.clone();
+        Arrays.sort(unitsSortedByTag, Comparator.comparingLong(unit -> unit.getTag().getValue()));
+        sortedTags = new long[unitsSortedByTag.length];
+        for (int i = 0; i < unitsSortedByTag.length; i++) sortedTags[i] = unitsSortedByTag[i].getTag().getValue();
+        rawActions = builder.rawActions;
+        featureLayerActions = builder.featureLayerActions;
+        renderedActions = builder.renderedActions;
+        chatMessages = builder.chatMessages;
+        powerSources = builder.powerSources;
+        effects = builder.effects;
+        upgrades = builder.upgrades;
+        playerResults = builder.playerResults;
+        actionErrors = builder.actionErrors;
+    }
+
+    private static List<List<Unit>> groupByAlliance(Unit[] units) {
+        List<List<Unit>> groups = new ArrayList<>(ALLIANCES.length);
+        for (int i = 0; i < ALLIANCES.length; i++) groups.add(new ArrayList<>());
+        for (Unit unit : units) groups.get(unit.getAlliance().ordinal()).add(unit);
+        for (int i = 0; i < ALLIANCES.length; i++) groups.set(i, Collections.unmodifiableList(groups.get(i)));
+        return Collections.unmodifiableList(groups);
+    }
+
+    public static Builder builder(long gameLoop, int playerId) {
+        return new Builder(gameLoop, playerId);
+    }
+
+    public static ObservationSnapshot empty() {
+        return EMPTY;
+    }
+
+    public long getGameLoop() {
+        return gameLoop;
+    }
+
+    public int getPlayerId() {
+        return playerId;
+    }
+
+    /**
+     * @return The low-level protocol data of the observation, empty before the first observation.
+     */
+    public Optional<Observation> getRawObservation() {
+        return Optional.ofNullable(observation);
+    }
+
+    /**
+     * @return All known units in the iteration order of the collection given to the builder (for snapshots taken by
+     * the observation interface it is the unordered set of units of the raw observation).
+     */
+    public List<Unit> getUnits() {
+        return units;
+    }
+
+    public List<Unit> getUnits(Alliance alliance) {
+        require("alliance", alliance);
+        return unitsByAlliance.get(alliance.ordinal());
+    }
+
+    public List<Unit> getUnits(Predicate<Unit> filter) {
+        return filter(units, filter);
+    }
+
+    public List<Unit> getUnits(Alliance alliance, Predicate<Unit> filter) {
+        return filter(getUnits(alliance), filter);
+    }
+
+    private static List<Unit> filter(List<Unit> units, Predicate<Unit> filter) {
+        require("filter", filter);
+        List<Unit> filtered = new ArrayList<>();
+        for (Unit unit : units) {
+            if (filter.test(unit)) filtered.add(unit);
+        }
+        return filtered;
+    }
+
+    /**
+     * @param tag Tag of the unit.
+     * @return The unit with the given tag or empty if the unit was not observed in this game loop.
+     */
+    public Optional<Unit> getUnit(Tag tag) {
+        require("tag", tag);
+        int index = Arrays.binarySearch(sortedTags, tag.getValue());
+        return index >= 0 ? Optional.of(unitsSortedByTag[index]) : Optional.empty();
+    }
+
+    public List<ActionRaw> getRawActions() {
+        return rawActions;
+    }
+
+    public List<ActionSpatial> getFeatureLayerActions() {
+        return featureLayerActions;
+    }
+
+    public List<ActionSpatial> getRenderedActions() {
+        return renderedActions;
+    }
+
+    public List<ChatReceived> getChatMessages() {
+        return chatMessages;
+    }
+
+    public List<PowerSource> getPowerSources() {
+        return powerSources;
+    }
+
+    public List<EffectLocations> getEffects() {
+        return effects;
+    }
+
+    public List<Upgrade> getUpgrades() {
+        return upgrades;
+    }
+
+    public List<PlayerResult> getPlayerResults() {
+        return playerResults;
+    }
+
+    public List<ActionError> getActionErrors() {
+        return actionErrors;
+    }
+
+    @Override
+    public String toString() {
+        return "ObservationSnapshot{" +
+                "gameLoop=" + gameLoop +
+                ", playerId=" + playerId +
+                ", units=" + units.size() +
+                '}';
+    }
+}
@@ -95,6 +95,42 @@ public interface QueryInterface {
      */
     List<Float> pathingDistance(List<QueryPathing> queries);
 
+    /**
+     * Returns ground pathing distance between two locations computed locally, without a request to the game. Uses
+     * the pathing grid of the map with footprints of the known ground structures blocked, so it can differ slightly
+     * from {@link #pathingDistance(Point2d, Point2d)} (e.g. units are not taken into account).
+     *
+     * @param start Starting point.
+     * @param end   End point.
+     * @return Distance between the two points or 0 if there is no path (like the game does).
+     */
+    float localPathingDistance(Point2d start, Point2d end);
+
+    /**
+     * Returns pathing distance between a unit and a target location computed locally. Flying units get the straight
+     * line distance.
+     *
+     * @see #localPathingDistance(Point2d, Point2d)
+     */
+    float localPathingDistance(Unit start, Point2d end);
+
+    /**
+     * Computes multiple pathing queries locally. Queries starting from a unit tag use the last observed position of
+     * the unit.
+     *
+     * @see #localPathingDistance(Point2d, Point2d)
+     */
+    List<Float> localPathingDistance(List<QueryPathing> queries);
+
+    /**
+     * Returns ground path between two locations computed locally, as a list of waypoints from start to end.
+     *
+     * @param start Starting point.
+     * @param end   End point.
+     * @return Waypoints or empty list if there is no path.
+     */
+    List<Point2d> localPath(Point2d start, Point2d end);
+
     /**
      * @see #placement(Ability, Point2d, Unit)
      */
@@ -89,7 +89,7 @@ public class UnitInPool {
     }
 
     public static Predicate<UnitInPool> isUnit(UnitType type) {
-        return unitInPool -> unitInPool.getUnit().isPresent() && unitInPool.getUnit().get().getType().equals(type);
+        return unitInPool -> unitInPool.unit != null && unitInPool.unit.getType().equals(type);
     }
 
     /**
@@ -36,6 +36,7 @@ import com.github.ocraft.s2client.bot.gateway.*;
 import com.github.ocraft.s2client.bot.setting.InterfaceSettings;
 import com.github.ocraft.s2client.bot.setting.PlayerSettings;
 import com.github.ocraft.s2client.bot.setting.ProcessSettings;
+import com.github.ocraft.s2client.protocol.ObservationProjection;
 import com.github.ocraft.s2client.protocol.data.UnitType;
 import com.github.ocraft.s2client.protocol.data.Units;
 import com.github.ocraft.s2client.protocol.data.Upgrade;
@@ -62,6 +63,7 @@ import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import static com.github.ocraft.s2client.protocol.Constants.nothing;
 import static com.github.ocraft.s2client.protocol.Preconditions.isSet;
 import static com.github.ocraft.s2client.protocol.Preconditions.require;
 import static java.lang.String.format;
@@ -88,7 +90,11 @@ class ControlInterfaceImpl implements ControlInterface {
     private boolean multiplayer;
     private ProcessInfo processInfo;
     private boolean useGeneralizedAbilityId;
+    private boolean localPathingCrossCheck;
     private boolean leaveGameWasRequested;
+    // Step and observation sent by stepAhead(), not collected yet.
+    private Maybe<Response> stepAhead;
+    private Maybe<Response> observationAhead;
 
     ControlInterfaceImpl(ClientEvents clientEvents) {
         require("client events callback", clientEvents);
@@ -159,6 +165,10 @@ class ControlInterfaceImpl implements ControlInterface {
         require("process settings", processSettings);
 
         log.info("Waiting for connection...");
+        stepAhead = null;
+        observationAhead = null;
+        if (isSet(processSettings.getPipelined())) protoInternal().setPipelined(processSettings.getPipelined());
+        localPathingCrossCheck = Boolean.TRUE.equals(processSettings.getLocalPathingCrossCheck());
         boolean connected;
         if (processSettings.withGameController()) {
             theGame = tryLaunchProcess(processSettings);
@@ -303,6 +313,7 @@ class ControlInterfaceImpl implements ControlInterface {
             observationInternal().clearFlags();
 
             InterfaceOptions interfaceOptions = interfaceOptionsFrom(interfaceSettings);
+            projectObservations(interfaceSettings);
 
             return proto().sendRequest(
                     Requests.joinGame()
@@ -314,6 +325,10 @@ class ControlInterfaceImpl implements ControlInterface {
         }
     }
 
+    void projectObservations(InterfaceSettings interfaceSettings) {
+        protoInternal().projectObservations(ObservationProjection.of(interfaceSettings.getObservationSections()));
+    }
+
     InterfaceOptions interfaceOptionsFrom(InterfaceSettings interfaceSettings) {
         FeatureLayerSyntax interfaces = InterfaceOptions.interfaces()
                 .showCloaked(interfaceSettings.getShowCloaked())
@@ -416,6 +431,35 @@ class ControlInterfaceImpl implements ControlInterface {
                 getObservation();
     }
 
+    @Override
+    public boolean waitStep(Maybe<Response> step, Maybe<Response> observation) {
+        return waitForResponse(step).flatMap(response -> response.as(ResponseStep.class)).isPresent() &&
+                waitObservation(observation);
+    }
+
+    @Override
+    public void stepAhead(int count) {
+        if (hasStepAhead()) throw new IllegalStateException("Previous step ahead was not collected.");
+        Maybe<Response> step = step(count);
+        observationAhead = requestObservation();
+        stepAhead = step;
+    }
+
+    @Override
+    public boolean hasStepAhead() {
+        return isSet(stepAhead);
+    }
+
+    @Override
+    public boolean waitStepAhead() {
+        if (!hasStepAhead()) return false;
+        Maybe<Response> step = stepAhead;
+        Maybe<Response> observation = observationAhead;
+        stepAhead = null;
+        observationAhead = null;
+        return !invalidState() && waitStep(step, observation);
+    }
+
     @Override
     public boolean saveReplay(Path path) throws IOException {
 
@@ -624,9 +668,20 @@ class ControlInterfaceImpl implements ControlInterface {
 
     @Override
     public boolean getObservation() {
+        // The game may already be past the current observation, but the next one is collected with the step ahead.
+        if (hasStepAhead()) return true;
+        return waitObservation(requestObservation());
+    }
+
+    @Override
+    public Maybe<Response> requestObservation() {
         checkApplicationState();
+        return proto().sendRequest(Requests.observation());
+    }
 
-        Optional<ResponseObservation> responseObservation = waitForResponse(proto().sendRequest(Requests.observation()))
+    @Override
+    public boolean waitObservation(Maybe<Response> waitFor) {
+        Optional<ResponseObservation> responseObservation = waitForResponse(waitFor)
                 .flatMap(response -> response.as(ResponseObservation.class));
 
         return responseObservation.isPresent() && observationInternal().updateObservation(responseObservation.get());
@@ -636,13 +691,11 @@ class ControlInterfaceImpl implements ControlInterface {
     public boolean issueEvents(List<Tag> commands) {
         if (!observationInternal().gameLoopChanged()) return false;
 
+        ObservationDelta delta = observation().getObservationDelta();
         issueUnitDestroyedEvents();
-        issueUnitAddedEvents();
-
-        observation().getUnits(Alliance.SELF).forEach(unit -> {
-            issueIdleEvent(unit, commands);
-            issueBuildingCompletedEvent(unit);
-        });
+        issueUnitAddedEvents(delta);
+        issueUnitChangedEvents(delta);
+        issueReissuedCommandEvents(delta, commands);
 
         issueUpgradeEvents();
         issueAlertEvents();
@@ -663,52 +716,64 @@ class ControlInterfaceImpl implements ControlInterface {
                         })));
     }
 
-    private void issueUnitAddedEvents() {
-        observationInternal().unitPool().forEachExistingUnit(unitInPool -> unitInPool.getUnit().ifPresent(unit -> {
-            if (!hasPreviousState(unit)) {
-                if (unit.getAlliance().equals(Alliance.ENEMY) && unit.getDisplayType().equals(DisplayType.VISIBLE)) {
-                    clientEvents.onUnitEnterVision(unitInPool);
-                } else if (unit.getAlliance().equals(Alliance.SELF) && !calledOnCreateUnits.contains(unit.getTag())) {
-                    calledOnCreateUnits.add(unit.getTag());
-                    clientEvents.onUnitCreated(unitInPool);
-                }
+    private void issueUnitAddedEvents(ObservationDelta delta) {
+        delta.getAddedUnits().forEach(unitInPool -> existing(unitInPool).ifPresent(unit -> {
+            if (unit.getAlliance().equals(Alliance.ENEMY) && unit.getDisplayType().equals(DisplayType.VISIBLE)) {
+                clientEvents.onUnitEnterVision(unitInPool);
+            } else if (unit.getAlliance().equals(Alliance.SELF) && !calledOnCreateUnits.contains(unit.getTag())) {
+                calledOnCreateUnits.add(unit.getTag());
+                clientEvents.onUnitCreated(unitInPool);
+            }
+            // A new unit with no orders is idle.
+            if (unit.getAlliance().equals(Alliance.SELF) && idleUnit().test(unit)) {
+                clientEvents.onUnitIdle(unitInPool);
             }
         }));
+    }
 
+    private void issueUnitChangedEvents(ObservationDelta delta) {
+        List<UnitInPool> changedUnits = delta.getChangedUnits();
+        for (int i = 0; i < changedUnits.size(); i++) {
+            if (!delta.hasChanged(i, ObservationDelta.ORDERS | ObservationDelta.BUILD_PROGRESS)) continue;
+            UnitInPool unitInPool = changedUnits.get(i);
+            existing(unitInPool).filter(unit -> unit.getAlliance().equals(Alliance.SELF)).ifPresent(unit -> {
+                Unit previous = getPreviousState(unit);
+                // Verify that the state of the unit changed to idle.
+                if (idleUnit().test(unit) && !idleUnit().test(previous)) {
+                    clientEvents.onUnitIdle(unitInPool);
+                }
+                // If the units build progress is complete but it previously wasn't call construction complete.
+                if (isBuild(unit) && !isBuild(previous)) {
+                    clientEvents.onBuildingConstructionComplete(unitInPool);
+                }
+            });
+        }
     }
 
-    private boolean hasPreviousState(Unit unit) {
-        return observation().getGameLoop() > 1 && observationInternal().unitPool().previous().containsKey(unit.getTag());
-    }
-
-    private void issueIdleEvent(UnitInPool unitInPool, List<Tag> commands) {
-        unitInPool.getUnit()
-                .filter(idleUnit())
-                .ifPresent(unit -> {
-                    // Lookup unit from previous map.
-                    if (!hasPreviousState(unit)) {
-                        // If it's not in the previous map it's a new unit with new orders so trigger the OnIdle event.
-                        clientEvents.onUnitIdle(unitInPool);
-                        return;
-                    } else {
-                        // Otherwise get that unit from the previous list and verify it's state changed to idle.
-                        if (!idleUnit().test(getPreviousState(unit))) {
-                            clientEvents.onUnitIdle(unitInPool);
-                            return;
-                        }
-                    }
+    private void issueReissuedCommandEvents(ObservationDelta delta, List<Tag> commands) {
+        // If a unit was commanded but still has no orders the order must have failed. Reissue the OnUnitIdle event in
+        // that case, unless the unit was already reported as idle in this step.
+        new LinkedHashSet<>(commands).forEach(tag -> observationInternal().unitPool().getExistingUnit(tag)
+                .ifPresent(unitInPool -> unitInPool.getUnit()
+                        .filter(unit -> unit.getAlliance().equals(Alliance.SELF))
+                        .filter(idleUnit())
+                        .filter(this::hasPreviousState)
+                        .filter(unit -> idleUnit().test(getPreviousState(unit)))
+                        .ifPresent(unit -> clientEvents.onUnitIdle(unitInPool))));
+    }
 
-                    // Iterate the issued commands, if a unit exists in that list but does not currently have orders
-                    // the order must have failed. Reissue the OnUnitIdle event in that case.
-                    commands.stream()
-                            .filter(tag -> tag.equals(unit.getTag()))
-                            .findFirst()
-                            .ifPresent(tag -> clientEvents.onUnitIdle(unitInPool));
-                });
+    private Optional<Unit> existing(UnitInPool unitInPool) {
+        return observationInternal().unitPool().unitExists(unitInPool.getTag())
+                ? unitInPool.getUnit()
+                : Optional.empty();
+    }
+
+    private boolean hasPreviousState(Unit unit) {
+        return observation().getGameLoop() > 1 && observationInternal().unitPool().hasPreviousUnit(unit.getTag());
     }
 
     private Unit getPreviousState(Unit unit) {
-        return observationInternal().unitPool().previous().get(unit.getTag());
+        return observationInternal().unitPool().getPreviousUnit(unit.getTag()).orElse(nothing());
     }
 
     private Predicate<Unit> idleUnit() {
@@ -719,19 +784,6 @@ class ControlInterfaceImpl implements ControlInterface {
         return unit.getBuildProgress() == 1.0f;
     }
 
-    private void issueBuildingCompletedEvent(UnitInPool unitInPool) {
-        // If the units build progress is complete but it previously wasn't call construction complete
-        unitInPool.getUnit()
-                .filter(this::isBuild)
-                .ifPresent(unit -> {
-                    if (hasPreviousState(unit)) {
-                        if (!isBuild(getPreviousState(unit))) {
-                            clientEvents.onBuildingConstructionComplete(unitInPool);
-                        }
-                    }
-                });
-    }
-
     private void issueUpgradeEvents() {
         Set<Upgrade> upgradesPrevious = observationInternal().getUpgradesPrevious();
         observation().getUpgrades().forEach(upgrade -> {
@@ -878,6 +930,10 @@ class ControlInterfaceImpl implements ControlInterface {
         return useGeneralizedAbilityId;
     }
 
+    boolean isLocalPathingCrossCheck() {
+        return localPathingCrossCheck;
+    }
+
     // test purposes only
     S2Controller getTheGame() {
         return theGame;
@@ -0,0 +1,188 @@
+package com.github.ocraft.s2client.bot.gateway.impl;
+
+/*-
+ * #%L
+ * ocraft-s2client-bot
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.util.Arrays;
+
+/**
+ * Hash map with primitive {@code long} keys (unit tags) using open addressing with linear probing. Entries are kept
+ * in dense arrays, the hash table holds only indexes into them, so lookups do not box the key, iteration walks
+ * contiguous arrays and clearing the map does not create garbage. Removing an entry moves the last entry into its
+ * place, so dense indexes are stable only between removals.
+ */
+final class LongMap<V> {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private Object[] values;
+    private int[] slots;
+    private int mask;
+    private int size;
+
+    LongMap() {
+        this(MIN_CAPACITY);
+    }
+
+    LongMap(int expectedSize) {
+        allocate(Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(expectedSize, 1) - 1) << 1));
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        slots = new int[capacity * 2];
+        mask = slots.length - 1;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return dense index of the entry or -1 if there is no entry for the key
+     */
+    int indexOf(long key) {
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            int entry = slots[slot];
+            if (entry == 0) return -1;
+            if (keys[entry - 1] == key) return entry - 1;
+        }
+    }
+
+    boolean containsKey(long key) {
+        return indexOf(key) >= 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        int index = indexOf(key);
+        return index >= 0 ? (V) values[index] : null;
+    }
+
+    long keyAt(int index) {
+        return keys[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    V valueAt(int index) {
+        return (V) values[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    V put(long key, V value) {
+        int slot = hash(key) & mask;
+        for (int entry = slots[slot]; entry != 0; slot = (slot + 1) & mask, entry = slots[slot]) {
+            if (keys[entry - 1] == key) {
+                V previousValue = (V) values[entry - 1];
+                values[entry - 1] = value;
+                return previousValue;
+            }
+        }
+        if (size == keys.length) {
+            grow();
+            slot = freeSlot(key);
+        }
+        keys[size] = key;
+        values[size] = value;
+        slots[slot] = ++size;
+        return null;
+    }
+
+    private int freeSlot(long key) {
+        int slot = hash(key) & mask;
+        while (slots[slot] != 0) slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(keys.length * 2);
+        System.arraycopy(oldKeys, 0, keys, 0, size);
+        System.arraycopy(oldValues, 0, values, 0, size);
+        for (int i = 0; i < size; i++) slots[freeSlot(keys[i])] = i + 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    V remove(long key) {
+        int slot = hash(key) & mask;
+        while (true) {
+            int entry = slots[slot];
+            if (entry == 0) return null;
+            if (keys[entry - 1] == key) break;
+            slot = (slot + 1) & mask;
+        }
+        int index = slots[slot] - 1;
+        V removed = (V) values[index];
+        deleteSlot(slot);
+
+        int last = size - 1;
+        if (index != last) {
+            slots[slotOf(keys[last])] = index + 1;
+            keys[index] = keys[last];
+            values[index] = values[last];
+        }
+        values[last] = null;
+        size--;
+        return removed;
+    }
+
+    private int slotOf(long key) {
+        int slot = hash(key) & mask;
+        while (keys[slots[slot] - 1] != key) slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    // Backward shift deletion: entries after the hole that would not be found anymore are moved into it.
+    private void deleteSlot(int hole) {
+        for (int slot = (hole + 1) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int home = hash(keys[slots[slot] - 1]) & mask;
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                slots[hole] = slots[slot];
+                hole = slot;
+            }
+        }
+        slots[hole] = 0;
+    }
+
+    void clear() {
+        if (size == 0) return;
+        Arrays.fill(slots, 0);
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+    }
+}
@@ -27,7 +27,9 @@ package com.github.ocraft.s2client.bot.gateway.impl;
  */
 
 import com.github.ocraft.s2client.bot.ClientError;
+import com.github.ocraft.s2client.bot.gateway.ObservationDelta;
 import com.github.ocraft.s2client.bot.gateway.ObservationInterface;
+import com.github.ocraft.s2client.bot.gateway.ObservationSnapshot;
 import com.github.ocraft.s2client.bot.gateway.UnitInPool;
 import com.github.ocraft.s2client.protocol.GeneralizableAbility;
 import com.github.ocraft.s2client.protocol.action.Action;
@@ -41,6 +43,9 @@ import com.github.ocraft.s2client.protocol.observation.Observation;
 import com.github.ocraft.s2client.protocol.observation.PlayerCommon;
 import com.github.ocraft.s2client.protocol.observation.PlayerResult;
 import com.github.ocraft.s2client.protocol.observation.raw.*;
+import com.github.ocraft.s2client.protocol.observation.spatial.BitGrid;
+import com.github.ocraft.s2client.protocol.observation.spatial.ByteGrid;
+import com.github.ocraft.s2client.protocol.observation.spatial.FloatGrid;
 import com.github.ocraft.s2client.protocol.observation.spatial.ImageData;
 import com.github.ocraft.s2client.protocol.request.RequestData;
 import com.github.ocraft.s2client.protocol.request.Requests;
@@ -61,18 +66,25 @@ import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 import static com.github.ocraft.s2client.protocol.Constants.nothing;
+import static com.github.ocraft.s2client.protocol.Preconditions.greaterOrEqual;
 import static com.github.ocraft.s2client.protocol.Preconditions.isSet;
 import static com.github.ocraft.s2client.protocol.Preconditions.require;
 import static java.util.stream.Collectors.toMap;
 
-// TODO p.picheta should make this thread safe/immutable?
+/**
+ * State of the observation is updated in place by the thread stepping the game. Per-step state that has to be shared
+ * with other threads is published as an {@link ObservationSnapshot}.
+ */
 class ObservationInterfaceImpl implements ObservationInterface {
 
     private final ControlInterfaceImpl controlInterface;
 
     private int playerId;
     private final UnitPool unitPool = new UnitPool();
+    private final UnitDecoder unitDecoder = new UnitDecoder();
     private Observation observation;
+    private ObservationDelta observationDelta = ObservationDelta.empty();
+    private volatile ObservationSnapshot snapshot = ObservationSnapshot.empty();
     private long currentGameLoop;
     private long previousGameLoop;
     private List<ActionRaw> rawActions = new ArrayList<>();
@@ -94,11 +106,20 @@ class ObservationInterfaceImpl implements ObservationInterface {
     private boolean gameInfoCached;
 
     private Map<Ability, AbilityData> abilities = new HashMap<>();
+    private Map<Ability, AbilityData> abilityRemapSource;
+    private AbilityRemap abilityRemap = AbilityRemap.identity();
     private Map<UnitType, UnitTypeData> unitTypes = new HashMap<>();
     private Map<Upgrade, UpgradeData> upgradeIds = new HashMap<>();
     private Map<Buff, BuffData> buffs = new HashMap<>();
     private Map<Effect, EffectData> effectIds = new HashMap<>();
     private ResponseGameInfo gameInfo;
+    private ResponseGameInfo gridsGameInfo;
+    private BitGrid pathingGrid;
+    private BitGrid placementGrid;
+    private FloatGrid terrainHeightGrid;
+    private Observation gridsObservation;
+    private ByteGrid visibilityGrid;
+    private BitGrid creepGrid;
     private Point startLocation;
 
     ObservationInterfaceImpl(ControlInterfaceImpl controlInterface) {
@@ -127,16 +148,23 @@ class ObservationInterfaceImpl implements ObservationInterface {
 
     @Override
     public List<UnitInPool> getUnits(Alliance alliance, Predicate<UnitInPool> filter) {
-        return getUnits(unitInPool ->
-                unitInPool.getUnit().filter(unit ->
-                        unit.getAlliance().equals(alliance)).isPresent() &&
-                        filter.test(unitInPool));
+        List<UnitInPool> units = new ArrayList<>();
+        for (UnitInPool unitInPool : getUnits(alliance)) {
+            if (filter.test(unitInPool)) units.add(unitInPool);
+        }
+        return units;
     }
 
     @Override
     public List<UnitInPool> getUnits(Alliance alliance) {
-        return getUnits(alliance, unitInPool ->
-                unitInPool.getUnit().filter(unit -> unit.getAlliance().equals(alliance)).isPresent());
+        require("alliance", alliance);
+        return unitPool().buckets().getUnits(alliance);
+    }
+
+    @Override
+    public List<UnitInPool> getUnits(UnitType unitType) {
+        require("unit type", unitType);
+        return unitPool().buckets().getUnits(unitType);
     }
 
     @Override
@@ -153,6 +181,29 @@ class ObservationInterfaceImpl implements ObservationInterface {
         return unitPool().getExistingUnit(tag).orElse(nothing());
     }
 
+    @Override
+    public List<UnitInPool> getUnitsInRadius(Point2d center, float radius, Predicate<UnitInPool> filter) {
+        require("center", center);
+        greaterOrEqual("radius", radius, 0.0f);
+        require("filter", filter);
+        return unitPool().grid().getUnitsInRadius(center.getX(), center.getY(), radius, filter);
+    }
+
+    @Override
+    public List<UnitInPool> getUnitsInRect(Point2d min, Point2d max, Predicate<UnitInPool> filter) {
+        require("min", min);
+        require("max", max);
+        require("filter", filter);
+        return unitPool().grid().getUnitsInRect(min.getX(), min.getY(), max.getX(), max.getY(), filter);
+    }
+
+    @Override
+    public List<UnitInPool> getNearestUnits(Point2d point, int count, Predicate<UnitInPool> filter) {
+        require("point", point);
+        require("filter", filter);
+        return unitPool().grid().getNearestUnits(point.getX(), point.getY(), count, filter);
+    }
+
     @Override
     public List<ActionRaw> getRawActions() {
         return rawActions;
@@ -427,65 +478,119 @@ class ObservationInterfaceImpl implements ObservationInterface {
 
     @Override
     public boolean hasCreep(Point2d point) {
-        return Optional.ofNullable(observation)
-                .flatMap(Observation::getRaw)
-                .map(ObservationRaw::getMapState)
-                .map(MapState::getCreep)
-                .map(imageData -> imageData.sample(point, imageOrigin()))
-                .orElse(0) > 0;
+        decodeObservationGrids();
+        return creepGrid != null && creepGrid.get((int) point.getX(), (int) point.getY());
     }
 
     private ImageData.Origin imageOrigin() {
         return !isVersionCompatible("4.8.5") ? ImageData.Origin.UPPER_LEFT : ImageData.Origin.BOTTOM_LEFT;
     }
 
+    private float terrainHeightScale() {
+        return isVersionCompatible("4.8.5") ? 16.0f : 100.0f;
+    }
+
+    // Map layers are decoded once per game info, the map state once per observation.
+    private void decodeMapGrids() {
+        ResponseGameInfo info = getGameInfo();
+        if (info == gridsGameInfo) return;
+
+        gridsGameInfo = info;
+        Optional<StartRaw> startRaw = Optional.ofNullable(info).flatMap(ResponseGameInfo::getStartRaw);
+        if (startRaw.isPresent()) {
+            ImageData.Origin origin = imageOrigin();
+            ImageData pathing = startRaw.get().getPathingGrid();
+            pathingGrid = BitGrid.from(
+                    pathing, origin, pathing.getBitsPerPixel() == 1 ? value -> value == 1 : value -> value != 255);
+            ImageData placement = startRaw.get().getPlacementGrid();
+            placementGrid = BitGrid.from(
+                    placement, origin, placement.getBitsPerPixel() == 1 ? value -> value == 1 : value -> value == 255);
+            float scale = terrainHeightScale();
+            terrainHeightGrid = FloatGrid.from(startRaw.get().getTerrainHeight(), origin, -scale, scale);
+        } else {
+            pathingGrid = null;
+            placementGrid = null;
+            terrainHeightGrid = null;
+        }
+    }
+
+    private void decodeObservationGrids() {
+        if (observation == gridsObservation) return;
+
+        gridsObservation = observation;
+        Optional<MapState> mapState = Optional.ofNullable(observation)
+                .flatMap(Observation::getRaw)
+                .flatMap(ObservationRaw::findMapState);
+        if (mapState.isPresent()) {
+            ImageData.Origin origin = imageOrigin();
+            visibilityGrid = ByteGrid.from(mapState.get().getVisibility(), origin);
+            creepGrid = BitGrid.from(mapState.get().getCreep(), origin, value -> value > 0);
+        } else {
+            visibilityGrid = null;
+            creepGrid = null;
+        }
+    }
+
     @Override
     public Visibility getVisibility(Point2d point) {
-        return Optional.ofNullable(observation)
-                .flatMap(Observation::getRaw)
-                .map(ObservationRaw::getMapState)
-                .map(MapState::getVisibility)
-                .map(imageData -> imageData.sample(point, imageOrigin()))
-                .map(Visibility::from)
-                .orElse(Visibility.FULL_HIDDEN);
+        decodeObservationGrids();
+        int x = (int) point.getX();
+        int y = (int) point.getY();
+        return visibilityGrid != null && visibilityGrid.contains(x, y)
+                ? Visibility.from(visibilityGrid.get(x, y))
+                : Visibility.FULL_HIDDEN;
     }
 
     @Override
     public boolean isPathable(Point2d point) {
-        Optional<StartRaw> startRaw = getGameInfo().getStartRaw();
-        if (!startRaw.isPresent()) return false;
-
-        ImageData pathingGrid = startRaw.get().getPathingGrid();
-        ImageData.Origin origin = imageOrigin();
-        return (pathingGrid.getBitsPerPixel() == 1 && pathingGrid.sample(point, origin) == 1) ||
-                (pathingGrid.getBitsPerPixel() == 8 && pathingGrid.sample(point, origin) != 255);
+        decodeMapGrids();
+        return pathingGrid != null && pathingGrid.get((int) point.getX(), (int) point.getY());
     }
 
     @Override
     public boolean isPlacable(Point2d point) {
-        Optional<StartRaw> startRaw = getGameInfo().getStartRaw();
-        if (!startRaw.isPresent()) return false;
-        ImageData placementGrid = startRaw.get().getPlacementGrid();
-        ImageData.Origin origin = imageOrigin();
-        return (placementGrid.getBitsPerPixel() == 1 && placementGrid.sample(point, origin) == 1) ||
-                (placementGrid.getBitsPerPixel() == 8 && placementGrid.sample(point, origin) == 255);
+        decodeMapGrids();
+        return placementGrid != null && placementGrid.get((int) point.getX(), (int) point.getY());
     }
 
     @Override
     public float terrainHeight(Point2d point) {
-        Optional<StartRaw> startRaw = getGameInfo().getStartRaw();
-        int sample = 0;
-        if (startRaw.isPresent()) {
-            sample = startRaw.get().getTerrainHeight().sample(point, imageOrigin());
-        }
-        float scale;
-        if (isVersionCompatible("4.8.5")) {
-            scale = 16.0f;
-        } else {
-            scale = 100.0f;
-        }
-        return -scale + 2 * scale * (float) sample / 255.0f;
+        decodeMapGrids();
+        int x = (int) point.getX();
+        int y = (int) point.getY();
+        return terrainHeightGrid != null && terrainHeightGrid.contains(x, y)
+                ? terrainHeightGrid.get(x, y)
+                : -terrainHeightScale();
+    }
+
+    @Override
+    public Optional<BitGrid> getPathingGrid() {
+        decodeMapGrids();
+        return Optional.ofNullable(pathingGrid);
+    }
 
+    @Override
+    public Optional<BitGrid> getPlacementGrid() {
+        decodeMapGrids();
+        return Optional.ofNullable(placementGrid);
+    }
+
+    @Override
+    public Optional<FloatGrid> getTerrainHeightGrid() {
+        decodeMapGrids();
+        return Optional.ofNullable(terrainHeightGrid);
+    }
+
+    @Override
+    public Optional<ByteGrid> getVisibilityGrid() {
+        decodeObservationGrids();
+        return Optional.ofNullable(visibilityGrid);
+    }
+
+    @Override
+    public Optional<BitGrid> getCreepGrid() {
+        decodeObservationGrids();
+        return Optional.ofNullable(creepGrid);
     }
 
     @Override
@@ -501,6 +606,16 @@ class ObservationInterfaceImpl implements ObservationInterface {
         }
     }
 
+    @Override
+    public ObservationDelta getObservationDelta() {
+        return observationDelta;
+    }
+
+    @Override
+    public ObservationSnapshot getSnapshot() {
+        return snapshot;
+    }
+
     @Override
     public Observation getRawObservation() {
         return observation;
@@ -532,20 +647,14 @@ class ObservationInterfaceImpl implements ObservationInterface {
         }
 
         unitPool().switchExistingToPrevious();
-        observation.getRaw()
-                .map(ObservationRaw::getUnits)
-                .orElse(Collections.emptySet())
-                .forEach(unit -> unitPool().createUnit(unit.getTag()).update(unit, currentGameLoop, true));
-
-        if (control().isUseGeneralizedAbilityId()) {
-            unitPool().forEachExistingUnit(unitInPool -> {
-                Optional<Unit> unit = unitInPool.getUnit();
-                unit.ifPresent(u -> unitInPool.update(u.generalizeAbility(this::getGeneralizedAbility)));
-            });
-        }
-
-        chat.clear();
-        chat.addAll(responseObservation.getChat());
+        unitDecoder.setAbilityRemap(
+                control().isUseGeneralizedAbilityId() ? getAbilityRemap() : AbilityRemap.identity());
+        Set<Unit> units = observation.getRaw()
+                .map(raw -> raw.getUnits(unitDecoder))
+                .orElse(Collections.emptySet());
+        observationDelta = updateUnits(units);
+
+        chat = new ArrayList<>(responseObservation.getChat());
         powerSources = new ArrayList<>(Optional.ofNullable(observation)
                 .flatMap(Observation::getRaw)
                 .map(ObservationRaw::getPlayer)
@@ -565,9 +674,53 @@ class ObservationInterfaceImpl implements ObservationInterface {
         playerResults = responseObservation.getPlayerResults();
         actionErrors = responseObservation.getActionErrors();
 
+        snapshot = ObservationSnapshot.builder(currentGameLoop, playerId)
+                .observation(observation)
+                .units(units)
+                .rawActions(rawActions)
+                .featureLayerActions(featureLayerActions)
+                .renderedActions(renderedActions)
+                .chatMessages(chat)
+                .powerSources(powerSources)
+                .effects(effects)
+                .upgrades(upgrades)
+                .playerResults(playerResults)
+                .actionErrors(actionErrors)
+                .build();
+
         return true;
     }
 
+    private ObservationDelta updateUnits(Set<Unit> units) {
+        // Units from the first loop of a game are all new even if the pool still remembers a previous game.
+        boolean hasPrevious = currentGameLoop > 1;
+        ObservationDelta.Builder delta = ObservationDelta.builder(currentGameLoop);
+        if (!hasPrevious) unitPool().grid().clear();
+        unitPool().buckets().clear();
+        int retained = 0;
+        for (Unit unit : units) {
+            Unit previous = hasPrevious ? unitPool().getPreviousUnit(unit.getTag()).orElse(nothing()) : null;
+            UnitInPool unitInPool = unitPool().createUnit(unit.getTag()).update(unit, currentGameLoop, true);
+            unitPool().buckets().add(unitInPool);
+            if (previous == null) {
+                delta.added(unitInPool);
+                unitPool().grid().put(unitInPool);
+            } else {
+                retained++;
+                int fields = ObservationDelta.changedFields(previous, unit);
+                if (fields != 0) delta.changed(unitInPool, fields);
+                if ((fields & ObservationDelta.POSITION) != 0) unitPool().grid().put(unitInPool);
+            }
+        }
+        if (hasPrevious && retained < unitPool().previousUnitCount()) {
+            unitPool().forEachRemovedUnit(unitInPool -> {
+                delta.removed(unitInPool);
+                unitPool().grid().remove(unitInPool);
+            });
+        }
+        return delta.build();
+    }
+
     private void updateActions(ResponseObservation responseObservation) {
         rawActions = responseObservation.getActions().stream()
                 .filter(action -> action.getRaw().isPresent())
@@ -600,12 +753,16 @@ class ObservationInterfaceImpl implements ObservationInterface {
     }
 
     Ability getGeneralizedAbility(Ability ability) {
-        if (!isSet(ability)) return ability;
-        if (getAbilityData(false).containsKey(ability)) {
-            return getAbilityData(false).get(ability).getRemapsToAbility().filter(Ability::isKnown).orElse(ability);
-        } else {
-            return ability;
+        return getAbilityRemap().apply(ability);
+    }
+
+    AbilityRemap getAbilityRemap() {
+        Map<Ability, AbilityData> abilityData = getAbilityData(false);
+        if (abilityData != abilityRemapSource) {
+            abilityRemap = AbilityRemap.from(abilityData.values());
+            abilityRemapSource = abilityData;
         }
+        return abilityRemap;
     }
 
     boolean gameLoopChanged() {
@@ -0,0 +1,412 @@
+package com.github.ocraft.s2client.bot.gateway.impl;
+
+/*-
+ * #%L
+ * ocraft-s2client-bot
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import com.github.ocraft.s2client.protocol.observation.spatial.BitGrid;
+import com.github.ocraft.s2client.protocol.spatial.Point2d;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Local ground pathfinding on the pathing grid of the map: jump point search (A* that skips over symmetric paths)
+ * over 8-connected cells without cutting blocked corners, followed by line of sight smoothing, so distances
+ * approximate the any-angle paths used by the game. Cells covered by structure footprints can be blocked on top of
+ * the map grid. All buffers are allocated once per map, queries
+ * reuse them. Not thread safe.
+ */
+class PathFinder {
+
+    static final float NO_PATH = -1.0f;
+
+    private static final float SQRT_2 = (float) Math.sqrt(2.0);
+    private static final int SNAP_RADIUS = 3;
+    private static final int[] DX = {1, -1, 0, 0, 1, 1, -1, -1};
+    private static final int[] DY = {0, 0, 1, -1, 1, -1, 1, -1};
+
+    private final int width;
+    private final int height;
+    private final boolean[] mapPathable;
+    private final boolean[] pathable;
+
+    private final float[] cost;
+    private final int[] parent;
+    private final int[] visited;
+    private final int[] closed;
+    private int generation;
+
+    private int[] heapNodes = new int[1024];
+    private float[] heapKeys = new float[1024];
+    private int heapSize;
+
+    PathFinder(BitGrid pathingGrid) {
+        width = pathingGrid.getWidth();
+        height = pathingGrid.getHeight();
+        int cells = width * height;
+        mapPathable = new boolean[cells];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                mapPathable[x + y * width] = pathingGrid.get(x, y);
+            }
+        }
+        pathable = mapPathable.clone();
+        cost = new float[cells];
+        parent = new int[cells];
+        visited = new int[cells];
+        closed = new int[cells];
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    int getHeight() {
+        return height;
+    }
+
+    /**
+     * Restores the pathing grid of the map, removing all blocked footprints.
+     */
+    void clearBlocked() {
+        System.arraycopy(mapPathable, 0, pathable, 0, pathable.length);
+    }
+
+    /**
+     * Blocks a square footprint of the given size (in cells) centered on the given position.
+     */
+    void block(float centerX, float centerY, int size) {
+        block(centerX, centerY, size, size);
+    }
+
+    /**
+     * Blocks a rectangular footprint of the given size (in cells) centered on the given position.
+     */
+    void block(float centerX, float centerY, int footprintWidth, int footprintHeight) {
+        int minX = (int) Math.floor(centerX - footprintWidth / 2.0f + 0.5f);
+        int minY = (int) Math.floor(centerY - footprintHeight / 2.0f + 0.5f);
+        int fromX = Math.max(minX, 0);
+        int toX = Math.min(minX + footprintWidth, width);
+        if (fromX >= toX) return;
+        for (int y = Math.max(minY, 0); y < Math.min(minY + footprintHeight, height); y++) {
+            Arrays.fill(pathable, y * width + fromX, y * width + toX, false);
+        }
+    }
+
+    boolean isPathable(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height && pathable[x + y * width];
+    }
+
+    /**
+     * @return Length of the smoothed path or {@link #NO_PATH} if the points are not connected.
+     */
+    float distance(float startX, float startY, float endX, float endY) {
+        List<Point2d> path = path(startX, startY, endX, endY);
+        if (path.isEmpty()) return NO_PATH;
+
+        float distance = 0.0f;
+        for (int i = 1; i < path.size(); i++) {
+            distance += (float) path.get(i - 1).distance(path.get(i));
+        }
+        return distance;
+    }
+
+    /**
+     * @return Waypoints from start to end (both included) or empty list if the points are not connected. Points on
+     * blocked cells are moved to the nearest pathable cell first.
+     */
+    List<Point2d> path(float startX, float startY, float endX, float endY) {
+        int start = snap(startX, startY);
+        int goal = snap(endX, endY);
+        if (start < 0 || goal < 0 || !search(start, goal)) return Collections.emptyList();
+
+        float[] from = pointIn(start, startX, startY);
+        float[] to = pointIn(goal, endX, endY);
+
+        // Cells of the path from start to goal.
+        List<Integer> cells = new ArrayList<>();
+        for (int cell = goal; cell != -1; cell = parent[cell]) {
+            cells.add(cell);
+        }
+        Collections.reverse(cells);
+
+        List<Point2d> waypoints = new ArrayList<>();
+        waypoints.add(Point2d.of(from[0], from[1]));
+        float anchorX = from[0];
+        float anchorY = from[1];
+        for (int i = 1; i < cells.size() - 1; i++) {
+            int next = cells.get(i + 1);
+            float nextX = i + 1 == cells.size() - 1 ? to[0] : next % width + 0.5f;
+            float nextY = i + 1 == cells.size() - 1 ? to[1] : next / width + 0.5f;
+            if (!lineOfSight(anchorX, anchorY, nextX, nextY)) {
+                int cell = cells.get(i);
+                anchorX = cell % width + 0.5f;
+                anchorY = cell / width + 0.5f;
+                waypoints.add(Point2d.of(anchorX, anchorY));
+            }
+        }
+        waypoints.add(Point2d.of(to[0], to[1]));
+        return waypoints;
+    }
+
+    // Keeps the original point if it lies in the snapped cell, otherwise uses the center of the cell.
+    private float[] pointIn(int cell, float x, float y) {
+        int cellX = cell % width;
+        int cellY = cell / width;
+        return (int) x == cellX && (int) y == cellY && x >= 0 && y >= 0
+                ? new float[]{x, y}
+                : new float[]{cellX + 0.5f, cellY + 0.5f};
+    }
+
+    private int snap(float x, float y) {
+        int cellX = (int) Math.floor(x);
+        int cellY = (int) Math.floor(y);
+        if (isPathable(cellX, cellY)) return cellX + cellY * width;
+
+        int nearest = -1;
+        float nearestDistance = Float.MAX_VALUE;
+        for (int dy = -SNAP_RADIUS; dy <= SNAP_RADIUS; dy++) {
+            for (int dx = -SNAP_RADIUS; dx <= SNAP_RADIUS; dx++) {
+                if (!isPathable(cellX + dx, cellY + dy)) continue;
+                float distanceX = cellX + dx + 0.5f - x;
+                float distanceY = cellY + dy + 0.5f - y;
+                float distance = distanceX * distanceX + distanceY * distanceY;
+                if (distance < nearestDistance) {
+                    nearestDistance = distance;
+                    nearest = cellX + dx + (cellY + dy) * width;
+                }
+            }
+        }
+        return nearest;
+    }
+
+    private boolean search(int start, int goal) {
+        nextGeneration();
+        heapSize = 0;
+        int goalX = goal % width;
+        int goalY = goal / width;
+
+        cost[start] = 0.0f;
+        parent[start] = -1;
+        visited[start] = generation;
+        push(start, heuristic(start % width, start / width, goalX, goalY));
+
+        while (heapSize > 0) {
+            int node = pop();
+            if (closed[node] == generation) continue;
+            closed[node] = generation;
+            if (node == goal) return true;
+
+            int x = node % width;
+            int y = node / width;
+            int directions = parent[node] == -1 ? openDirections(x, y) : prunedDirections(node, x, y);
+            for (int direction = 0; direction < DX.length; direction++) {
+                if ((directions & (1 << direction)) == 0) continue;
+                int next = jump(x + DX[direction], y + DY[direction], DX[direction], DY[direction], goal);
+                if (next == -1 || closed[next] == generation) continue;
+
+                int nx = next % width;
+                int ny = next / width;
+                float nextCost = cost[node] + octile(Math.abs(nx - x), Math.abs(ny - y));
+                if (visited[next] != generation || nextCost < cost[next]) {
+                    visited[next] = generation;
+                    cost[next] = nextCost;
+                    parent[next] = node;
+                    push(next, nextCost + heuristic(nx, ny, goalX, goalY));
+                }
+            }
+        }
+        return false;
+    }
+
+    private int openDirections(int x, int y) {
+        int directions = 0;
+        for (int direction = 0; direction < DX.length; direction++) {
+            int nx = x + DX[direction];
+            int ny = y + DY[direction];
+            if (isPathable(nx, ny) && (direction < 4 || (isPathable(nx, y) && isPathable(x, ny)))) {
+                directions |= 1 << direction;
+            }
+        }
+        return directions;
+    }
+
+    // Natural and forced neighbours of a jump point reached from its parent, as a bit set of directions.
+    private int prunedDirections(int node, int x, int y) {
+        int dx = Integer.signum(x - parent[node] % width);
+        int dy = Integer.signum(y - parent[node] / width);
+        int directions = 0;
+        if (dx != 0 && dy != 0) {
+            boolean horizontal = isPathable(x + dx, y);
+            boolean vertical = isPathable(x, y + dy);
+            if (vertical) directions |= direction(0, dy);
+            if (horizontal) directions |= direction(dx, 0);
+            if (horizontal && vertical) directions |= direction(dx, dy);
+        } else if (dx != 0) {
+            boolean up = isPathable(x, y + 1);
+            boolean down = isPathable(x, y - 1);
+            if (isPathable(x + dx, y)) {
+                directions |= direction(dx, 0);
+                if (up) directions |= direction(dx, 1);
+                if (down) directions |= direction(dx, -1);
+            }
+            if (up) directions |= direction(0, 1);
+            if (down) directions |= direction(0, -1);
+        } else {
+            boolean right = isPathable(x + 1, y);
+            boolean left = isPathable(x - 1, y);
+            if (isPathable(x, y + dy)) {
+                directions |= direction(0, dy);
+                if (right) directions |= direction(1, dy);
+                if (left) directions |= direction(-1, dy);
+            }
+            if (right) directions |= direction(1, 0);
+            if (left) directions |= direction(-1, 0);
+        }
+        return directions;
+    }
+
+    private static int direction(int dx, int dy) {
+        for (int direction = 0; direction < DX.length; direction++) {
+            if (DX[direction] == dx && DY[direction] == dy) return 1 << direction;
+        }
+        throw new AssertionError("unknown direction");
+    }
+
+    // Moves from (x, y) in the given direction until the goal, a cell with a forced neighbour or a dead end.
+    private int jump(int x, int y, int dx, int dy, int goal) {
+        while (true) {
+            if (!isPathable(x, y)) return -1;
+            int cell = x + y * width;
+            if (cell == goal) return cell;
+            if (dx != 0 && dy != 0) {
+                if (jump(x + dx, y, dx, 0, goal) != -1 || jump(x, y + dy, 0, dy, goal) != -1) return cell;
+                if (!isPathable(x + dx, y) || !isPathable(x, y + dy)) return -1;
+            } else if (dx != 0) {
+                if ((isPathable(x, y - 1) && !isPathable(x - dx, y - 1)) ||
+                        (isPathable(x, y + 1) && !isPathable(x - dx, y + 1))) return cell;
+            } else {
+                if ((isPathable(x - 1, y) && !isPathable(x - 1, y - dy)) ||
+                        (isPathable(x + 1, y) && !isPathable(x + 1, y - dy))) return cell;
+            }
+            x += dx;
+            y += dy;
+        }
+    }
+
+    private void nextGeneration() {
+        if (++generation == Integer.MAX_VALUE) {
+            Arrays.fill(visited, 0);
+            Arrays.fill(closed, 0);
+            generation = 1;
+        }
+    }
+
+    private static float heuristic(int x, int y, int goalX, int goalY) {
+        return octile(Math.abs(x - goalX), Math.abs(y - goalY));
+    }
+
+    // Distance on an 8-connected grid without obstacles.
+    private static float octile(int dx, int dy) {
+        return Math.max(dx, dy) + (SQRT_2 - 1.0f) * Math.min(dx, dy);
+    }
+
+    private void push(int node, float key) {
+        if (heapSize == heapNodes.length) {
+            heapNodes = Arrays.copyOf(heapNodes, heapSize * 2);
+            heapKeys = Arrays.copyOf(heapKeys, heapSize * 2);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            int up = (i - 1) >>> 1;
+            if (heapKeys[up] <= key) break;
+            heapNodes[i] = heapNodes[up];
+            heapKeys[i] = heapKeys[up];
+            i = up;
+        }
+        heapNodes[i] = node;
+        heapKeys[i] = key;
+    }
+
+    private int pop() {
+        int top = heapNodes[0];
+        int lastNode = heapNodes[--heapSize];
+        float lastKey = heapKeys[heapSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) break;
+            if (child + 1 < heapSize && heapKeys[child + 1] < heapKeys[child]) child++;
+            if (heapKeys[child] >= lastKey) break;
+            heapNodes[i] = heapNodes[child];
+            heapKeys[i] = heapKeys[child];
+            i = child;
+        }
+        heapNodes[i] = lastNode;
+        heapKeys[i] = lastKey;
+        return top;
+    }
+
+    // Walks all cells crossed by the segment. Passing exactly through a corner requires both side cells to be free.
+    private boolean lineOfSight(float x0, float y0, float x1, float y1) {
+        int x = (int) Math.floor(x0);
+        int y = (int) Math.floor(y0);
+        int endX = (int) Math.floor(x1);
+        int endY = (int) Math.floor(y1);
+        if (!isPathable(x, y)) return false;
+
+        float dx = x1 - x0;
+        float dy = y1 - y0;
+        int stepX = dx > 0 ? 1 : -1;
+        int stepY = dy > 0 ? 1 : -1;
+        float deltaX = dx != 0 ? Math.abs(1.0f / dx) : Float.POSITIVE_INFINITY;
+        float deltaY = dy != 0 ? Math.abs(1.0f / dy) : Float.POSITIVE_INFINITY;
+        float maxX = dx != 0 ? (dx > 0 ? x + 1 - x0 : x0 - x) * deltaX : Float.POSITIVE_INFINITY;
+        float maxY = dy != 0 ? (dy > 0 ? y + 1 - y0 : y0 - y) * deltaY : Float.POSITIVE_INFINITY;
+
+        int steps = Math.abs(endX - x) + Math.abs(endY - y);
+        while ((x != endX || y != endY) && steps-- > 0) {
+            if (maxX < maxY) {
+                maxX += deltaX;
+                x += stepX;
+            } else if (maxY < maxX) {
+                maxY += deltaY;
+                y += stepY;
+            } else {
+                if (!isPathable(x + stepX, y) || !isPathable(x, y + stepY)) return false;
+                maxX += deltaX;
+                maxY += deltaY;
+                x += stepX;
+                y += stepY;
+                steps--;
+            }
+            if (!isPathable(x, y)) return false;
+        }
+        return true;
+    }
+}
@@ -31,6 +31,7 @@ import com.github.ocraft.s2client.api.controller.S2Controller;
 import com.github.ocraft.s2client.bot.ClientError;
 import com.github.ocraft.s2client.bot.gateway.ProtoInterface;
 import com.github.ocraft.s2client.protocol.BuilderSyntax;
+import com.github.ocraft.s2client.protocol.ObservationProjection;
 import com.github.ocraft.s2client.protocol.data.Units;
 import com.github.ocraft.s2client.protocol.game.GameStatus;
 import com.github.ocraft.s2client.protocol.request.Request;
@@ -63,11 +64,40 @@ class ProtoInterfaceImpl implements ProtoInterface {
     private Map<ResponseType, Integer> countUses = new EnumMap<>(ResponseType.class);
     private ResponseQueue responseQueue = new ResponseQueue();
 
+    ProtoInterfaceImpl() {
+    }
+
+    // test purposes only
+    ProtoInterfaceImpl(S2Client s2Client, boolean pipelined) {
+        this.responseQueue = new ResponseQueue(pipelined);
+        this.s2Client = s2Client;
+    }
+
     void setOnError(BiConsumer<ClientError, List<String>> onError) {
         require("onError callback", onError);
         this.onError = onError;
     }
 
+    /**
+     * Switches between the default mode, where only one request of each response type can be outstanding, and the
+     * pipelined mode, where requests of the same type are queued and their responses are collected in order. Must be
+     * set before the connection is established.
+     */
+    void setPipelined(boolean pipelined) {
+        if (isConnected()) {
+            throw new IllegalStateException("request mode cannot be changed after connecting to the game");
+        }
+        this.responseQueue = new ResponseQueue(pipelined);
+    }
+
+    boolean isPipelined() {
+        return responseQueue.isPipelined();
+    }
+
+    void projectObservations(ObservationProjection projection) {
+        if (isSet(s2Client)) s2Client.projectObservations(projection);
+    }
+
     @Override
     public boolean connectToGame(
             S2Controller theGame,
@@ -127,14 +157,13 @@ class ProtoInterfaceImpl implements ProtoInterface {
     @Override
     public <T extends Request> Maybe<Response> sendRequest(T requestData) {
         require("request", requestData);
-        if (!requestData.responseType().equals(ResponseType.PING) &&
+        if (!responseQueue.isPipelined() &&
+                !requestData.responseType().equals(ResponseType.PING) &&
                 responseQueue.peek(requestData.responseType())) {
-            // TODO p.picheta to test
             onError.accept(ClientError.RESPONSE_NOT_CONSUMED, Collections.emptyList());
             return Maybe.empty();
         }
-        Maybe<Response> responseMaybe = s2Client.waitForResponse(requestData.responseType());
-        s2Client.request(requestData);
+        Maybe<Response> responseMaybe = s2Client.requestAsync(requestData);
         countUses.compute(requestData.responseType(), (responseType, count) -> count != null ? ++count : 1);
         responseQueue.offer(requestData.responseType(), responseMaybe);
         return responseMaybe;
@@ -151,7 +180,7 @@ class ProtoInterfaceImpl implements ProtoInterface {
         return Optional.ofNullable(waitFor.blockingGet())
                 .map(response -> {
                     latestStatus = response.getStatus();
-                    responseQueue.poll(response.getType());
+                    responseQueue.remove(waitFor);
                     return response;
                 });
     }
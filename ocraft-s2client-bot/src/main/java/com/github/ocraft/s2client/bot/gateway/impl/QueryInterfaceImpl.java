@@ -28,8 +28,14 @@ package com.github.ocraft.s2client.bot.gateway.impl;
 
 import com.github.ocraft.s2client.bot.ClientError;
 import com.github.ocraft.s2client.bot.gateway.QueryInterface;
+import com.github.ocraft.s2client.bot.gateway.UnitInPool;
 import com.github.ocraft.s2client.protocol.action.ActionResult;
 import com.github.ocraft.s2client.protocol.data.Ability;
+import com.github.ocraft.s2client.protocol.data.UnitAttribute;
+import com.github.ocraft.s2client.protocol.data.UnitType;
+import com.github.ocraft.s2client.protocol.data.UnitTypeData;
+import com.github.ocraft.s2client.protocol.data.Units;
+import com.github.ocraft.s2client.protocol.observation.spatial.BitGrid;
 import com.github.ocraft.s2client.protocol.query.*;
 import com.github.ocraft.s2client.protocol.request.RequestQuery;
 import com.github.ocraft.s2client.protocol.request.Requests;
@@ -37,16 +43,38 @@ import com.github.ocraft.s2client.protocol.response.ResponseQuery;
 import com.github.ocraft.s2client.protocol.spatial.Point2d;
 import com.github.ocraft.s2client.protocol.unit.Unit;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 class QueryInterfaceImpl implements QueryInterface {
 
+    private static final Set<UnitType> MINERAL_FIELDS = Set.of(
+            Units.NEUTRAL_MINERAL_FIELD, Units.NEUTRAL_MINERAL_FIELD750,
+            Units.NEUTRAL_MINERAL_FIELD450, Units.NEUTRAL_MINERAL_FIELD_OPAQUE,
+            Units.NEUTRAL_MINERAL_FIELD_OPAQUE900,
+            Units.NEUTRAL_RICH_MINERAL_FIELD, Units.NEUTRAL_RICH_MINERAL_FIELD750,
+            Units.NEUTRAL_PURIFIER_MINERAL_FIELD, Units.NEUTRAL_PURIFIER_MINERAL_FIELD750,
+            Units.NEUTRAL_PURIFIER_RICH_MINERAL_FIELD, Units.NEUTRAL_PURIFIER_RICH_MINERAL_FIELD750,
+            Units.NEUTRAL_LAB_MINERAL_FIELD, Units.NEUTRAL_LAB_MINERAL_FIELD750,
+            Units.NEUTRAL_BATTLE_STATION_MINERAL_FIELD, Units.NEUTRAL_BATTLE_STATION_MINERAL_FIELD750);
+
+    private Logger log = LoggerFactory.getLogger(QueryInterfaceImpl.class);
+
     private final ControlInterfaceImpl controlInterface;
 
+    // Local pathing: rebuilt when the pathing grid changes, structures re-applied once per game loop.
+    private BitGrid pathingGrid;
+    private PathFinder pathFinder;
+    private long pathFinderGameLoop = -1;
+
     QueryInterfaceImpl(ControlInterfaceImpl controlInterface) {
         this.controlInterface = controlInterface;
     }
@@ -130,6 +158,94 @@ class QueryInterfaceImpl implements QueryInterface {
         return distances;
     }
 
+    @Override
+    public float localPathingDistance(Point2d start, Point2d end) {
+        return localPathingDistance(List.of(QueryPathing.path().from(start).to(end).build())).get(0);
+    }
+
+    @Override
+    public float localPathingDistance(Unit start, Point2d end) {
+        Point2d position = start.getPosition().toPoint2d();
+        if (start.getFlying().orElse(false)) return (float) position.distance(end);
+        return localPathingDistance(position, end);
+    }
+
+    @Override
+    public List<Float> localPathingDistance(List<QueryPathing> queries) {
+        Optional<PathFinder> finder = pathFinder();
+        List<Float> distances = new ArrayList<>(queries.size());
+        for (QueryPathing query : queries) {
+            Optional<Point2d> start = query.getStart().isPresent()
+                    ? query.getStart()
+                    : query.getUnitTag()
+                    .map(tag -> control().observation().getUnit(tag))
+                    .flatMap(UnitInPool::getUnit)
+                    .map(unit -> unit.getPosition().toPoint2d());
+            float distance = start.flatMap(point -> finder.map(pathing -> pathing.distance(
+                    point.getX(), point.getY(), query.getEnd().getX(), query.getEnd().getY())))
+                    .orElse(PathFinder.NO_PATH);
+            distances.add(distance < 0.0f ? 0.0f : distance);
+        }
+        if (control().isLocalPathingCrossCheck()) crossCheck(queries, distances);
+        return distances;
+    }
+
+    @Override
+    public List<Point2d> localPath(Point2d start, Point2d end) {
+        return pathFinder()
+                .map(finder -> finder.path(start.getX(), start.getY(), end.getX(), end.getY()))
+                .orElseGet(Collections::emptyList);
+    }
+
+    private Optional<PathFinder> pathFinder() {
+        Optional<BitGrid> grid = control().observationInternal().getPathingGrid();
+        if (!grid.isPresent()) return Optional.empty();
+        if (grid.get() != pathingGrid) {
+            pathingGrid = grid.get();
+            pathFinder = new PathFinder(pathingGrid);
+            pathFinderGameLoop = -1;
+        }
+        long gameLoop = control().observation().getGameLoop();
+        if (gameLoop != pathFinderGameLoop) {
+            pathFinderGameLoop = gameLoop;
+            blockStructures(pathFinder);
+        }
+        return Optional.of(pathFinder);
+    }
+
+    private void blockStructures(PathFinder finder) {
+        finder.clearBlocked();
+        Map<UnitType, UnitTypeData> unitTypes = control().observation().getUnitTypeData(false);
+        control().observation().getUnits(unitInPool -> {
+            Unit unit = unitInPool.unit();
+            UnitTypeData data = unitTypes.get(unit.getType());
+            if (MINERAL_FIELDS.contains(unit.getType())) return true;
+            return data != null && data.getAttributes().contains(UnitAttribute.STRUCTURE) &&
+                    !unit.getFlying().orElse(false) && unit.getType() != Units.TERRAN_SUPPLY_DEPOT_LOWERED;
+        }).forEach(unitInPool -> {
+            Unit structure = unitInPool.unit();
+            float x = structure.getPosition().getX();
+            float y = structure.getPosition().getY();
+            if (MINERAL_FIELDS.contains(structure.getType())) {
+                // Mineral fields are 2x1, their radius describes a circle around the whole footprint.
+                finder.block(x, y, 2, 1);
+            } else {
+                finder.block(x, y, Math.max(1, (int) (2 * structure.getRadius())));
+            }
+        });
+    }
+
+    private void crossCheck(List<QueryPathing> queries, List<Float> localDistances) {
+        List<Float> gameDistances = pathingDistance(queries);
+        for (int i = 0; i < Math.min(gameDistances.size(), localDistances.size()); i++) {
+            float game = gameDistances.get(i);
+            float local = localDistances.get(i);
+            if (Math.abs(local - game) > Math.max(1.0f, 0.1f * game)) {
+                log.warn("Local pathing distance {} differs from game distance {} for {}.", local, game, queries.get(i));
+            }
+        }
+    }
+
     @Override
     public boolean placement(Ability ability, Point2d target) {
         List<Boolean> placement = placement(List.of(
@@ -95,6 +95,7 @@ class ReplayControlInterfaceImpl implements ReplayControlInterface {
 
     @Override
     public Maybe<Response> loadReplay(Path replayPath, InterfaceSettings settings, int playerId, boolean realtime) {
+        control().projectObservations(settings);
         RequestStartReplay request = RequestStartReplay
                 .startReplay()
                 .from(replayPath)
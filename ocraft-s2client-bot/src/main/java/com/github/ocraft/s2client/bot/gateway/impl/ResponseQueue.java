@@ -32,41 +32,75 @@ import io.reactivex.Maybe;
 import io.reactivex.subjects.MaybeSubject;
 
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
+/**
+ * Keeps track of responses the client is still waiting for. By default only one request of each response type may be
+ * outstanding. In pipelined mode requests of the same type are queued in the order they were sent (the game answers
+ * them in that order), so they can be fired back-to-back and collected later.
+ */
 class ResponseQueue {
 
-    private Map<ResponseType, MaybeSubject<Response>> pending = new ConcurrentHashMap<>();
+    private final boolean pipelined;
+    private Map<ResponseType, Queue<MaybeSubject<Response>>> pending = new ConcurrentHashMap<>();
+
+    ResponseQueue() {
+        this(false);
+    }
+
+    ResponseQueue(boolean pipelined) {
+        this.pipelined = pipelined;
+    }
+
+    boolean isPipelined() {
+        return pipelined;
+    }
 
     boolean offer(ResponseType type, Maybe<Response> waitFor) {
-        if (!pending.containsKey(type)) {
-            if (waitFor instanceof MaybeSubject) {
-                pending.put(type, (MaybeSubject<Response>) waitFor);
-                return true;
-            } else {
-                return false;
-            }
-        } else {
+        if (!(waitFor instanceof MaybeSubject)) {
             return false;
         }
+        if (!pipelined && peek(type)) {
+            return false;
+        }
+        pending.computeIfAbsent(type, responseType -> new ConcurrentLinkedQueue<>())
+                .add((MaybeSubject<Response>) waitFor);
+        return true;
     }
 
     boolean peek(ResponseType type) {
-        return pending.containsKey(type);
+        Queue<MaybeSubject<Response>> queue = pending.get(type);
+        return queue != null && !queue.isEmpty();
     }
 
     boolean peek() {
-        return !pending.isEmpty();
+        return pending.values().stream().anyMatch(queue -> !queue.isEmpty());
     }
 
     boolean peekResponse(ResponseType type) {
-        return pending.containsKey(type) && pending.get(type).hasValue();
+        Queue<MaybeSubject<Response>> queue = pending.get(type);
+        if (queue == null) return false;
+        MaybeSubject<Response> head = queue.peek();
+        return head != null && head.hasValue();
     }
 
     Maybe<Response> poll(ResponseType type) {
-        Maybe<Response> responseMaybe = pending.getOrDefault(type, null);
-        pending.remove(type);
-        return responseMaybe;
+        Queue<MaybeSubject<Response>> queue = pending.get(type);
+        return queue != null ? queue.poll() : null;
+    }
+
+    boolean remove(Maybe<Response> waitFor) {
+        for (Queue<MaybeSubject<Response>> queue : pending.values()) {
+            if (queue.remove(waitFor)) return true;
+        }
+        return false;
+    }
+
+    int size(ResponseType type) {
+        Queue<MaybeSubject<Response>> queue = pending.get(type);
+        return queue != null ? queue.size() : 0;
     }
 
 }
@@ -0,0 +1,112 @@
+package com.github.ocraft.s2client.bot.gateway.impl;
+
+/*-
+ * #%L
+ * ocraft-s2client-bot
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import com.github.ocraft.s2client.bot.gateway.UnitInPool;
+import com.github.ocraft.s2client.protocol.data.UnitType;
+import com.github.ocraft.s2client.protocol.unit.Alliance;
+import com.github.ocraft.s2client.protocol.unit.Unit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Existing units grouped by alliance and by unit type (indexed by type id), built once per step while the
+ * observation is applied. Every step fills new bucket lists and buckets are handed out as read-only views, so a list
+ * returned once never changes. Units marked dead during the step are removed from the buckets right away, like from
+ * the existing units of the pool, by replacing their buckets with copies.
+ */
+class UnitBuckets {
+
+    private static final int INITIAL_TYPE_CAPACITY = 2048;
+
+    private final List<UnitInPool>[] byAlliance = newBuckets(Alliance.values().length);
+    private List<UnitInPool>[] byType = newBuckets(INITIAL_TYPE_CAPACITY);
+
+    void clear() {
+        clear(byAlliance);
+        clear(byType);
+    }
+
+    void add(UnitInPool unitInPool) {
+        Unit unit = unitInPool.unit();
+        bucket(byAlliance, unit.getAlliance().ordinal()).add(unitInPool);
+
+        int typeId = unit.getType().getUnitTypeId();
+        if (typeId < 0) return;
+        if (typeId >= byType.length) byType = Arrays.copyOf(byType, Math.max(typeId + 1, byType.length * 2));
+        bucket(byType, typeId).add(unitInPool);
+    }
+
+    void remove(UnitInPool unitInPool) {
+        Unit unit = unitInPool.getUnit().orElse(null);
+        if (unit == null) return;
+        remove(byAlliance, unit.getAlliance().ordinal(), unitInPool);
+        remove(byType, unit.getType().getUnitTypeId(), unitInPool);
+    }
+
+    List<UnitInPool> getUnits(Alliance alliance) {
+        return view(byAlliance, alliance.ordinal());
+    }
+
+    List<UnitInPool> getUnits(UnitType unitType) {
+        return view(byType, unitType.getUnitTypeId());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<UnitInPool>[] newBuckets(int size) {
+        return (List<UnitInPool>[]) new List[size];
+    }
+
+    private static void clear(List<UnitInPool>[] buckets) {
+        Arrays.fill(buckets, null);
+    }
+
+    private static List<UnitInPool> bucket(List<UnitInPool>[] buckets, int index) {
+        List<UnitInPool> bucket = buckets[index];
+        if (bucket == null) {
+            bucket = new ArrayList<>();
+            buckets[index] = bucket;
+        }
+        return bucket;
+    }
+
+    private static void remove(List<UnitInPool>[] buckets, int index, UnitInPool unitInPool) {
+        if (index < 0 || index >= buckets.length || buckets[index] == null) return;
+        if (!buckets[index].contains(unitInPool)) return;
+        List<UnitInPool> bucket = new ArrayList<>(buckets[index]);
+        bucket.remove(unitInPool);
+        buckets[index] = bucket;
+    }
+
+    private static List<UnitInPool> view(List<UnitInPool>[] buckets, int index) {
+        if (index < 0 || index >= buckets.length || buckets[index] == null) return Collections.emptyList();
+        return Collections.unmodifiableList(buckets[index]);
+    }
+}
@@ -0,0 +1,227 @@
+package com.github.ocraft.s2client.bot.gateway.impl;
+
+/*-
+ * #%L
+ * ocraft-s2client-bot
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import com.github.ocraft.s2client.bot.gateway.UnitInPool;
+import com.github.ocraft.s2client.protocol.spatial.Point;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Uniform grid of the units existing in the current step, updated incrementally as units appear, move and disappear.
+ * The grid covers the largest possible map (256 x 256), positions outside of it are kept in the border cells.
+ */
+class UnitGrid {
+
+    static final int CELL_SIZE = 8;
+    static final int GRID_SIZE = 256 / CELL_SIZE;
+
+    private static final int INITIAL_CELL_CAPACITY = 4;
+    private static final int INITIAL_CANDIDATE_CAPACITY = 16;
+
+    private final UnitInPool[][] cells = new UnitInPool[GRID_SIZE * GRID_SIZE][];
+    private final int[] cellSizes = new int[GRID_SIZE * GRID_SIZE];
+    // Location of each indexed unit: cell and index in the cell.
+    private final LongMap<int[]> locations = new LongMap<>();
+
+    void put(UnitInPool unitInPool) {
+        Point position = unitInPool.unit().getPosition();
+        int cell = cellOf(position.getX(), position.getY());
+        int[] location = locations.get(unitInPool.getTag().getValue());
+        if (location == null) {
+            location = new int[2];
+            locations.put(unitInPool.getTag().getValue(), location);
+        } else if (location[0] == cell) {
+            cells[cell][location[1]] = unitInPool;
+            return;
+        } else {
+            removeFromCell(location);
+        }
+        addToCell(cell, unitInPool, location);
+    }
+
+    void remove(UnitInPool unitInPool) {
+        int[] location = locations.remove(unitInPool.getTag().getValue());
+        if (location != null) removeFromCell(location);
+    }
+
+    void clear() {
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cellSizes[cell] > 0) Arrays.fill(cells[cell], 0, cellSizes[cell], null);
+        }
+        Arrays.fill(cellSizes, 0);
+        locations.clear();
+    }
+
+    int size() {
+        return locations.size();
+    }
+
+    List<UnitInPool> getUnitsInRadius(float x, float y, float radius, Predicate<UnitInPool> filter) {
+        List<UnitInPool> units = new ArrayList<>();
+        float radiusSquared = radius * radius;
+        forEachCell(x - radius, y - radius, x + radius, y + radius, (cell) -> {
+            UnitInPool[] cellUnits = cells[cell];
+            for (int i = 0; i < cellSizes[cell]; i++) {
+                UnitInPool unitInPool = cellUnits[i];
+                if (distanceSquared(unitInPool, x, y) <= radiusSquared && filter.test(unitInPool)) {
+                    units.add(unitInPool);
+                }
+            }
+        });
+        return units;
+    }
+
+    List<UnitInPool> getUnitsInRect(float minX, float minY, float maxX, float maxY, Predicate<UnitInPool> filter) {
+        List<UnitInPool> units = new ArrayList<>();
+        forEachCell(minX, minY, maxX, maxY, (cell) -> {
+            UnitInPool[] cellUnits = cells[cell];
+            for (int i = 0; i < cellSizes[cell]; i++) {
+                UnitInPool unitInPool = cellUnits[i];
+                Point position = unitInPool.unit().getPosition();
+                if (position.getX() >= minX && position.getX() <= maxX &&
+                        position.getY() >= minY && position.getY() <= maxY && filter.test(unitInPool)) {
+                    units.add(unitInPool);
+                }
+            }
+        });
+        return units;
+    }
+
+    /**
+     * Searches rings of cells around the point until no unvisited cell can hold a unit nearer than the k-th found.
+     */
+    List<UnitInPool> getNearestUnits(float x, float y, int count, Predicate<UnitInPool> filter) {
+        if (count <= 0 || locations.isEmpty()) return new ArrayList<>();
+
+        List<UnitInPool> candidates = new ArrayList<>();
+        // Squared distances of the candidates, grown with them.
+        float[] distances = new float[Math.min(count, INITIAL_CANDIDATE_CAPACITY)];
+        int centerColumn = coordinateOf(x);
+        int centerRow = coordinateOf(y);
+        for (int ring = 0; ring < GRID_SIZE; ring++) {
+            for (int row = centerRow - ring; row <= centerRow + ring; row++) {
+                if (row < 0 || row >= GRID_SIZE) continue;
+                boolean edgeRow = row == centerRow - ring || row == centerRow + ring;
+                int step = edgeRow ? 1 : 2 * ring;
+                for (int column = centerColumn - ring; column <= centerColumn + ring; column += Math.max(step, 1)) {
+                    if (column < 0 || column >= GRID_SIZE) continue;
+                    int cell = row * GRID_SIZE + column;
+                    for (int i = 0; i < cellSizes[cell]; i++) {
+                        UnitInPool unitInPool = cells[cell][i];
+                        if (filter.test(unitInPool)) {
+                            distances = insertSorted(
+                                    candidates, distances, unitInPool, distanceSquared(unitInPool, x, y), count);
+                        }
+                    }
+                }
+            }
+            // Units in further rings are at least ring * CELL_SIZE away.
+            float reach = ring * (float) CELL_SIZE;
+            if (candidates.size() == count && distances[count - 1] <= reach * reach) break;
+        }
+        return candidates;
+    }
+
+    private static float[] insertSorted(
+            List<UnitInPool> candidates, float[] distances, UnitInPool unitInPool, float distance, int count) {
+        int size = candidates.size();
+        if (size == count && distances[count - 1] <= distance) return distances;
+        int index = size;
+        while (index > 0 && distances[index - 1] > distance) index--;
+        if (size == count) {
+            candidates.remove(count - 1);
+            size--;
+        } else if (size == distances.length) {
+            distances = Arrays.copyOf(distances, Math.min(count, distances.length * 2));
+        }
+        candidates.add(index, unitInPool);
+        System.arraycopy(distances, index, distances, index + 1, size - index);
+        distances[index] = distance;
+        return distances;
+    }
+
+    private interface CellConsumer {
+        void accept(int cell);
+    }
+
+    private void forEachCell(float minX, float minY, float maxX, float maxY, CellConsumer consumer) {
+        int minColumn = coordinateOf(minX);
+        int maxColumn = coordinateOf(maxX);
+        int minRow = coordinateOf(minY);
+        int maxRow = coordinateOf(maxY);
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                int cell = row * GRID_SIZE + column;
+                if (cellSizes[cell] > 0) consumer.accept(cell);
+            }
+        }
+    }
+
+    private void addToCell(int cell, UnitInPool unitInPool, int[] location) {
+        UnitInPool[] cellUnits = cells[cell];
+        if (cellUnits == null) {
+            cellUnits = cells[cell] = new UnitInPool[INITIAL_CELL_CAPACITY];
+        } else if (cellSizes[cell] == cellUnits.length) {
+            cellUnits = cells[cell] = Arrays.copyOf(cellUnits, cellUnits.length * 2);
+        }
+        location[0] = cell;
+        location[1] = cellSizes[cell];
+        cellUnits[cellSizes[cell]++] = unitInPool;
+    }
+
+    private void removeFromCell(int[] location) {
+        int cell = location[0];
+        UnitInPool[] cellUnits = cells[cell];
+        int last = --cellSizes[cell];
+        if (location[1] != last) {
+            UnitInPool moved = cellUnits[last];
+            cellUnits[location[1]] = moved;
+            locations.get(moved.getTag().getValue())[1] = location[1];
+        }
+        cellUnits[last] = null;
+    }
+
+    private static float distanceSquared(UnitInPool unitInPool, float x, float y) {
+        Point position = unitInPool.unit().getPosition();
+        float dx = position.getX() - x;
+        float dy = position.getY() - y;
+        return dx * dx + dy * dy;
+    }
+
+    private static int cellOf(float x, float y) {
+        return coordinateOf(y) * GRID_SIZE + coordinateOf(x);
+    }
+
+    private static int coordinateOf(float value) {
+        int coordinate = (int) (value / CELL_SIZE);
+        return coordinate < 0 ? 0 : Math.min(coordinate, GRID_SIZE - 1);
+    }
+}
@@ -30,49 +30,63 @@ import com.github.ocraft.s2client.bot.gateway.UnitInPool;
 import com.github.ocraft.s2client.protocol.unit.Tag;
 import com.github.ocraft.s2client.protocol.unit.Unit;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Optional;
 import java.util.function.Consumer;
 
-// TODO p.picheta ensure thread safety?
+import static com.github.ocraft.s2client.protocol.Constants.nothing;
+
+/**
+ * Units keyed by their primitive tag value. Units existing in the current step are kept in a dense table that is
+ * cleared (not rebuilt) every step and the previous state of each unit is copied into a second table that is reused
+ * between steps, so updating the pool does not allocate once the tables have grown to the size of the game.
+ * Existing units are also indexed by position in a {@link UnitGrid} and grouped in {@link UnitBuckets}.
+ */
+// Not thread safe, units in the pool are updated in place; see ObservationSnapshot for sharing a step between threads.
 class UnitPool {
 
-    private final Map<Tag, UnitInPool> pool = new HashMap<>();
-    private final Map<Tag, UnitInPool> existingPool = new HashMap<>();
-    private final Map<Tag, Unit> previous = new HashMap<>();
+    private final LongMap<UnitInPool> pool = new LongMap<>();
+    private final LongMap<UnitInPool> existingPool = new LongMap<>();
+    private final LongMap<Unit> previous = new LongMap<>();
+    private final UnitGrid grid = new UnitGrid();
+    private final UnitBuckets buckets = new UnitBuckets();
 
     UnitInPool createUnit(Tag tag) {
-        Optional<UnitInPool> existing = getUnit(tag);
-        if (existing.isPresent()) {
-            UnitInPool unitInPool = existing.get();
-            existingPool.put(tag, unitInPool);
-            return unitInPool;
+        long key = tag.getValue();
+        UnitInPool unitInPool = pool.get(key);
+        if (unitInPool == null) {
+            unitInPool = new UnitInPool(tag);
+            pool.put(key, unitInPool);
         }
-
-        UnitInPool newUnitInPool = new UnitInPool(tag);
-        pool.put(tag, newUnitInPool);
-        existingPool.put(tag, newUnitInPool);
-        return newUnitInPool;
+        existingPool.put(key, unitInPool);
+        return unitInPool;
     }
 
     Optional<UnitInPool> getUnit(Tag tag) {
-        return Optional.ofNullable(pool.get(tag));
+        return Optional.ofNullable(pool.get(tag.getValue()));
     }
 
     Optional<UnitInPool> getExistingUnit(Tag tag) {
-        return Optional.ofNullable(existingPool.get(tag));
+        return Optional.ofNullable(existingPool.get(tag.getValue()));
     }
 
     void markDead(Tag tag) {
-        getUnit(tag).ifPresent(unitInPool -> {
+        UnitInPool unitInPool = pool.get(tag.getValue());
+        if (unitInPool != null) {
             unitInPool.dead();
-            existingPool.remove(tag);
-        });
+            existingPool.remove(tag.getValue());
+            grid.remove(unitInPool);
+            buckets.remove(unitInPool);
+        }
     }
 
     void forEachExistingUnit(Consumer<UnitInPool> unitConsumer) {
-        existingPool.forEach((tag, unitInPool) -> unitConsumer.accept(unitInPool));
+        for (int i = 0; i < existingPool.size(); i++) {
+            unitConsumer.accept(existingPool.valueAt(i));
+        }
+    }
+
+    int existingUnitCount() {
+        return existingPool.size();
     }
 
     void clearExisting() {
@@ -80,18 +94,49 @@ class UnitPool {
     }
 
     boolean unitExists(Tag tag) {
-        return getExistingUnit(tag).isPresent();
+        return existingPool.containsKey(tag.getValue());
     }
 
     void switchExistingToPrevious() {
         previous.clear();
-        forEachExistingUnit(unitInPool -> {
-            if (unitInPool.getUnit().isPresent()) previous.put(unitInPool.getTag(), unitInPool.getUnit().get());
-        });
+        for (int i = 0; i < existingPool.size(); i++) {
+            Unit unit = existingPool.valueAt(i).getUnit().orElse(nothing());
+            if (unit != null) previous.put(existingPool.keyAt(i), unit);
+        }
         clearExisting();
     }
 
-    Map<Tag, Unit> previous() {
-        return previous;
+    boolean hasPreviousUnit(Tag tag) {
+        return previous.containsKey(tag.getValue());
+    }
+
+    Optional<Unit> getPreviousUnit(Tag tag) {
+        return Optional.ofNullable(previous.get(tag.getValue()));
+    }
+
+    /**
+     * Spatial index of the existing units, kept up to date by the owner of the pool as unit positions change.
+     */
+    UnitGrid grid() {
+        return grid;
+    }
+
+    /**
+     * Existing units by alliance and unit type, rebuilt by the owner of the pool every step. Units marked
+     * dead are removed from it too.
+     */
+    UnitBuckets buckets() {
+        return buckets;
+    }
+
+    int previousUnitCount() {
+        return previous.size();
+    }
+
+    void forEachRemovedUnit(Consumer<UnitInPool> unitConsumer) {
+        for (int i = 0; i < previous.size(); i++) {
+            long key = previous.keyAt(i);
+            if (!existingPool.containsKey(key)) unitConsumer.accept(pool.get(key));
+        }
     }
 }
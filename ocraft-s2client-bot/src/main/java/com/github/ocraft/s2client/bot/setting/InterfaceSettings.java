@@ -26,10 +26,15 @@ package com.github.ocraft.s2client.bot.setting;
  * #L%
  */
 
+import com.github.ocraft.s2client.protocol.ObservationProjection;
+import com.github.ocraft.s2client.protocol.observation.ObservationSection;
 import com.github.ocraft.s2client.protocol.spatial.SpatialCameraSetup;
 
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+
+import static com.github.ocraft.s2client.protocol.Preconditions.isSet;
 
 public final class InterfaceSettings {
     private final SpatialCameraSetup featureLayerSettings;
@@ -38,6 +43,7 @@ public final class InterfaceSettings {
     private final Boolean showBurrowed;
     private final Boolean rawAffectsSelection;
     private final Boolean rawCropToPlayableArea;
+    private final Set<ObservationSection> observationSections;
 
     public InterfaceSettings(SpatialCameraSetup featureLayerSettings, SpatialCameraSetup renderSettings) {
         this(featureLayerSettings, renderSettings, null, null, null, null);
@@ -50,12 +56,27 @@ public final class InterfaceSettings {
             Boolean showBurrowed,
             Boolean rawAffectsSelection,
             Boolean rawCropToPlayableArea) {
+        this(featureLayerSettings, renderSettings, showCloaked, showBurrowed, rawAffectsSelection,
+                rawCropToPlayableArea, null);
+    }
+
+    public InterfaceSettings(
+            SpatialCameraSetup featureLayerSettings,
+            SpatialCameraSetup renderSettings,
+            Boolean showCloaked,
+            Boolean showBurrowed,
+            Boolean rawAffectsSelection,
+            Boolean rawCropToPlayableArea,
+            Set<ObservationSection> observationSections) {
         this.featureLayerSettings = featureLayerSettings;
         this.renderSettings = renderSettings;
         this.showCloaked = showCloaked;
         this.showBurrowed = showBurrowed;
         this.rawAffectsSelection = rawAffectsSelection;
         this.rawCropToPlayableArea = rawCropToPlayableArea;
+        this.observationSections = isSet(observationSections)
+                ? ObservationProjection.of(observationSections).getSections()
+                : ObservationProjection.all().getSections();
     }
 
 
@@ -83,6 +104,10 @@ public final class InterfaceSettings {
         return rawCropToPlayableArea;
     }
 
+    public Set<ObservationSection> getObservationSections() {
+        return observationSections;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -98,7 +123,9 @@ public final class InterfaceSettings {
         if (!Objects.equals(showBurrowed, that.showBurrowed)) return false;
         if (!Objects.equals(rawAffectsSelection, that.rawAffectsSelection))
             return false;
-        return Objects.equals(rawCropToPlayableArea, that.rawCropToPlayableArea);
+        if (!Objects.equals(rawCropToPlayableArea, that.rawCropToPlayableArea))
+            return false;
+        return observationSections.equals(that.observationSections);
 
     }
 
@@ -110,6 +137,7 @@ public final class InterfaceSettings {
         result = 31 * result + (showBurrowed != null ? showBurrowed.hashCode() : 0);
         result = 31 * result + (rawAffectsSelection != null ? rawAffectsSelection.hashCode() : 0);
         result = 31 * result + (rawCropToPlayableArea != null ? rawCropToPlayableArea.hashCode() : 0);
+        result = 31 * result + observationSections.hashCode();
         return result;
     }
 
@@ -122,6 +150,7 @@ public final class InterfaceSettings {
                 ", showBurrowed=" + showBurrowed +
                 ", rawAffectsSelection=" + rawAffectsSelection +
                 ", rawCropToPlayableArea=" + rawCropToPlayableArea +
+                ", observationSections=" + observationSections +
                 '}';
     }
 }
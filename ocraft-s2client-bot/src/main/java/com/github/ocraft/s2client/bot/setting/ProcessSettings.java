@@ -62,6 +62,10 @@ public class ProcessSettings {
     private Path actualProcessPath;
     private Integer baseBuild;
     private Boolean traced = OcraftBotConfig.cfg().getBoolean(OcraftBotConfig.BOT_TRACED);
+    private Boolean pipelined = OcraftBotConfig.cfg().getBoolean(OcraftBotConfig.BOT_PIPELINED);
+    private Boolean pipelinedStep = OcraftBotConfig.cfg().getBoolean(OcraftBotConfig.BOT_PIPELINED_STEP);
+    private Boolean localPathingCrossCheck = OcraftBotConfig.cfg().getBoolean(
+            OcraftBotConfig.BOT_LOCAL_PATHING_CROSS_CHECK);
     private boolean ladderGame;
 
     public ProcessSettings setConnection(String ip, Integer port) {
@@ -285,6 +289,33 @@ public class ProcessSettings {
         return traced;
     }
 
+    public ProcessSettings setPipelined(Boolean pipelined) {
+        this.pipelined = pipelined;
+        return this;
+    }
+
+    public Boolean getPipelined() {
+        return pipelined;
+    }
+
+    public ProcessSettings setPipelinedStep(Boolean pipelinedStep) {
+        this.pipelinedStep = pipelinedStep;
+        return this;
+    }
+
+    public Boolean getPipelinedStep() {
+        return pipelinedStep;
+    }
+
+    public ProcessSettings setLocalPathingCrossCheck(Boolean localPathingCrossCheck) {
+        this.localPathingCrossCheck = localPathingCrossCheck;
+        return this;
+    }
+
+    public Boolean getLocalPathingCrossCheck() {
+        return localPathingCrossCheck;
+    }
+
     public boolean isLadderGame() {
         return ladderGame;
     }
@@ -332,7 +363,13 @@ public class ProcessSettings {
         if (actualProcessPath != null ? !actualProcessPath.equals(that.actualProcessPath) : that.actualProcessPath != null)
             return false;
         if (baseBuild != null ? !baseBuild.equals(that.baseBuild) : that.baseBuild != null) return false;
-        return traced != null ? traced.equals(that.traced) : that.traced == null;
+        if (traced != null ? !traced.equals(that.traced) : that.traced != null) return false;
+        if (pipelined != null ? !pipelined.equals(that.pipelined) : that.pipelined != null) return false;
+        if (pipelinedStep != null ? !pipelinedStep.equals(that.pipelinedStep) : that.pipelinedStep != null)
+            return false;
+        return localPathingCrossCheck != null
+                ? localPathingCrossCheck.equals(that.localPathingCrossCheck)
+                : that.localPathingCrossCheck == null;
     }
 
     @Override
@@ -363,6 +400,9 @@ public class ProcessSettings {
         result = 31 * result + (actualProcessPath != null ? actualProcessPath.hashCode() : 0);
         result = 31 * result + (baseBuild != null ? baseBuild.hashCode() : 0);
         result = 31 * result + (traced != null ? traced.hashCode() : 0);
+        result = 31 * result + (pipelined != null ? pipelined.hashCode() : 0);
+        result = 31 * result + (pipelinedStep != null ? pipelinedStep.hashCode() : 0);
+        result = 31 * result + (localPathingCrossCheck != null ? localPathingCrossCheck.hashCode() : 0);
         result = 31 * result + (ladderGame ? 1 : 0);
         return result;
     }
@@ -396,6 +436,9 @@ public class ProcessSettings {
                 ", actualProcessPath=" + actualProcessPath +
                 ", baseBuild=" + baseBuild +
                 ", traced=" + traced +
+                ", pipelined=" + pipelined +
+                ", pipelinedStep=" + pipelinedStep +
+                ", localPathingCrossCheck=" + localPathingCrossCheck +
                 ", ladderGame=" + ladderGame +
                 '}';
     }
@@ -27,9 +27,11 @@ package com.github.ocraft.s2client.bot.syntax;
  */
 
 import com.github.ocraft.s2client.protocol.game.ReplayInfo;
+import com.github.ocraft.s2client.protocol.observation.ObservationSection;
 import com.github.ocraft.s2client.protocol.spatial.SpatialCameraSetup;
 
 import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
 
 public interface SettingsSyntax extends GameParticipantSyntax, ReplaySyntax {
 
@@ -60,6 +62,16 @@ public interface SettingsSyntax extends GameParticipantSyntax, ReplaySyntax {
      */
     SettingsSyntax setMultithreaded(Boolean value);
 
+    /**
+     * Overrides the executor used to step many agents or replay observers in parallel. By default every coordinator
+     * starts its own platform thread per client on first use, so waiting for game responses does not block the common
+     * ForkJoinPool used by parallel streams. On Java 21+ {@code Executors.newVirtualThreadPerTaskExecutor()} can be
+     * used, together with {@code ocraft.client.runtime.directResponses} so that responses are handed to the waiting
+     * virtual threads without a hop through the RxJava computation scheduler. The supplied executor is not shut down
+     * by the coordinator.
+     */
+    SettingsSyntax setClientExecutor(ExecutorService executor);
+
     /**
      * Specifies whether the game should run in realtime or not. If the game is running in real time that means the
      * coordinator is not stepping it forward. The game is running and your bot reaches into it asynchronously
@@ -165,6 +177,33 @@ public interface SettingsSyntax extends GameParticipantSyntax, ReplaySyntax {
      */
     SettingsSyntax setTraced(Boolean value);
 
+    /**
+     * Allows many requests of the same type to be in flight at once. Responses are collected in the order the requests
+     * were sent, so e.g. actions, debug draws and the next step can be sent back-to-back without waiting for each
+     * response in between. By default a second request of the same type is rejected until the first one is consumed.
+     */
+    SettingsSyntax setPipelined(Boolean value);
+
+    /**
+     * Overlaps the game simulation with the work done by the client between steps. Right after the actions of game
+     * loop N are sent, the step to N+1 and the observation of N+1 are requested without waiting, and the next call to
+     * {@link com.github.ocraft.s2client.bot.S2Coordinator#update()} only collects them. Not used in realtime games.
+     * <p>
+     * {@code onStep} and unit events see exactly the same observations and actions are applied on the same game loops
+     * as without pipelining. Only requests sent between calls to {@code update()} (queries, debug draws, saving a
+     * replay) are affected: they are answered after the pending step, i.e. against game loop N+1, while the
+     * observation interface still shows game loop N ({@code getObservation()} does not refresh it until the next
+     * update). No step is requested ahead once the agent asked to leave the game.
+     */
+    SettingsSyntax setPipelinedStep(Boolean value);
+
+    /**
+     * Sends every local pathing query (see {@code QueryInterface#localPathingDistance}) to the game as well and logs
+     * a warning when the local distance differs noticeably from the one computed by the game. The local results are
+     * still returned. Meant for debugging only, it brings back the round trip the local queries avoid.
+     */
+    SettingsSyntax setLocalPathingCrossCheck(Boolean value);
+
     /**
      * Overrides the directory that temp files are created in.
      * <p>
@@ -228,4 +267,11 @@ public interface SettingsSyntax extends GameParticipantSyntax, ReplaySyntax {
      * The map_size and playable_area will be the diagonal of the real playable area.
      */
     SettingsSyntax setRawCropToPlayableArea(Boolean rawCropToPlayableArea);
+
+    /**
+     * Declares which observation sections the agents consume. Sections left out are skipped while the response is
+     * parsed and are seen as absent (e.g. no units, no score), which saves most of the decoding work per frame for
+     * agents and replay observers that need only part of the observation. By default all sections are parsed.
+     */
+    SettingsSyntax setObservationSections(ObservationSection... sections);
 }
@@ -0,0 +1,117 @@
+package com.github.ocraft.s2client.bot;
+
+/*-
+ * #%L
+ * ocraft-s2client-bot
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class ClientSchedulerTest {
+
+    @Test
+    void runsStepsInCallingThreadIfNotParallel() {
+        ClientScheduler scheduler = new ClientScheduler(null, 2);
+        Map<String, Thread> threads = new ConcurrentHashMap<>();
+
+        scheduler.run(List.of("client01", "client02"), client -> threads.put(client, Thread.currentThread()), false);
+
+        assertThat(threads.values()).containsOnly(Thread.currentThread());
+        assertThat(scheduler.getLastStepTime("client01")).isPresent();
+        assertThat(scheduler.getLastStepTime("client03")).isEmpty();
+    }
+
+    @Test
+    void runsParallelStepsOnOwnThreads() {
+        ClientScheduler scheduler = new ClientScheduler(null, 2);
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        Map<String, Thread> threads = new ConcurrentHashMap<>();
+
+        scheduler.run(List.of("client01", "client02"), client -> {
+            threads.put(client, Thread.currentThread());
+            bothStarted.countDown();
+            await(bothStarted);
+        }, true);
+
+        assertThat(threads.get("client01")).isNotSameAs(threads.get("client02"));
+        assertThat(threads.values()).allSatisfy(thread -> {
+            assertThat(thread.getName()).startsWith("ocraft-client-");
+            assertThat(thread.isDaemon()).as("daemon thread").isTrue();
+        });
+
+        scheduler.shutdown();
+    }
+
+    @Test
+    void runsParallelStepsOnSuppliedExecutor() {
+        ExecutorService executor = Executors.newFixedThreadPool(2, runnable -> new Thread(runnable, "user-thread"));
+        ClientScheduler scheduler = new ClientScheduler(executor, 2);
+        Map<String, Thread> threads = new ConcurrentHashMap<>();
+
+        scheduler.run(List.of("client01", "client02"), client -> threads.put(client, Thread.currentThread()), true);
+        scheduler.shutdown();
+
+        assertThat(threads.values()).extracting(Thread::getName).containsOnly("user-thread");
+        assertThat(executor.isShutdown()).as("supplied executor shut down").isFalse();
+
+        executor.shutdownNow();
+    }
+
+    @Test
+    void rethrowsFailureAfterAllStepsAreDone() {
+        ClientScheduler scheduler = new ClientScheduler(null, 2);
+        Map<String, Boolean> done = new ConcurrentHashMap<>();
+
+        assertThatExceptionOfType(IllegalStateException.class)
+                .isThrownBy(() -> scheduler.run(List.of("client01", "client02"), client -> {
+                    if (client.equals("client01")) throw new IllegalStateException("step failed");
+                    done.put(client, true);
+                }, true))
+                .withMessage("step failed");
+        assertThat(done).containsKey("client02");
+        assertThat(scheduler.getLastStepTime("client01")).isPresent();
+
+        scheduler.shutdown();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).as("steps run in parallel").isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.github.ocraft.s2client.bot;
+
+/*-
+ * #%L
+ * ocraft-s2client-bot
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import SC2APIProtocol.Sc2Api;
+import com.github.ocraft.s2client.api.test.GameServer;
+import com.github.ocraft.s2client.protocol.game.BattlenetMap;
+import com.github.ocraft.s2client.protocol.game.Difficulty;
+import com.github.ocraft.s2client.protocol.game.Race;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.ocraft.s2client.bot.S2Coordinator.createComputer;
+import static com.github.ocraft.s2client.bot.S2Coordinator.createParticipant;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class S2CoordinatorIT {
+
+    private static final int GAME_SERVER_PORT = 4000;
+    private static final int LAST_GAME_LOOP = 5;
+
+    private static class TestBot extends S2Agent {
+        private final List<Long> steppedLoops = new ArrayList<>();
+        private int endedGames;
+
+        @Override
+        public void onStep() {
+            steppedLoops.add(observation().getGameLoop());
+        }
+
+        @Override
+        public void onGameEnd() {
+            endedGames++;
+        }
+    }
+
+    @Test
+    void endsGameAndStartsNextOneInPipelinedStepMode() {
+        AtomicInteger gameLoop = new AtomicInteger();
+        GameServer gameServer = startGameServer(gameLoop);
+        TestBot bot = new TestBot();
+        S2Coordinator coordinator = pipelinedStepCoordinator(bot);
+
+        for (int game = 1; game <= 2; game++) {
+            coordinator.startGame(BattlenetMap.of("Lava Flow"));
+            while (coordinator.update()) {
+                assertThat(bot.control().getObservation()).as("observation between updates").isTrue();
+            }
+
+            assertGameEnded(coordinator, bot, game);
+        }
+
+        assertThat(bot.steppedLoops).containsExactly(1L, 2L, 3L, 4L, 1L, 2L, 3L, 4L);
+
+        coordinator.quit();
+        gameServer.stop();
+    }
+
+    @Test
+    void startsNextGameWhileStepIsAheadInPipelinedStepMode() {
+        AtomicInteger gameLoop = new AtomicInteger();
+        GameServer gameServer = startGameServer(gameLoop);
+        TestBot bot = new TestBot();
+        S2Coordinator coordinator = pipelinedStepCoordinator(bot);
+
+        coordinator.startGame(BattlenetMap.of("Lava Flow"));
+        coordinator.update();
+        assertThat(bot.control().hasStepAhead()).as("step ahead").isTrue();
+
+        coordinator.startGame(BattlenetMap.of("Lava Flow"));
+        while (coordinator.update()) ;
+
+        assertGameEnded(coordinator, bot, 1);
+        assertThat(bot.steppedLoops).containsExactly(1L, 2L, 1L, 2L, 3L, 4L);
+
+        coordinator.quit();
+        gameServer.stop();
+    }
+
+    private static GameServer startGameServer(AtomicInteger gameLoop) {
+        return GameServer.create(GAME_SERVER_PORT)
+                .onRequest(Sc2Api.Request::hasCreateGame, () -> {
+                    gameLoop.set(1);
+                    return withStatus(GameServerResponses.createGame(), Sc2Api.Status.init_game);
+                })
+                .onRequest(Sc2Api.Request::hasJoinGame,
+                        () -> withStatus(GameServerResponses.joinGame(), Sc2Api.Status.in_game))
+                .onRequest(Sc2Api.Request::hasStep, () -> withStatus(
+                        GameServerResponses.step(), statusAt(Math.min(gameLoop.incrementAndGet(), LAST_GAME_LOOP))))
+                .onRequest(Sc2Api.Request::hasObservation, () -> observationAt(gameLoop.get()))
+                .onRequest(Sc2Api.Request::hasGameInfo,
+                        () -> withStatus(GameServerResponses.gameInfo(), statusAt(gameLoop.get())))
+                .onRequest(Sc2Api.Request::hasData,
+                        () -> withStatus(GameServerResponses.abilityData(), statusAt(gameLoop.get())))
+                .start();
+    }
+
+    private static S2Coordinator pipelinedStepCoordinator(TestBot bot) {
+        return S2Coordinator.setup()
+                .setStepSize(1)
+                .setPipelinedStep(true)
+                .setParticipants(createParticipant(Race.TERRAN, bot), createComputer(Race.ZERG, Difficulty.VERY_EASY))
+                .connect("127.0.0.1", GAME_SERVER_PORT);
+    }
+
+    private static void assertGameEnded(S2Coordinator coordinator, TestBot bot, int endedGames) {
+        assertThat(bot.control().getClientErrors()).as("client errors").isEmpty();
+        assertThat(bot.endedGames).as("ended games").isEqualTo(endedGames);
+        assertThat(coordinator.allGamesEnded()).as("all games ended").isTrue();
+        assertThat(bot.control().hasResponsePending()).as("response pending").isFalse();
+        assertThat(bot.control().isReadyForCreateGame()).as("ready for create game").isTrue();
+    }
+
+    private static Sc2Api.Status statusAt(int gameLoop) {
+        return gameLoop < LAST_GAME_LOOP ? Sc2Api.Status.in_game : Sc2Api.Status.ended;
+    }
+
+    private static Sc2Api.Response withStatus(Sc2Api.Response response, Sc2Api.Status status) {
+        return response.toBuilder().setStatus(status).build();
+    }
+
+    private static Sc2Api.Response observationAt(int gameLoop) {
+        Sc2Api.Response observation = GameServerResponses.observation();
+        return observation.toBuilder()
+                .setStatus(statusAt(gameLoop))
+                .setObservation(observation.getObservation().toBuilder()
+                        .setObservation(observation.getObservation().getObservation().toBuilder()
+                                .setGameLoop(Math.min(gameLoop, LAST_GAME_LOOP))))
+                .build();
+    }
+}
@@ -26,6 +26,9 @@ package com.github.ocraft.s2client.bot;
  * #L%
  */
 
+import com.github.ocraft.s2client.bot.gateway.ActionFeatureLayerInterface;
+import com.github.ocraft.s2client.bot.gateway.ActionInterface;
+import com.github.ocraft.s2client.bot.gateway.AppState;
 import com.github.ocraft.s2client.bot.gateway.ControlInterface;
 import com.github.ocraft.s2client.bot.setting.GameSettings;
 import com.github.ocraft.s2client.bot.setting.InterfaceSettings;
@@ -36,8 +39,13 @@ import com.github.ocraft.s2client.protocol.game.BattlenetMap;
 import com.github.ocraft.s2client.protocol.game.Difficulty;
 import com.github.ocraft.s2client.protocol.game.LocalMap;
 import com.github.ocraft.s2client.protocol.game.Race;
+import com.github.ocraft.s2client.protocol.observation.ObservationSection;
+import com.github.ocraft.s2client.protocol.response.Response;
+import com.github.ocraft.s2client.protocol.response.ResponseType;
 import com.github.ocraft.s2client.protocol.spatial.SpatialCameraSetup;
+import io.reactivex.Maybe;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -191,6 +199,22 @@ class S2CoordinatorTest {
                 .isEqualTo(new InterfaceSettings(spatialCameraSetup, spatialCameraSetup, true, true, true, true));
     }
 
+    @Test
+    void providesSetupForObservationSections() {
+        S2Coordinator s2Coordinator = S2Coordinator.setup()
+                .setObservationSections(ObservationSection.UNITS, ObservationSection.SCORE)
+                .setParticipants(createParticipant(Race.PROTOSS, makeAgent()))
+                .launchStarcraft();
+
+        assertThat(s2Coordinator.getInterfaceSettings().getObservationSections())
+                .containsOnly(ObservationSection.UNITS, ObservationSection.SCORE);
+        assertThat(S2Coordinator.setup()
+                .setParticipants(createParticipant(Race.PROTOSS, makeAgent()))
+                .launchStarcraft()
+                .getInterfaceSettings()
+                .getObservationSections()).containsOnly(ObservationSection.values());
+    }
+
     @Test
     void loadsSettingsFromCli() {
         S2Agent agent = makeAgent();
@@ -309,6 +333,122 @@ class S2CoordinatorTest {
         verify(agent.control()).connect(expectedProcessSettings);
     }
 
+    @Test
+    void requestsNextStepAheadInPipelinedStepMode() {
+        S2Agent agent = makeSteppingAgent();
+        ControlInterface control = agent.control();
+        Maybe<Response> step01 = Maybe.just(mock(Response.class));
+        when(control.step(CFG_STEP_SIZE)).thenReturn(step01);
+        when(control.hasStepAhead()).thenReturn(false, true);
+
+        S2Coordinator s2Coordinator = S2Coordinator.setup()
+                .setStepSize(CFG_STEP_SIZE)
+                .setPipelinedStep(true)
+                .setParticipants(createParticipant(Race.PROTOSS, agent))
+                .connect(CFG_IP, CFG_PORT);
+
+        assertThat(s2Coordinator.update()).as("game in progress").isTrue();
+
+        InOrder inOrder = inOrder(control, agent.actions());
+        inOrder.verify(control).step(CFG_STEP_SIZE);
+        inOrder.verify(control).waitStep(step01);
+        inOrder.verify(control).issueEvents(anyList());
+        inOrder.verify(agent.actions()).sendActions();
+        inOrder.verify(control).stepAhead(CFG_STEP_SIZE);
+
+        s2Coordinator.update();
+
+        verify(control).waitStepAhead();
+        verify(control, times(1)).step(CFG_STEP_SIZE);
+        verify(control, times(2)).stepAhead(CFG_STEP_SIZE);
+        assertThat(s2Coordinator.getLastStepTime(agent)).as("step time").isPresent();
+    }
+
+    @Test
+    void doesNotStepAheadAfterLeaveGameWasRequested() {
+        S2Agent agent = makeSteppingAgent();
+        ControlInterface control = agent.control();
+        when(control.hasResponsePending(ResponseType.LEAVE_GAME)).thenReturn(true);
+
+        S2Coordinator s2Coordinator = S2Coordinator.setup()
+                .setStepSize(CFG_STEP_SIZE)
+                .setPipelinedStep(true)
+                .setParticipants(createParticipant(Race.PROTOSS, agent))
+                .connect(CFG_IP, CFG_PORT);
+
+        s2Coordinator.update();
+
+        verify(control).issueEvents(anyList());
+        verify(control, never()).stepAhead(anyInt());
+    }
+
+    @Test
+    void collectsStepAheadBeforeLeaveGameResponse() {
+        S2Agent agent = makeSteppingAgent();
+        ControlInterface control = agent.control();
+        when(control.hasStepAhead()).thenReturn(true);
+        when(control.pollLeaveGame()).thenReturn(true);
+
+        S2Coordinator s2Coordinator = S2Coordinator.setup()
+                .setStepSize(CFG_STEP_SIZE)
+                .setPipelinedStep(true)
+                .setParticipants(createParticipant(Race.PROTOSS, agent))
+                .connect(CFG_IP, CFG_PORT);
+
+        s2Coordinator.update();
+
+        InOrder inOrder = inOrder(control);
+        inOrder.verify(control).waitStepAhead();
+        inOrder.verify(control).pollLeaveGame();
+        verify(control, never()).step(anyInt());
+        verify(control, never()).issueEvents(anyList());
+    }
+
+    @Test
+    void collectsStepAheadBeforeLeavingGame() {
+        S2Agent agent = makeSteppingAgent();
+        ControlInterface control = agent.control();
+
+        S2Coordinator s2Coordinator = S2Coordinator.setup()
+                .setPipelinedStep(true)
+                .setParticipants(createParticipant(Race.PROTOSS, agent))
+                .connect(CFG_IP, CFG_PORT);
+
+        s2Coordinator.leaveGame();
+
+        InOrder inOrder = inOrder(control);
+        inOrder.verify(control).waitStepAhead();
+        inOrder.verify(control).requestLeaveGame();
+    }
+
+    @Test
+    void waitsForEachStepWithoutPipelinedStepMode() {
+        S2Agent agent = makeSteppingAgent();
+        ControlInterface control = agent.control();
+
+        S2Coordinator s2Coordinator = S2Coordinator.setup()
+                .setStepSize(CFG_STEP_SIZE)
+                .setPipelinedStep(false)
+                .setParticipants(createParticipant(Race.PROTOSS, agent))
+                .connect(CFG_IP, CFG_PORT);
+
+        s2Coordinator.update();
+        s2Coordinator.update();
+
+        verify(control, times(2)).step(CFG_STEP_SIZE);
+        verify(control, never()).stepAhead(anyInt());
+        verify(control, never()).waitStepAhead();
+    }
+
+    private S2Agent makeSteppingAgent() {
+        S2Agent agent = makeAgent();
+        ControlInterface control = agent.control();
+        when(control.getAppState()).thenReturn(AppState.NORMAL);
+        when(control.isInGame()).thenReturn(true);
+        when(agent.actions()).thenReturn(mock(ActionInterface.class));
+        when(agent.actionsFeatureLayer()).thenReturn(mock(ActionFeatureLayerInterface.class));
+        return agent;
+    }
 
     // TODO p.picheta setReplayPath/loadreplayList/setReplayRecovery/addReplayObserver
 }
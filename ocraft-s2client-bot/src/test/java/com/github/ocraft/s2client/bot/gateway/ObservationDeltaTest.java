@@ -0,0 +1,103 @@
+package com.github.ocraft.s2client.bot.gateway;
+
+/*-
+ * #%L
+ * ocraft-s2client-bot
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import SC2APIProtocol.Raw;
+import com.github.ocraft.s2client.bot.GameServerResponses;
+import com.github.ocraft.s2client.protocol.unit.Tag;
+import com.github.ocraft.s2client.protocol.unit.Unit;
+import org.junit.jupiter.api.Test;
+
+import static com.github.ocraft.s2client.protocol.Constants.nothing;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class ObservationDeltaTest {
+
+    private static final long TAG = 1L;
+
+    @Test
+    void throwsExceptionWhenUnitsToCompareAreNotProvided() {
+        Unit unit = unit(GameServerResponses.sc2ApiUnit(TAG, Raw.Alliance.Self, false, 1.0f));
+
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> ObservationDelta.changedFields(nothing(), unit))
+                .withMessage("previous unit is required");
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> ObservationDelta.changedFields(unit, nothing()))
+                .withMessage("current unit is required");
+    }
+
+    @Test
+    void comparesTrackedFieldsOfUnit() {
+        Raw.Unit sc2ApiUnit = GameServerResponses.sc2ApiUnit(TAG, Raw.Alliance.Self, false, 1.0f);
+        Unit unit = unit(sc2ApiUnit);
+
+        assertThat(ObservationDelta.changedFields(unit, unit(sc2ApiUnit))).isZero();
+        assertThat(ObservationDelta.changedFields(unit, unit(sc2ApiUnit.toBuilder()
+                .setPos(sc2ApiUnit.getPos().toBuilder().setX(sc2ApiUnit.getPos().getX() + 1)).build())))
+                .isEqualTo(ObservationDelta.POSITION);
+        assertThat(ObservationDelta.changedFields(unit, unit(sc2ApiUnit.toBuilder()
+                .setShield(sc2ApiUnit.getShield() - 1).build())))
+                .isEqualTo(ObservationDelta.HEALTH);
+        assertThat(ObservationDelta.changedFields(unit, unit(sc2ApiUnit.toBuilder().addBuffIds(1).build())))
+                .isEqualTo(ObservationDelta.BUFFS);
+        assertThat(ObservationDelta.changedFields(unit,
+                unit(GameServerResponses.sc2ApiUnit(TAG, Raw.Alliance.Self, true, 0.5f))))
+                .isEqualTo(ObservationDelta.ORDERS | ObservationDelta.BUILD_PROGRESS);
+    }
+
+    @Test
+    void pairsChangedUnitsWithChangedFields() {
+        UnitInPool moved = new UnitInPool(Tag.of(1L));
+        UnitInPool damaged = new UnitInPool(Tag.of(2L));
+        UnitInPool added = new UnitInPool(Tag.of(3L));
+        UnitInPool removed = new UnitInPool(Tag.of(4L));
+
+        ObservationDelta delta = ObservationDelta.builder(10)
+                .changed(moved, ObservationDelta.POSITION)
+                .changed(damaged, ObservationDelta.HEALTH | ObservationDelta.BUFFS)
+                .added(added)
+                .removed(removed)
+                .build();
+
+        assertThat(delta.getGameLoop()).isEqualTo(10);
+        assertThat(delta.getAddedUnits()).containsExactly(added);
+        assertThat(delta.getRemovedUnits()).containsExactly(removed);
+        assertThat(delta.getChangedUnits()).containsExactly(moved, damaged);
+        assertThat(delta.getChangedFields(1)).isEqualTo(ObservationDelta.HEALTH | ObservationDelta.BUFFS);
+        assertThat(delta.hasChanged(0, ObservationDelta.HEALTH)).isFalse();
+        assertThat(delta.getChangedUnits(ObservationDelta.BUFFS)).containsExactly(damaged);
+        assertThat(delta.isEmpty()).isFalse();
+        assertThat(ObservationDelta.empty().isEmpty()).isTrue();
+        assertThatExceptionOfType(IndexOutOfBoundsException.class).isThrownBy(() -> delta.getChangedFields(2));
+    }
+
+    private static Unit unit(Raw.Unit sc2ApiUnit) {
+        return Unit.from(sc2ApiUnit);
+    }
+}
@@ -0,0 +1,110 @@
+package com.github.ocraft.s2client.bot.gateway;
+
+/*-
+ * #%L
+ * ocraft-s2client-bot
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import SC2APIProtocol.Raw;
+import com.github.ocraft.s2client.bot.GameServerResponses;
+import com.github.ocraft.s2client.protocol.data.Upgrade;
+import com.github.ocraft.s2client.protocol.data.Upgrades;
+import com.github.ocraft.s2client.protocol.unit.Alliance;
+import com.github.ocraft.s2client.protocol.unit.Tag;
+import com.github.ocraft.s2client.protocol.unit.Unit;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class ObservationSnapshotTest {
+
+    @Test
+    void indexesUnitsByAllianceAndTag() {
+        Unit self01 = unit(30L, Raw.Alliance.Self);
+        Unit enemy = unit(10L, Raw.Alliance.Enemy);
+        Unit self02 = unit(20L, Raw.Alliance.Self);
+
+        ObservationSnapshot snapshot = ObservationSnapshot.builder(5, 1)
+                .units(Arrays.asList(self01, enemy, self02))
+                .build();
+
+        assertThat(snapshot.getGameLoop()).isEqualTo(5);
+        assertThat(snapshot.getPlayerId()).isEqualTo(1);
+        assertThat(snapshot.getUnits()).containsExactly(self01, enemy, self02);
+        assertThat(snapshot.getUnits(Alliance.SELF)).containsExactly(self01, self02);
+        assertThat(snapshot.getUnits(Alliance.NEUTRAL)).isEmpty();
+        assertThat(snapshot.getUnits(Alliance.SELF, unit -> unit.getTag().getValue() > 25)).containsExactly(self01);
+        assertThat(snapshot.getUnit(Tag.of(10L))).hasValue(enemy);
+        assertThat(snapshot.getUnit(Tag.of(20L))).hasValue(self02);
+        assertThat(snapshot.getUnit(Tag.of(15L))).isEmpty();
+    }
+
+    @Test
+    void isNotAffectedByChangesOfSourceCollections() {
+        List<Unit> units = new ArrayList<>(List.of(unit(1L, Raw.Alliance.Self)));
+        List<Upgrade> upgrades = new ArrayList<>(List.of(Upgrades.HYDRALISK_SPEED));
+
+        ObservationSnapshot snapshot = ObservationSnapshot.builder(1, 1).units(units).upgrades(upgrades).build();
+        units.clear();
+        upgrades.clear();
+
+        assertThat(snapshot.getUnits()).hasSize(1);
+        assertThat(snapshot.getUpgrades()).containsExactly(Upgrades.HYDRALISK_SPEED);
+        assertThatExceptionOfType(UnsupportedOperationException.class)
+                .isThrownBy(() -> snapshot.getUnits().clear());
+        assertThatExceptionOfType(UnsupportedOperationException.class)
+                .isThrownBy(() -> snapshot.getUnits(Alliance.SELF).clear());
+        assertThatExceptionOfType(UnsupportedOperationException.class)
+                .isThrownBy(() -> snapshot.getUpgrades().clear());
+    }
+
+    @Test
+    void throwsExceptionWhenCollectionIsNotProvided() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> ObservationSnapshot.builder(1, 1).units(null))
+                .withMessage("units is required");
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> ObservationSnapshot.builder(1, 1).chatMessages(null))
+                .withMessage("chat messages is required");
+    }
+
+    @Test
+    void providesEmptySnapshot() {
+        ObservationSnapshot snapshot = ObservationSnapshot.empty();
+
+        assertThat(snapshot.getRawObservation()).isEmpty();
+        assertThat(snapshot.getUnits()).isEmpty();
+        assertThat(snapshot.getUnits(Alliance.ENEMY)).isEmpty();
+        assertThat(snapshot.getChatMessages()).isEmpty();
+    }
+
+    private static Unit unit(long tag, Raw.Alliance alliance) {
+        return Unit.from(GameServerResponses.sc2ApiUnit(tag, alliance, false, 1.0f));
+    }
+}
@@ -35,6 +35,8 @@ import com.github.ocraft.s2client.bot.ClientEvents;
 import com.github.ocraft.s2client.bot.GameServerResponses;
 import com.github.ocraft.s2client.bot.S2Agent;
 import com.github.ocraft.s2client.bot.gateway.AppState;
+import com.github.ocraft.s2client.bot.gateway.ObservationDelta;
+import com.github.ocraft.s2client.bot.gateway.ObservationSnapshot;
 import com.github.ocraft.s2client.bot.gateway.UnitInPool;
 import com.github.ocraft.s2client.bot.setting.InterfaceSettings;
 import com.github.ocraft.s2client.bot.setting.PlayerSettings;
@@ -54,6 +56,7 @@ import com.github.ocraft.s2client.protocol.response.ResponseObservation;
 import com.github.ocraft.s2client.protocol.response.ResponseType;
 import com.github.ocraft.s2client.protocol.score.Score;
 import com.github.ocraft.s2client.protocol.spatial.Point;
+import com.github.ocraft.s2client.protocol.unit.Alliance;
 import com.github.ocraft.s2client.protocol.unit.Unit;
 import com.github.ocraft.s2client.test.TemporaryFolder;
 import com.github.ocraft.s2client.test.TemporaryFolderExtension;
@@ -367,6 +370,45 @@ class ControlInterfaceImplIT {
         gameSetup.stop();
     }
 
+    @Test
+    void handlesStepWithObservationRequestedAhead() {
+        GameSetup gameSetup = new GameSetup().start();
+        gameSetup.server().onRequest(Sc2Api.Request::hasStep, GameServerResponses::step);
+        gameSetup.server().onRequest(Sc2Api.Request::hasObservation, GameServerResponses::observation);
+        when(gameSetup.observation().updateObservation(any(ResponseObservation.class))).thenReturn(true);
+
+        Maybe<Response> step = gameSetup.control().step(1);
+        Maybe<Response> observation = gameSetup.control().requestObservation();
+
+        assertThat(gameSetup.control().waitStep(step, observation)).as("step status").isTrue();
+        verify(gameSetup.observation()).updateObservation(any(ResponseObservation.class));
+
+        gameSetup.stop();
+    }
+
+    @Test
+    void keepsObservationUntilStepAheadIsCollected() {
+        GameSetup gameSetup = new GameSetup().start();
+        gameSetup.server().onRequest(Sc2Api.Request::hasStep, GameServerResponses::step);
+        gameSetup.server().onRequest(Sc2Api.Request::hasObservation, GameServerResponses::observation);
+        when(gameSetup.observation().updateObservation(any(ResponseObservation.class))).thenReturn(true);
+
+        gameSetup.control().stepAhead(1);
+
+        assertThat(gameSetup.control().hasStepAhead()).as("step ahead").isTrue();
+        assertThat(gameSetup.control().getObservation()).as("observation status").isTrue();
+        verify(gameSetup.observation(), never()).updateObservation(any(ResponseObservation.class));
+
+        assertThat(gameSetup.control().waitStepAhead()).as("step status").isTrue();
+        assertThat(gameSetup.control().hasStepAhead()).as("step ahead").isFalse();
+        assertThat(gameSetup.control().hasResponsePending()).as("response pending").isFalse();
+        assertThat(gameSetup.control().getClientErrors()).as("client errors").isEmpty();
+        verify(gameSetup.observation()).updateObservation(any(ResponseObservation.class));
+        assertThat(gameSetup.control().waitStepAhead()).as("nothing to collect").isFalse();
+
+        gameSetup.stop();
+    }
+
     @Test
     void handlesErrorOfStep() {
         GameSetup gameSetup = new GameSetup().start();
@@ -480,7 +522,7 @@ class ControlInterfaceImplIT {
 
         ObservationRaw observationRaw = mock(ObservationRaw.class);
         when(observationRaw.getEvent()).thenReturn(Optional.of(event));
-        when(observationRaw.getUnits()).thenReturn(Set.of(deadUnit, newUnit, enemyUnit, old01Unit, old02Unit));
+        when(observationRaw.getUnits(any(UnitDecoder.class))).thenReturn(Set.of(deadUnit, newUnit, enemyUnit, old01Unit, old02Unit));
         when(observationRaw.getPlayer()).thenReturn(playerRaw);
         when(observationRaw.getEffects()).thenReturn(Set.of(mock(EffectLocations.class)));
 
@@ -547,6 +589,31 @@ class ControlInterfaceImplIT {
         assertThat(observation.getWarpGateCount()).isGreaterThan(0);
         assertThat(observation.getCameraPos()).isNotNull();
         assertThat(observation.getActionErrors()).isNotEmpty();
+        assertThatObservationDeltaIsComputed(observation.getObservationDelta());
+        assertThatObservationSnapshotIsCreated(observation);
+    }
+
+    private void assertThatObservationSnapshotIsCreated(ObservationInterfaceImpl observation) {
+        ObservationSnapshot snapshot = observation.getSnapshot();
+        assertThat(snapshot.getGameLoop()).isEqualTo(observation.getGameLoop());
+        assertThat(snapshot.getRawObservation()).hasValue(observation.getRawObservation());
+        assertThat(snapshot.getUnits()).hasSameSizeAs(observation.getUnits());
+        assertThat(snapshot.getUnit(ENEMY_UNIT_TAG)).isPresent();
+        assertThat(snapshot.getUnits(Alliance.SELF)).hasSameSizeAs(observation.getUnits(Alliance.SELF));
+        assertThat(snapshot.getRawActions()).isEqualTo(observation.getRawActions());
+        assertThat(snapshot.getChatMessages()).isEqualTo(observation.getChatMessages());
+        assertThat(snapshot.getActionErrors()).isEqualTo(observation.getActionErrors());
+    }
+
+    private void assertThatObservationDeltaIsComputed(ObservationDelta delta) {
+        assertThat(delta.getGameLoop()).isEqualTo(2);
+        assertThat(delta.getAddedUnits()).extracting(UnitInPool::getTag)
+                .containsOnly(DEAD_UNIT_TAG, NEW_UNIT_TAG, ENEMY_UNIT_TAG);
+        assertThat(delta.getRemovedUnits()).isEmpty();
+        assertThat(delta.getChangedUnits()).extracting(UnitInPool::getTag).containsExactly(OLD_01_UNIT_TAG);
+        assertThat(delta.hasChanged(0, ObservationDelta.ORDERS)).as("orders changed").isTrue();
+        assertThat(delta.hasChanged(0, ObservationDelta.BUILD_PROGRESS)).as("build progress changed").isTrue();
+        assertThat(delta.hasChanged(0, ObservationDelta.POSITION)).as("position changed").isFalse();
     }
 
     private void assertThatClientEventsAreIssued(ClientEvents clientEvents, ControlInterfaceImpl control) {
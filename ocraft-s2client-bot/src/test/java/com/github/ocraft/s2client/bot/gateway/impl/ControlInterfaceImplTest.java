@@ -30,10 +30,16 @@ import com.github.ocraft.s2client.api.OcraftApiConfig;
 import com.github.ocraft.s2client.api.controller.S2Controller;
 import com.github.ocraft.s2client.bot.ClientError;
 import com.github.ocraft.s2client.bot.ClientEvents;
+import com.github.ocraft.s2client.bot.S2Agent;
 import com.github.ocraft.s2client.bot.gateway.AppState;
+import com.github.ocraft.s2client.bot.setting.InterfaceSettings;
+import com.github.ocraft.s2client.bot.setting.PlayerSettings;
 import com.github.ocraft.s2client.bot.setting.ProcessSettings;
+import com.github.ocraft.s2client.protocol.ObservationProjection;
 import com.github.ocraft.s2client.protocol.data.Units;
 import com.github.ocraft.s2client.protocol.game.GameStatus;
+import com.github.ocraft.s2client.protocol.game.Race;
+import com.github.ocraft.s2client.protocol.observation.ObservationSection;
 import com.github.ocraft.s2client.protocol.spatial.Point;
 import com.github.ocraft.s2client.protocol.unit.Alliance;
 import com.github.ocraft.s2client.protocol.unit.Tag;
@@ -43,10 +49,12 @@ import org.junit.jupiter.api.Test;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class ControlInterfaceImplTest {
@@ -89,6 +97,20 @@ class ControlInterfaceImplTest {
         when(controlInterface.proto().hasResponsePending()).thenReturn(pendingResponse);
     }
 
+    @Test
+    void projectsObservationsOnJoinGame() {
+        ProtoInterfaceImpl proto = mock(ProtoInterfaceImpl.class);
+        ControlInterfaceImpl control = new ControlInterfaceImpl(
+                mock(ClientEvents.class), proto, mock(ObservationInterfaceImpl.class));
+
+        control.requestJoinGame(
+                PlayerSettings.participant(Race.PROTOSS, mock(S2Agent.class)),
+                new InterfaceSettings(null, null, null, null, null, null, Set.of(ObservationSection.SCORE)),
+                null);
+
+        verify(proto).projectObservations(ObservationProjection.of(ObservationSection.SCORE));
+    }
+
     @Test
     void findsInformationAboutStartLocation() {
         ControlInterfaceImpl control = controlWithMainBaseInUnitPool();
@@ -105,7 +127,8 @@ class ControlInterfaceImplTest {
         when(unit.getAlliance()).thenReturn(Alliance.SELF);
         when(unit.getType()).thenReturn(Units.TERRAN_COMMAND_CENTER);
         when(unit.getPosition()).thenReturn(Point.of(1.0f, 1.0f, 1.0f));
-        control.observationInternal().unitPool().createUnit(Tag.of(1L)).update(unit, 1, true);
+        UnitPool unitPool = control.observationInternal().unitPool();
+        unitPool.buckets().add(unitPool.createUnit(Tag.of(1L)).update(unit, 1, true));
         return control;
     }
 
@@ -0,0 +1,111 @@
+package com.github.ocraft.s2client.bot.gateway.impl;
+
+/*-
+ * #%L
+ * ocraft-s2client-bot
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongMapTest {
+
+    @Test
+    void storesValuesByPrimitiveKey() {
+        LongMap<String> map = new LongMap<>();
+
+        assertThat(map.put(1L, "a")).isNull();
+        assertThat(map.put(-1L, "b")).isNull();
+        assertThat(map.put(1L, "c")).as("replaced value").isEqualTo("a");
+
+        assertThat(map.size()).isEqualTo(2);
+        assertThat(map.get(1L)).isEqualTo("c");
+        assertThat(map.get(-1L)).isEqualTo("b");
+        assertThat(map.get(2L)).isNull();
+        assertThat(map.containsKey(2L)).isFalse();
+    }
+
+    @Test
+    void keepsEntriesDense() {
+        LongMap<String> map = new LongMap<>();
+        map.put(10L, "a");
+        map.put(20L, "b");
+        map.put(30L, "c");
+
+        assertThat(map.remove(10L)).isEqualTo("a");
+
+        assertThat(map.size()).isEqualTo(2);
+        assertThat(map.keyAt(0)).as("last entry moved into the free place").isEqualTo(30L);
+        assertThat(map.valueAt(0)).isEqualTo("c");
+        assertThat(map.indexOf(30L)).isEqualTo(0);
+        assertThat(map.indexOf(20L)).isEqualTo(1);
+        assertThat(map.remove(10L)).isNull();
+    }
+
+    @Test
+    void clearsAllEntries() {
+        LongMap<String> map = new LongMap<>();
+        map.put(1L, "a");
+        map.put(2L, "b");
+
+        map.clear();
+
+        assertThat(map.isEmpty()).isTrue();
+        assertThat(map.get(1L)).isNull();
+        map.put(2L, "c");
+        assertThat(map.get(2L)).isEqualTo("c");
+    }
+
+    @Test
+    void behavesLikeHashMapUnderRandomOperations() {
+        LongMap<Long> map = new LongMap<>(4);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(1);
+
+        for (int i = 0; i < 100_000; i++) {
+            // Tags of units share the upper bits, a small key range forces collisions and removals.
+            long key = 0x1_0000_0000L + random.nextInt(2_000);
+            switch (random.nextInt(4)) {
+                case 0:
+                    assertThat(map.remove(key)).isEqualTo(expected.remove(key));
+                    break;
+                case 1:
+                    assertThat(map.get(key)).isEqualTo(expected.get(key));
+                    break;
+                default:
+                    assertThat(map.put(key, (long) i)).isEqualTo(expected.put(key, (long) i));
+            }
+        }
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        for (int i = 0; i < map.size(); i++) {
+            assertThat(expected.get(map.keyAt(i))).isEqualTo(map.valueAt(i));
+        }
+    }
+}
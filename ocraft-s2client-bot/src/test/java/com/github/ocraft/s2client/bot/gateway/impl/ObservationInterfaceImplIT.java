@@ -50,6 +50,18 @@ class ObservationInterfaceImplIT {
                 .withMessage("control interface is required");
     }
 
+    @Test
+    void throwsExceptionWhenRadiusIsNegative() {
+        GameSetup gameSetup = new GameSetup().mockObservation(false).start();
+
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> gameSetup.observation()
+                        .getUnitsInRadius(Point2d.of(10.0f, 10.0f), -1.0f, unit -> true))
+                .withMessage("radius has value -1.0 and is lower than 0.0");
+
+        gameSetup.stop();
+    }
+
     @Test
     void providesAbilityData() {
         GameSetup gameSetup = new GameSetup().mockObservation(false).start();
@@ -164,6 +176,20 @@ class ObservationInterfaceImplIT {
         assertThat(gameSetup.observation().isPlacable(p02)).isTrue();
         assertThat(gameSetup.observation().terrainHeight(p01)).isGreaterThan(-100.0f);
 
+        ObservationInterfaceImpl observation = gameSetup.observation();
+        assertThat(observation.getCreepGrid()).as("creep grid")
+                .hasValueSatisfying(grid -> assertThat(grid.get(10, 10)).isTrue());
+        assertThat(observation.getVisibilityGrid()).as("visibility grid")
+                .hasValueSatisfying(grid -> assertThat(Visibility.from(grid.get(10, 10))).isEqualTo(Visibility.VISIBLE));
+        assertThat(observation.getPathingGrid()).as("pathing grid")
+                .hasValueSatisfying(grid -> assertThat(grid.get(10, 10)).isTrue());
+        assertThat(observation.getPlacementGrid()).as("placement grid")
+                .hasValueSatisfying(grid -> assertThat(grid.get(11, 10)).isTrue());
+        assertThat(observation.getTerrainHeightGrid()).as("terrain height grid")
+                .hasValueSatisfying(grid -> assertThat(grid.get(10, 10)).isEqualTo(observation.terrainHeight(p01)));
+        assertThat(observation.getPathingGrid().get()).as("decoded once per game")
+                .isSameAs(observation.getPathingGrid().get());
+
         gameSetup.stop();
     }
 
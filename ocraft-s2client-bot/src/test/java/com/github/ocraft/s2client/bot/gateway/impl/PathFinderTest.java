@@ -0,0 +1,168 @@
+package com.github.ocraft.s2client.bot.gateway.impl;
+
+/*-
+ * #%L
+ * ocraft-s2client-bot
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import SC2APIProtocol.Common;
+import com.github.ocraft.s2client.protocol.observation.spatial.BitGrid;
+import com.github.ocraft.s2client.protocol.observation.spatial.ImageData;
+import com.github.ocraft.s2client.protocol.spatial.Point2d;
+import com.google.protobuf.ByteString;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class PathFinderTest {
+
+    @Test
+    void findsStraightPathOnOpenGround() {
+        PathFinder pathFinder = new PathFinder(grid(
+                "..........",
+                "..........",
+                "..........",
+                ".........."));
+
+        assertThat(pathFinder.distance(0.5f, 0.5f, 9.5f, 0.5f)).as("horizontal").isCloseTo(9.0f, within(0.001f));
+        assertThat(pathFinder.distance(0.5f, 0.5f, 9.5f, 3.5f)).as("any angle")
+                .isCloseTo((float) Math.sqrt(9 * 9 + 3 * 3), within(0.001f));
+        assertThat(pathFinder.path(0.5f, 0.5f, 9.5f, 3.5f)).as("no waypoints in between")
+                .containsExactly(Point2d.of(0.5f, 0.5f), Point2d.of(9.5f, 3.5f));
+        assertThat(pathFinder.distance(2.5f, 2.5f, 2.5f, 2.5f)).as("same point").isEqualTo(0.0f);
+    }
+
+    @Test
+    void goesAroundObstacles() {
+        PathFinder pathFinder = new PathFinder(grid(
+                ".....",
+                ".###.",
+                "..#..",
+                "..#..",
+                "....."));
+
+        List<Point2d> path = pathFinder.path(0.5f, 2.5f, 4.5f, 2.5f);
+
+        assertThat(path).as("path around the wall").hasSize(4)
+                .startsWith(Point2d.of(0.5f, 2.5f)).endsWith(Point2d.of(4.5f, 2.5f));
+        assertThat(path.get(1).getY()).as("lower opening").isLessThan(1.0f);
+        assertThat(pathFinder.distance(0.5f, 2.5f, 4.5f, 2.5f)).as("longer than straight line")
+                .isCloseTo(2 * (float) Math.sqrt(5) + 2.0f, within(0.001f));
+    }
+
+    @Test
+    void doesNotCutBlockedCorners() {
+        PathFinder pathFinder = new PathFinder(grid(
+                "#.",
+                ".#"));
+
+        assertThat(pathFinder.distance(0.5f, 0.5f, 1.5f, 1.5f)).as("diagonal gap").isEqualTo(PathFinder.NO_PATH);
+        assertThat(pathFinder.path(0.5f, 0.5f, 1.5f, 1.5f)).isEmpty();
+    }
+
+    @Test
+    void takesBlockedFootprintsIntoAccount() {
+        PathFinder pathFinder = new PathFinder(grid(
+                "......",
+                "......",
+                "......",
+                "......",
+                "......",
+                "......"));
+
+        pathFinder.block(3.0f, 3.0f, 2);
+
+        assertThat(pathFinder.isPathable(2, 2)).as("footprint").isFalse();
+        assertThat(pathFinder.isPathable(3, 3)).as("footprint").isFalse();
+        assertThat(pathFinder.isPathable(1, 3)).as("outside footprint").isTrue();
+        assertThat(pathFinder.isPathable(4, 2)).as("outside footprint").isTrue();
+        assertThat(pathFinder.distance(0.5f, 3.0f, 5.5f, 3.0f)).as("detour").isGreaterThan(5.0f);
+
+        pathFinder.clearBlocked();
+
+        assertThat(pathFinder.isPathable(2, 2)).as("restored").isTrue();
+        assertThat(pathFinder.distance(0.5f, 3.0f, 5.5f, 3.0f)).as("straight").isCloseTo(5.0f, within(0.001f));
+    }
+
+    @Test
+    void blocksRectangularFootprints() {
+        PathFinder pathFinder = new PathFinder(grid(
+                "......",
+                "......",
+                "......",
+                "......"));
+
+        pathFinder.block(3.0f, 2.5f, 2, 1);
+
+        assertThat(pathFinder.isPathable(2, 2)).as("footprint").isFalse();
+        assertThat(pathFinder.isPathable(3, 2)).as("footprint").isFalse();
+        assertThat(pathFinder.isPathable(2, 1)).as("below footprint").isTrue();
+        assertThat(pathFinder.isPathable(3, 3)).as("above footprint").isTrue();
+        assertThat(pathFinder.isPathable(1, 2)).as("left of footprint").isTrue();
+        assertThat(pathFinder.isPathable(4, 2)).as("right of footprint").isTrue();
+    }
+
+    @Test
+    void snapsPointsOnBlockedCellsToNearestPathableCell() {
+        PathFinder pathFinder = new PathFinder(grid(
+                ".....",
+                ".....",
+                "....#"));
+
+        assertThat(pathFinder.path(0.5f, 0.5f, 4.5f, 0.5f)).as("end on blocked cell")
+                .endsWith(Point2d.of(3.5f, 0.5f));
+    }
+
+    @Test
+    void returnsNoPathBetweenDisconnectedAreas() {
+        PathFinder pathFinder = new PathFinder(grid(
+                "...#....",
+                "...#....",
+                "...#...."));
+
+        assertThat(pathFinder.distance(0.5f, 0.5f, 7.5f, 0.5f)).isEqualTo(PathFinder.NO_PATH);
+        assertThat(pathFinder.distance(0.5f, 0.5f, 2.5f, 2.5f)).as("reusable after failure")
+                .isCloseTo((float) Math.sqrt(8), within(0.001f));
+    }
+
+    // Rows from the top of the map, '.' is pathable.
+    static BitGrid grid(String... rows) {
+        int width = rows[0].length();
+        byte[] data = new byte[width * rows.length];
+        for (int y = 0; y < rows.length; y++) {
+            for (int x = 0; x < width; x++) {
+                data[x + y * width] = (byte) (rows[y].charAt(x) == '.' ? 255 : 0);
+            }
+        }
+        ImageData imageData = ImageData.from(Common.ImageData.newBuilder()
+                .setSize(Common.Size2DI.newBuilder().setX(width).setY(rows.length))
+                .setBitsPerPixel(8)
+                .setData(ByteString.copyFrom(data))
+                .build());
+        return BitGrid.from(imageData, ImageData.Origin.UPPER_LEFT, value -> value != 0);
+    }
+}
@@ -31,6 +31,9 @@ import com.github.ocraft.s2client.bot.ClientError;
 import com.github.ocraft.s2client.bot.gateway.ProtoInterface;
 import com.github.ocraft.s2client.protocol.game.GameStatus;
 import com.github.ocraft.s2client.protocol.request.Requests;
+import com.github.ocraft.s2client.protocol.response.Response;
+import com.github.ocraft.s2client.protocol.response.ResponseType;
+import io.reactivex.Maybe;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
@@ -99,4 +102,20 @@ class ProtoInterfaceImplEndToEndIT {
         assertThat(protoInterface.lastStatus()).isEqualTo(GameStatus.LAUNCHED);
         protoInterface.quit();
     }
+
+    @Test
+    void collectsPipelinedResponsesInOrder() {
+        theGame = S2Controller.starcraft2Game().launch().untilReady();
+        ProtoInterfaceImpl protoInterface = new ProtoInterfaceImpl();
+        protoInterface.setPipelined(true);
+        assertThat(protoInterface.connectToGame(theGame, TEST_TIMEOUT, TEST_TIMEOUT, true)).isTrue();
+
+        List<Maybe<Response>> responses = new ArrayList<>();
+        for (int i = 0; i < 3; i++) responses.add(protoInterface.sendRequest(Requests.ping()));
+
+        assertThat(protoInterface.getCountUses().get(ResponseType.PING)).isEqualTo(4);
+        responses.forEach(response -> assertThat(protoInterface.waitForResponse(response)).isPresent());
+        assertThat(protoInterface.hasResponsePending()).isFalse();
+        protoInterface.quit();
+    }
 }
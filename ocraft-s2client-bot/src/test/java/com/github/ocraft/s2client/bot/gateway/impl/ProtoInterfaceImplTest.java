@@ -26,13 +26,27 @@ package com.github.ocraft.s2client.bot.gateway.impl;
  * #L%
  */
 
+import SC2APIProtocol.Sc2Api;
+import com.github.ocraft.s2client.api.S2Client;
+import com.github.ocraft.s2client.bot.ClientError;
 import com.github.ocraft.s2client.protocol.BuilderSyntax;
 import com.github.ocraft.s2client.protocol.game.GameStatus;
 import com.github.ocraft.s2client.protocol.request.Request;
+import com.github.ocraft.s2client.protocol.request.Requests;
+import com.github.ocraft.s2client.protocol.response.Response;
+import com.github.ocraft.s2client.protocol.response.ResponseStep;
+import com.github.ocraft.s2client.protocol.response.ResponseType;
+import io.reactivex.Maybe;
+import io.reactivex.subjects.MaybeSubject;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 
 class ProtoInterfaceImplTest {
 
@@ -58,4 +72,64 @@ class ProtoInterfaceImplTest {
                 .withMessage("request is required");
     }
 
+    @Test
+    void usesSingleRequestPerTypeByDefault() {
+        ProtoInterfaceImpl protoInterface = new ProtoInterfaceImpl();
+        assertThat(protoInterface.isPipelined()).isFalse();
+
+        protoInterface.setPipelined(true);
+
+        assertThat(protoInterface.isPipelined()).isTrue();
+    }
+
+    @Test
+    void refusesSecondOutstandingRequestOfTheSameTypeByDefault() {
+        S2Client s2Client = mockClient();
+        List<ClientError> errors = new ArrayList<>();
+        ProtoInterfaceImpl protoInterface = new ProtoInterfaceImpl(s2Client, false);
+        protoInterface.setOnError((error, details) -> errors.add(error));
+
+        Maybe<Response> first = protoInterface.sendRequest(Requests.nextStep().build());
+        Maybe<Response> second = protoInterface.sendRequest(Requests.nextStep().build());
+
+        assertThat(first).as("first request").isInstanceOf(MaybeSubject.class);
+        second.test().assertComplete().assertNoValues();
+        assertThat(errors).as("client errors").containsExactly(ClientError.RESPONSE_NOT_CONSUMED);
+        verify(s2Client, times(1)).requestAsync(any(Request.class));
+
+        ((MaybeSubject<Response>) first).onSuccess(stepResponse());
+        assertThat(protoInterface.waitForResponse(first)).as("first response").isPresent();
+        assertThat(protoInterface.sendRequest(Requests.nextStep().build())).as("request after response consumed")
+                .isInstanceOf(MaybeSubject.class);
+        assertThat(errors).as("client errors").hasSize(1);
+    }
+
+    @Test
+    void acceptsOutstandingRequestsOfTheSameTypeInOrderWhenPipelined() {
+        S2Client s2Client = mockClient();
+        List<ClientError> errors = new ArrayList<>();
+        ProtoInterfaceImpl protoInterface = new ProtoInterfaceImpl(s2Client, true);
+        protoInterface.setOnError((error, details) -> errors.add(error));
+
+        Maybe<Response> first = protoInterface.sendRequest(Requests.nextStep().build());
+        Maybe<Response> second = protoInterface.sendRequest(Requests.nextStep().build());
+
+        assertThat(errors).as("client errors").isEmpty();
+        verify(s2Client, times(2)).requestAsync(any(Request.class));
+        assertThat(protoInterface.hasResponsePending(ResponseType.STEP)).isTrue();
+        assertThat(protoInterface.getResponsePending(ResponseType.STEP)).as("oldest request first").isSameAs(first);
+        assertThat(protoInterface.getResponsePending(ResponseType.STEP)).isSameAs(second);
+        assertThat(protoInterface.hasResponsePending()).isFalse();
+    }
+
+    private S2Client mockClient() {
+        S2Client s2Client = mock(S2Client.class);
+        when(s2Client.requestAsync(any(Request.class))).thenAnswer(invocation -> MaybeSubject.create());
+        return s2Client;
+    }
+
+    private Response stepResponse() {
+        return ResponseStep.from(Sc2Api.Response.newBuilder().setStep(Sc2Api.ResponseStep.newBuilder()).build());
+    }
+
 }
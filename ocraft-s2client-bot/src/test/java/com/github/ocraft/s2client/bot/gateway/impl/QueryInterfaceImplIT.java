@@ -31,10 +31,13 @@ import SC2APIProtocol.Raw;
 import SC2APIProtocol.Sc2Api;
 import com.github.ocraft.s2client.bot.GameServerResponses;
 import com.github.ocraft.s2client.protocol.data.Abilities;
+import com.github.ocraft.s2client.protocol.spatial.Point;
 import com.github.ocraft.s2client.protocol.spatial.Point2d;
 import com.github.ocraft.s2client.protocol.unit.Unit;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static com.github.ocraft.s2client.bot.Fixtures.OLD_01_UNIT_TAG;
 import static com.github.ocraft.s2client.bot.Fixtures.mockUnit;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -60,6 +63,35 @@ class QueryInterfaceImplIT {
         gameSetup.stop();
     }
 
+    @Test
+    void handlesLocalPathingQueriesWithoutRequests() {
+        GameSetup gameSetup = new GameSetup().mockObservation(false).start();
+        gameSetup.server().onRequest(Sc2Api.Request::hasObservation, GameServerResponses::observation);
+        gameSetup.server().onRequest(Sc2Api.Request::hasGameInfo, GameServerResponses::gameInfo);
+        gameSetup.server().onRequest(Sc2Api.Request::hasData, GameServerResponses::abilityData);
+        AtomicInteger queries = new AtomicInteger();
+        gameSetup.server().onRequest(Sc2Api.Request::hasQuery, () -> {
+            queries.incrementAndGet();
+            return GameServerResponses.query();
+        });
+        assertThat(gameSetup.control().getObservation()).as("status of update observation").isTrue();
+
+        // Only the cell (10, 10) is pathable in the test map.
+        Point2d start = Point2d.of(10.25f, 10.25f);
+        Point2d end = Point2d.of(10.75f, 10.5f);
+
+        assertThat(gameSetup.control().query().localPathingDistance(start, end)).as("local distance")
+                .isEqualTo((float) start.distance(end));
+        assertThat(gameSetup.control().query().localPath(start, end)).as("local path").containsExactly(start, end);
+        assertThat(gameSetup.control().query().localPathingDistance(mockUnit(Point.of(10.25f, 10.25f)), end))
+                .as("distance from unit outside of the pool").isEqualTo((float) start.distance(end));
+        assertThat(gameSetup.control().query().localPathingDistance(start, Point2d.of(30.0f, 30.0f)))
+                .as("no path").isEqualTo(0.0f);
+        assertThat(queries).as("query requests").hasValue(0);
+
+        gameSetup.stop();
+    }
+
     @Test
     void returnsFalseForPlacementQueryOnEmptyResponse() {
         GameSetup gameSetup = new GameSetup().mockObservation(false).start();
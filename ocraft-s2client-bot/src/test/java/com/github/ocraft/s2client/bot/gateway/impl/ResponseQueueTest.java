@@ -98,4 +98,35 @@ class ResponseQueueTest {
         assertThat(responseQueue.peek()).isFalse();
     }
 
+    @Test
+    void queuesResponsesOfTheSameTypeInPipelinedMode() {
+        ResponseQueue responseQueue = new ResponseQueue(true);
+        MaybeSubject<Response> first = MaybeSubject.create();
+        MaybeSubject<Response> second = MaybeSubject.create();
+
+        assertThat(responseQueue.offer(ResponseType.ACTION, first)).isTrue();
+        assertThat(responseQueue.offer(ResponseType.ACTION, second)).isTrue();
+        assertThat(responseQueue.size(ResponseType.ACTION)).isEqualTo(2);
+
+        assertThat(responseQueue.poll(ResponseType.ACTION)).isSameAs(first);
+        assertThat(responseQueue.poll(ResponseType.ACTION)).isSameAs(second);
+        assertThat(responseQueue.peek()).isFalse();
+    }
+
+    @Test
+    void removesConsumedResponseFromPipeline() {
+        ResponseQueue responseQueue = new ResponseQueue(true);
+        MaybeSubject<Response> first = MaybeSubject.create();
+        MaybeSubject<Response> second = MaybeSubject.create();
+        responseQueue.offer(ResponseType.PING, first);
+        responseQueue.offer(ResponseType.PING, second);
+
+        assertThat(responseQueue.remove(second)).isTrue();
+        assertThat(responseQueue.remove(second)).isFalse();
+        assertThat(responseQueue.size(ResponseType.PING)).isEqualTo(1);
+
+        first.onSuccess(ResponsePing.from(GameServerResponses.ping()));
+        assertThat(responseQueue.peekResponse(ResponseType.PING)).isTrue();
+    }
+
 }
@@ -0,0 +1,116 @@
+package com.github.ocraft.s2client.bot.gateway.impl;
+
+/*-
+ * #%L
+ * ocraft-s2client-bot
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import com.github.ocraft.s2client.bot.gateway.UnitInPool;
+import com.github.ocraft.s2client.protocol.data.UnitType;
+import com.github.ocraft.s2client.protocol.data.Units;
+import com.github.ocraft.s2client.protocol.unit.Alliance;
+import com.github.ocraft.s2client.protocol.unit.Tag;
+import com.github.ocraft.s2client.protocol.unit.Unit;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UnitBucketsTest {
+
+    @Test
+    void groupsUnitsByAllianceAndType() {
+        UnitBuckets buckets = new UnitBuckets();
+        UnitInPool marine = unit(1L, Alliance.SELF, Units.TERRAN_MARINE);
+        UnitInPool scv = unit(2L, Alliance.SELF, Units.TERRAN_SCV);
+        UnitInPool zergling = unit(3L, Alliance.ENEMY, Units.ZERG_ZERGLING);
+        UnitInPool otherMarine = unit(4L, Alliance.ENEMY, Units.TERRAN_MARINE);
+        buckets.add(marine);
+        buckets.add(scv);
+        buckets.add(zergling);
+        buckets.add(otherMarine);
+
+        assertThat(buckets.getUnits(Alliance.SELF)).containsExactly(marine, scv);
+        assertThat(buckets.getUnits(Alliance.ENEMY)).containsExactly(zergling, otherMarine);
+        assertThat(buckets.getUnits(Alliance.NEUTRAL)).isEmpty();
+        assertThat(buckets.getUnits(Units.TERRAN_MARINE)).containsExactly(marine, otherMarine);
+        assertThat(buckets.getUnits(Units.PROTOSS_PROBE)).isEmpty();
+        assertThat(buckets.getUnits(Units.INVALID)).isEmpty();
+    }
+
+    @Test
+    void keepsBucketsOfPreviousStepUnchanged() {
+        UnitBuckets buckets = new UnitBuckets();
+        UnitInPool marine = unit(1L, Alliance.SELF, Units.TERRAN_MARINE);
+        buckets.add(marine);
+        List<UnitInPool> previousStep = buckets.getUnits(Alliance.SELF);
+
+        buckets.clear();
+        UnitInPool scv = unit(2L, Alliance.SELF, Units.TERRAN_SCV);
+        buckets.add(scv);
+
+        assertThat(previousStep).containsExactly(marine);
+        assertThat(buckets.getUnits(Alliance.SELF)).containsExactly(scv);
+        assertThat(buckets.getUnits(Units.TERRAN_MARINE)).isEmpty();
+        assertThatExceptionOfType(UnsupportedOperationException.class)
+                .isThrownBy(() -> previousStep.add(marine));
+    }
+
+    @Test
+    void removesDeadUnits() {
+        UnitBuckets buckets = new UnitBuckets();
+        UnitInPool marine = unit(1L, Alliance.SELF, Units.TERRAN_MARINE);
+        UnitInPool scv = unit(2L, Alliance.SELF, Units.TERRAN_SCV);
+        buckets.add(marine);
+        buckets.add(scv);
+
+        List<UnitInPool> beforeRemoval = buckets.getUnits(Alliance.SELF);
+
+        buckets.remove(marine);
+
+        assertThat(beforeRemoval).containsExactly(marine, scv);
+        assertThat(buckets.getUnits(Alliance.SELF)).containsExactly(scv);
+        assertThat(buckets.getUnits(Units.TERRAN_MARINE)).isEmpty();
+    }
+
+    @Test
+    void growsTypeIndexForUnknownTypes() {
+        UnitBuckets buckets = new UnitBuckets();
+        UnitInPool custom = unit(1L, Alliance.NEUTRAL, Units.from(5000));
+        buckets.add(custom);
+
+        assertThat(buckets.getUnits(Units.from(5000))).containsExactly(custom);
+    }
+
+    private static UnitInPool unit(long tag, Alliance alliance, UnitType type) {
+        Unit unit = mock(Unit.class);
+        when(unit.getAlliance()).thenReturn(alliance);
+        when(unit.getType()).thenReturn(type);
+        return new UnitInPool(Tag.of(tag)).update(unit);
+    }
+}
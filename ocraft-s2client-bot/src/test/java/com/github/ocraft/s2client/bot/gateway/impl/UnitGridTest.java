@@ -0,0 +1,174 @@
+package com.github.ocraft.s2client.bot.gateway.impl;
+
+/*-
+ * #%L
+ * ocraft-s2client-bot
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import com.github.ocraft.s2client.bot.gateway.UnitInPool;
+import com.github.ocraft.s2client.protocol.spatial.Point;
+import com.github.ocraft.s2client.protocol.unit.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static com.github.ocraft.s2client.bot.Fixtures.mockUnit;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UnitGridTest {
+
+    @Test
+    void findsUnitsInRadiusAndRect() {
+        UnitGrid grid = new UnitGrid();
+        UnitInPool near = unitAt(1L, 10, 10);
+        UnitInPool edge = unitAt(2L, 13, 14);
+        UnitInPool far = unitAt(3L, 40, 40);
+        grid.put(near);
+        grid.put(edge);
+        grid.put(far);
+
+        assertThat(grid.getUnitsInRadius(10, 10, 5, unit -> true)).containsOnly(near, edge);
+        assertThat(grid.getUnitsInRadius(10, 10, 4.9f, unit -> true)).containsOnly(near);
+        assertThat(grid.getUnitsInRadius(10, 10, 5, unit -> unit != near)).containsOnly(edge);
+        assertThat(grid.getUnitsInRect(12, 0, 50, 40, unit -> true)).containsOnly(edge, far);
+    }
+
+    @Test
+    void movesAndRemovesUnits() {
+        UnitGrid grid = new UnitGrid();
+        UnitInPool unit01 = unitAt(1L, 10, 10);
+        UnitInPool unit02 = unitAt(2L, 11, 11);
+        grid.put(unit01);
+        grid.put(unit02);
+
+        unit01.update(mockUnit(Point.of(100, 100)));
+        grid.put(unit01);
+
+        assertThat(grid.size()).isEqualTo(2);
+        assertThat(grid.getUnitsInRadius(10, 10, 5, unit -> true)).containsOnly(unit02);
+        assertThat(grid.getUnitsInRadius(100, 100, 5, unit -> true)).containsOnly(unit01);
+
+        grid.remove(unit02);
+        grid.remove(unit02);
+
+        assertThat(grid.size()).isEqualTo(1);
+        assertThat(grid.getUnitsInRadius(10, 10, 5, unit -> true)).isEmpty();
+
+        grid.clear();
+
+        assertThat(grid.size()).isZero();
+        assertThat(grid.getUnitsInRadius(100, 100, 5, unit -> true)).isEmpty();
+    }
+
+    @Test
+    void keepsUnitsOutsideOfMapInBorderCells() {
+        UnitGrid grid = new UnitGrid();
+        UnitInPool outside = unitAt(1L, -3, 300);
+        grid.put(outside);
+
+        assertThat(grid.getUnitsInRadius(-3, 300, 1, unit -> true)).containsOnly(outside);
+        assertThat(grid.getNearestUnits(0, 0, 1, unit -> true)).containsOnly(outside);
+    }
+
+    @Test
+    void findsNearestUnitsSortedByDistance() {
+        UnitGrid grid = new UnitGrid();
+        UnitInPool unit01 = unitAt(1L, 50, 50);
+        UnitInPool unit02 = unitAt(2L, 52, 50);
+        UnitInPool unit03 = unitAt(3L, 200, 200);
+        grid.put(unit03);
+        grid.put(unit02);
+        grid.put(unit01);
+
+        assertThat(grid.getNearestUnits(49, 50, 2, unit -> true)).containsExactly(unit01, unit02);
+        assertThat(grid.getNearestUnits(49, 50, 5, unit -> true)).containsExactly(unit01, unit02, unit03);
+        assertThat(grid.getNearestUnits(49, 50, 1, unit -> unit != unit01)).containsExactly(unit02);
+        assertThat(grid.getNearestUnits(49, 50, 0, unit -> true)).isEmpty();
+    }
+
+    @Test
+    void answersSameAsLinearScan() {
+        Random random = new Random(11);
+        UnitGrid grid = new UnitGrid();
+        List<UnitInPool> units = new ArrayList<>();
+        for (long tag = 1; tag <= 500; tag++) {
+            UnitInPool unitInPool = unitAt(tag, random.nextFloat() * 200, random.nextFloat() * 200);
+            units.add(unitInPool);
+            grid.put(unitInPool);
+        }
+        for (int step = 0; step < 20; step++) {
+            for (int i = 0; i < 50; i++) {
+                UnitInPool moved = units.get(random.nextInt(units.size()));
+                moved.update(mockUnit(Point.of(random.nextFloat() * 200, random.nextFloat() * 200, 0)));
+                grid.put(moved);
+            }
+            UnitInPool removed = units.remove(random.nextInt(units.size()));
+            grid.remove(removed);
+
+            float x = random.nextFloat() * 200;
+            float y = random.nextFloat() * 200;
+            float radius = random.nextFloat() * 30;
+            int count = 1 + random.nextInt(60);
+            Predicate<UnitInPool> filter = unit -> unit.getTag().getValue() % 3 != 0;
+
+            assertThat(grid.getUnitsInRadius(x, y, radius, filter))
+                    .containsExactlyInAnyOrderElementsOf(units.stream()
+                            .filter(unit -> distanceSquared(unit, x, y) <= radius * radius)
+                            .filter(filter)
+                            .collect(Collectors.toList()));
+            assertThat(grid.getUnitsInRect(x, y, x + radius, y + radius, filter))
+                    .containsExactlyInAnyOrderElementsOf(units.stream()
+                            .filter(unit -> inRect(unit, x, y, x + radius, y + radius))
+                            .filter(filter)
+                            .collect(Collectors.toList()));
+            assertThat(grid.getNearestUnits(x, y, count, filter))
+                    .containsExactlyElementsOf(units.stream()
+                            .filter(filter)
+                            .sorted(Comparator.comparingDouble(unit -> distanceSquared(unit, x, y)))
+                            .limit(count)
+                            .collect(Collectors.toList()));
+        }
+    }
+
+    private static UnitInPool unitAt(long tag, float x, float y) {
+        return new UnitInPool(Tag.of(tag)).update(mockUnit(Point.of(x, y, 0)));
+    }
+
+    private static float distanceSquared(UnitInPool unitInPool, float x, float y) {
+        float dx = unitInPool.unit().getPosition().getX() - x;
+        float dy = unitInPool.unit().getPosition().getY() - y;
+        return dx * dx + dy * dy;
+    }
+
+    private static boolean inRect(UnitInPool unitInPool, float minX, float minY, float maxX, float maxY) {
+        Point position = unitInPool.unit().getPosition();
+        return position.getX() >= minX && position.getX() <= maxX &&
+                position.getY() >= minY && position.getY() <= maxY;
+    }
+}
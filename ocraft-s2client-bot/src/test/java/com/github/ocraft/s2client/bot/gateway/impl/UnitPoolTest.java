@@ -31,7 +31,11 @@ import com.github.ocraft.s2client.protocol.unit.Tag;
 import com.github.ocraft.s2client.protocol.unit.Unit;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static com.github.ocraft.s2client.protocol.Errors.required;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -84,12 +88,46 @@ class UnitPoolTest {
     @Test
     void movesExistingUnitToPreviousPool() {
         UnitPool unitPool = new UnitPool();
-        unitPool.createUnit(TAG).update(mock(Unit.class), 1, true);
+        Unit unit = mock(Unit.class);
+        unitPool.createUnit(TAG).update(unit, 1, true);
 
         unitPool.switchExistingToPrevious();
 
         assertThat(unitPool.unitExists(TAG)).as("unit is in exiting pool").isFalse();
-        assertThat(unitPool.previous()).as("unit is moved to previous pool").containsKey(TAG);
+        assertThat(unitPool.hasPreviousUnit(TAG)).as("unit is moved to previous pool").isTrue();
+        assertThat(unitPool.getPreviousUnit(TAG)).as("previous state of unit").containsSame(unit);
+    }
+
+    @Test
+    void keepsPreviousStateOfUnitsExistingInLastStepOnly() {
+        UnitPool unitPool = new UnitPool();
+        Tag otherTag = Tag.of(2L);
+        unitPool.createUnit(TAG).update(mock(Unit.class), 1, true);
+        unitPool.createUnit(otherTag).update(mock(Unit.class), 1, true);
+        unitPool.switchExistingToPrevious();
+
+        Unit unit = mock(Unit.class);
+        unitPool.createUnit(TAG).update(unit, 2, true);
+        unitPool.switchExistingToPrevious();
+
+        assertThat(unitPool.getPreviousUnit(TAG)).as("previous state of unit").containsSame(unit);
+        assertThat(unitPool.hasPreviousUnit(otherTag)).as("unit not seen in last step").isFalse();
+        assertThat(unitPool.getUnit(otherTag)).as("unit still in pool").isPresent();
+    }
+
+    @Test
+    void iteratesExistingUnits() {
+        UnitPool unitPool = new UnitPool();
+        List<UnitInPool> units = LongStream.range(0, 100)
+                .mapToObj(tag -> unitPool.createUnit(Tag.of(tag)))
+                .collect(Collectors.toList());
+        unitPool.markDead(Tag.of(10L));
+
+        List<UnitInPool> existing = new ArrayList<>();
+        unitPool.forEachExistingUnit(existing::add);
+
+        assertThat(unitPool.existingUnitCount()).isEqualTo(99);
+        assertThat(existing).hasSize(99).doesNotContain(units.get(10)).containsAll(units.subList(11, 100));
     }
 
     @Test
@@ -107,4 +145,21 @@ class UnitPoolTest {
 
     }
 
+
+    @Test
+    void providesUnitsMissingSincePreviousStep() {
+        UnitPool unitPool = new UnitPool();
+        Tag removedTag = Tag.of(2L);
+        unitPool.createUnit(TAG).update(mock(Unit.class));
+        unitPool.createUnit(removedTag).update(mock(Unit.class));
+
+        unitPool.switchExistingToPrevious();
+        unitPool.createUnit(TAG);
+
+        List<UnitInPool> removed = new ArrayList<>();
+        unitPool.forEachRemovedUnit(removed::add);
+
+        assertThat(unitPool.previousUnitCount()).isEqualTo(2);
+        assertThat(removed).extracting(UnitInPool::getTag).containsExactly(removedTag);
+    }
 }
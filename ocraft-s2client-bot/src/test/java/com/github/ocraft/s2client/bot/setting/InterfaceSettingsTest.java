@@ -33,7 +33,7 @@ class InterfaceSettingsTest {
 
     @Test
     void fulfillsEqualsContract() {
-        EqualsVerifier.forClass(InterfaceSettings.class).verify();
+        EqualsVerifier.forClass(InterfaceSettings.class).withNonnullFields("observationSections").verify();
     }
 
 }
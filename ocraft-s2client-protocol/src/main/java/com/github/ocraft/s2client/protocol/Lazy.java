@@ -0,0 +1,120 @@
+package com.github.ocraft.s2client.protocol;
+
+/*-
+ * #%L
+ * ocraft-s2client-protocol
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import static com.github.ocraft.s2client.protocol.Preconditions.require;
+
+/**
+ * Value computed on first access and cached afterwards. Used to decode parts of sc2api responses only when they
+ * are actually read. Equality is based on the computed value.
+ */
+public final class Lazy<T> implements Supplier<T>, Serializable {
+
+    private static final long serialVersionUID = 2915286316359498254L;
+
+    private transient volatile Supplier<T> supplier;
+    private T value;
+
+    private Lazy(Supplier<T> supplier, T value) {
+        this.supplier = supplier;
+        this.value = value;
+    }
+
+    public static <T> Lazy<T> of(Supplier<T> supplier) {
+        require("supplier", supplier);
+        return new Lazy<>(supplier, null);
+    }
+
+    public static <T> Lazy<T> value(T value) {
+        return new Lazy<>(null, value);
+    }
+
+    @Override
+    public T get() {
+        if (supplier != null) {
+            synchronized (this) {
+                Supplier<T> localSupplier = supplier;
+                if (localSupplier != null) {
+                    value = localSupplier.get();
+                    supplier = null;
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Computes the value with the given supplier instead of the original one if it was not computed yet.
+     */
+    public T get(Supplier<T> alternative) {
+        require("alternative supplier", alternative);
+        if (supplier != null) {
+            synchronized (this) {
+                if (supplier != null) {
+                    value = alternative.get();
+                    supplier = null;
+                }
+            }
+        }
+        return value;
+    }
+
+    public boolean isComputed() {
+        return supplier == null;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        get();
+        out.defaultWriteObject();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        Lazy<?> that = (Lazy<?>) o;
+
+        return Objects.equals(get(), that.get());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(get());
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(get());
+    }
+}
@@ -0,0 +1,151 @@
+package com.github.ocraft.s2client.protocol;
+
+/*-
+ * #%L
+ * ocraft-s2client-protocol
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import SC2APIProtocol.Raw;
+import SC2APIProtocol.Sc2Api;
+import com.github.ocraft.s2client.protocol.observation.ObservationSection;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+import static com.github.ocraft.s2client.protocol.Preconditions.require;
+import static com.github.ocraft.s2client.protocol.observation.ObservationSection.*;
+
+/**
+ * Sections of observation responses that should be parsed. Fields of the other sections are removed from the
+ * serialized response before it is parsed, so they are never materialized (only the bytes of kept fields are
+ * copied). Sections left out are seen as absent, e.g. without {@link ObservationSection#UNITS} the raw unit set is
+ * empty and without {@link ObservationSection#SCORE} there is no score.
+ */
+public final class ObservationProjection implements UnaryOperator<byte[]>, Serializable {
+
+    private static final long serialVersionUID = -3361925120402047165L;
+
+    private static final ObservationProjection ALL = new ObservationProjection(EnumSet.allOf(ObservationSection.class));
+
+    private final Set<ObservationSection> sections;
+    private final transient WireFilter filter;
+
+    private ObservationProjection(Set<ObservationSection> sections) {
+        this.sections = Collections.unmodifiableSet(sections);
+        this.filter = filterFor(sections);
+    }
+
+    public static ObservationProjection all() {
+        return ALL;
+    }
+
+    public static ObservationProjection of(ObservationSection... sections) {
+        require("sections", sections);
+        EnumSet<ObservationSection> included = EnumSet.noneOf(ObservationSection.class);
+        Collections.addAll(included, sections);
+        return of(included);
+    }
+
+    public static ObservationProjection of(Collection<ObservationSection> sections) {
+        require("sections", sections);
+        if (sections.containsAll(ALL.sections)) return ALL;
+        return new ObservationProjection(sections.isEmpty()
+                ? EnumSet.noneOf(ObservationSection.class)
+                : EnumSet.copyOf(sections));
+    }
+
+    private static WireFilter filterFor(Set<ObservationSection> sections) {
+        WireFilter raw = new WireFilter();
+        if (!sections.contains(UNITS) && !sections.contains(UNIT_SNAPSHOTS)) {
+            raw.drop(Raw.ObservationRaw.UNITS_FIELD_NUMBER);
+        } else if (!sections.contains(UNITS) || !sections.contains(UNIT_SNAPSHOTS)) {
+            boolean keepUnits = sections.contains(UNITS);
+            raw.keepIf(Raw.ObservationRaw.UNITS_FIELD_NUMBER, (buffer, offset, length) ->
+                    keepUnits == WireFilter.hasField(buffer, offset, length, Raw.Unit.TAG_FIELD_NUMBER));
+        }
+        if (!sections.contains(MAP_STATE)) raw.drop(Raw.ObservationRaw.MAP_STATE_FIELD_NUMBER);
+        if (!sections.contains(EFFECTS)) raw.drop(Raw.ObservationRaw.EFFECTS_FIELD_NUMBER);
+
+        WireFilter observation = new WireFilter().filter(Sc2Api.Observation.RAW_DATA_FIELD_NUMBER, raw);
+        if (!sections.contains(SCORE)) observation.drop(Sc2Api.Observation.SCORE_FIELD_NUMBER);
+        if (!sections.contains(FEATURE_LAYERS)) observation.drop(Sc2Api.Observation.FEATURE_LAYER_DATA_FIELD_NUMBER);
+        if (!sections.contains(RENDER)) observation.drop(Sc2Api.Observation.RENDER_DATA_FIELD_NUMBER);
+        if (!sections.contains(UI)) observation.drop(Sc2Api.Observation.UI_DATA_FIELD_NUMBER);
+
+        WireFilter responseObservation = new WireFilter()
+                .filter(Sc2Api.ResponseObservation.OBSERVATION_FIELD_NUMBER, observation);
+        if (!sections.contains(CHAT)) responseObservation.drop(Sc2Api.ResponseObservation.CHAT_FIELD_NUMBER);
+
+        return new WireFilter().filter(Sc2Api.Response.OBSERVATION_FIELD_NUMBER, responseObservation);
+    }
+
+    public Set<ObservationSection> getSections() {
+        return sections;
+    }
+
+    public boolean includes(ObservationSection section) {
+        return sections.contains(section);
+    }
+
+    public boolean includesAll() {
+        return this == ALL;
+    }
+
+    /**
+     * Removes fields of left out sections from a serialized sc2api response. Responses other than observation and
+     * responses without such fields are returned as they are.
+     */
+    @Override
+    public byte[] apply(byte[] responseBytes) {
+        return includesAll() ? responseBytes : filter.apply(responseBytes);
+    }
+
+    private Object readResolve() {
+        return of(sections);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ObservationProjection that = (ObservationProjection) o;
+
+        return sections.equals(that.sections);
+    }
+
+    @Override
+    public int hashCode() {
+        return sections.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return Strings.toJson(this);
+    }
+}
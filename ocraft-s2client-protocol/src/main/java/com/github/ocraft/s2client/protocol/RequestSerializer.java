@@ -28,27 +28,48 @@ package com.github.ocraft.s2client.protocol;
 
 import SC2APIProtocol.Sc2Api;
 import com.github.ocraft.s2client.protocol.request.Request;
+import com.google.protobuf.CodedOutputStream;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.function.Function;
 
 import static com.github.ocraft.s2client.protocol.Preconditions.isSet;
 
+/**
+ * Serializes requests straight into an array of the exact size. The request id is written after the body (it has
+ * the highest field number) so the request does not have to be copied through a builder to set it.
+ * <p>
+ * The returned array is handed over to the websocket frame without copying, so it cannot come from a reusable
+ * buffer: the write completes asynchronously and Vert.x does not report when. Apart from that array, the garbage per
+ * request is the protobuf message built by {@link Request#toSc2Api()}.
+ */
 public class RequestSerializer implements Function<Request, byte[]> {
     @Override
     public byte[] apply(Request request) {
         if (!isSet(request)) return new byte[0];
-        Sc2Api.Request sc2ApiRequest = request.toSc2Api();
-        sc2ApiRequest = sc2ApiRequest.toBuilder().setId(request.getId()).build();
+        byte[] template = RequestTemplates.serialize(request);
+        if (isSet(template)) return template;
 
-        ByteArrayOutputStream output = new ByteArrayOutputStream(sc2ApiRequest.getSerializedSize());
+        Sc2Api.Request sc2ApiRequest = request.toSc2Api();
+        int bodySize = sc2ApiRequest.getSerializedSize();
+        byte[] serialized = new byte[bodySize + idSize(request.getId())];
         try {
+            CodedOutputStream output = CodedOutputStream.newInstance(serialized);
             sc2ApiRequest.writeTo(output);
+            writeId(output, request.getId());
+            output.checkNoSpaceLeft();
         } catch (IOException e) {
             throw new ProtocolException(e);
         }
 
-        return output.toByteArray();
+        return serialized;
+    }
+
+    static int idSize(int id) {
+        return CodedOutputStream.computeUInt32Size(Sc2Api.Request.ID_FIELD_NUMBER, id);
+    }
+
+    static void writeId(CodedOutputStream output, int id) throws IOException {
+        output.writeUInt32(Sc2Api.Request.ID_FIELD_NUMBER, id);
     }
 }
@@ -0,0 +1,103 @@
+package com.github.ocraft.s2client.protocol;
+
+/*-
+ * #%L
+ * ocraft-s2client-protocol
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import SC2APIProtocol.Sc2Api;
+import com.github.ocraft.s2client.protocol.request.Request;
+import com.github.ocraft.s2client.protocol.request.RequestObservation;
+import com.github.ocraft.s2client.protocol.request.RequestPing;
+import com.github.ocraft.s2client.protocol.request.RequestStep;
+import com.google.protobuf.CodedOutputStream;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Serialized bodies of requests sent on every game step that differ only in the request id: ping, step and
+ * observation without a game loop. The body is serialized once and only the id field is written per request. The id
+ * has the highest field number of {@link Sc2Api.Request} so the result is identical to a regular serialization.
+ */
+final class RequestTemplates {
+
+    private static final int MAX_STEP_TEMPLATES = 64;
+
+    private static volatile byte[] ping;
+    private static final AtomicReferenceArray<byte[]> observation = new AtomicReferenceArray<>(2);
+    private static final Map<Integer, byte[]> steps = new ConcurrentHashMap<>();
+
+    private RequestTemplates() {
+        throw new AssertionError("private constructor");
+    }
+
+    /**
+     * @return Serialized request or null if the request has no template.
+     */
+    static byte[] serialize(Request request) {
+        byte[] body = bodyOf(request);
+        if (body == null) return null;
+
+        int id = request.getId();
+        int idSize = RequestSerializer.idSize(id);
+        byte[] serialized = Arrays.copyOf(body, body.length + idSize);
+        try {
+            RequestSerializer.writeId(CodedOutputStream.newInstance(serialized, body.length, idSize), id);
+        } catch (IOException e) {
+            throw new ProtocolException(e);
+        }
+        return serialized;
+    }
+
+    private static byte[] bodyOf(Request request) {
+        if (request instanceof RequestPing) {
+            byte[] body = ping;
+            if (body == null) ping = body = bodyBytes(request);
+            return body;
+        } else if (request instanceof RequestStep) {
+            int count = ((RequestStep) request).getCount();
+            byte[] body = steps.get(count);
+            if (body == null && steps.size() < MAX_STEP_TEMPLATES) {
+                body = steps.computeIfAbsent(count, key -> bodyBytes(request));
+            }
+            return body;
+        } else if (request instanceof RequestObservation) {
+            RequestObservation requestObservation = (RequestObservation) request;
+            if (requestObservation.getGameLoop().isPresent()) return null;
+            int index = requestObservation.isDisableFog() ? 1 : 0;
+            byte[] body = observation.get(index);
+            if (body == null) observation.set(index, body = bodyBytes(request));
+            return body;
+        }
+        return null;
+    }
+
+    private static byte[] bodyBytes(Request request) {
+        return request.toSc2Api().toByteArray();
+    }
+}
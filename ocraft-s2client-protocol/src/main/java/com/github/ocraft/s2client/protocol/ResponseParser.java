@@ -29,16 +29,43 @@ package com.github.ocraft.s2client.protocol;
 import SC2APIProtocol.Sc2Api;
 import com.github.ocraft.s2client.protocol.response.Response;
 import com.github.ocraft.s2client.protocol.response.ResponseConverter;
-import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.UnsafeByteOperations;
 
+import java.io.IOException;
 import java.util.function.Function;
 
+import static com.github.ocraft.s2client.protocol.Preconditions.require;
+
+/**
+ * Parses responses in place: {@code bytes} fields (e.g. image data of feature layers and renders) reference the
+ * given array instead of being copied out of it, so the array must not be modified afterwards. Observation sections
+ * left out by the {@link ObservationProjection} are skipped before parsing.
+ */
 public class ResponseParser implements Function<byte[], Response> {
+
+    private final ObservationProjection projection;
+
+    public ResponseParser() {
+        this(ObservationProjection.all());
+    }
+
+    public ResponseParser(ObservationProjection projection) {
+        require("observation projection", projection);
+        this.projection = projection;
+    }
+
+    public ObservationProjection getProjection() {
+        return projection;
+    }
+
     @Override
     public Response apply(byte[] responseBytes) {
         try {
-            return new ResponseConverter().apply(Sc2Api.Response.parseFrom(responseBytes));
-        } catch (InvalidProtocolBufferException e) {
+            CodedInputStream input = UnsafeByteOperations.unsafeWrap(projection.apply(responseBytes)).newCodedInput();
+            input.enableAliasing(true);
+            return new ResponseConverter(projection).apply(Sc2Api.Response.parseFrom(input));
+        } catch (IOException e) {
             throw new ProtocolException(e);
         }
     }
@@ -0,0 +1,156 @@
+package com.github.ocraft.s2client.protocol;
+
+/*-
+ * #%L
+ * ocraft-s2client-protocol
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Copies a serialized protobuf message leaving out selected fields without parsing it. Dropped fields are skipped
+ * using their length prefix, nested messages are filtered recursively and their lengths rewritten.
+ */
+final class WireFilter {
+
+    @FunctionalInterface
+    interface ElementPredicate {
+        boolean test(byte[] buffer, int offset, int length) throws IOException;
+    }
+
+    private static final ElementPredicate DROP = (buffer, offset, length) -> false;
+
+    private final Map<Integer, ElementPredicate> predicates = new HashMap<>();
+    private final Map<Integer, WireFilter> nested = new HashMap<>();
+
+    WireFilter drop(int fieldNumber) {
+        predicates.put(fieldNumber, DROP);
+        return this;
+    }
+
+    WireFilter keepIf(int fieldNumber, ElementPredicate predicate) {
+        predicates.put(fieldNumber, predicate);
+        return this;
+    }
+
+    WireFilter filter(int fieldNumber, WireFilter filter) {
+        if (!filter.isEmpty()) nested.put(fieldNumber, filter);
+        return this;
+    }
+
+    boolean isEmpty() {
+        return predicates.isEmpty() && nested.isEmpty();
+    }
+
+    byte[] apply(byte[] message) {
+        try {
+            int size = size(message, 0, message.length);
+            if (size == message.length) return message;
+
+            byte[] filtered = new byte[size];
+            CodedOutputStream output = CodedOutputStream.newInstance(filtered);
+            write(message, 0, message.length, output);
+            output.checkNoSpaceLeft();
+            return filtered;
+        } catch (IOException e) {
+            throw new ProtocolException(e);
+        }
+    }
+
+    private int size(byte[] buffer, int offset, int length) throws IOException {
+        int size = 0;
+        CodedInputStream input = CodedInputStream.newInstance(buffer, offset, length);
+        while (true) {
+            int fieldStart = input.getTotalBytesRead();
+            int tag = input.readTag();
+            if (tag == 0) return size;
+
+            if (WireFormat.getTagWireType(tag) != WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+                input.skipField(tag);
+                size += input.getTotalBytesRead() - fieldStart;
+                continue;
+            }
+            int valueLength = input.readRawVarint32();
+            int valueOffset = offset + input.getTotalBytesRead();
+            input.skipRawBytes(valueLength);
+
+            int fieldNumber = WireFormat.getTagFieldNumber(tag);
+            WireFilter filter = nested.get(fieldNumber);
+            ElementPredicate predicate = predicates.get(fieldNumber);
+            if (filter != null) {
+                int valueSize = filter.size(buffer, valueOffset, valueLength);
+                size += CodedOutputStream.computeUInt32SizeNoTag(tag) +
+                        CodedOutputStream.computeUInt32SizeNoTag(valueSize) +
+                        valueSize;
+            } else if (predicate == null || predicate.test(buffer, valueOffset, valueLength)) {
+                size += input.getTotalBytesRead() - fieldStart;
+            }
+        }
+    }
+
+    private void write(byte[] buffer, int offset, int length, CodedOutputStream output) throws IOException {
+        CodedInputStream input = CodedInputStream.newInstance(buffer, offset, length);
+        while (true) {
+            int fieldStart = input.getTotalBytesRead();
+            int tag = input.readTag();
+            if (tag == 0) return;
+
+            if (WireFormat.getTagWireType(tag) != WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+                input.skipField(tag);
+                output.writeRawBytes(buffer, offset + fieldStart, input.getTotalBytesRead() - fieldStart);
+                continue;
+            }
+            int valueLength = input.readRawVarint32();
+            int valueOffset = offset + input.getTotalBytesRead();
+            input.skipRawBytes(valueLength);
+
+            int fieldNumber = WireFormat.getTagFieldNumber(tag);
+            WireFilter filter = nested.get(fieldNumber);
+            ElementPredicate predicate = predicates.get(fieldNumber);
+            if (filter != null) {
+                output.writeUInt32NoTag(tag);
+                output.writeUInt32NoTag(filter.size(buffer, valueOffset, valueLength));
+                filter.write(buffer, valueOffset, valueLength, output);
+            } else if (predicate == null || predicate.test(buffer, valueOffset, valueLength)) {
+                output.writeRawBytes(buffer, offset + fieldStart, input.getTotalBytesRead() - fieldStart);
+            }
+        }
+    }
+
+    static boolean hasField(byte[] buffer, int offset, int length, int fieldNumber) throws IOException {
+        CodedInputStream input = CodedInputStream.newInstance(buffer, offset, length);
+        while (true) {
+            int tag = input.readTag();
+            if (tag == 0) return false;
+            if (WireFormat.getTagFieldNumber(tag) == fieldNumber) return true;
+            input.skipField(tag);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.ocraft.s2client.protocol.data;
+
+/*-
+ * #%L
+ * ocraft-s2client-protocol
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.UnaryOperator;
+
+import static com.github.ocraft.s2client.protocol.Preconditions.isSet;
+import static com.github.ocraft.s2client.protocol.Preconditions.require;
+
+/**
+ * Ability generalization table compiled from {@link AbilityData#getRemapsToAbility()} into an array indexed by
+ * ability id, so remapping an ability is a single array read. Abilities without data, without a remap or remapped to
+ * an unknown ability are left as they are.
+ */
+public final class AbilityRemap implements UnaryOperator<Ability>, Serializable {
+
+    private static final long serialVersionUID = -4173206361960541035L;
+
+    private static final AbilityRemap IDENTITY = new AbilityRemap(new int[0]);
+
+    private final int[] remapsTo;
+    private final boolean identity;
+
+    private AbilityRemap(int[] remapsTo) {
+        this.remapsTo = remapsTo;
+        this.identity = Arrays.stream(remapsTo).allMatch(remapped -> remapped == 0);
+    }
+
+    public static AbilityRemap identity() {
+        return IDENTITY;
+    }
+
+    public static AbilityRemap from(Collection<AbilityData> abilityData) {
+        require("ability data", abilityData);
+        int maxId = abilityData.stream().mapToInt(data -> data.getAbility().getAbilityId()).max().orElse(-1);
+        int[] remapsTo = new int[maxId + 1];
+        abilityData.forEach(data -> data.getRemapsToAbility()
+                .filter(Ability::isKnown)
+                .ifPresent(remap -> remapsTo[data.getAbility().getAbilityId()] = remap.getAbilityId()));
+        return new AbilityRemap(remapsTo);
+    }
+
+    /**
+     * @return Id of the generalized ability or the given id if it has no generalization.
+     */
+    public int remap(int abilityId) {
+        if (abilityId < 0 || abilityId >= remapsTo.length) return abilityId;
+        int remapped = remapsTo[abilityId];
+        return remapped != 0 ? remapped : abilityId;
+    }
+
+    @Override
+    public Ability apply(Ability ability) {
+        if (!isSet(ability)) return ability;
+        int remapped = remap(ability.getAbilityId());
+        return remapped != ability.getAbilityId() ? Abilities.from(remapped) : ability;
+    }
+
+    public boolean isIdentity() {
+        return identity;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        AbilityRemap that = (AbilityRemap) o;
+
+        return Arrays.equals(remapsTo, that.remapsTo);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(remapsTo);
+    }
+
+    @Override
+    public String toString() {
+        return "AbilityRemap{remapped=" + Arrays.stream(remapsTo).filter(remapped -> remapped != 0).count() + '}';
+    }
+}
@@ -27,6 +27,8 @@ package com.github.ocraft.s2client.protocol.observation;
  */
 
 import SC2APIProtocol.Sc2Api;
+import com.github.ocraft.s2client.protocol.Lazy;
+import com.github.ocraft.s2client.protocol.ObservationProjection;
 import com.github.ocraft.s2client.protocol.Strings;
 import com.github.ocraft.s2client.protocol.observation.raw.ObservationRaw;
 import com.github.ocraft.s2client.protocol.observation.spatial.ObservationFeatureLayer;
@@ -36,33 +38,34 @@ import com.github.ocraft.s2client.protocol.score.Score;
 
 import java.io.Serializable;
 import java.util.Collections;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 
 import static com.github.ocraft.s2client.protocol.Constants.nothing;
 import static com.github.ocraft.s2client.protocol.DataExtractor.tryGet;
 import static com.github.ocraft.s2client.protocol.Errors.required;
-import static com.github.ocraft.s2client.protocol.Preconditions.isSet;
 import static com.github.ocraft.s2client.protocol.Preconditions.require;
 import static java.util.stream.Collectors.collectingAndThen;
 import static java.util.stream.Collectors.toSet;
 
+/**
+ * Game loop and player common data are converted eagerly, all other sections are decoded on first access.
+ */
 public final class Observation implements Serializable {
 
     private static final long serialVersionUID = 5875158852342073808L;
 
     private final int gameLoop;
     private final PlayerCommon playerCommon;
-    private final Set<Alert> alerts;
-    private final Set<AvailableAbility> availableAbilities;
-    private final Score score;
-    private final ObservationRaw raw;
-    private final ObservationFeatureLayer featureLayer;
-    private final ObservationRender render;
-    private final ObservationUi ui;
-
-    private Observation(Sc2Api.Observation sc2ApiObservation) {
+    private final Lazy<Set<Alert>> alerts;
+    private final Lazy<Set<AvailableAbility>> availableAbilities;
+    private final Lazy<Score> score;
+    private final Lazy<ObservationRaw> raw;
+    private final Lazy<ObservationFeatureLayer> featureLayer;
+    private final Lazy<ObservationRender> render;
+    private final Lazy<ObservationUi> ui;
+
+    private Observation(Sc2Api.Observation sc2ApiObservation, ObservationProjection projection) {
         gameLoop = tryGet(
                 Sc2Api.Observation::getGameLoop, Sc2Api.Observation::hasGameLoop
         ).apply(sc2ApiObservation).orElseThrow(required("game loop"));
@@ -71,42 +74,60 @@ public final class Observation implements Serializable {
                 Sc2Api.Observation::getPlayerCommon, Sc2Api.Observation::hasPlayerCommon
         ).apply(sc2ApiObservation).map(PlayerCommon::from).orElseThrow(required("player common"));
 
-        alerts = sc2ApiObservation.getAlertsList().stream().map(Alert::from)
-                .collect(collectingAndThen(toSet(), Collections::unmodifiableSet));
+        alerts = Lazy.of(() -> sc2ApiObservation.getAlertsList().stream().map(Alert::from)
+                .collect(collectingAndThen(toSet(), Collections::unmodifiableSet)));
 
-        availableAbilities = sc2ApiObservation.getAbilitiesList().stream().map(AvailableAbility::from)
-                .collect(collectingAndThen(toSet(), Collections::unmodifiableSet));
+        availableAbilities = Lazy.of(() -> sc2ApiObservation.getAbilitiesList().stream().map(AvailableAbility::from)
+                .collect(collectingAndThen(toSet(), Collections::unmodifiableSet)));
 
-        score = tryGet(
+        score = Lazy.of(() -> tryGet(
                 Sc2Api.Observation::getScore, Sc2Api.Observation::hasScore
-        ).apply(sc2ApiObservation).map(Score::from).orElse(nothing());
+        ).apply(sc2ApiObservation).map(Score::from).orElse(nothing()));
 
-        raw = tryGet(
+        raw = Lazy.of(() -> tryGet(
                 Sc2Api.Observation::getRawData, Sc2Api.Observation::hasRawData
-        ).apply(sc2ApiObservation).map(ObservationRaw::from).orElse(nothing());
+        ).apply(sc2ApiObservation).map(ObservationRaw::from).orElse(nothing()));
 
-        featureLayer = tryGet(
+        featureLayer = Lazy.of(() -> tryGet(
                 Sc2Api.Observation::getFeatureLayerData, Sc2Api.Observation::hasFeatureLayerData
-        ).apply(sc2ApiObservation).map(ObservationFeatureLayer::from).orElse(nothing());
+        ).apply(sc2ApiObservation).map(ObservationFeatureLayer::from).orElse(nothing()));
 
-        render = tryGet(
+        render = Lazy.of(() -> tryGet(
                 Sc2Api.Observation::getRenderData, Sc2Api.Observation::hasRenderData
-        ).apply(sc2ApiObservation).map(ObservationRender::from).orElse(nothing());
+        ).apply(sc2ApiObservation).map(ObservationRender::from).orElse(nothing()));
 
-        if (!oneOfInterfacesIsSet()) throw new IllegalArgumentException("one of interfaces is required");
+        if (keepsInterfaces(projection) && !oneOfInterfacesIsSet(sc2ApiObservation)) {
+            throw new IllegalArgumentException("one of interfaces is required");
+        }
 
-        ui = tryGet(
+        ui = Lazy.of(() -> tryGet(
                 Sc2Api.Observation::getUiData, Sc2Api.Observation::hasUiData
-        ).apply(sc2ApiObservation).map(ObservationUi::from).orElse(nothing());
+        ).apply(sc2ApiObservation).map(ObservationUi::from).orElse(nothing()));
+    }
+
+    private static boolean oneOfInterfacesIsSet(Sc2Api.Observation sc2ApiObservation) {
+        return sc2ApiObservation.hasRawData() ||
+                sc2ApiObservation.hasFeatureLayerData() ||
+                sc2ApiObservation.hasRenderData();
     }
 
-    private boolean oneOfInterfacesIsSet() {
-        return isSet(raw) || isSet(featureLayer) || isSet(render);
+    private static boolean keepsInterfaces(ObservationProjection projection) {
+        return projection.includes(ObservationSection.FEATURE_LAYERS) &&
+                projection.includes(ObservationSection.RENDER);
     }
 
     public static Observation from(Sc2Api.Observation sc2ApiObservation) {
+        return from(sc2ApiObservation, ObservationProjection.all());
+    }
+
+    /**
+     * Converts an observation parsed with the given projection. If the projection left out feature layers or
+     * renders, an observation without raw data can have no interface data at all, so it is not required.
+     */
+    public static Observation from(Sc2Api.Observation sc2ApiObservation, ObservationProjection projection) {
         require("sc2api observation", sc2ApiObservation);
-        return new Observation(sc2ApiObservation);
+        require("observation projection", projection);
+        return new Observation(sc2ApiObservation, projection);
     }
 
     public int getGameLoop() {
@@ -118,31 +139,31 @@ public final class Observation implements Serializable {
     }
 
     public Set<Alert> getAlerts() {
-        return alerts;
+        return alerts.get();
     }
 
     public Set<AvailableAbility> getAvailableAbilities() {
-        return availableAbilities;
+        return availableAbilities.get();
     }
 
     public Optional<Score> getScore() {
-        return Optional.ofNullable(score);
+        return Optional.ofNullable(score.get());
     }
 
     public Optional<ObservationRaw> getRaw() {
-        return Optional.ofNullable(raw);
+        return Optional.ofNullable(raw.get());
     }
 
     public Optional<ObservationFeatureLayer> getFeatureLayer() {
-        return Optional.ofNullable(featureLayer);
+        return Optional.ofNullable(featureLayer.get());
     }
 
     public Optional<ObservationRender> getRender() {
-        return Optional.ofNullable(render);
+        return Optional.ofNullable(render.get());
     }
 
     public Optional<ObservationUi> getUi() {
-        return Optional.ofNullable(ui);
+        return Optional.ofNullable(ui.get());
     }
 
     @Override
@@ -156,11 +177,11 @@ public final class Observation implements Serializable {
                 playerCommon.equals(that.playerCommon) &&
                 alerts.equals(that.alerts) &&
                 availableAbilities.equals(that.availableAbilities) &&
-                (Objects.equals(score, that.score)) &&
-                (Objects.equals(raw, that.raw)) &&
-                (Objects.equals(featureLayer, that.featureLayer)) &&
-                (Objects.equals(render, that.render)) &&
-                (Objects.equals(ui, that.ui));
+                score.equals(that.score) &&
+                raw.equals(that.raw) &&
+                featureLayer.equals(that.featureLayer) &&
+                render.equals(that.render) &&
+                ui.equals(that.ui);
     }
 
     @Override
@@ -169,11 +190,11 @@ public final class Observation implements Serializable {
         result = 31 * result + playerCommon.hashCode();
         result = 31 * result + alerts.hashCode();
         result = 31 * result + availableAbilities.hashCode();
-        result = 31 * result + (score != null ? score.hashCode() : 0);
-        result = 31 * result + (raw != null ? raw.hashCode() : 0);
-        result = 31 * result + (featureLayer != null ? featureLayer.hashCode() : 0);
-        result = 31 * result + (render != null ? render.hashCode() : 0);
-        result = 31 * result + (ui != null ? ui.hashCode() : 0);
+        result = 31 * result + score.hashCode();
+        result = 31 * result + raw.hashCode();
+        result = 31 * result + featureLayer.hashCode();
+        result = 31 * result + render.hashCode();
+        result = 31 * result + ui.hashCode();
         return result;
     }
 
@@ -0,0 +1,48 @@
+package com.github.ocraft.s2client.protocol.observation;
+
+/*-
+ * #%L
+ * ocraft-s2client-protocol
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+/**
+ * Optional parts of an observation response that can be left out of parsing with
+ * {@link com.github.ocraft.s2client.protocol.ObservationProjection}. Game loop, player common data, alerts,
+ * available abilities, raw player data, events, actions and player results are always parsed.
+ */
+public enum ObservationSection {
+    /** Raw units with a tag. */
+    UNITS,
+    /** Raw snapshots of units that are not visible anymore (raw units without a tag). */
+    UNIT_SNAPSHOTS,
+    /** Raw visibility and creep layers. */
+    MAP_STATE,
+    /** Raw effects (e.g. psi storm, corrosive bile). */
+    EFFECTS,
+    SCORE,
+    FEATURE_LAYERS,
+    RENDER,
+    UI,
+    CHAT
+}
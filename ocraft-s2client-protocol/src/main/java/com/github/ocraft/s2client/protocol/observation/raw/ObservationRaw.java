@@ -27,13 +27,17 @@ package com.github.ocraft.s2client.protocol.observation.raw;
  */
 
 import SC2APIProtocol.Raw;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.github.ocraft.s2client.protocol.Lazy;
 import com.github.ocraft.s2client.protocol.Strings;
+import com.github.ocraft.s2client.protocol.data.AbilityRemap;
 import com.github.ocraft.s2client.protocol.unit.Unit;
 import com.github.ocraft.s2client.protocol.unit.UnitSnapshot;
 
 import java.io.Serializable;
 import java.util.Collections;
-import java.util.Objects;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -44,42 +48,53 @@ import static com.github.ocraft.s2client.protocol.Preconditions.require;
 import static java.util.stream.Collectors.collectingAndThen;
 import static java.util.stream.Collectors.toSet;
 
+/**
+ * Player is converted eagerly, units, snapshots, map state, events and effects are decoded on first access.
+ */
 public final class ObservationRaw implements Serializable {
 
     private static final long serialVersionUID = -2220809398131692734L;
 
     private final PlayerRaw player;
-    private final Set<Unit> units;
-    private final Set<UnitSnapshot> unitSnapshots;
-    private final MapState mapState;
-    private final Event event;
-    private final Set<EffectLocations> effects;
+    // Not serialized, a deserialized observation has its units decoded already.
+    private final transient List<Raw.Unit> sc2ApiUnits;
+    private transient volatile RemappedUnits remappedUnits;
+    private final Lazy<Set<Unit>> units;
+    private final Lazy<Set<UnitSnapshot>> unitSnapshots;
+    private final Lazy<UnitColumns> unitColumns;
+    private final Lazy<MapState> mapState;
+    private final Lazy<Event> event;
+    private final Lazy<Set<EffectLocations>> effects;
 
     private ObservationRaw(Raw.ObservationRaw sc2ApiObservationRaw) {
         player = tryGet(
                 Raw.ObservationRaw::getPlayer, Raw.ObservationRaw::hasPlayer
         ).apply(sc2ApiObservationRaw).map(PlayerRaw::from).orElseThrow(required("player"));
 
-        units = sc2ApiObservationRaw.getUnitsList().stream()
+        sc2ApiUnits = sc2ApiObservationRaw.getUnitsList();
+
+        units = Lazy.of(() -> sc2ApiObservationRaw.getUnitsList().stream()
                 .filter(Raw.Unit::hasTag)
                 .map(Unit::from)
-                .collect(collectingAndThen(toSet(), Collections::unmodifiableSet));
+                .collect(collectingAndThen(toSet(), Collections::unmodifiableSet)));
 
-        unitSnapshots = sc2ApiObservationRaw.getUnitsList().stream()
+        unitSnapshots = Lazy.of(() -> sc2ApiObservationRaw.getUnitsList().stream()
                 .filter(rawUnit -> !rawUnit.hasTag())
                 .map(UnitSnapshot::from)
-                .collect(collectingAndThen(toSet(), Collections::unmodifiableSet));
+                .collect(collectingAndThen(toSet(), Collections::unmodifiableSet)));
+
+        unitColumns = Lazy.of(() -> UnitColumns.from(sc2ApiObservationRaw.getUnitsList()));
 
-        mapState = tryGet(
+        mapState = Lazy.of(() -> tryGet(
                 Raw.ObservationRaw::getMapState, Raw.ObservationRaw::hasMapState
-        ).apply(sc2ApiObservationRaw).map(MapState::from).orElseThrow(required("map state"));
+        ).apply(sc2ApiObservationRaw).map(MapState::from).orElse(nothing()));
 
-        event = tryGet(
+        event = Lazy.of(() -> tryGet(
                 Raw.ObservationRaw::getEvent, Raw.ObservationRaw::hasEvent
-        ).apply(sc2ApiObservationRaw).map(Event::from).orElse(nothing());
+        ).apply(sc2ApiObservationRaw).map(Event::from).orElse(nothing()));
 
-        effects = sc2ApiObservationRaw.getEffectsList().stream().map(EffectLocations::from)
-                .collect(collectingAndThen(toSet(), Collections::unmodifiableSet));
+        effects = Lazy.of(() -> sc2ApiObservationRaw.getEffectsList().stream().map(EffectLocations::from)
+                .collect(collectingAndThen(toSet(), Collections::unmodifiableSet)));
     }
 
     public static ObservationRaw from(Raw.ObservationRaw sc2ApiObservationRaw) {
@@ -92,23 +107,70 @@ public final class ObservationRaw implements Serializable {
     }
 
     public Set<Unit> getUnits() {
-        return units;
+        return units.get();
+    }
+
+    /**
+     * Decodes units with the given decoder (if they were not decoded yet), so units unchanged since the observation
+     * previously decoded by it are shared instead of being built again. Units with generalized abilities are cached
+     * apart for the last ability remap, {@link #getUnits()} keeps returning abilities as observed. A deserialized
+     * observation generalizes its decoded units without the decoder.
+     */
+    public Set<Unit> getUnits(UnitDecoder decoder) {
+        require("unit decoder", decoder);
+        AbilityRemap abilityRemap = decoder.getAbilityRemap();
+        if (sc2ApiUnits == null) {
+            if (abilityRemap.isIdentity()) return units.get();
+            return units.get().stream()
+                    .map(unit -> unit.generalizeAbility(abilityRemap))
+                    .collect(collectingAndThen(toSet(), Collections::unmodifiableSet));
+        }
+        if (abilityRemap.isIdentity()) return units.get(() -> decoder.decode(sc2ApiUnits));
+
+        RemappedUnits remapped = remappedUnits;
+        if (remapped == null || remapped.abilityRemap != abilityRemap) {
+            remapped = new RemappedUnits(abilityRemap, decoder.decode(sc2ApiUnits));
+            remappedUnits = remapped;
+        }
+        return remapped.units;
     }
 
     public Set<UnitSnapshot> getUnitSnapshots() {
-        return unitSnapshots;
+        return unitSnapshots.get();
+    }
+
+    /**
+     * Units in columnar form, decoded independently of {@link #getUnits()} (only the accessed view is built).
+     */
+    @JsonIgnore
+    public UnitColumns getUnitColumns() {
+        return unitColumns.get();
     }
 
+    /**
+     * @throws IllegalArgumentException if the observation has no map state (e.g. it was left out by
+     *                                  {@link com.github.ocraft.s2client.protocol.ObservationProjection})
+     */
+    @JsonIgnore
     public MapState getMapState() {
-        return mapState;
+        return findMapState().orElseThrow(required("map state"));
+    }
+
+    /**
+     * Map state, empty if the observation has none (e.g. it was left out by
+     * {@link com.github.ocraft.s2client.protocol.ObservationProjection}).
+     */
+    @JsonProperty("mapState")
+    public Optional<MapState> findMapState() {
+        return Optional.ofNullable(mapState.get());
     }
 
     public Optional<Event> getEvent() {
-        return Optional.ofNullable(event);
+        return Optional.ofNullable(event.get());
     }
 
     public Set<EffectLocations> getEffects() {
-        return effects;
+        return effects.get();
     }
 
     @Override
@@ -122,7 +184,7 @@ public final class ObservationRaw implements Serializable {
         if (!units.equals(that.units)) return false;
         if (!unitSnapshots.equals(that.unitSnapshots)) return false;
         if (!mapState.equals(that.mapState)) return false;
-        if (!Objects.equals(event, that.event)) return false;
+        if (!event.equals(that.event)) return false;
         return effects.equals(that.effects);
     }
 
@@ -132,7 +194,7 @@ public final class ObservationRaw implements Serializable {
         result = 31 * result + units.hashCode();
         result = 31 * result + unitSnapshots.hashCode();
         result = 31 * result + mapState.hashCode();
-        result = 31 * result + (event != null ? event.hashCode() : 0);
+        result = 31 * result + event.hashCode();
         result = 31 * result + effects.hashCode();
         return result;
     }
@@ -141,4 +203,14 @@ public final class ObservationRaw implements Serializable {
     public String toString() {
         return Strings.toJson(this);
     }
+
+    private static final class RemappedUnits {
+        private final AbilityRemap abilityRemap;
+        private final Set<Unit> units;
+
+        private RemappedUnits(AbilityRemap abilityRemap, Set<Unit> units) {
+            this.abilityRemap = abilityRemap;
+            this.units = units;
+        }
+    }
 }
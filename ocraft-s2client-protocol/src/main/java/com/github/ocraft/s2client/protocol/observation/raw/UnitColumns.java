@@ -0,0 +1,394 @@
+package com.github.ocraft.s2client.protocol.observation.raw;
+
+/*-
+ * #%L
+ * ocraft-s2client-protocol
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import SC2APIProtocol.Raw;
+import com.github.ocraft.s2client.protocol.data.UnitType;
+import com.github.ocraft.s2client.protocol.data.Units;
+import com.github.ocraft.s2client.protocol.unit.Alliance;
+import com.github.ocraft.s2client.protocol.unit.CloakState;
+import com.github.ocraft.s2client.protocol.unit.DisplayType;
+import com.github.ocraft.s2client.protocol.unit.Tag;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+import static com.github.ocraft.s2client.protocol.Preconditions.require;
+import static com.github.ocraft.s2client.protocol.unit.Unit.CLOAKED;
+
+/**
+ * Raw units (with a tag) in columnar form: every attribute is stored in its own primitive array and a unit is a row
+ * index into them. Columns are filled straight from the sc2api units, without creating {@link
+ * com.github.ocraft.s2client.protocol.unit.Unit} objects, so scans over many units (e.g. enemies in range with low
+ * health) run over contiguous memory:
+ * <pre>
+ * {@code
+ * int[] targets = columns.select(row -> columns.getAlliance(row) == Alliance.ENEMY &&
+ *         columns.distanceSquared(row, x, y) < range * range &&
+ *         columns.getHealth(row) < columns.getHealthMax(row) / 2);
+ * }
+ * </pre>
+ * Owner, facing, radius and build progress are {@link com.github.ocraft.s2client.protocol.unit.Unit#CLOAKED} when
+ * not given (enemy cloaked units), other missing values are 0.
+ */
+public final class UnitColumns implements Serializable {
+
+    private static final long serialVersionUID = -1497213557036432018L;
+
+    public static final int SELECTED = 1;
+    public static final int ON_SCREEN = 1 << 1;
+    public static final int BLIP = 1 << 2;
+    public static final int POWERED = 1 << 3;
+    public static final int ACTIVE = 1 << 4;
+    public static final int FLYING = 1 << 5;
+    public static final int BURROWED = 1 << 6;
+    public static final int HALLUCINATION = 1 << 7;
+
+    private static final Alliance[] ALLIANCES = Alliance.values();
+    private static final DisplayType[] DISPLAY_TYPES = DisplayType.values();
+    private static final CloakState[] CLOAK_STATES = CloakState.values();
+    private static final byte NO_VALUE = -1;
+
+    private final int size;
+    private final long[] tag;
+    private final int[] unitType;
+    private final int[] owner;
+    private final byte[] alliance;
+    private final byte[] displayType;
+    private final byte[] cloakState;
+    private final float[] x;
+    private final float[] y;
+    private final float[] z;
+    private final float[] facing;
+    private final float[] radius;
+    private final float[] buildProgress;
+    private final float[] health;
+    private final float[] healthMax;
+    private final float[] shield;
+    private final float[] shieldMax;
+    private final float[] energy;
+    private final float[] energyMax;
+    private final float[] weaponCooldown;
+    private final int[] mineralContents;
+    private final int[] vespeneContents;
+    private final int[] assignedHarvesters;
+    private final int[] idealHarvesters;
+    private final int[] orderCount;
+    private final long[] engagedTargetTag;
+    private final int[] flags;
+
+    private UnitColumns(List<Raw.Unit> sc2ApiUnits) {
+        int count = 0;
+        for (Raw.Unit sc2ApiUnit : sc2ApiUnits) {
+            if (sc2ApiUnit.hasTag()) count++;
+        }
+        size = count;
+        tag = new long[size];
+        unitType = new int[size];
+        owner = new int[size];
+        alliance = new byte[size];
+        displayType = new byte[size];
+        cloakState = new byte[size];
+        x = new float[size];
+        y = new float[size];
+        z = new float[size];
+        facing = new float[size];
+        radius = new float[size];
+        buildProgress = new float[size];
+        health = new float[size];
+        healthMax = new float[size];
+        shield = new float[size];
+        shieldMax = new float[size];
+        energy = new float[size];
+        energyMax = new float[size];
+        weaponCooldown = new float[size];
+        mineralContents = new int[size];
+        vespeneContents = new int[size];
+        assignedHarvesters = new int[size];
+        idealHarvesters = new int[size];
+        orderCount = new int[size];
+        engagedTargetTag = new long[size];
+        flags = new int[size];
+
+        int row = 0;
+        for (Raw.Unit sc2ApiUnit : sc2ApiUnits) {
+            if (sc2ApiUnit.hasTag()) fill(row++, sc2ApiUnit);
+        }
+    }
+
+    private void fill(int row, Raw.Unit sc2ApiUnit) {
+        if (!sc2ApiUnit.hasUnitType()) throw new IllegalArgumentException("unit type is required");
+
+        tag[row] = sc2ApiUnit.getTag();
+        unitType[row] = sc2ApiUnit.getUnitType();
+        owner[row] = sc2ApiUnit.hasOwner() ? sc2ApiUnit.getOwner() : CLOAKED;
+        alliance[row] = sc2ApiUnit.hasAlliance()
+                ? (byte) Alliance.from(sc2ApiUnit.getAlliance()).ordinal() : NO_VALUE;
+        displayType[row] = sc2ApiUnit.hasDisplayType()
+                ? (byte) DisplayType.from(sc2ApiUnit.getDisplayType()).ordinal() : NO_VALUE;
+        cloakState[row] = sc2ApiUnit.hasCloak()
+                ? (byte) CloakState.from(sc2ApiUnit.getCloak()).ordinal() : NO_VALUE;
+        x[row] = sc2ApiUnit.getPos().getX();
+        y[row] = sc2ApiUnit.getPos().getY();
+        z[row] = sc2ApiUnit.getPos().getZ();
+        facing[row] = sc2ApiUnit.hasFacing() ? sc2ApiUnit.getFacing() : CLOAKED;
+        radius[row] = sc2ApiUnit.hasRadius() ? sc2ApiUnit.getRadius() : CLOAKED;
+        buildProgress[row] = sc2ApiUnit.hasBuildProgress() ? sc2ApiUnit.getBuildProgress() : CLOAKED;
+        health[row] = sc2ApiUnit.getHealth();
+        healthMax[row] = sc2ApiUnit.getHealthMax();
+        shield[row] = sc2ApiUnit.getShield();
+        shieldMax[row] = sc2ApiUnit.getShieldMax();
+        energy[row] = sc2ApiUnit.getEnergy();
+        energyMax[row] = sc2ApiUnit.getEnergyMax();
+        weaponCooldown[row] = sc2ApiUnit.getWeaponCooldown();
+        mineralContents[row] = sc2ApiUnit.getMineralContents();
+        vespeneContents[row] = sc2ApiUnit.getVespeneContents();
+        assignedHarvesters[row] = sc2ApiUnit.getAssignedHarvesters();
+        idealHarvesters[row] = sc2ApiUnit.getIdealHarvesters();
+        orderCount[row] = sc2ApiUnit.getOrdersCount();
+        engagedTargetTag[row] = sc2ApiUnit.getEngagedTargetTag();
+        flags[row] = flag(sc2ApiUnit.getIsSelected(), SELECTED) |
+                flag(sc2ApiUnit.getIsOnScreen(), ON_SCREEN) |
+                flag(sc2ApiUnit.getIsBlip(), BLIP) |
+                flag(sc2ApiUnit.getIsPowered(), POWERED) |
+                flag(sc2ApiUnit.getIsActive(), ACTIVE) |
+                flag(sc2ApiUnit.getIsFlying(), FLYING) |
+                flag(sc2ApiUnit.getIsBurrowed(), BURROWED) |
+                flag(sc2ApiUnit.getIsHallucination(), HALLUCINATION);
+    }
+
+    private static int flag(boolean isSet, int flag) {
+        return isSet ? flag : 0;
+    }
+
+    public static UnitColumns from(List<Raw.Unit> sc2ApiUnits) {
+        require("sc2api units", sc2ApiUnits);
+        return new UnitColumns(sc2ApiUnits);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return rows of units matching the predicate, in ascending order
+     */
+    public int[] select(IntPredicate predicate) {
+        return IntStream.range(0, size).filter(predicate).toArray();
+    }
+
+    /**
+     * @return row of the unit with the given tag or -1 if there is no such unit
+     */
+    public int rowOf(long unitTag) {
+        for (int row = 0; row < size; row++) {
+            if (tag[row] == unitTag) return row;
+        }
+        return -1;
+    }
+
+    public float distanceSquared(int row, float toX, float toY) {
+        float dx = x[row] - toX;
+        float dy = y[row] - toY;
+        return dx * dx + dy * dy;
+    }
+
+    public long getTagValue(int row) {
+        return tag[row];
+    }
+
+    public Tag getTag(int row) {
+        return Tag.from(tag[row]);
+    }
+
+    public int getUnitTypeId(int row) {
+        return unitType[row];
+    }
+
+    public UnitType getUnitType(int row) {
+        return Units.from(unitType[row]);
+    }
+
+    public int getOwner(int row) {
+        return owner[row];
+    }
+
+    public Alliance getAlliance(int row) {
+        return alliance[row] != NO_VALUE ? ALLIANCES[alliance[row]] : null;
+    }
+
+    public DisplayType getDisplayType(int row) {
+        return displayType[row] != NO_VALUE ? DISPLAY_TYPES[displayType[row]] : null;
+    }
+
+    public CloakState getCloakState(int row) {
+        return cloakState[row] != NO_VALUE ? CLOAK_STATES[cloakState[row]] : null;
+    }
+
+    public float getX(int row) {
+        return x[row];
+    }
+
+    public float getY(int row) {
+        return y[row];
+    }
+
+    public float getZ(int row) {
+        return z[row];
+    }
+
+    public float getFacing(int row) {
+        return facing[row];
+    }
+
+    public float getRadius(int row) {
+        return radius[row];
+    }
+
+    public float getBuildProgress(int row) {
+        return buildProgress[row];
+    }
+
+    public float getHealth(int row) {
+        return health[row];
+    }
+
+    public float getHealthMax(int row) {
+        return healthMax[row];
+    }
+
+    public float getShield(int row) {
+        return shield[row];
+    }
+
+    public float getShieldMax(int row) {
+        return shieldMax[row];
+    }
+
+    public float getEnergy(int row) {
+        return energy[row];
+    }
+
+    public float getEnergyMax(int row) {
+        return energyMax[row];
+    }
+
+    public float getWeaponCooldown(int row) {
+        return weaponCooldown[row];
+    }
+
+    public int getMineralContents(int row) {
+        return mineralContents[row];
+    }
+
+    public int getVespeneContents(int row) {
+        return vespeneContents[row];
+    }
+
+    public int getAssignedHarvesters(int row) {
+        return assignedHarvesters[row];
+    }
+
+    public int getIdealHarvesters(int row) {
+        return idealHarvesters[row];
+    }
+
+    public int getOrderCount(int row) {
+        return orderCount[row];
+    }
+
+    /**
+     * @return tag value of the engaged target or 0 if the unit is not engaged
+     */
+    public long getEngagedTargetTagValue(int row) {
+        return engagedTargetTag[row];
+    }
+
+    public int getFlags(int row) {
+        return flags[row];
+    }
+
+    public boolean is(int row, int flag) {
+        return (flags[row] & flag) != 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        UnitColumns that = (UnitColumns) o;
+
+        return size == that.size &&
+                Arrays.equals(tag, that.tag) &&
+                Arrays.equals(unitType, that.unitType) &&
+                Arrays.equals(owner, that.owner) &&
+                Arrays.equals(alliance, that.alliance) &&
+                Arrays.equals(displayType, that.displayType) &&
+                Arrays.equals(cloakState, that.cloakState) &&
+                Arrays.equals(x, that.x) &&
+                Arrays.equals(y, that.y) &&
+                Arrays.equals(z, that.z) &&
+                Arrays.equals(facing, that.facing) &&
+                Arrays.equals(radius, that.radius) &&
+                Arrays.equals(buildProgress, that.buildProgress) &&
+                Arrays.equals(health, that.health) &&
+                Arrays.equals(healthMax, that.healthMax) &&
+                Arrays.equals(shield, that.shield) &&
+                Arrays.equals(shieldMax, that.shieldMax) &&
+                Arrays.equals(energy, that.energy) &&
+                Arrays.equals(energyMax, that.energyMax) &&
+                Arrays.equals(weaponCooldown, that.weaponCooldown) &&
+                Arrays.equals(mineralContents, that.mineralContents) &&
+                Arrays.equals(vespeneContents, that.vespeneContents) &&
+                Arrays.equals(assignedHarvesters, that.assignedHarvesters) &&
+                Arrays.equals(idealHarvesters, that.idealHarvesters) &&
+                Arrays.equals(orderCount, that.orderCount) &&
+                Arrays.equals(engagedTargetTag, that.engagedTargetTag) &&
+                Arrays.equals(flags, that.flags);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = size;
+        result = 31 * result + Arrays.hashCode(tag);
+        result = 31 * result + Arrays.hashCode(unitType);
+        result = 31 * result + Arrays.hashCode(x);
+        result = 31 * result + Arrays.hashCode(y);
+        result = 31 * result + Arrays.hashCode(health);
+        result = 31 * result + Arrays.hashCode(flags);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "UnitColumns{size=" + size + '}';
+    }
+}
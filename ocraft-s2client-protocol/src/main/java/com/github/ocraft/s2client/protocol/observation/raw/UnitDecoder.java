@@ -0,0 +1,197 @@
+package com.github.ocraft.s2client.protocol.observation.raw;
+
+/*-
+ * #%L
+ * ocraft-s2client-protocol
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import SC2APIProtocol.Raw;
+import com.github.ocraft.s2client.protocol.data.AbilityRemap;
+import com.github.ocraft.s2client.protocol.unit.Unit;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.github.ocraft.s2client.protocol.Preconditions.require;
+
+/**
+ * Decodes units of consecutive observations and reuses the Unit decoded in the previous frame when the incoming
+ * sc2api unit is equal to the one it was decoded from. Resources, idle structures and parked units are usually
+ * identical between steps, so in late game most of the units are shared instead of being built again.
+ * <p>
+ * Not thread safe, use one decoder per observation stream.
+ */
+public final class UnitDecoder {
+
+    private static final int MIN_CAPACITY = 64;
+
+    private Raw.Unit[] sources = new Raw.Unit[0];
+    private Unit[] units = new Unit[0];
+    private int size;
+
+    private long[] keys = new long[MIN_CAPACITY];
+    private int[] slots = new int[MIN_CAPACITY];
+
+    private Raw.Unit[] nextSources = new Raw.Unit[0];
+    private Unit[] nextUnits = new Unit[0];
+
+    private AbilityRemap abilityRemap = AbilityRemap.identity();
+
+    private long decodedCount;
+    private long reusedCount;
+
+    /**
+     * @param sc2ApiUnits Units of the current observation, units without tag (snapshots) are skipped.
+     * @return Units of the current observation, unchanged ones are the same instances as in the previous call.
+     */
+    public Set<Unit> decode(List<Raw.Unit> sc2ApiUnits) {
+        require("sc2api units", sc2ApiUnits);
+        ensureNextCapacity(sc2ApiUnits.size());
+
+        Set<Unit> decoded = new HashSet<>(Math.max(16, (int) (sc2ApiUnits.size() / 0.75f) + 1));
+        int nextSize = 0;
+        for (Raw.Unit sc2ApiUnit : sc2ApiUnits) {
+            if (!sc2ApiUnit.hasTag()) continue;
+            int previous = indexOf(sc2ApiUnit.getTag());
+            Unit unit;
+            if (previous >= 0 && sources[previous].equals(sc2ApiUnit)) {
+                unit = units[previous];
+                reusedCount++;
+            } else {
+                unit = Unit.from(sc2ApiUnit, abilityRemap);
+                decodedCount++;
+            }
+            nextSources[nextSize] = sc2ApiUnit;
+            nextUnits[nextSize] = unit;
+            nextSize++;
+            decoded.add(unit);
+        }
+        swap(nextSize);
+        return Collections.unmodifiableSet(decoded);
+    }
+
+    /**
+     * Sets the generalization applied to abilities of decoded orders. Units decoded with a different remap are not
+     * reused.
+     */
+    public void setAbilityRemap(AbilityRemap abilityRemap) {
+        require("ability remap", abilityRemap);
+        if (abilityRemap != this.abilityRemap) {
+            this.abilityRemap = abilityRemap;
+            reset();
+        }
+    }
+
+    public AbilityRemap getAbilityRemap() {
+        return abilityRemap;
+    }
+
+    /**
+     * Forgets the previous frame, e.g. when a new game starts.
+     */
+    public void reset() {
+        Arrays.fill(sources, 0, size, null);
+        Arrays.fill(units, 0, size, null);
+        Arrays.fill(slots, 0);
+        size = 0;
+    }
+
+    public long getDecodedCount() {
+        return decodedCount;
+    }
+
+    public long getReusedCount() {
+        return reusedCount;
+    }
+
+    private void ensureNextCapacity(int capacity) {
+        if (nextSources.length < capacity) {
+            nextSources = new Raw.Unit[capacity];
+            nextUnits = new Unit[capacity];
+        }
+    }
+
+    private void swap(int nextSize) {
+        Raw.Unit[] previousSources = sources;
+        Unit[] previousUnits = units;
+        int previousSize = size;
+
+        sources = nextSources;
+        units = nextUnits;
+        size = nextSize;
+
+        Arrays.fill(previousSources, 0, previousSize, null);
+        Arrays.fill(previousUnits, 0, previousSize, null);
+        nextSources = previousSources;
+        nextUnits = previousUnits;
+
+        index();
+    }
+
+    private void index() {
+        int capacity = MIN_CAPACITY;
+        while (capacity < size * 2) capacity <<= 1;
+        if (keys.length != capacity) {
+            keys = new long[capacity];
+            slots = new int[capacity];
+        } else {
+            Arrays.fill(slots, 0);
+        }
+        int mask = capacity - 1;
+        for (int i = 0; i < size; i++) {
+            long key = sources[i].getTag();
+            int slot = hash(key) & mask;
+            while (slots[slot] != 0) slot = (slot + 1) & mask;
+            keys[slot] = key;
+            slots[slot] = i + 1;
+        }
+    }
+
+    private int indexOf(long key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (slots[slot] != 0) {
+            if (keys[slot] == key) return slots[slot] - 1;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return "UnitDecoder{" +
+                "size=" + size +
+                ", decodedCount=" + decodedCount +
+                ", reusedCount=" + reusedCount +
+                '}';
+    }
+}
@@ -0,0 +1,206 @@
+package com.github.ocraft.s2client.protocol.observation.spatial;
+
+/*-
+ * #%L
+ * ocraft-s2client-protocol
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import com.github.ocraft.s2client.protocol.Strings;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+import static com.github.ocraft.s2client.protocol.Preconditions.require;
+import static java.lang.String.format;
+
+/**
+ * One bit per cell view of an image layer (pathing, placement, creep etc.) decoded once and stored as a bitset.
+ * Cells are addressed in game coordinates (origin in the bottom left corner), each row starts at a new word so
+ * rows can be copied or scanned with word operations. Queries outside of the grid are treated as unset.
+ */
+public final class BitGrid implements Serializable {
+
+    private static final long serialVersionUID = 2468930179463317451L;
+
+    private final int width;
+    private final int height;
+    private final int wordsPerRow;
+    private final long[] bits;
+
+    private BitGrid(int width, int height, long[] bits) {
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = wordsPerRow(width);
+        this.bits = bits;
+    }
+
+    private static int wordsPerRow(int width) {
+        return (width + Long.SIZE - 1) >>> 6;
+    }
+
+    /**
+     * Decodes the image data. A cell is set if its pixel value passes the given test.
+     *
+     * @param imageData Image to decode (1 or 8 bits per pixel).
+     * @param origin    Origin of the image data.
+     * @param isSet     Test applied to each pixel value.
+     * @return Decoded grid.
+     */
+    public static BitGrid from(ImageData imageData, ImageData.Origin origin, IntPredicate isSet) {
+        require("image data", imageData);
+        require("origin", origin);
+        require("pixel test", isSet);
+        int width = imageData.getSize().getX();
+        int height = imageData.getSize().getY();
+        int wordsPerRow = wordsPerRow(width);
+        byte[] values = ByteGrid.unpack(imageData, origin);
+        long[] bits = new long[wordsPerRow * height];
+
+        for (int y = 0; y < height; y++) {
+            int rowStart = y * wordsPerRow;
+            int offset = y * width;
+            for (int x = 0; x < width; x++) {
+                if (isSet.test(values[offset + x] & 0xFF)) {
+                    bits[rowStart + (x >>> 6)] |= 1L << x;
+                }
+            }
+        }
+        return new BitGrid(width, height, bits);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return Number of words used by a single row (see {@link #getRow(int, long[], int)}).
+     */
+    public int getWordsPerRow() {
+        return wordsPerRow;
+    }
+
+    public boolean contains(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+
+    public boolean get(int x, int y) {
+        return contains(x, y) && (bits[y * wordsPerRow + (x >>> 6)] & (1L << x)) != 0;
+    }
+
+    /**
+     * Copies one row into the target array. Bit {@code x % 64} of word {@code offset + x / 64} holds cell x.
+     *
+     * @param y      Row to copy.
+     * @param target Destination of at least {@code offset + getWordsPerRow()} words.
+     * @param offset Index of the first destination word.
+     */
+    public void getRow(int y, long[] target, int offset) {
+        if (y < 0 || y >= height) {
+            throw new IndexOutOfBoundsException(format("row [%d] is outside of the grid [0, %d)", y, height));
+        }
+        System.arraycopy(bits, y * wordsPerRow, target, offset, wordsPerRow);
+    }
+
+    /**
+     * @return Number of set cells in the region [minX, maxX) x [minY, maxY), clipped to the grid.
+     */
+    public int count(int minX, int minY, int maxX, int maxY) {
+        int fromX = Math.max(minX, 0);
+        int toX = Math.min(maxX, width);
+        int fromY = Math.max(minY, 0);
+        int toY = Math.min(maxY, height);
+        if (fromX >= toX || fromY >= toY) {
+            return 0;
+        }
+
+        int count = 0;
+        int firstWord = fromX >>> 6;
+        int lastWord = (toX - 1) >>> 6;
+        long firstMask = -1L << fromX;
+        long lastMask = -1L >>> (Long.SIZE - 1 - ((toX - 1) & 63));
+        for (int y = fromY; y < toY; y++) {
+            int rowStart = y * wordsPerRow;
+            for (int word = firstWord; word <= lastWord; word++) {
+                long mask = -1L;
+                if (word == firstWord) mask &= firstMask;
+                if (word == lastWord) mask &= lastMask;
+                count += Long.bitCount(bits[rowStart + word] & mask);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return Number of set cells in the whole grid.
+     */
+    public int count() {
+        return count(0, 0, width, height);
+    }
+
+    /**
+     * @return 'true' if every cell of the region [minX, maxX) x [minY, maxY) is set. Regions reaching outside of
+     * the grid are never fully set.
+     */
+    public boolean all(int minX, int minY, int maxX, int maxY) {
+        if (minX < 0 || minY < 0 || maxX > width || maxY > height) {
+            return false;
+        }
+        return count(minX, minY, maxX, maxY) == (maxX - minX) * (maxY - minY);
+    }
+
+    /**
+     * @return 'true' if any cell of the region [minX, maxX) x [minY, maxY) is set.
+     */
+    public boolean any(int minX, int minY, int maxX, int maxY) {
+        return count(minX, minY, maxX, maxY) > 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BitGrid)) return false;
+
+        BitGrid bitGrid = (BitGrid) o;
+
+        return width == bitGrid.width && height == bitGrid.height && Arrays.equals(bits, bitGrid.bits);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = width;
+        result = 31 * result + height;
+        result = 31 * result + Arrays.hashCode(bits);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return Strings.toJson(this);
+    }
+}
@@ -0,0 +1,145 @@
+package com.github.ocraft.s2client.protocol.observation.spatial;
+
+/*-
+ * #%L
+ * ocraft-s2client-protocol
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import com.github.ocraft.s2client.protocol.Strings;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import static com.github.ocraft.s2client.protocol.Preconditions.require;
+import static java.lang.String.format;
+
+/**
+ * One byte per cell view of an image layer (visibility, raw height etc.) decoded once into a flat array.
+ * Cells are addressed in game coordinates (origin in the bottom left corner) and hold unsigned values 0..255.
+ * Queries outside of the grid return 0.
+ */
+public final class ByteGrid implements Serializable {
+
+    private static final long serialVersionUID = -3164220573183925478L;
+
+    private final int width;
+    private final int height;
+    private final byte[] values;
+
+    private ByteGrid(int width, int height, byte[] values) {
+        this.width = width;
+        this.height = height;
+        this.values = values;
+    }
+
+    /**
+     * Decodes the image data.
+     *
+     * @param imageData Image to decode (1 or 8 bits per pixel).
+     * @param origin    Origin of the image data.
+     * @return Decoded grid.
+     */
+    public static ByteGrid from(ImageData imageData, ImageData.Origin origin) {
+        require("image data", imageData);
+        require("origin", origin);
+        return new ByteGrid(imageData.getSize().getX(), imageData.getSize().getY(), unpack(imageData, origin));
+    }
+
+    static byte[] unpack(ImageData imageData, ImageData.Origin origin) {
+        byte[] values = new byte[imageData.getSize().getX() * imageData.getSize().getY()];
+        imageData.unpack(values, origin);
+        return values;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public boolean contains(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+
+    public int get(int x, int y) {
+        return contains(x, y) ? values[x + y * width] & 0xFF : 0;
+    }
+
+    /**
+     * Copies one row of raw (unsigned) values into the target array.
+     *
+     * @param y      Row to copy.
+     * @param target Destination of at least {@code offset + getWidth()} bytes.
+     * @param offset Index of the first destination byte.
+     */
+    public void getRow(int y, byte[] target, int offset) {
+        if (y < 0 || y >= height) {
+            throw new IndexOutOfBoundsException(format("row [%d] is outside of the grid [0, %d)", y, height));
+        }
+        System.arraycopy(values, y * width, target, offset, width);
+    }
+
+    /**
+     * Copies the region [minX, maxX) x [minY, maxY) row by row into the target array. The region must lie within
+     * the grid.
+     *
+     * @param target Destination of at least {@code (maxX - minX) * (maxY - minY)} bytes.
+     */
+    public void getRegion(int minX, int minY, int maxX, int maxY, byte[] target) {
+        if (minX < 0 || minY < 0 || maxX > width || maxY > height || minX > maxX || minY > maxY) {
+            throw new IndexOutOfBoundsException(format(
+                    "region [%d, %d, %d, %d] is outside of the grid [%d x %d]",
+                    minX, minY, maxX, maxY, width, height));
+        }
+        int regionWidth = maxX - minX;
+        for (int y = minY; y < maxY; y++) {
+            System.arraycopy(values, minX + y * width, target, (y - minY) * regionWidth, regionWidth);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ByteGrid)) return false;
+
+        ByteGrid byteGrid = (ByteGrid) o;
+
+        return width == byteGrid.width && height == byteGrid.height && Arrays.equals(values, byteGrid.values);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = width;
+        result = 31 * result + height;
+        result = 31 * result + Arrays.hashCode(values);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return Strings.toJson(this);
+    }
+}
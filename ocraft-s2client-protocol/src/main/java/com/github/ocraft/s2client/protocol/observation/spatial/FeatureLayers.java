@@ -30,8 +30,10 @@ import SC2APIProtocol.Spatial;
 import com.github.ocraft.s2client.protocol.Strings;
 
 import java.io.Serializable;
-import java.util.Objects;
-import java.util.Optional;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.*;
+import java.util.function.Function;
 
 import static com.github.ocraft.s2client.protocol.Constants.nothing;
 import static com.github.ocraft.s2client.protocol.DataExtractor.tryGet;
@@ -42,121 +44,159 @@ public final class FeatureLayers implements Serializable {
 
     private static final long serialVersionUID = 7267352011530663671L;
 
-    private final ImageData heightMap;              // uint8. Terrain height. World space units of [-200, 200] encoded into [0, 255].
-    private final ImageData visibilityMap;          // uint8. 0=Hidden, 1=Fogged, 2=Visible, 3=FullHidden
-    private final ImageData creep;                  // 1-bit. Zerg creep.
-    private final ImageData power;                  // 1-bit. Protoss power.
-    private final ImageData playerId;               // uint8. Participants: [1, 15] Neutral: 16
-    private final ImageData unitType;               // int32. Unique identifier for type of unit.
-    private final ImageData selected;               // 1-bit. Selected units.
-    private final ImageData unitHitPoints;          // int32.
-    private final ImageData unitHitPointsRatio;     // uint8. Ratio of current health to max health. [0%, 100%] encoded into [0, 255].
-    private final ImageData unitEnergy;             // int32.
+    private final LazyImageData heightMap;              // uint8. Terrain height. World space units of [-200, 200] encoded into [0, 255].
+    private final LazyImageData visibilityMap;          // uint8. 0=Hidden, 1=Fogged, 2=Visible, 3=FullHidden
+    private final LazyImageData creep;                  // 1-bit. Zerg creep.
+    private final LazyImageData power;                  // 1-bit. Protoss power.
+    private final LazyImageData playerId;               // uint8. Participants: [1, 15] Neutral: 16
+    private final LazyImageData unitType;               // int32. Unique identifier for type of unit.
+    private final LazyImageData selected;               // 1-bit. Selected units.
+    private final LazyImageData unitHitPoints;          // int32.
+    private final LazyImageData unitHitPointsRatio;     // uint8. Ratio of current health to max health. [0%, 100%] encoded into [0, 255].
+    private final LazyImageData unitEnergy;             // int32.
 
     // since 3.17
-    private final ImageData unitEnergyRatio;        // uint8. Ratio of current energy to max energy. [0%, 100%] encoded into [0, 255].
-    private final ImageData unitShields;            // int32.
+    private final LazyImageData unitEnergyRatio;        // uint8. Ratio of current energy to max energy. [0%, 100%] encoded into [0, 255].
+    private final LazyImageData unitShields;            // int32.
 
     // since 3.17
-    private final ImageData unitShieldsRatio;       // uint8. Ratio of current shields to max shields. [0%, 100%] encoded into [0, 255].
-    private final ImageData playerRelative;         // uint8. See "Alliance" enum in raw.proto. Range: [1, 4]
-    private final ImageData unitDensityAa;          // uint8. Density of units overlapping a pixel, anti-aliased. [0.0, 16.0f] encoded into [0, 255].
-    private final ImageData unitDensity;            // uint8. Count of units overlapping a pixel.
+    private final LazyImageData unitShieldsRatio;       // uint8. Ratio of current shields to max shields. [0%, 100%] encoded into [0, 255].
+    private final LazyImageData playerRelative;         // uint8. See "Alliance" enum in raw.proto. Range: [1, 4]
+    private final LazyImageData unitDensityAa;          // uint8. Density of units overlapping a pixel, anti-aliased. [0.0, 16.0f] encoded into [0, 255].
+    private final LazyImageData unitDensity;            // uint8. Count of units overlapping a pixel.
 
     // since 3.17
-    private final ImageData effects;                // uint8. Visuals of persistent abilities. (eg. Psi storm)
+    private final LazyImageData effects;                // uint8. Visuals of persistent abilities. (eg. Psi storm)
 
     // since 4.84
-    private final ImageData hallucinations;         // 1-bit. Whether the unit here is a hallucination.
-    private final ImageData cloaked;                // 1-bit. Whether the unit here is cloaked. Hidden units will show up too, but with less details in other layers.
-    private final ImageData blip;                   // 1-bit. Whether the unit here is a blip.
-    private final ImageData buffs;                  // int32. One of the buffs applied to this unit. Extras are ignored.
-    private final ImageData buffDuration;           // uint8. Ratio of buff remaining. [0%, 100%] encoded into [0, 255].
-    private final ImageData active;                 // 1-bit. Whether the unit here is active.
-    private final ImageData buildProgress;          // uint8. How far along the building is building something. [0%, 100%] encoded into [0, 255].
-    private final ImageData buildable;              // 1-bit. Whether a building can be built here.
-    private final ImageData pathable;               // 1-bit. Whether a unit can walk here.
+    private final LazyImageData hallucinations;         // 1-bit. Whether the unit here is a hallucination.
+    private final LazyImageData cloaked;                // 1-bit. Whether the unit here is cloaked. Hidden units will show up too, but with less details in other layers.
+    private final LazyImageData blip;                   // 1-bit. Whether the unit here is a blip.
+    private final LazyImageData buffs;                  // int32. One of the buffs applied to this unit. Extras are ignored.
+    private final LazyImageData buffDuration;           // uint8. Ratio of buff remaining. [0%, 100%] encoded into [0, 255].
+    private final LazyImageData active;                 // 1-bit. Whether the unit here is active.
+    private final LazyImageData buildProgress;          // uint8. How far along the building is building something. [0%, 100%] encoded into [0, 255].
+    private final LazyImageData buildable;              // 1-bit. Whether a building can be built here.
+    private final LazyImageData pathable;               // 1-bit. Whether a unit can walk here.
+
+    /**
+     * Selects a single layer, see {@link #toTensor(FloatBuffer, TensorLayout, Map)}.
+     */
+    public enum Layer {
+        HEIGHT_MAP(layers -> Optional.of(layers.getHeightMap())),
+        VISIBILITY_MAP(layers -> Optional.of(layers.getVisibilityMap())),
+        CREEP(layers -> Optional.of(layers.getCreep())),
+        POWER(layers -> Optional.of(layers.getPower())),
+        PLAYER_ID(layers -> Optional.of(layers.getPlayerId())),
+        UNIT_TYPE(layers -> Optional.of(layers.getUnitType())),
+        SELECTED(layers -> Optional.of(layers.getSelected())),
+        UNIT_HIT_POINTS(layers -> Optional.of(layers.getUnitHitPoints())),
+        UNIT_HIT_POINTS_RATIO(layers -> Optional.of(layers.getUnitHitPointsRatio())),
+        UNIT_ENERGY(layers -> Optional.of(layers.getUnitEnergy())),
+        UNIT_ENERGY_RATIO(FeatureLayers::getUnitEnergyRatio),
+        UNIT_SHIELDS(layers -> Optional.of(layers.getUnitShields())),
+        UNIT_SHIELDS_RATIO(FeatureLayers::getUnitShieldsRatio),
+        PLAYER_RELATIVE(layers -> Optional.of(layers.getPlayerRelative())),
+        UNIT_DENSITY_AA(layers -> Optional.of(layers.getUnitDensityAa())),
+        UNIT_DENSITY(layers -> Optional.of(layers.getUnitDensity())),
+        EFFECTS(FeatureLayers::getEffects),
+        HALLUCINATIONS(FeatureLayers::getHallucinations),
+        CLOAKED(FeatureLayers::getCloaked),
+        BLIP(FeatureLayers::getBlip),
+        BUFFS(FeatureLayers::getBuffs),
+        BUFF_DURATION(FeatureLayers::getBuffDuration),
+        ACTIVE(FeatureLayers::getActive),
+        BUILD_PROGRESS(FeatureLayers::getBuildProgress),
+        BUILDABLE(FeatureLayers::getBuildable),
+        PATHABLE(FeatureLayers::getPathable);
+
+        private final Function<FeatureLayers, Optional<ImageData>> layer;
+
+        Layer(Function<FeatureLayers, Optional<ImageData>> layer) {
+            this.layer = layer;
+        }
+    }
 
     private FeatureLayers(Spatial.FeatureLayers sc2ApiFeatureLayers) {
         heightMap = tryGet(Spatial.FeatureLayers::getHeightMap, Spatial.FeatureLayers::hasHeightMap)
-                .apply(sc2ApiFeatureLayers).map(ImageData::from).orElseThrow(required("height map"));
+                .apply(sc2ApiFeatureLayers).map(LazyImageData::of).orElseThrow(required("height map"));
 
         visibilityMap = tryGet(Spatial.FeatureLayers::getVisibilityMap, Spatial.FeatureLayers::hasVisibilityMap)
-                .apply(sc2ApiFeatureLayers).map(ImageData::from).orElseThrow(required("visibility map"));
+                .apply(sc2ApiFeatureLayers).map(LazyImageData::of).orElseThrow(required("visibility map"));
 
         creep = tryGet(Spatial.FeatureLayers::getCreep, Spatial.FeatureLayers::hasCreep)
-                .apply(sc2ApiFeatureLayers).map(ImageData::from).orElseThrow(required("creep"));
+                .apply(sc2ApiFeatureLayers).map(LazyImageData::of).orElseThrow(required("creep"));
 
         power = tryGet(Spatial.FeatureLayers::getPower, Spatial.FeatureLayers::hasPower)
-                .apply(sc2ApiFeatureLayers).map(ImageData::from).orElseThrow(required("power"));
+                .apply(sc2ApiFeatureLayers).map(LazyImageData::of).orElseThrow(required("power"));
 
         playerId = tryGet(Spatial.FeatureLayers::getPlayerId, Spatial.FeatureLayers::hasPlayerId)
-                .apply(sc2ApiFeatureLayers).map(ImageData::from).orElseThrow(required("player id"));
+                .apply(sc2ApiFeatureLayers).map(LazyImageData::of).orElseThrow(required("player id"));
 
         unitType = tryGet(Spatial.FeatureLayers::getUnitType, Spatial.FeatureLayers::hasUnitType)
-                .apply(sc2ApiFeatureLayers).map(ImageData::from).orElseThrow(required("unit type"));
+                .apply(sc2ApiFeatureLayers).map(LazyImageData::of).orElseThrow(required("unit type"));
 
         selected = tryGet(Spatial.FeatureLayers::getSelected, Spatial.FeatureLayers::hasSelected)
-                .apply(sc2ApiFeatureLayers).map(ImageData::from).orElseThrow(required("selected"));
+                .apply(sc2ApiFeatureLayers).map(LazyImageData::of).orElseThrow(required("selected"));
 
         unitHitPoints = tryGet(Spatial.FeatureLayers::getUnitHitPoints, Spatial.FeatureLayers::hasUnitHitPoints)
-                .apply(sc2ApiFeatureLayers).map(ImageData::from).orElseThrow(required("unit hit points"));
+                .apply(sc2ApiFeatureLayers).map(LazyImageData::of).orElseThrow(required("unit hit points"));
 
         unitHitPointsRatio = tryGet(
                 Spatial.FeatureLayers::getUnitHitPointsRatio, Spatial.FeatureLayers::hasUnitHitPointsRatio
-        ).apply(sc2ApiFeatureLayers).map(ImageData::from).orElseThrow(required("unit hit points ratio"));
+        ).apply(sc2ApiFeatureLayers).map(LazyImageData::of).orElseThrow(required("unit hit points ratio"));
 
         unitEnergy = tryGet(Spatial.FeatureLayers::getUnitEnergy, Spatial.FeatureLayers::hasUnitEnergy)
-                .apply(sc2ApiFeatureLayers).map(ImageData::from).orElseThrow(required("unit energy"));
+                .apply(sc2ApiFeatureLayers).map(LazyImageData::of).orElseThrow(required("unit energy"));
 
         unitEnergyRatio = tryGet(Spatial.FeatureLayers::getUnitEnergyRatio, Spatial.FeatureLayers::hasUnitEnergyRatio)
-                .apply(sc2ApiFeatureLayers).map(ImageData::from).orElse(nothing());
+                .apply(sc2ApiFeatureLayers).map(LazyImageData::of).orElse(nothing());
 
         unitShields = tryGet(Spatial.FeatureLayers::getUnitShields, Spatial.FeatureLayers::hasUnitShields)
-                .apply(sc2ApiFeatureLayers).map(ImageData::from).orElseThrow(required("unit shields"));
+                .apply(sc2ApiFeatureLayers).map(LazyImageData::of).orElseThrow(required("unit shields"));
 
         unitShieldsRatio = tryGet(
                 Spatial.FeatureLayers::getUnitShieldsRatio, Spatial.FeatureLayers::hasUnitShieldsRatio
-        ).apply(sc2ApiFeatureLayers).map(ImageData::from).orElse(nothing());
+        ).apply(sc2ApiFeatureLayers).map(LazyImageData::of).orElse(nothing());
 
         playerRelative = tryGet(Spatial.FeatureLayers::getPlayerRelative, Spatial.FeatureLayers::hasPlayerRelative)
-                .apply(sc2ApiFeatureLayers).map(ImageData::from).orElseThrow(required("player relative"));
+                .apply(sc2ApiFeatureLayers).map(LazyImageData::of).orElseThrow(required("player relative"));
 
         unitDensityAa = tryGet(Spatial.FeatureLayers::getUnitDensityAa, Spatial.FeatureLayers::hasUnitDensityAa)
-                .apply(sc2ApiFeatureLayers).map(ImageData::from).orElseThrow(required("unit density aa"));
+                .apply(sc2ApiFeatureLayers).map(LazyImageData::of).orElseThrow(required("unit density aa"));
 
         unitDensity = tryGet(Spatial.FeatureLayers::getUnitDensity, Spatial.FeatureLayers::hasUnitDensity)
-                .apply(sc2ApiFeatureLayers).map(ImageData::from).orElseThrow(required("unit density"));
+                .apply(sc2ApiFeatureLayers).map(LazyImageData::of).orElseThrow(required("unit density"));
 
         effects = tryGet(Spatial.FeatureLayers::getEffects, Spatial.FeatureLayers::hasEffects)
-                .apply(sc2ApiFeatureLayers).map(ImageData::from).orElse(nothing());
+                .apply(sc2ApiFeatureLayers).map(LazyImageData::of).orElse(nothing());
 
         hallucinations = tryGet(Spatial.FeatureLayers::getHallucinations, Spatial.FeatureLayers::hasHallucinations)
-                .apply(sc2ApiFeatureLayers).map(ImageData::from).orElse(nothing());
+                .apply(sc2ApiFeatureLayers).map(LazyImageData::of).orElse(nothing());
 
         cloaked = tryGet(Spatial.FeatureLayers::getCloaked, Spatial.FeatureLayers::hasCloaked)
-                .apply(sc2ApiFeatureLayers).map(ImageData::from).orElse(nothing());
+                .apply(sc2ApiFeatureLayers).map(LazyImageData::of).orElse(nothing());
 
         blip = tryGet(Spatial.FeatureLayers::getBlip, Spatial.FeatureLayers::hasBlip)
-                .apply(sc2ApiFeatureLayers).map(ImageData::from).orElse(nothing());
+                .apply(sc2ApiFeatureLayers).map(LazyImageData::of).orElse(nothing());
 
         buffs = tryGet(Spatial.FeatureLayers::getBuffs, Spatial.FeatureLayers::hasBuffs)
-                .apply(sc2ApiFeatureLayers).map(ImageData::from).orElse(nothing());
+                .apply(sc2ApiFeatureLayers).map(LazyImageData::of).orElse(nothing());
 
         buffDuration = tryGet(Spatial.FeatureLayers::getBuffDuration, Spatial.FeatureLayers::hasBuffDuration)
-                .apply(sc2ApiFeatureLayers).map(ImageData::from).orElse(nothing());
+                .apply(sc2ApiFeatureLayers).map(LazyImageData::of).orElse(nothing());
 
         active = tryGet(Spatial.FeatureLayers::getActive, Spatial.FeatureLayers::hasActive)
-                .apply(sc2ApiFeatureLayers).map(ImageData::from).orElse(nothing());
+                .apply(sc2ApiFeatureLayers).map(LazyImageData::of).orElse(nothing());
 
         buildProgress = tryGet(Spatial.FeatureLayers::getBuildProgress, Spatial.FeatureLayers::hasBuildProgress)
-                .apply(sc2ApiFeatureLayers).map(ImageData::from).orElse(nothing());
+                .apply(sc2ApiFeatureLayers).map(LazyImageData::of).orElse(nothing());
 
         buildable = tryGet(Spatial.FeatureLayers::getBuildable, Spatial.FeatureLayers::hasBuildable)
-                .apply(sc2ApiFeatureLayers).map(ImageData::from).orElse(nothing());
+                .apply(sc2ApiFeatureLayers).map(LazyImageData::of).orElse(nothing());
 
         pathable = tryGet(Spatial.FeatureLayers::getPathable, Spatial.FeatureLayers::hasPathable)
-                .apply(sc2ApiFeatureLayers).map(ImageData::from).orElse(nothing());
+                .apply(sc2ApiFeatureLayers).map(LazyImageData::of).orElse(nothing());
     }
 
     public static FeatureLayers from(Spatial.FeatureLayers sc2ApiFeatureLayers) {
@@ -168,182 +208,225 @@ public final class FeatureLayers implements Serializable {
      * uint8. Terrain height. World space units of [-200, 200] encoded into [0, 255].
      */
     public ImageData getHeightMap() {
-        return heightMap;
+        return heightMap.get();
     }
 
     /**
      * uint8. 0=Hidden, 1=Fogged, 2=Visible, 3=FullHidden
      */
     public ImageData getVisibilityMap() {
-        return visibilityMap;
+        return visibilityMap.get();
     }
 
     /**
      * 1-bit. Zerg creep.
      */
     public ImageData getCreep() {
-        return creep;
+        return creep.get();
     }
 
     /**
      * 1-bit. Protoss power.
      */
     public ImageData getPower() {
-        return power;
+        return power.get();
     }
 
     /**
      * uint8. Participants: [1, 15] Neutral: 16
      */
     public ImageData getPlayerId() {
-        return playerId;
+        return playerId.get();
     }
 
     /**
      * int32. Unique identifier for type of unit.
      */
     public ImageData getUnitType() {
-        return unitType;
+        return unitType.get();
     }
 
     /**
      * 1-bit. Selected units.
      */
     public ImageData getSelected() {
-        return selected;
+        return selected.get();
     }
 
     /**
      * int32.
      */
     public ImageData getUnitHitPoints() {
-        return unitHitPoints;
+        return unitHitPoints.get();
     }
 
     /**
      * uint8. Ratio of current health to max health. [0%, 100%] encoded into [0, 255].
      */
     public ImageData getUnitHitPointsRatio() {
-        return unitHitPointsRatio;
+        return unitHitPointsRatio.get();
     }
 
     /**
      * int32.
      */
     public ImageData getUnitEnergy() {
-        return unitEnergy;
+        return unitEnergy.get();
     }
 
     /**
      * uint8. Ratio of current energy to max energy. [0%, 100%] encoded into [0, 255].
      */
     public Optional<ImageData> getUnitEnergyRatio() {
-        return Optional.ofNullable(unitEnergyRatio);
+        return Optional.ofNullable(unitEnergyRatio).map(LazyImageData::get);
     }
 
     /**
      * int32.
      */
     public ImageData getUnitShields() {
-        return unitShields;
+        return unitShields.get();
     }
 
     /**
      * uint8. Ratio of current shields to max shields. [0%, 100%] encoded into [0, 255].
      */
     public Optional<ImageData> getUnitShieldsRatio() {
-        return Optional.ofNullable(unitShieldsRatio);
+        return Optional.ofNullable(unitShieldsRatio).map(LazyImageData::get);
     }
 
     /**
      * uint8. See "Alliance" enum in raw.proto. Range: [1, 4]
      */
     public ImageData getPlayerRelative() {
-        return playerRelative;
+        return playerRelative.get();
     }
 
     /**
      * uint8. Density of units overlapping a pixel, anti-aliased. [0.0, 16.0f] encoded into [0, 255].
      */
     public ImageData getUnitDensityAa() {
-        return unitDensityAa;
+        return unitDensityAa.get();
     }
 
     /**
      * uint8. Count of units overlapping a pixel.
      */
     public ImageData getUnitDensity() {
-        return unitDensity;
+        return unitDensity.get();
     }
 
     /**
      * uint8. Visuals of persistent abilities. (eg. Psistorm)
      */
     public Optional<ImageData> getEffects() {
-        return Optional.ofNullable(effects);
+        return Optional.ofNullable(effects).map(LazyImageData::get);
     }
 
     /**
      * 1-bit. Whether the unit here is a hallucination.
      */
     public Optional<ImageData> getHallucinations() {
-        return Optional.ofNullable(hallucinations);
+        return Optional.ofNullable(hallucinations).map(LazyImageData::get);
     }
 
     /**
      * 1-bit. Whether the unit here is cloaked. Hidden units will show up too, but with less details in other layers.
      */
     public Optional<ImageData> getCloaked() {
-        return Optional.ofNullable(cloaked);
+        return Optional.ofNullable(cloaked).map(LazyImageData::get);
     }
 
     /**
      * 1-bit. Whether the unit here is a blip.
      */
     public Optional<ImageData> getBlip() {
-        return Optional.ofNullable(blip);
+        return Optional.ofNullable(blip).map(LazyImageData::get);
     }
 
     /**
      * int32. One of the buffs applied to this unit. Extras are ignored.
      */
     public Optional<ImageData> getBuffs() {
-        return Optional.ofNullable(buffs);
+        return Optional.ofNullable(buffs).map(LazyImageData::get);
     }
 
     /**
      * uint8. Ratio of buff remaining. [0%, 100%] encoded into [0, 255].
      */
     public Optional<ImageData> getBuffDuration() {
-        return Optional.ofNullable(buffDuration);
+        return Optional.ofNullable(buffDuration).map(LazyImageData::get);
     }
 
     /**
      * 1-bit. Whether the unit here is active.
      */
     public Optional<ImageData> getActive() {
-        return Optional.ofNullable(active);
+        return Optional.ofNullable(active).map(LazyImageData::get);
     }
 
     /**
      * uint8. How far along the building is building something. [0%, 100%] encoded into [0, 255].
      */
     public Optional<ImageData> getBuildProgress() {
-        return Optional.ofNullable(buildProgress);
+        return Optional.ofNullable(buildProgress).map(LazyImageData::get);
     }
 
     /**
      * 1-bit. Whether a building can be built here.
      */
     public Optional<ImageData> getBuildable() {
-        return Optional.ofNullable(buildable);
+        return Optional.ofNullable(buildable).map(LazyImageData::get);
     }
 
     /**
      * 1-bit. Whether a unit can walk here.
      */
     public Optional<ImageData> getPathable() {
-        return Optional.ofNullable(pathable);
+        return Optional.ofNullable(pathable).map(LazyImageData::get);
+    }
+
+    public Optional<ImageData> getLayer(Layer layer) {
+        require("layer", layer);
+        return layer.layer.apply(this);
+    }
+
+    /**
+     * Writes the selected layers into the target buffer starting at its position, which is advanced past the
+     * written tensor. Each layer occupies as many channels as its encoding needs, in the iteration order of the map
+     * (use {@link java.util.EnumMap} for the declaration order or {@link java.util.LinkedHashMap} for a custom
+     * one). Rows are written top row first, as sent by the game. Layers not sent by the game are written as zeros.
+     *
+     * @param target Destination with at least width * height * channels floats remaining, typically a view of a
+     *               direct buffer handed over to an inference runtime.
+     * @param layout Order of dimensions.
+     * @param layers Layers to write with their encodings.
+     * @see LayerEncoding#channels(java.util.Collection)
+     */
+    public void toTensor(FloatBuffer target, TensorLayout layout, Map<Layer, LayerEncoding> layers) {
+        require("target", target);
+        require("layout", layout);
+        require("layers", layers);
+        TensorWriter.write(selected(layers), new ArrayList<>(layers.values()), layout, target);
+    }
+
+    /**
+     * Writes the selected layers as unsigned 8 bit values, see {@link #toTensor(FloatBuffer, TensorLayout, Map)}.
+     * Only raw and one-hot encodings are supported, raw values are clamped to [0, 255].
+     */
+    public void toTensor(ByteBuffer target, TensorLayout layout, Map<Layer, LayerEncoding> layers) {
+        require("target", target);
+        require("layout", layout);
+        require("layers", layers);
+        TensorWriter.write(selected(layers), new ArrayList<>(layers.values()), layout, target);
+    }
+
+    private List<Optional<ImageData>> selected(Map<Layer, LayerEncoding> layers) {
+        List<Optional<ImageData>> selected = new ArrayList<>(layers.size());
+        for (Layer layer : layers.keySet()) {
+            selected.add(getLayer(layer));
+        }
+        return selected;
     }
 
     @Override
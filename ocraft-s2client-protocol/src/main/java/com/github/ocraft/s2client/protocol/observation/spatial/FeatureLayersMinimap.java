@@ -31,8 +31,10 @@ import com.github.ocraft.s2client.protocol.Strings;
 import com.github.ocraft.s2client.protocol.spatial.SpatialCameraSetup;
 
 import java.io.Serializable;
-import java.util.Objects;
-import java.util.Optional;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.*;
+import java.util.function.Function;
 
 import static com.github.ocraft.s2client.protocol.Constants.nothing;
 import static com.github.ocraft.s2client.protocol.DataExtractor.tryGet;
@@ -43,57 +45,80 @@ public final class FeatureLayersMinimap implements Serializable {
 
     private static final long serialVersionUID = 5024615413306860431L;
 
-    private final ImageData heightMap;      // uint8. Terrain height. World space units of [-200, 200] encoded into [0, 255].
-    private final ImageData visibilityMap;  // uint8. 0=Hidden, 1=Fogged, 2=Visible, 3=FullHidden
-    private final ImageData creep;          // 1-bit. Zerg creep.
-    private final ImageData camera;         // 1-bit. Area covered by the camera.
-    private final ImageData playerId;       // uint8. Participants: [1, 15] Neutral: 16
-    private final ImageData playerRelative; // uint8. See "Alliance" enum in raw.proto. Range: [1, 4]
-    private final ImageData selected;       // 1-bit. Selected units.
-    private final ImageData alerts;         // 1-bit. Shows 'UnitAttacked' alert location.
-    private final ImageData buildable;      // 1-bit. Whether a building can be built here.
-    private final ImageData pathable;       // 1-bit. Whether a unit can walk here.
+    private final LazyImageData heightMap;      // uint8. Terrain height. World space units of [-200, 200] encoded into [0, 255].
+    private final LazyImageData visibilityMap;  // uint8. 0=Hidden, 1=Fogged, 2=Visible, 3=FullHidden
+    private final LazyImageData creep;          // 1-bit. Zerg creep.
+    private final LazyImageData camera;         // 1-bit. Area covered by the camera.
+    private final LazyImageData playerId;       // uint8. Participants: [1, 15] Neutral: 16
+    private final LazyImageData playerRelative; // uint8. See "Alliance" enum in raw.proto. Range: [1, 4]
+    private final LazyImageData selected;       // 1-bit. Selected units.
+    private final LazyImageData alerts;         // 1-bit. Shows 'UnitAttacked' alert location.
+    private final LazyImageData buildable;      // 1-bit. Whether a building can be built here.
+    private final LazyImageData pathable;       // 1-bit. Whether a unit can walk here.
 
 
     // Cheat layers, enable with SpatialCameraSetup.allow_cheating_layers
-    private final ImageData unitType;       // int32. Unique identifier for type of unit.
+    private final LazyImageData unitType;       // int32. Unique identifier for type of unit.
 
 
+    /**
+     * Selects a single layer, see {@link #toTensor(FloatBuffer, TensorLayout, Map)}.
+     */
+    public enum Layer {
+        HEIGHT_MAP(layers -> Optional.of(layers.getHeightMap())),
+        VISIBILITY_MAP(layers -> Optional.of(layers.getVisibilityMap())),
+        CREEP(layers -> Optional.of(layers.getCreep())),
+        CAMERA(layers -> Optional.of(layers.getCamera())),
+        PLAYER_ID(layers -> Optional.of(layers.getPlayerId())),
+        PLAYER_RELATIVE(layers -> Optional.of(layers.getPlayerRelative())),
+        SELECTED(layers -> Optional.of(layers.getSelected())),
+        ALERTS(FeatureLayersMinimap::getAlerts),
+        BUILDABLE(FeatureLayersMinimap::getBuildable),
+        PATHABLE(FeatureLayersMinimap::getPathable),
+        UNIT_TYPE(FeatureLayersMinimap::getUnitType);
+
+        private final Function<FeatureLayersMinimap, Optional<ImageData>> layer;
+
+        Layer(Function<FeatureLayersMinimap, Optional<ImageData>> layer) {
+            this.layer = layer;
+        }
+    }
+
     private FeatureLayersMinimap(Spatial.FeatureLayersMinimap sc2ApiFeatureLayersMinimap) {
         heightMap = tryGet(Spatial.FeatureLayersMinimap::getHeightMap, Spatial.FeatureLayersMinimap::hasHeightMap)
-                .apply(sc2ApiFeatureLayersMinimap).map(ImageData::from).orElseThrow(required("height map"));
+                .apply(sc2ApiFeatureLayersMinimap).map(LazyImageData::of).orElseThrow(required("height map"));
 
         visibilityMap = tryGet(
                 Spatial.FeatureLayersMinimap::getVisibilityMap, Spatial.FeatureLayersMinimap::hasVisibilityMap
-        ).apply(sc2ApiFeatureLayersMinimap).map(ImageData::from).orElseThrow(required("visibility map"));
+        ).apply(sc2ApiFeatureLayersMinimap).map(LazyImageData::of).orElseThrow(required("visibility map"));
 
         creep = tryGet(Spatial.FeatureLayersMinimap::getCreep, Spatial.FeatureLayersMinimap::hasCreep)
-                .apply(sc2ApiFeatureLayersMinimap).map(ImageData::from).orElseThrow(required("creep"));
+                .apply(sc2ApiFeatureLayersMinimap).map(LazyImageData::of).orElseThrow(required("creep"));
 
         camera = tryGet(Spatial.FeatureLayersMinimap::getCamera, Spatial.FeatureLayersMinimap::hasCamera)
-                .apply(sc2ApiFeatureLayersMinimap).map(ImageData::from).orElseThrow(required("camera"));
+                .apply(sc2ApiFeatureLayersMinimap).map(LazyImageData::of).orElseThrow(required("camera"));
 
         playerId = tryGet(Spatial.FeatureLayersMinimap::getPlayerId, Spatial.FeatureLayersMinimap::hasPlayerId)
-                .apply(sc2ApiFeatureLayersMinimap).map(ImageData::from).orElseThrow(required("player id"));
+                .apply(sc2ApiFeatureLayersMinimap).map(LazyImageData::of).orElseThrow(required("player id"));
 
         unitType = tryGet(Spatial.FeatureLayersMinimap::getUnitType, Spatial.FeatureLayersMinimap::hasUnitType)
-                .apply(sc2ApiFeatureLayersMinimap).map(ImageData::from).orElse(nothing());
+                .apply(sc2ApiFeatureLayersMinimap).map(LazyImageData::of).orElse(nothing());
 
         selected = tryGet(Spatial.FeatureLayersMinimap::getSelected, Spatial.FeatureLayersMinimap::hasSelected)
-                .apply(sc2ApiFeatureLayersMinimap).map(ImageData::from).orElseThrow(required("selected"));
+                .apply(sc2ApiFeatureLayersMinimap).map(LazyImageData::of).orElseThrow(required("selected"));
 
         playerRelative = tryGet(
                 Spatial.FeatureLayersMinimap::getPlayerRelative, Spatial.FeatureLayersMinimap::hasPlayerRelative
-        ).apply(sc2ApiFeatureLayersMinimap).map(ImageData::from).orElseThrow(required("player relative"));
+        ).apply(sc2ApiFeatureLayersMinimap).map(LazyImageData::of).orElseThrow(required("player relative"));
 
         alerts = tryGet(Spatial.FeatureLayersMinimap::getAlerts, Spatial.FeatureLayersMinimap::hasAlerts)
-                .apply(sc2ApiFeatureLayersMinimap).map(ImageData::from).orElse(nothing());
+                .apply(sc2ApiFeatureLayersMinimap).map(LazyImageData::of).orElse(nothing());
 
         buildable = tryGet(Spatial.FeatureLayersMinimap::getBuildable, Spatial.FeatureLayersMinimap::hasBuildable)
-                .apply(sc2ApiFeatureLayersMinimap).map(ImageData::from).orElse(nothing());
+                .apply(sc2ApiFeatureLayersMinimap).map(LazyImageData::of).orElse(nothing());
 
         pathable = tryGet(Spatial.FeatureLayersMinimap::getPathable, Spatial.FeatureLayersMinimap::hasPathable)
-                .apply(sc2ApiFeatureLayersMinimap).map(ImageData::from).orElse(nothing());
+                .apply(sc2ApiFeatureLayersMinimap).map(LazyImageData::of).orElse(nothing());
     }
 
     public static FeatureLayersMinimap from(Spatial.FeatureLayersMinimap sc2ApiFeatureLayersMinimap) {
@@ -105,70 +130,70 @@ public final class FeatureLayersMinimap implements Serializable {
      * uint8. Terrain height. World space units of [-200, 200] encoded into [0, 255].
      */
     public ImageData getHeightMap() {
-        return heightMap;
+        return heightMap.get();
     }
 
     /**
      * uint8. 0=Hidden, 1=Fogged, 2=Visible, 3=FullHidden
      */
     public ImageData getVisibilityMap() {
-        return visibilityMap;
+        return visibilityMap.get();
     }
 
     /**
      * 1-bit. Zerg creep.
      */
     public ImageData getCreep() {
-        return creep;
+        return creep.get();
     }
 
     /**
      * 1-bit. Area covered by the camera.
      */
     public ImageData getCamera() {
-        return camera;
+        return camera.get();
     }
 
     /**
      * uint8. Participants: [1, 15] Neutral: 16
      */
     public ImageData getPlayerId() {
-        return playerId;
+        return playerId.get();
     }
 
     /**
      * uint8. See "Alliance" enum in raw.proto. Range: [1, 4]
      */
     public ImageData getPlayerRelative() {
-        return playerRelative;
+        return playerRelative.get();
     }
 
     /**
      * 1-bit. Selected units.
      */
     public ImageData getSelected() {
-        return selected;
+        return selected.get();
     }
 
     /**
      * 1-bit. Shows 'UnitAttacked' alert location.
      */
     public Optional<ImageData> getAlerts() {
-        return Optional.ofNullable(alerts);
+        return Optional.ofNullable(alerts).map(LazyImageData::get);
     }
 
     /**
      * 1-bit. Whether a building can be built here.
      */
     public Optional<ImageData> getBuildable() {
-        return Optional.ofNullable(buildable);
+        return Optional.ofNullable(buildable).map(LazyImageData::get);
     }
 
     /**
      * 1-bit. Whether a unit can walk here.
      */
     public Optional<ImageData> getPathable() {
-        return Optional.ofNullable(pathable);
+        return Optional.ofNullable(pathable).map(LazyImageData::get);
     }
 
     /**
@@ -177,7 +202,50 @@ public final class FeatureLayersMinimap implements Serializable {
      * @see SpatialCameraSetup#getAllowCheatingLayers()
      */
     public Optional<ImageData> getUnitType() {
-        return Optional.ofNullable(unitType);
+        return Optional.ofNullable(unitType).map(LazyImageData::get);
+    }
+
+    public Optional<ImageData> getLayer(Layer layer) {
+        require("layer", layer);
+        return layer.layer.apply(this);
+    }
+
+    /**
+     * Writes the selected layers into the target buffer starting at its position, which is advanced past the
+     * written tensor. Each layer occupies as many channels as its encoding needs, in the iteration order of the map
+     * (use {@link java.util.EnumMap} for the declaration order or {@link java.util.LinkedHashMap} for a custom
+     * one). Rows are written top row first, as sent by the game. Layers not sent by the game are written as zeros.
+     *
+     * @param target Destination with at least width * height * channels floats remaining, typically a view of a
+     *               direct buffer handed over to an inference runtime.
+     * @param layout Order of dimensions.
+     * @param layers Layers to write with their encodings.
+     * @see LayerEncoding#channels(java.util.Collection)
+     */
+    public void toTensor(FloatBuffer target, TensorLayout layout, Map<Layer, LayerEncoding> layers) {
+        require("target", target);
+        require("layout", layout);
+        require("layers", layers);
+        TensorWriter.write(selected(layers), new ArrayList<>(layers.values()), layout, target);
+    }
+
+    /**
+     * Writes the selected layers as unsigned 8 bit values, see {@link #toTensor(FloatBuffer, TensorLayout, Map)}.
+     * Only raw and one-hot encodings are supported, raw values are clamped to [0, 255].
+     */
+    public void toTensor(ByteBuffer target, TensorLayout layout, Map<Layer, LayerEncoding> layers) {
+        require("target", target);
+        require("layout", layout);
+        require("layers", layers);
+        TensorWriter.write(selected(layers), new ArrayList<>(layers.values()), layout, target);
+    }
+
+    private List<Optional<ImageData>> selected(Map<Layer, LayerEncoding> layers) {
+        List<Optional<ImageData>> selected = new ArrayList<>(layers.size());
+        for (Layer layer : layers.keySet()) {
+            selected.add(getLayer(layer));
+        }
+        return selected;
     }
 
     @Override
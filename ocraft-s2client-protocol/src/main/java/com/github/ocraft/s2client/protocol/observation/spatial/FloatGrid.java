@@ -0,0 +1,150 @@
+package com.github.ocraft.s2client.protocol.observation.spatial;
+
+/*-
+ * #%L
+ * ocraft-s2client-protocol
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import com.github.ocraft.s2client.protocol.Strings;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import static com.github.ocraft.s2client.protocol.Preconditions.require;
+import static java.lang.String.format;
+
+/**
+ * One float per cell view of an image layer (terrain height) with pixel values linearly mapped to
+ * [min, max]. Cells are addressed in game coordinates (origin in the bottom left corner). Queries outside of the
+ * grid return 0.
+ */
+public final class FloatGrid implements Serializable {
+
+    private static final long serialVersionUID = 5310863027719420573L;
+
+    private final int width;
+    private final int height;
+    private final float[] values;
+
+    private FloatGrid(int width, int height, float[] values) {
+        this.width = width;
+        this.height = height;
+        this.values = values;
+    }
+
+    /**
+     * Decodes the image data, pixel value 0 maps to {@code min} and 255 maps to {@code max}.
+     *
+     * @param imageData Image to decode (1 or 8 bits per pixel).
+     * @param origin    Origin of the image data.
+     * @param min       Value of the lowest pixel.
+     * @param max       Value of the highest pixel.
+     * @return Decoded grid.
+     */
+    public static FloatGrid from(ImageData imageData, ImageData.Origin origin, float min, float max) {
+        require("image data", imageData);
+        require("origin", origin);
+        byte[] pixels = ByteGrid.unpack(imageData, origin);
+
+        float[] scale = new float[256];
+        for (int i = 0; i < scale.length; i++) {
+            scale[i] = min + (max - min) * i / 255.0f;
+        }
+        float[] values = new float[pixels.length];
+        for (int i = 0; i < pixels.length; i++) {
+            values[i] = scale[pixels[i] & 0xFF];
+        }
+        return new FloatGrid(imageData.getSize().getX(), imageData.getSize().getY(), values);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public boolean contains(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+
+    public float get(int x, int y) {
+        return contains(x, y) ? values[x + y * width] : 0.0f;
+    }
+
+    /**
+     * Copies one row into the target array.
+     *
+     * @param y      Row to copy.
+     * @param target Destination of at least {@code offset + getWidth()} floats.
+     * @param offset Index of the first destination float.
+     */
+    public void getRow(int y, float[] target, int offset) {
+        if (y < 0 || y >= height) {
+            throw new IndexOutOfBoundsException(format("row [%d] is outside of the grid [0, %d)", y, height));
+        }
+        System.arraycopy(values, y * width, target, offset, width);
+    }
+
+    /**
+     * @return Highest value in the region [minX, maxX) x [minY, maxY) clipped to the grid, or
+     * {@link Float#NaN} if the region is empty.
+     */
+    public float max(int minX, int minY, int maxX, int maxY) {
+        float max = Float.NaN;
+        for (int y = Math.max(minY, 0); y < Math.min(maxY, height); y++) {
+            for (int x = Math.max(minX, 0); x < Math.min(maxX, width); x++) {
+                float value = values[x + y * width];
+                if (!(value <= max)) {
+                    max = value;
+                }
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof FloatGrid)) return false;
+
+        FloatGrid floatGrid = (FloatGrid) o;
+
+        return width == floatGrid.width && height == floatGrid.height && Arrays.equals(values, floatGrid.values);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = width;
+        result = 31 * result + height;
+        result = 31 * result + Arrays.hashCode(values);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return Strings.toJson(this);
+    }
+}
@@ -36,6 +36,7 @@ import com.google.protobuf.ByteString;
 import java.awt.image.BufferedImage;
 import java.awt.image.DataBufferByte;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 
 import static com.github.ocraft.s2client.protocol.DataExtractor.tryGet;
 import static com.github.ocraft.s2client.protocol.Errors.required;
@@ -121,18 +122,137 @@ public final class ImageData implements Serializable {
         return data.toByteArray();
     }
 
+    /**
+     * Returns a read-only view of the raw pixel data. Unlike {@link #getData()} the data is not copied.
+     *
+     * @return Read-only buffer positioned at the first byte.
+     */
     @JsonIgnore
-    public BufferedImage getImage() {
-        return convertToImage(getData());
+    public ByteBuffer getDataView() {
+        // Data parsed from a response can be a part of a larger buffer.
+        return data.asReadOnlyByteBuffer().slice();
     }
 
-    private BufferedImage convertToImage(byte[] imageBytes) {
+    @JsonIgnore
+    public BufferedImage getImage() {
         BufferedImage bufferedImage = new BufferedImage(size.getX(), size.getY(), imageType);
         byte[] imgData = ((DataBufferByte) bufferedImage.getRaster().getDataBuffer()).getData();
-        System.arraycopy(imageBytes, 0, imgData, 0, imageBytes.length);
+        data.copyTo(imgData, 0);
         return bufferedImage;
     }
 
+    /**
+     * Unpacks all pixels into the target array, one byte per pixel, row 0 being the bottom row of the map.
+     * Pixels of 1 bit images unpack to 0 or 1, pixels of 8 bit images to unsigned values 0..255.
+     *
+     * @param target Destination of at least width * height bytes.
+     * @param origin Origin of the image data.
+     */
+    public void unpack(byte[] target, Origin origin) {
+        requireUnpackable(target.length);
+        int width = size.getX();
+        if (bitsPerPixel == 8 && Origin.BOTTOM_LEFT.equals(origin)) {
+            data.copyTo(target, 0);
+            return;
+        }
+        ByteBuffer view = getDataView();
+        for (int y = 0; y < size.getY(); y++) {
+            unpackRow(view, imageRow(y, origin), target, y * width);
+        }
+    }
+
+    /**
+     * Unpacks all pixels into the target array, row 0 being the bottom row of the map. Pixels of 1 bit images
+     * unpack to 0 or 1, pixels of 8 bit images to 0..255.
+     *
+     * @param target Destination of at least width * height values.
+     * @param origin Origin of the image data.
+     */
+    public void unpack(int[] target, Origin origin) {
+        requireUnpackable(target.length);
+        int width = size.getX();
+        byte[] row = new byte[width];
+        ByteBuffer view = getDataView();
+        for (int y = 0; y < size.getY(); y++) {
+            unpackRow(view, imageRow(y, origin), row, 0);
+            int offset = y * width;
+            for (int x = 0; x < width; x++) {
+                target[offset + x] = row[x] & 0xFF;
+            }
+        }
+    }
+
+    /**
+     * Unpacks all pixels into the target array normalized to [0, 1], row 0 being the bottom row of the map.
+     *
+     * @param target Destination of at least width * height values.
+     * @param origin Origin of the image data.
+     */
+    public void unpackNormalized(float[] target, Origin origin) {
+        requireUnpackable(target.length);
+        int width = size.getX();
+        float scale = bitsPerPixel == 1 ? 1.0f : 1.0f / 255.0f;
+        byte[] row = new byte[width];
+        ByteBuffer view = getDataView();
+        for (int y = 0; y < size.getY(); y++) {
+            unpackRow(view, imageRow(y, origin), row, 0);
+            int offset = y * width;
+            for (int x = 0; x < width; x++) {
+                target[offset + x] = (row[x] & 0xFF) * scale;
+            }
+        }
+    }
+
+    private void requireUnpackable(int targetLength) {
+        if (bitsPerPixel != 1 && bitsPerPixel != 8) {
+            throw new IllegalArgumentException(
+                    format("Unsupported bits per pixel [%d] for unpacking. Expected {1, 8}.", bitsPerPixel));
+        }
+        int pixels = size.getX() * size.getY();
+        if (targetLength < pixels) {
+            throw new IllegalArgumentException(
+                    format("target length [%d] is less than image size [%d]", targetLength, pixels));
+        }
+    }
+
+    private int imageRow(int y, Origin origin) {
+        return Origin.UPPER_LEFT.equals(origin) ? size.getY() - 1 - y : y;
+    }
+
+    void unpackRow(ByteBuffer view, int imageRow, byte[] target, int offset) {
+        int width = size.getX();
+        int pixel = imageRow * width;
+        if (bitsPerPixel == 8) {
+            view.position(pixel);
+            view.get(target, offset, width);
+            return;
+        }
+
+        int end = offset + width;
+        // Leading pixels up to a byte boundary, then whole bytes, then the rest.
+        while (offset < end && (pixel & 7) != 0) {
+            target[offset++] = (byte) ((view.get(pixel >>> 3) >> (7 - (pixel & 7))) & 0x1);
+            pixel++;
+        }
+        while (end - offset >= 8) {
+            int bits = view.get(pixel >>> 3);
+            target[offset] = (byte) ((bits >> 7) & 0x1);
+            target[offset + 1] = (byte) ((bits >> 6) & 0x1);
+            target[offset + 2] = (byte) ((bits >> 5) & 0x1);
+            target[offset + 3] = (byte) ((bits >> 4) & 0x1);
+            target[offset + 4] = (byte) ((bits >> 3) & 0x1);
+            target[offset + 5] = (byte) ((bits >> 2) & 0x1);
+            target[offset + 6] = (byte) ((bits >> 1) & 0x1);
+            target[offset + 7] = (byte) (bits & 0x1);
+            offset += 8;
+            pixel += 8;
+        }
+        while (offset < end) {
+            target[offset++] = (byte) ((view.get(pixel >>> 3) >> (7 - (pixel & 7))) & 0x1);
+            pixel++;
+        }
+    }
+
     // TODO p.picheta refactor to version strategy
     public int sample(Point2d point, Origin origin) {
         int index;
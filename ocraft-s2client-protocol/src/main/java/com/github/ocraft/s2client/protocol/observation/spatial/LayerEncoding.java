@@ -0,0 +1,141 @@
+package com.github.ocraft.s2client.protocol.observation.spatial;
+
+/*-
+ * #%L
+ * ocraft-s2client-protocol
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import com.github.ocraft.s2client.protocol.Strings;
+
+import java.io.Serializable;
+import java.util.Collection;
+
+import static java.lang.String.format;
+
+/**
+ * Describes how pixel values of a single image layer are written into a tensor.
+ */
+public final class LayerEncoding implements Serializable {
+
+    private static final long serialVersionUID = -2807634118462571042L;
+
+    public enum Type {
+        /**
+         * Pixel value as is, one channel.
+         */
+        RAW,
+        /**
+         * Pixel value mapped to [0, 1]: 1 bit layers as is, 8 bit layers divided by 255. Not supported for
+         * 32 bit layers, scale them explicitly.
+         */
+        NORMALIZED,
+        /**
+         * Pixel value multiplied by a scale, one channel.
+         */
+        SCALED,
+        /**
+         * One channel per class, 1 in the channel equal to the pixel value, 0 elsewhere. Values outside of
+         * [0, classes) leave all channels 0.
+         */
+        ONE_HOT
+    }
+
+    private static final LayerEncoding RAW = new LayerEncoding(Type.RAW, 1.0f, 1);
+    private static final LayerEncoding NORMALIZED = new LayerEncoding(Type.NORMALIZED, 1.0f, 1);
+
+    private final Type type;
+    private final float scale;
+    private final int channels;
+
+    private LayerEncoding(Type type, float scale, int channels) {
+        this.type = type;
+        this.scale = scale;
+        this.channels = channels;
+    }
+
+    public static LayerEncoding raw() {
+        return RAW;
+    }
+
+    public static LayerEncoding normalized() {
+        return NORMALIZED;
+    }
+
+    public static LayerEncoding scaled(float scale) {
+        return new LayerEncoding(Type.SCALED, scale, 1);
+    }
+
+    public static LayerEncoding oneHot(int classes) {
+        if (classes < 1) {
+            throw new IllegalArgumentException(format("classes [%d] must be positive", classes));
+        }
+        return new LayerEncoding(Type.ONE_HOT, 1.0f, classes);
+    }
+
+    /**
+     * @return Total number of channels used by the given encodings.
+     */
+    public static int channels(Collection<LayerEncoding> encodings) {
+        int channels = 0;
+        for (LayerEncoding encoding : encodings) {
+            channels += encoding.getChannels();
+        }
+        return channels;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public float getScale() {
+        return scale;
+    }
+
+    public int getChannels() {
+        return channels;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        LayerEncoding that = (LayerEncoding) o;
+
+        return Float.compare(that.scale, scale) == 0 && channels == that.channels && type == that.type;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = type.hashCode();
+        result = 31 * result + (scale != +0.0f ? Float.floatToIntBits(scale) : 0);
+        result = 31 * result + channels;
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return Strings.toJson(this);
+    }
+}
@@ -0,0 +1,76 @@
+package com.github.ocraft.s2client.protocol.observation.spatial;
+
+/*-
+ * #%L
+ * ocraft-s2client-protocol
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import SC2APIProtocol.Common;
+import com.github.ocraft.s2client.protocol.Lazy;
+
+import java.io.Serializable;
+
+import static com.github.ocraft.s2client.protocol.Preconditions.require;
+
+/**
+ * Keeps the protobuf image until the layer is read for the first time. Agents usually read only a few of the
+ * configured layers, so the others are never converted nor validated. Equality is based on the protobuf image, so
+ * comparing layers does not decode them.
+ */
+final class LazyImageData implements Serializable {
+
+    private static final long serialVersionUID = 3919627315708318014L;
+
+    private final Common.ImageData sc2ApiImageData;
+    private final Lazy<ImageData> imageData;
+
+    private LazyImageData(Common.ImageData sc2ApiImageData) {
+        this.sc2ApiImageData = sc2ApiImageData;
+        this.imageData = Lazy.of(() -> ImageData.from(sc2ApiImageData));
+    }
+
+    static LazyImageData of(Common.ImageData sc2ApiImageData) {
+        require("sc2api image data", sc2ApiImageData);
+        return new LazyImageData(sc2ApiImageData);
+    }
+
+    ImageData get() {
+        return imageData.get();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        LazyImageData that = (LazyImageData) o;
+
+        return sc2ApiImageData.equals(that.sc2ApiImageData);
+    }
+
+    @Override
+    public int hashCode() {
+        return sc2ApiImageData.hashCode();
+    }
+}
@@ -39,15 +39,15 @@ public final class ObservationRender implements Serializable {
 
     private static final long serialVersionUID = -3164970033791841768L;
 
-    private final ImageData map;
-    private final ImageData minimap;
+    private final LazyImageData map;
+    private final LazyImageData minimap;
 
     private ObservationRender(Spatial.ObservationRender sc2ApiObservationRender) {
         map = tryGet(Spatial.ObservationRender::getMap, Spatial.ObservationRender::hasMap)
-                .apply(sc2ApiObservationRender).map(ImageData::from).orElseThrow(required("map"));
+                .apply(sc2ApiObservationRender).map(LazyImageData::of).orElseThrow(required("map"));
 
         minimap = tryGet(Spatial.ObservationRender::getMinimap, Spatial.ObservationRender::hasMinimap)
-                .apply(sc2ApiObservationRender).map(ImageData::from).orElseThrow(required("minimap"));
+                .apply(sc2ApiObservationRender).map(LazyImageData::of).orElseThrow(required("minimap"));
     }
 
     public static ObservationRender from(Spatial.ObservationRender sc2ApiObservationRender) {
@@ -56,11 +56,11 @@ public final class ObservationRender implements Serializable {
     }
 
     public ImageData getMap() {
-        return map;
+        return map.get();
     }
 
     public ImageData getMinimap() {
-        return minimap;
+        return minimap.get();
     }
 
     @Override
@@ -0,0 +1,212 @@
+package com.github.ocraft.s2client.protocol.observation.spatial;
+
+/*-
+ * #%L
+ * ocraft-s2client-protocol
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.List;
+import java.util.Optional;
+
+import static java.lang.String.format;
+
+/**
+ * Writes image layers straight from their data views into a tensor buffer. Rows are kept in image order
+ * (top row first), as the game sends them.
+ */
+final class TensorWriter {
+
+    private interface Sink {
+        void put(int index, float value);
+
+        default void putRow(int index, float[] values, int length, int stride) {
+            for (int i = 0; i < length; i++) {
+                put(index + i * stride, values[i]);
+            }
+        }
+    }
+
+    private static final class FloatSink implements Sink {
+        private final FloatBuffer target;
+        private final FloatBuffer rows;
+        private final int base;
+
+        private FloatSink(FloatBuffer target) {
+            this.target = target;
+            this.rows = target.duplicate();
+            this.base = target.position();
+        }
+
+        @Override
+        public void put(int index, float value) {
+            target.put(base + index, value);
+        }
+
+        @Override
+        public void putRow(int index, float[] values, int length, int stride) {
+            if (stride == 1) {
+                rows.position(base + index);
+                rows.put(values, 0, length);
+            } else {
+                Sink.super.putRow(index, values, length, stride);
+            }
+        }
+    }
+
+    private TensorWriter() {
+        throw new AssertionError("private constructor");
+    }
+
+    static void write(
+            List<Optional<ImageData>> layers, List<LayerEncoding> encodings, TensorLayout layout, FloatBuffer target) {
+        int base = target.position();
+        int size = write(layers, encodings, layout, target.remaining(), new FloatSink(target));
+        target.position(base + size);
+    }
+
+    static void write(
+            List<Optional<ImageData>> layers, List<LayerEncoding> encodings, TensorLayout layout, ByteBuffer target) {
+        for (LayerEncoding encoding : encodings) {
+            if (encoding.getType() != LayerEncoding.Type.RAW && encoding.getType() != LayerEncoding.Type.ONE_HOT) {
+                throw new IllegalArgumentException(
+                        format("encoding [%s] is not supported by uint8 tensors", encoding.getType()));
+            }
+        }
+        int base = target.position();
+        int size = write(layers, encodings, layout, target.remaining(),
+                (index, value) -> target.put(base + index, (byte) Math.min(Math.max((int) value, 0), 255)));
+        target.position(base + size);
+    }
+
+    private static int write(
+            List<Optional<ImageData>> layers,
+            List<LayerEncoding> encodings,
+            TensorLayout layout,
+            int remaining,
+            Sink sink) {
+        ImageData first = layers.stream()
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("at least one layer is required"));
+        int width = first.getSize().getX();
+        int height = first.getSize().getY();
+        int pixels = width * height;
+        int channels = LayerEncoding.channels(encodings);
+        int size = channels * pixels;
+        if (remaining < size) {
+            throw new BufferOverflowException();
+        }
+
+        boolean channelsFirst = TensorLayout.CHANNELS_FIRST.equals(layout);
+        int channelStride = channelsFirst ? pixels : 1;
+        int pixelStride = channelsFirst ? 1 : channels;
+        int channel = 0;
+        for (int i = 0; i < layers.size(); i++) {
+            LayerEncoding encoding = encodings.get(i);
+            Optional<ImageData> layer = layers.get(i);
+            if (layer.isPresent()) {
+                if (!first.getSize().equals(layer.get().getSize())) {
+                    throw new IllegalArgumentException(format("layer size [%s] is not equal tensor size [%s]",
+                            layer.get().getSize(), first.getSize()));
+                }
+                writeLayer(layer.get(), encoding, channel, channelStride, pixelStride, sink);
+            } else {
+                // Layers missing in this game version are written as zeros to keep the tensor shape.
+                for (int c = channel; c < channel + encoding.getChannels(); c++) {
+                    for (int p = 0; p < pixels; p++) {
+                        sink.put(c * channelStride + p * pixelStride, 0.0f);
+                    }
+                }
+            }
+            channel += encoding.getChannels();
+        }
+        return size;
+    }
+
+    private static void writeLayer(
+            ImageData layer, LayerEncoding encoding, int channel, int channelStride, int pixelStride, Sink sink) {
+        int bitsPerPixel = layer.getBitsPerPixel();
+        if (bitsPerPixel != 1 && bitsPerPixel != 8 && bitsPerPixel != 32) {
+            throw new IllegalArgumentException(
+                    format("Unsupported bits per pixel [%d] for tensor. Expected {1, 8, 32}.", bitsPerPixel));
+        }
+        int width = layer.getSize().getX();
+        int height = layer.getSize().getY();
+        ByteBuffer view = layer.getDataView();
+        IntBuffer ints = bitsPerPixel == 32 ? view.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer() : null;
+        byte[] bytes = new byte[width];
+        int[] row = new int[width];
+        float[] values = new float[width];
+        boolean oneHot = LayerEncoding.Type.ONE_HOT.equals(encoding.getType());
+        float scale = oneHot ? 1.0f : scale(encoding, bitsPerPixel);
+        int classes = encoding.getChannels();
+
+        for (int y = 0; y < height; y++) {
+            if (ints != null) {
+                ints.position(y * width);
+                ints.get(row);
+            } else {
+                layer.unpackRow(view, y, bytes, 0);
+                for (int x = 0; x < width; x++) {
+                    row[x] = bytes[x] & 0xFF;
+                }
+            }
+
+            int pixel = y * width;
+            if (oneHot) {
+                for (int x = 0; x < width; x++, pixel++) {
+                    int offset = pixel * pixelStride;
+                    for (int c = 0; c < classes; c++) {
+                        sink.put(offset + (channel + c) * channelStride, c == row[x] ? 1.0f : 0.0f);
+                    }
+                }
+            } else {
+                for (int x = 0; x < width; x++) {
+                    values[x] = row[x] * scale;
+                }
+                sink.putRow(channel * channelStride + pixel * pixelStride, values, width, pixelStride);
+            }
+        }
+    }
+
+    private static float scale(LayerEncoding encoding, int bitsPerPixel) {
+        switch (encoding.getType()) {
+            case NORMALIZED:
+                if (bitsPerPixel == 32) {
+                    throw new IllegalArgumentException("32 bit layers cannot be normalized, use scaled encoding");
+                }
+                return bitsPerPixel == 1 ? 1.0f : 1.0f / 255.0f;
+            case SCALED:
+                return encoding.getScale();
+            default:
+                return 1.0f;
+        }
+    }
+}
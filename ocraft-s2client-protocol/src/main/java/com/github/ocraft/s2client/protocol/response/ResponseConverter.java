@@ -27,12 +27,28 @@ package com.github.ocraft.s2client.protocol.response;
  */
 
 import SC2APIProtocol.Sc2Api;
+import com.github.ocraft.s2client.protocol.ObservationProjection;
 
 import java.util.function.Function;
 
 import static com.github.ocraft.s2client.protocol.Preconditions.require;
 
 public class ResponseConverter implements Function<Sc2Api.Response, Response> {
+
+    private final ObservationProjection projection;
+
+    public ResponseConverter() {
+        this(ObservationProjection.all());
+    }
+
+    /**
+     * @param projection projection the observation responses were parsed with
+     */
+    public ResponseConverter(ObservationProjection projection) {
+        require("observation projection", projection);
+        this.projection = projection;
+    }
+
     @Override
     public Response apply(Sc2Api.Response sc2ApiResponse) {
         require("sc2api response", sc2ApiResponse);
@@ -67,7 +83,7 @@ public class ResponseConverter implements Function<Sc2Api.Response, Response> {
             return ResponseReplayInfo.from(sc2ApiResponse);
         }
         if (sc2ApiResponse.hasObservation()) {
-            return ResponseObservation.from(sc2ApiResponse);
+            return ResponseObservation.from(sc2ApiResponse, projection);
         }
         if (sc2ApiResponse.hasStep()) {
             return ResponseStep.from(sc2ApiResponse);
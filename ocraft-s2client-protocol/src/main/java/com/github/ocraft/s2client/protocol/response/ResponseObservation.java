@@ -27,6 +27,8 @@ package com.github.ocraft.s2client.protocol.response;
  */
 
 import SC2APIProtocol.Sc2Api;
+import com.github.ocraft.s2client.protocol.Lazy;
+import com.github.ocraft.s2client.protocol.ObservationProjection;
 import com.github.ocraft.s2client.protocol.Strings;
 import com.github.ocraft.s2client.protocol.action.Action;
 import com.github.ocraft.s2client.protocol.action.ActionError;
@@ -45,34 +47,44 @@ import static com.github.ocraft.s2client.protocol.Preconditions.isSet;
 import static java.util.stream.Collectors.collectingAndThen;
 import static java.util.stream.Collectors.toList;
 
+/**
+ * Only the observation header is converted eagerly. Actions, action errors, player results, chat and the heavy
+ * observation sections (units, score, spatial layers, ui) are decoded from the sc2api response on first access.
+ */
 public final class ResponseObservation extends Response {
 
     private static final long serialVersionUID = 8195090336161172691L;
 
-    private final List<Action> actions;
-    private final List<ActionError> actionErrors;
+    private final Lazy<List<Action>> actions;
+    private final Lazy<List<ActionError>> actionErrors;
     private final Observation observation;
-    private final List<PlayerResult> playerResults;
-    private final List<ChatReceived> chat;
-
-    private ResponseObservation(Sc2Api.ResponseObservation sc2ApiResponseObservation, Sc2Api.Status status, int id) {
+    private final Lazy<List<PlayerResult>> playerResults;
+    private final Lazy<List<ChatReceived>> chat;
+
+    private ResponseObservation(
+            Sc2Api.ResponseObservation sc2ApiResponseObservation,
+            Sc2Api.Status status,
+            int id,
+            ObservationProjection projection) {
         super(ResponseType.OBSERVATION, GameStatus.from(status), id);
 
-        this.actions = sc2ApiResponseObservation.getActionsList().stream()
+        this.actions = Lazy.of(() -> sc2ApiResponseObservation.getActionsList().stream()
                 .filter(actionIsValid()).map(Action::from)
-                .collect(collectingAndThen(toList(), Collections::unmodifiableList));
+                .collect(collectingAndThen(toList(), Collections::unmodifiableList)));
 
-        this.actionErrors = sc2ApiResponseObservation.getActionErrorsList().stream()
+        this.actionErrors = Lazy.of(() -> sc2ApiResponseObservation.getActionErrorsList().stream()
                 .map(ActionError::from)
-                .collect(collectingAndThen(toList(), Collections::unmodifiableList));
+                .collect(collectingAndThen(toList(), Collections::unmodifiableList)));
         this.observation = tryGet(
                 Sc2Api.ResponseObservation::getObservation, Sc2Api.ResponseObservation::hasObservation
-        ).apply(sc2ApiResponseObservation).map(Observation::from).orElseThrow(required("observation"));
-        this.playerResults = sc2ApiResponseObservation.getPlayerResultList().stream()
+        ).apply(sc2ApiResponseObservation)
+                .map(sc2ApiObservation -> Observation.from(sc2ApiObservation, projection))
+                .orElseThrow(required("observation"));
+        this.playerResults = Lazy.of(() -> sc2ApiResponseObservation.getPlayerResultList().stream()
                 .map(PlayerResult::from)
-                .collect(collectingAndThen(toList(), Collections::unmodifiableList));
-        this.chat = sc2ApiResponseObservation.getChatList().stream().map(ChatReceived::from)
-                .collect(collectingAndThen(toList(), Collections::unmodifiableList));
+                .collect(collectingAndThen(toList(), Collections::unmodifiableList)));
+        this.chat = Lazy.of(() -> sc2ApiResponseObservation.getChatList().stream().map(ChatReceived::from)
+                .collect(collectingAndThen(toList(), Collections::unmodifiableList)));
     }
 
     private Predicate<Sc2Api.Action> actionIsValid() {
@@ -85,13 +97,22 @@ public final class ResponseObservation extends Response {
     }
 
     public static ResponseObservation from(Sc2Api.Response sc2ApiResponse) {
+        return from(sc2ApiResponse, ObservationProjection.all());
+    }
+
+    /**
+     * Converts a response parsed with the given projection (see {@link Observation#from(Sc2Api.Observation,
+     * ObservationProjection)}).
+     */
+    public static ResponseObservation from(Sc2Api.Response sc2ApiResponse, ObservationProjection projection) {
         if (!hasObservationResponse(sc2ApiResponse)) {
             throw new IllegalArgumentException("provided argument doesn't have observation response");
         }
         return new ResponseObservation(
                 sc2ApiResponse.getObservation(),
                 sc2ApiResponse.getStatus(),
-                sc2ApiResponse.getId());
+                sc2ApiResponse.getId(),
+                projection);
     }
 
     private static boolean hasObservationResponse(Sc2Api.Response sc2ApiResponse) {
@@ -99,11 +120,11 @@ public final class ResponseObservation extends Response {
     }
 
     public List<Action> getActions() {
-        return actions;
+        return actions.get();
     }
 
     public List<ActionError> getActionErrors() {
-        return actionErrors;
+        return actionErrors.get();
     }
 
     public Observation getObservation() {
@@ -111,11 +132,11 @@ public final class ResponseObservation extends Response {
     }
 
     public List<PlayerResult> getPlayerResults() {
-        return playerResults;
+        return playerResults.get();
     }
 
     public List<ChatReceived> getChat() {
-        return chat;
+        return chat.get();
     }
 
     @Override
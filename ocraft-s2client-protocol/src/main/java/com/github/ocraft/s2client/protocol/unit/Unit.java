@@ -28,6 +28,7 @@ package com.github.ocraft.s2client.protocol.unit;
 
 import SC2APIProtocol.Raw;
 import com.github.ocraft.s2client.protocol.Strings;
+import com.github.ocraft.s2client.protocol.data.AbilityRemap;
 import com.github.ocraft.s2client.protocol.data.Ability;
 import com.github.ocraft.s2client.protocol.data.UnitType;
 import com.github.ocraft.s2client.protocol.data.Units;
@@ -52,8 +53,8 @@ public final class Unit extends UnitSnapshot {
     private final float radius;
     private final float buildProgress;  // Range: [0.0, 1.0]
 
-    private Unit(Raw.Unit sc2ApiUnit) {
-        super(sc2ApiUnit);
+    private Unit(Raw.Unit sc2ApiUnit, AbilityRemap abilityRemap) {
+        super(sc2ApiUnit, abilityRemap);
 
         tag = tryGet(Raw.Unit::getTag, Raw.Unit::hasTag).apply(sc2ApiUnit).map(Tag::from).orElseThrow(required("tag"));
 
@@ -84,8 +85,17 @@ public final class Unit extends UnitSnapshot {
     }
 
     public static Unit from(Raw.Unit sc2ApiUnit) {
+        return from(sc2ApiUnit, AbilityRemap.identity());
+    }
+
+    /**
+     * Decodes the unit with abilities of its orders already generalized, which is cheaper than decoding it and
+     * calling {@link #generalizeAbility(UnaryOperator)}.
+     */
+    public static Unit from(Raw.Unit sc2ApiUnit, AbilityRemap abilityRemap) {
         require("sc2api unit", sc2ApiUnit);
-        return new Unit(sc2ApiUnit);
+        require("ability remap", abilityRemap);
+        return new Unit(sc2ApiUnit, abilityRemap);
     }
 
     public Tag getTag() {
@@ -31,6 +31,7 @@ import com.github.ocraft.s2client.protocol.GeneralizableAbility;
 import com.github.ocraft.s2client.protocol.Strings;
 import com.github.ocraft.s2client.protocol.data.Abilities;
 import com.github.ocraft.s2client.protocol.data.Ability;
+import com.github.ocraft.s2client.protocol.data.AbilityRemap;
 import com.github.ocraft.s2client.protocol.spatial.Point;
 
 import java.io.Serializable;
@@ -51,9 +52,10 @@ public final class UnitOrder implements Serializable, GeneralizableAbility<UnitO
     private final Point targetedWorldSpacePosition;
     private final Float progress; // Progress of train abilities. Range: [0.0, 1.0]
 
-    private UnitOrder(Raw.UnitOrder sc2ApiUnitOrder) {
+    private UnitOrder(Raw.UnitOrder sc2ApiUnitOrder, AbilityRemap abilityRemap) {
         ability = tryGet(Raw.UnitOrder::getAbilityId, Raw.UnitOrder::hasAbilityId)
-                .apply(sc2ApiUnitOrder).map(Abilities::from).orElseThrow(required("ability"));
+                .apply(sc2ApiUnitOrder).map(abilityRemap::remap).map(Abilities::from)
+                .orElseThrow(required("ability"));
 
         targetedUnitTag = tryGet(Raw.UnitOrder::getTargetUnitTag, Raw.UnitOrder::hasTargetUnitTag)
                 .apply(sc2ApiUnitOrder).map(Tag::from).orElse(nothing());
@@ -74,8 +76,16 @@ public final class UnitOrder implements Serializable, GeneralizableAbility<UnitO
     }
 
     public static UnitOrder from(Raw.UnitOrder sc2ApiUnitOrder) {
+        return from(sc2ApiUnitOrder, AbilityRemap.identity());
+    }
+
+    /**
+     * Decodes the order with its ability already generalized.
+     */
+    public static UnitOrder from(Raw.UnitOrder sc2ApiUnitOrder, AbilityRemap abilityRemap) {
         require("sc2api unit order", sc2ApiUnitOrder);
-        return new UnitOrder(sc2ApiUnitOrder);
+        require("ability remap", abilityRemap);
+        return new UnitOrder(sc2ApiUnitOrder, abilityRemap);
     }
 
     public Ability getAbility() {
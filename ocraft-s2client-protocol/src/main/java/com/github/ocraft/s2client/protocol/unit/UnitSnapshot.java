@@ -30,6 +30,7 @@ import SC2APIProtocol.Raw;
 import com.github.ocraft.s2client.protocol.GeneralizableAbility;
 import com.github.ocraft.s2client.protocol.Strings;
 import com.github.ocraft.s2client.protocol.data.Ability;
+import com.github.ocraft.s2client.protocol.data.AbilityRemap;
 import com.github.ocraft.s2client.protocol.data.Buff;
 import com.github.ocraft.s2client.protocol.data.Buffs;
 import com.github.ocraft.s2client.protocol.spatial.Point;
@@ -93,7 +94,7 @@ public class UnitSnapshot implements Serializable, GeneralizableAbility<UnitSnap
     private final Integer buffDurationRemain;
     private final Integer buffDurationMax;
 
-    UnitSnapshot(Raw.Unit sc2ApiUnit) {
+    UnitSnapshot(Raw.Unit sc2ApiUnit, AbilityRemap abilityRemap) {
         displayType = tryGet(Raw.Unit::getDisplayType, Raw.Unit::hasDisplayType)
                 .apply(sc2ApiUnit).map(DisplayType::from).orElseThrow(required("display type"));
 
@@ -157,7 +158,7 @@ public class UnitSnapshot implements Serializable, GeneralizableAbility<UnitSnap
         hallucination = tryGet(Raw.Unit::getIsHallucination, Raw.Unit::hasIsHallucination).apply(sc2ApiUnit)
                 .orElse(nothing());
 
-        orders = sc2ApiUnit.getOrdersList().stream().map(UnitOrder::from)
+        orders = sc2ApiUnit.getOrdersList().stream().map(order -> UnitOrder.from(order, abilityRemap))
                 .collect(collectingAndThen(toList(), Collections::unmodifiableList));
 
         addOnTag = tryGet(Raw.Unit::getAddOnTag, Raw.Unit::hasAddOnTag)
@@ -235,7 +236,7 @@ public class UnitSnapshot implements Serializable, GeneralizableAbility<UnitSnap
 
     public static UnitSnapshot from(Raw.Unit sc2ApiUnit) {
         require("sc2api unit", sc2ApiUnit);
-        return new UnitSnapshot(sc2ApiUnit);
+        return new UnitSnapshot(sc2ApiUnit, AbilityRemap.identity());
     }
 
     public DisplayType getDisplayType() {
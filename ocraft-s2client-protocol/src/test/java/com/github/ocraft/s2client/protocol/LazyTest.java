@@ -0,0 +1,108 @@
+package com.github.ocraft.s2client.protocol;
+
+/*-
+ * #%L
+ * ocraft-s2client-protocol
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class LazyTest {
+
+    @Test
+    void throwsExceptionWhenSupplierIsNull() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> Lazy.of(null))
+                .withMessage("supplier is required");
+    }
+
+    @Test
+    void computesValueOnceOnFirstAccess() {
+        AtomicInteger calls = new AtomicInteger();
+        Lazy<String> lazy = Lazy.of(() -> "value" + calls.incrementAndGet());
+
+        assertThat(lazy.isComputed()).as("computed before access").isFalse();
+        assertThat(calls).hasValue(0);
+
+        assertThat(lazy.get()).isEqualTo("value1");
+        assertThat(lazy.get()).isEqualTo("value1");
+        assertThat(lazy.isComputed()).as("computed after access").isTrue();
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void computesValueWithAlternativeSupplierIfNotComputedYet() {
+        Lazy<String> lazy = Lazy.of(() -> "value");
+
+        assertThat(lazy.get(() -> "alternative")).isEqualTo("alternative");
+        assertThat(lazy.get(() -> "other")).isEqualTo("alternative");
+        assertThat(lazy.get()).isEqualTo("alternative");
+        assertThat(Lazy.value("value").get(() -> "alternative")).isEqualTo("value");
+    }
+
+    @Test
+    void cachesNullValue() {
+        AtomicInteger calls = new AtomicInteger();
+        Lazy<String> lazy = Lazy.of(() -> {
+            calls.incrementAndGet();
+            return null;
+        });
+
+        assertThat(lazy.get()).isNull();
+        assertThat(lazy.get()).isNull();
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void comparesComputedValues() {
+        assertThat(Lazy.of(() -> "value")).isEqualTo(Lazy.value("value")).hasSameHashCodeAs(Lazy.value("value"));
+        assertThat(Lazy.of(() -> "value")).isNotEqualTo(Lazy.value("other"));
+        assertThat(Lazy.value(null)).isEqualTo(Lazy.of(() -> null));
+    }
+
+    @Test
+    void serializesComputedValue() throws IOException, ClassNotFoundException {
+        Lazy<String> lazy = Lazy.of(() -> "value");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(lazy);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            Object deserialized = in.readObject();
+            assertThat(deserialized).isEqualTo(lazy);
+            assertThat(((Lazy<?>) deserialized).isComputed()).isTrue();
+        }
+    }
+}
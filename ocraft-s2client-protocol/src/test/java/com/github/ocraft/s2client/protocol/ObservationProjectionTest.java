@@ -0,0 +1,125 @@
+package com.github.ocraft.s2client.protocol;
+
+/*-
+ * #%L
+ * ocraft-s2client-protocol
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import SC2APIProtocol.Raw;
+import SC2APIProtocol.Sc2Api;
+import com.github.ocraft.s2client.protocol.observation.ObservationSection;
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+import static com.github.ocraft.s2client.protocol.Fixtures.sc2ApiResponseWithObservation;
+import static com.github.ocraft.s2client.protocol.Fixtures.sc2ApiResponseWithPing;
+import static com.github.ocraft.s2client.protocol.Fixtures.sc2ApiUnit;
+import static com.github.ocraft.s2client.protocol.observation.ObservationSection.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class ObservationProjectionTest {
+
+    @Test
+    void throwsExceptionWhenSectionsAreNull() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> ObservationProjection.of((ObservationSection[]) null))
+                .withMessage("sections is required");
+    }
+
+    @Test
+    void includesAllSectionsByDefault() {
+        assertThat(ObservationProjection.all().getSections()).containsOnly(ObservationSection.values());
+        assertThat(ObservationProjection.of(ObservationSection.values())).isSameAs(ObservationProjection.all());
+        assertThat(ObservationProjection.all().includesAll()).isTrue();
+        assertThat(ObservationProjection.of(UNITS).includesAll()).isFalse();
+    }
+
+    @Test
+    void leavesResponseUntouchedWhenAllSectionsAreIncluded() {
+        byte[] responseBytes = sc2ApiResponseWithObservation().toByteArray();
+
+        assertThat(ObservationProjection.all().apply(responseBytes)).isSameAs(responseBytes);
+    }
+
+    @Test
+    void leavesOtherResponsesUntouched() {
+        byte[] responseBytes = sc2ApiResponseWithPing().toByteArray();
+
+        assertThat(ObservationProjection.of(SCORE).apply(responseBytes)).isSameAs(responseBytes);
+    }
+
+    @Test
+    void removesSectionsLeftOut() throws InvalidProtocolBufferException {
+        Sc2Api.Response response = sc2ApiResponseWithObservation();
+
+        byte[] projected = ObservationProjection.of(SCORE).apply(response.toByteArray());
+
+        Sc2Api.Response.Builder expected = response.toBuilder();
+        expected.getObservationBuilder().clearChat();
+        expected.getObservationBuilder().getObservationBuilder()
+                .clearFeatureLayerData()
+                .clearRenderData()
+                .clearUiData()
+                .getRawDataBuilder()
+                .clearUnits()
+                .clearMapState()
+                .clearEffects();
+        assertThat(Sc2Api.Response.parseFrom(projected)).isEqualTo(expected.build());
+    }
+
+    @Test
+    void keepsRequestedSectionsOnly() throws InvalidProtocolBufferException {
+        Sc2Api.Response response = sc2ApiResponseWithObservation();
+
+        byte[] projected = ObservationProjection.of(EnumSet.complementOf(EnumSet.of(SCORE, UI)))
+                .apply(response.toByteArray());
+
+        Sc2Api.Response.Builder expected = response.toBuilder();
+        expected.getObservationBuilder().getObservationBuilder().clearScore().clearUiData();
+        assertThat(Sc2Api.Response.parseFrom(projected)).isEqualTo(expected.build());
+    }
+
+    @Test
+    void separatesUnitsFromSnapshots() throws InvalidProtocolBufferException {
+        Raw.Unit unit = sc2ApiUnit();
+        Raw.Unit snapshot = sc2ApiUnit().toBuilder().clearTag().build();
+        Sc2Api.Response.Builder response = sc2ApiResponseWithObservation().toBuilder();
+        response.getObservationBuilder().getObservationBuilder().getRawDataBuilder()
+                .clearUnits()
+                .addUnits(snapshot)
+                .addUnits(unit);
+
+        assertThat(rawUnitsOf(ObservationProjection.of(UNITS).apply(response.build().toByteArray())))
+                .containsOnly(unit);
+        assertThat(rawUnitsOf(ObservationProjection.of(UNIT_SNAPSHOTS).apply(response.build().toByteArray())))
+                .containsOnly(snapshot);
+    }
+
+    private static Iterable<Raw.Unit> rawUnitsOf(byte[] responseBytes) throws InvalidProtocolBufferException {
+        return Sc2Api.Response.parseFrom(responseBytes).getObservation().getObservation().getRawData().getUnitsList();
+    }
+}
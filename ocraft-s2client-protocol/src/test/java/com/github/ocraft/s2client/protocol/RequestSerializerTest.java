@@ -27,10 +27,15 @@ package com.github.ocraft.s2client.protocol;
  */
 
 import SC2APIProtocol.Sc2Api;
+import com.github.ocraft.s2client.protocol.request.Request;
 import com.github.ocraft.s2client.protocol.request.RequestPing;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static com.github.ocraft.s2client.protocol.Constants.nothing;
+import static com.github.ocraft.s2client.protocol.request.Requests.nextStep;
+import static com.github.ocraft.s2client.protocol.request.Requests.observation;
 import static com.github.ocraft.s2client.protocol.request.Requests.ping;
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -57,4 +62,26 @@ class RequestSerializerTest {
         assertThat(Sc2Api.Request.parseFrom(serializedRequest)).isEqualTo(initialRequest);
     }
 
+    @Test
+    void serializesPerStepRequestsFromTemplates() {
+        List<Request> requests = List.of(
+                ping(), ping(), nextStep().build(), nextStep().withCount(4).build(), nextStep().withCount(4).build(),
+                observation().build(), observation().disableFog().build(), observation().build());
+
+        requests.forEach(request -> assertThat(new RequestSerializer().apply(request))
+                .as("serialized %s", request)
+                .isEqualTo(regularSerialization(request)));
+    }
+
+    @Test
+    void serializesDynamicRequestsWithoutTemplate() {
+        Request request = observation().gameLoop(100).build();
+
+        assertThat(new RequestSerializer().apply(request)).isEqualTo(regularSerialization(request));
+    }
+
+    private byte[] regularSerialization(Request request) {
+        return request.toSc2Api().toBuilder().setId(request.getId()).build().toByteArray();
+    }
+
 }
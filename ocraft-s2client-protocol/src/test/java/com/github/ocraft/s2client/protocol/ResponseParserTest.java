@@ -0,0 +1,101 @@
+package com.github.ocraft.s2client.protocol;
+
+/*-
+ * #%L
+ * ocraft-s2client-protocol
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import SC2APIProtocol.Sc2Api;
+import com.github.ocraft.s2client.protocol.observation.Observation;
+import com.github.ocraft.s2client.protocol.observation.raw.ObservationRaw;
+import com.github.ocraft.s2client.protocol.observation.spatial.ImageData;
+import com.github.ocraft.s2client.protocol.response.ResponseObservation;
+import com.github.ocraft.s2client.protocol.response.ResponsePing;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static com.github.ocraft.s2client.protocol.Fixtures.sc2ApiResponseWithObservation;
+import static com.github.ocraft.s2client.protocol.Fixtures.sc2ApiResponseWithPing;
+import static com.github.ocraft.s2client.protocol.observation.ObservationSection.SCORE;
+import static com.github.ocraft.s2client.protocol.observation.ObservationSection.UNITS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class ResponseParserTest {
+
+    @Test
+    void parsesResponseFromBytes() {
+        assertThat(new ResponseParser().apply(sc2ApiResponseWithPing().toByteArray()))
+                .isEqualTo(ResponsePing.from(sc2ApiResponseWithPing()));
+        assertThat(new ResponseParser().apply(sc2ApiResponseWithObservation().toByteArray()))
+                .isEqualTo(ResponseObservation.from(sc2ApiResponseWithObservation()));
+    }
+
+    @Test
+    void referencesImageDataInsteadOfCopyingIt() {
+        byte[] responseBytes = sc2ApiResponseWithObservation().toByteArray();
+        ResponseObservation response = (ResponseObservation) new ResponseParser().apply(responseBytes);
+
+        Arrays.fill(responseBytes, (byte) 0);
+
+        ImageData map = response.getObservation().getRender().orElseThrow(AssertionError::new).getMap();
+        assertThat(map.getData()).containsOnly((byte) 0);
+    }
+
+    @Test
+    void skipsObservationSectionsLeftOutByProjection() {
+        ResponseObservation response = (ResponseObservation) new ResponseParser(ObservationProjection.of(UNITS))
+                .apply(sc2ApiResponseWithObservation().toByteArray());
+
+        Observation observation = response.getObservation();
+        assertThat(observation.getRaw().map(ObservationRaw::getUnits)).as("units").hasValueSatisfying(
+                units -> assertThat(units).isNotEmpty());
+        assertThat(observation.getRaw().flatMap(ObservationRaw::findMapState)).as("map state").isEmpty();
+        assertThat(observation.getScore()).as("score").isEmpty();
+        assertThat(observation.getFeatureLayer()).as("feature layer").isEmpty();
+        assertThat(response.getChat()).as("chat").isEmpty();
+        assertThat(response.getActions()).as("actions").isNotEmpty();
+    }
+
+    @Test
+    void acceptsObservationWithoutInterfaceDataLeftByProjection() {
+        Sc2Api.Response.Builder response = sc2ApiResponseWithObservation().toBuilder();
+        response.getObservationBuilder().getObservationBuilder().clearRawData();
+
+        ResponseObservation observation = (ResponseObservation) new ResponseParser(ObservationProjection.of(SCORE))
+                .apply(response.build().toByteArray());
+
+        assertThat(observation.getObservation().getRaw()).as("raw").isEmpty();
+        assertThat(observation.getObservation().getFeatureLayer()).as("feature layer").isEmpty();
+        assertThat(observation.getObservation().getRender()).as("render").isEmpty();
+        assertThat(observation.getObservation().getScore()).as("score").isNotEmpty();
+    }
+
+    @Test
+    void throwsExceptionForCorruptedData() {
+        assertThatExceptionOfType(ProtocolException.class)
+                .isThrownBy(() -> new ResponseParser().apply(new byte[]{(byte) 0xFF, (byte) 0xFF}));
+    }
+}
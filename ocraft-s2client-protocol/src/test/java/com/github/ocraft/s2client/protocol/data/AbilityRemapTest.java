@@ -0,0 +1,96 @@
+package com.github.ocraft.s2client.protocol.data;
+
+/*-
+ * #%L
+ * ocraft-s2client-protocol
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import SC2APIProtocol.Data;
+import com.github.ocraft.s2client.protocol.unit.Unit;
+import com.github.ocraft.s2client.protocol.unit.UnitOrder;
+import nl.jqno.equalsverifier.EqualsVerifier;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.github.ocraft.s2client.protocol.Constants.nothing;
+import static com.github.ocraft.s2client.protocol.Fixtures.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class AbilityRemapTest {
+
+    private static final Ability STORM = Abilities.from(PSI_STORM_ABILITY_ID);
+
+    @Test
+    void throwsExceptionWhenAbilityDataIsNull() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> AbilityRemap.from(nothing()))
+                .withMessage("ability data is required");
+    }
+
+    @Test
+    void remapsAbilitiesToKnownGeneralizations() {
+        AbilityRemap remap = AbilityRemap.from(List.of(
+                AbilityData.from(sc2ApiAbilityData()),
+                AbilityData.from(abilityData(PSI_STORM_ABILITY_ID, 999_999)),
+                AbilityData.from(abilityData(1, 0).toBuilder().clearRemapsToAbilityId().build())));
+
+        assertThat(remap.remap(ABILITY_ID)).isEqualTo(ABILITY_REMAPS_TO_ID.getAbilityId());
+        assertThat(remap.apply(Abilities.from(ABILITY_ID))).isEqualTo(ABILITY_REMAPS_TO_ID);
+        assertThat(remap.apply(STORM)).as("remapped to unknown ability").isSameAs(STORM);
+        assertThat(remap.remap(1)).as("not remapped").isEqualTo(1);
+        assertThat(remap.remap(Integer.MAX_VALUE)).as("without data").isEqualTo(Integer.MAX_VALUE);
+        assertThat(remap.apply(null)).isNull();
+        assertThat(remap.isIdentity()).isFalse();
+    }
+
+    @Test
+    void providesIdentity() {
+        assertThat(AbilityRemap.identity().isIdentity()).isTrue();
+        assertThat(AbilityRemap.identity().apply(STORM)).isSameAs(STORM);
+        assertThat(AbilityRemap.from(List.of()).isIdentity()).isTrue();
+    }
+
+    @Test
+    void generalizesOrdersWhileDecoding() {
+        AbilityRemap remap = AbilityRemap.from(List.of(
+                AbilityData.from(abilityData(PSI_STORM_ABILITY_ID, ABILITY_REMAPS_TO_ID.getAbilityId()))));
+
+        assertThat(UnitOrder.from(sc2ApiUnitOrder(), remap))
+                .isEqualTo(UnitOrder.from(sc2ApiUnitOrder()).generalizeAbility(remap));
+        assertThat(Unit.from(sc2ApiUnit(), remap)).isEqualTo(Unit.from(sc2ApiUnit()).generalizeAbility(remap));
+        assertThat(Unit.from(sc2ApiUnit(), remap).getOrders()).extracting(UnitOrder::getAbility)
+                .containsOnly(ABILITY_REMAPS_TO_ID);
+    }
+
+    @Test
+    void fulfillsEqualsContract() {
+        EqualsVerifier.forClass(AbilityRemap.class).withIgnoredFields("identity").verify();
+    }
+
+    private static Data.AbilityData abilityData(int abilityId, int remapsToAbilityId) {
+        return sc2ApiAbilityData().toBuilder().setAbilityId(abilityId).setRemapsToAbilityId(remapsToAbilityId).build();
+    }
+}
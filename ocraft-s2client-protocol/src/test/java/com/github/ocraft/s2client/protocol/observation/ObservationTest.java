@@ -26,7 +26,10 @@ package com.github.ocraft.s2client.protocol.observation;
  * #L%
  */
 
+import SC2APIProtocol.Common;
+import SC2APIProtocol.Raw;
 import SC2APIProtocol.Sc2Api;
+import com.github.ocraft.s2client.protocol.ObservationProjection;
 import com.github.ocraft.s2client.protocol.unit.UnitInfo;
 import com.google.protobuf.ByteString;
 import nl.jqno.equalsverifier.EqualsVerifier;
@@ -108,16 +111,37 @@ class ObservationTest {
                 .withMessage("one of interfaces is required");
     }
 
+    @Test
+    void doesNotRequireInterfacesWhenProjectionLeftThemOut() {
+        Sc2Api.Observation sc2ApiObservation = without(
+                () -> sc2ApiObservation().toBuilder(),
+                Sc2Api.Observation.Builder::clearRawData,
+                Sc2Api.Observation.Builder::clearFeatureLayerData,
+                Sc2Api.Observation.Builder::clearRenderData).build();
+
+        assertThat(Observation.from(sc2ApiObservation, ObservationProjection.of(ObservationSection.RENDER))
+                .getFeatureLayer()).as("observation: projected feature layer").isEmpty();
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> Observation.from(sc2ApiObservation, ObservationProjection.all()))
+                .withMessage("one of interfaces is required");
+    }
+
     @Test
     void fulfillsEqualsContract() throws UnsupportedEncodingException {
         EqualsVerifier
                 .forClass(Observation.class)
-                .withNonnullFields("playerCommon", "alerts", "availableAbilities")
+                .withNonnullFields(
+                        "playerCommon", "alerts", "availableAbilities", "score", "raw", "featureLayer", "render", "ui")
                 .withPrefabValues(UnitInfo.class, UnitInfo.from(sc2ApiUnitInfoAddOn()), UnitInfo.from(sc2ApiUnitInfo()))
                 .withPrefabValues(
                         ByteString.class,
                         ByteString.copyFrom("test", "UTF-8"),
                         ByteString.copyFrom("test2", "UTF-8"))
+                .withPrefabValues(
+                        Common.ImageData.class,
+                        sc2ApiImageData(),
+                        sc2ApiImageData().toBuilder().setBitsPerPixel(1).build())
+                .withPrefabValues(Raw.Unit.class, sc2ApiUnit(), sc2ApiUnit().toBuilder().setTag(2L).build())
                 .verify();
     }
 }
@@ -35,6 +35,7 @@ import java.io.UnsupportedEncodingException;
 
 import static com.github.ocraft.s2client.protocol.Constants.nothing;
 import static com.github.ocraft.s2client.protocol.Fixtures.sc2ApiObservationRaw;
+import static com.github.ocraft.s2client.protocol.Fixtures.sc2ApiUnit;
 import static com.github.ocraft.s2client.protocol.Fixtures.without;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
@@ -57,6 +58,7 @@ class ObservationRawTest {
         assertThat(observation.getPlayer()).as("observation raw: player").isNotNull();
         assertThat(observation.getUnits()).as("observation raw: units").isNotEmpty();
         assertThat(observation.getMapState()).as("observation raw: map state").isNotNull();
+        assertThat(observation.findMapState()).as("observation raw: optional map state").isNotEmpty();
         assertThat(observation.getEvent()).as("observation raw: event").isNotEmpty();
         assertThat(observation.getEffects()).as("observation raw: effects").isNotEmpty();
     }
@@ -77,12 +79,20 @@ class ObservationRawTest {
         ).getUnits()).as("observation raw: empty unit set").isEmpty();
     }
 
+    @Test
+    void hasNoMapStateWhenNotProvided() {
+        assertThat(ObservationRaw.from(
+                without(() -> sc2ApiObservationRaw().toBuilder(), Raw.ObservationRaw.Builder::clearMapState).build()
+        ).findMapState()).as("observation raw: empty map state").isEmpty();
+    }
+
     @Test
     void throwsExceptionWhenMapStateIsNotProvided() {
+        ObservationRaw observation = ObservationRaw.from(
+                without(() -> sc2ApiObservationRaw().toBuilder(), Raw.ObservationRaw.Builder::clearMapState).build());
+
         assertThatExceptionOfType(IllegalArgumentException.class)
-                .isThrownBy(() -> ObservationRaw.from(without(
-                        () -> sc2ApiObservationRaw().toBuilder(),
-                        Raw.ObservationRaw.Builder::clearMapState).build()))
+                .isThrownBy(observation::getMapState)
                 .withMessage("map state is required");
     }
 
@@ -93,15 +103,28 @@ class ObservationRawTest {
         ).getEffects()).as("observation raw: empty effect set").isEmpty();
     }
 
+    @Test
+    void decodesUnitsOnFirstAccess() {
+        ObservationRaw observation = ObservationRaw.from(sc2ApiObservationRaw().toBuilder()
+                .addUnits(sc2ApiUnit().toBuilder().clearUnitType())
+                .build());
+
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(observation::getUnits)
+                .withMessage("unit type is required");
+    }
+
     @Test
     void fulfillsEqualsContract() throws UnsupportedEncodingException {
         EqualsVerifier
                 .forClass(ObservationRaw.class)
-                .withNonnullFields("player", "units", "unitSnapshots", "mapState", "effects")
+                .withNonnullFields("player", "units", "unitSnapshots", "mapState", "event", "effects")
+                .withIgnoredFields("unitColumns", "sc2ApiUnits", "remappedUnits")
                 .withPrefabValues(
                         ByteString.class,
                         ByteString.copyFrom("test", "UTF-8"),
                         ByteString.copyFrom("test2", "UTF-8"))
+                .withPrefabValues(Raw.Unit.class, sc2ApiUnit(), sc2ApiUnit().toBuilder().setTag(2L).build())
                 .verify();
     }
 }
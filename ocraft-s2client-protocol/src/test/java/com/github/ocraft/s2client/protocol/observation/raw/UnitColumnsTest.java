@@ -0,0 +1,149 @@
+package com.github.ocraft.s2client.protocol.observation.raw;
+
+/*-
+ * #%L
+ * ocraft-s2client-protocol
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import SC2APIProtocol.Raw;
+import com.github.ocraft.s2client.protocol.unit.Alliance;
+import com.github.ocraft.s2client.protocol.unit.CloakState;
+import com.github.ocraft.s2client.protocol.unit.DisplayType;
+import com.github.ocraft.s2client.protocol.unit.Tag;
+import com.github.ocraft.s2client.protocol.unit.Unit;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.github.ocraft.s2client.protocol.Constants.nothing;
+import static com.github.ocraft.s2client.protocol.Fixtures.sc2ApiObservationRaw;
+import static com.github.ocraft.s2client.protocol.Fixtures.sc2ApiUnit;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class UnitColumnsTest {
+
+    @Test
+    void throwsExceptionWhenSc2ApiUnitsAreNull() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> UnitColumns.from(nothing()))
+                .withMessage("sc2api units is required");
+    }
+
+    @Test
+    void throwsExceptionWhenUnitTypeIsNotProvided() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> UnitColumns.from(List.of(sc2ApiUnit().toBuilder().clearUnitType().build())))
+                .withMessage("unit type is required");
+    }
+
+    @Test
+    void convertsSameValuesAsUnit() {
+        Raw.Unit sc2ApiUnit = sc2ApiUnit();
+        Unit unit = Unit.from(sc2ApiUnit);
+
+        UnitColumns columns = UnitColumns.from(List.of(sc2ApiUnit));
+
+        assertThat(columns.size()).isEqualTo(1);
+        assertThat(columns.getTag(0)).isEqualTo(unit.getTag());
+        assertThat(columns.getUnitType(0)).isEqualTo(unit.getType());
+        assertThat(columns.getOwner(0)).isEqualTo(unit.getOwner());
+        assertThat(columns.getAlliance(0)).isEqualTo(unit.getAlliance());
+        assertThat(columns.getDisplayType(0)).isEqualTo(unit.getDisplayType());
+        assertThat(columns.getCloakState(0)).isEqualTo(unit.getCloakState().orElse(nothing()));
+        assertThat(columns.getX(0)).isEqualTo(unit.getPosition().getX());
+        assertThat(columns.getY(0)).isEqualTo(unit.getPosition().getY());
+        assertThat(columns.getZ(0)).isEqualTo(unit.getPosition().getZ());
+        assertThat(columns.getFacing(0)).isEqualTo(unit.getFacing());
+        assertThat(columns.getRadius(0)).isEqualTo(unit.getRadius());
+        assertThat(columns.getBuildProgress(0)).isEqualTo(unit.getBuildProgress());
+        assertThat(columns.getHealth(0)).isEqualTo(unit.getHealth().orElse(nothing()));
+        assertThat(columns.getHealthMax(0)).isEqualTo(unit.getHealthMax().orElse(nothing()));
+        assertThat(columns.getShield(0)).isEqualTo(unit.getShield().orElse(nothing()));
+        assertThat(columns.getEnergy(0)).isEqualTo(unit.getEnergy().orElse(nothing()));
+        assertThat(columns.getMineralContents(0)).isEqualTo(unit.getMineralContents().orElse(nothing()));
+        assertThat(columns.getOrderCount(0)).isEqualTo(unit.getOrders().size());
+        assertThat(columns.is(0, UnitColumns.FLYING)).isEqualTo(unit.getFlying().orElse(nothing()));
+        assertThat(columns.is(0, UnitColumns.BURROWED)).isEqualTo(unit.getBurrowed().orElse(nothing()));
+        assertThat(columns.is(0, UnitColumns.ON_SCREEN)).isEqualTo(unit.isOnScreen());
+    }
+
+    @Test
+    void skipsSnapshotsAndUsesDefaultsForMissingValues() {
+        Raw.Unit cloaked = Raw.Unit.newBuilder().setTag(2L).setUnitType(sc2ApiUnit().getUnitType()).build();
+        Raw.Unit snapshot = sc2ApiUnit().toBuilder().clearTag().build();
+
+        UnitColumns columns = UnitColumns.from(List.of(snapshot, cloaked));
+
+        assertThat(columns.size()).isEqualTo(1);
+        assertThat(columns.getTagValue(0)).isEqualTo(2L);
+        assertThat(columns.getOwner(0)).isEqualTo(Unit.CLOAKED);
+        assertThat(columns.getBuildProgress(0)).isEqualTo(Unit.CLOAKED);
+        assertThat(columns.getAlliance(0)).isNull();
+        assertThat(columns.getDisplayType(0)).isNull();
+        assertThat(columns.getCloakState(0)).isNull();
+        assertThat(columns.getHealth(0)).isZero();
+        assertThat(columns.getFlags(0)).isZero();
+    }
+
+    @Test
+    void selectsRowsMatchingPredicate() {
+        UnitColumns columns = UnitColumns.from(List.of(
+                unit(1L, Raw.Alliance.Enemy, 0, 0, 10, 100),
+                unit(2L, Raw.Alliance.Enemy, 0, 0, 90, 100),
+                unit(3L, Raw.Alliance.Self, 0, 0, 10, 100),
+                unit(4L, Raw.Alliance.Enemy, 50, 50, 10, 100)));
+
+        int[] rows = columns.select(row -> columns.getAlliance(row) == Alliance.ENEMY &&
+                columns.distanceSquared(row, 1, 1) < 25 &&
+                columns.getHealth(row) < columns.getHealthMax(row) / 2);
+
+        assertThat(rows).containsExactly(0);
+        assertThat(columns.rowOf(4L)).isEqualTo(3);
+        assertThat(columns.rowOf(5L)).isEqualTo(-1);
+    }
+
+    private static Raw.Unit unit(long tag, Raw.Alliance alliance, float x, float y, float health, float healthMax) {
+        return sc2ApiUnit().toBuilder()
+                .setTag(tag)
+                .setAlliance(alliance)
+                .setPos(sc2ApiUnit().getPos().toBuilder().setX(x).setY(y))
+                .setHealth(health)
+                .setHealthMax(healthMax)
+                .build();
+    }
+
+    @Test
+    void isProvidedByObservationRaw() {
+        ObservationRaw observationRaw = ObservationRaw.from(sc2ApiObservationRaw());
+
+        UnitColumns columns = observationRaw.getUnitColumns();
+
+        assertThat(columns.size()).isEqualTo(observationRaw.getUnits().size());
+        assertThat(columns.getTag(0)).isEqualTo(observationRaw.getUnits().iterator().next().getTag());
+        assertThat(columns.getDisplayType(0)).isEqualTo(DisplayType.VISIBLE);
+        assertThat(columns.getCloakState(0)).isEqualTo(CloakState.NOT_CLOAKED);
+        assertThat(Tag.of(columns.getTagValue(0))).isEqualTo(columns.getTag(0));
+    }
+}
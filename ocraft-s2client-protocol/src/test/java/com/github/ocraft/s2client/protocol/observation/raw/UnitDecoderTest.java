@@ -0,0 +1,207 @@
+package com.github.ocraft.s2client.protocol.observation.raw;
+
+/*-
+ * #%L
+ * ocraft-s2client-protocol
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import SC2APIProtocol.Raw;
+import com.github.ocraft.s2client.protocol.data.AbilityData;
+import com.github.ocraft.s2client.protocol.data.AbilityRemap;
+import com.github.ocraft.s2client.protocol.unit.Unit;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static com.github.ocraft.s2client.protocol.Constants.nothing;
+import static com.github.ocraft.s2client.protocol.Fixtures.sc2ApiAbilityData;
+import static com.github.ocraft.s2client.protocol.Fixtures.sc2ApiObservationRaw;
+import static com.github.ocraft.s2client.protocol.Fixtures.sc2ApiUnit;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class UnitDecoderTest {
+
+    @Test
+    void throwsExceptionWhenSc2ApiUnitsAreNull() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> new UnitDecoder().decode(nothing()))
+                .withMessage("sc2api units is required");
+    }
+
+    @Test
+    void reusesUnitsEqualToPreviousFrame() {
+        UnitDecoder decoder = new UnitDecoder();
+        Unit idle = single(decoder.decode(List.of(unit(1L, 1.0f))));
+
+        Set<Unit> units = decoder.decode(List.of(unit(1L, 1.0f)));
+
+        assertThat(units).hasSize(1);
+        assertThat(single(units)).isSameAs(idle);
+        assertThat(decoder.getDecodedCount()).isEqualTo(1);
+        assertThat(decoder.getReusedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void decodesChangedAndNewUnits() {
+        UnitDecoder decoder = new UnitDecoder();
+        Unit moving = single(decoder.decode(List.of(unit(1L, 1.0f))));
+
+        Set<Unit> units = decoder.decode(List.of(unit(1L, 2.0f), unit(2L, 1.0f)));
+
+        assertThat(units).hasSize(2).doesNotContain(moving).contains(Unit.from(unit(1L, 2.0f)));
+        assertThat(decoder.getDecodedCount()).isEqualTo(3);
+        assertThat(decoder.getReusedCount()).isZero();
+    }
+
+    @Test
+    void skipsUnitsWithoutTag() {
+        Set<Unit> units = new UnitDecoder().decode(List.of(sc2ApiUnit().toBuilder().clearTag().build()));
+
+        assertThat(units).isEmpty();
+    }
+
+    @Test
+    void forgetsPreviousFrameOnReset() {
+        UnitDecoder decoder = new UnitDecoder();
+        Unit unit = single(decoder.decode(List.of(unit(1L, 1.0f))));
+
+        decoder.reset();
+
+        assertThat(single(decoder.decode(List.of(unit(1L, 1.0f))))).isNotSameAs(unit).isEqualTo(unit);
+    }
+
+    @Test
+    void reusesOnlyUnchangedUnitsAcrossManyFrames() {
+        UnitDecoder decoder = new UnitDecoder();
+        Random random = new Random(7);
+        Map<Long, Unit> previous = new HashMap<>();
+        for (int frame = 0; frame < 20; frame++) {
+            List<Raw.Unit> sc2ApiUnits = new ArrayList<>();
+            for (long tag = 1; tag <= 300; tag++) {
+                if (random.nextInt(10) > 0) sc2ApiUnits.add(unit(tag, random.nextInt(3)));
+            }
+
+            Map<Long, Unit> current = new HashMap<>();
+            decoder.decode(sc2ApiUnits).forEach(unit -> current.put(unit.getTag().getValue(), unit));
+
+            assertThat(current).hasSize(sc2ApiUnits.size());
+            sc2ApiUnits.forEach(sc2ApiUnit -> {
+                Unit unit = current.get(sc2ApiUnit.getTag());
+                Unit previousUnit = previous.get(sc2ApiUnit.getTag());
+                assertThat(unit).isEqualTo(Unit.from(sc2ApiUnit));
+                if (unit.equals(previousUnit)) assertThat(unit).isSameAs(previousUnit);
+            });
+            previous.clear();
+            previous.putAll(current);
+        }
+    }
+
+    @Test
+    void isUsedByObservationRawToDecodeUnits() {
+        UnitDecoder decoder = new UnitDecoder();
+        Set<Unit> units = ObservationRaw.from(sc2ApiObservationRaw()).getUnits(decoder);
+
+        ObservationRaw observationRaw = ObservationRaw.from(sc2ApiObservationRaw());
+
+        assertThat(observationRaw.getUnits(decoder)).containsExactlyElementsOf(units);
+        assertThat(single(observationRaw.getUnits())).isSameAs(single(units));
+    }
+
+    @Test
+    void decodesUnitsWithGeneralizedAbilities() {
+        UnitDecoder decoder = new UnitDecoder();
+        AbilityRemap remap = generalizingRemap();
+        Unit observed = single(decoder.decode(List.of(unit(1L, 1.0f))));
+
+        decoder.setAbilityRemap(remap);
+        Unit generalized = single(decoder.decode(List.of(unit(1L, 1.0f))));
+
+        assertThat(generalized).isNotSameAs(observed).isEqualTo(observed.generalizeAbility(remap));
+        assertThat(single(decoder.decode(List.of(unit(1L, 1.0f))))).isSameAs(generalized);
+    }
+
+    @Test
+    void cachesUnitsWithGeneralizedAbilitiesApartInObservationRaw() {
+        UnitDecoder decoder = new UnitDecoder();
+        decoder.setAbilityRemap(generalizingRemap());
+        ObservationRaw observationRaw = ObservationRaw.from(sc2ApiObservationRaw());
+
+        Set<Unit> generalized = observationRaw.getUnits(decoder);
+
+        assertThat(generalized).isNotEqualTo(observationRaw.getUnits());
+        assertThat(observationRaw.getUnits(decoder)).isSameAs(generalized);
+        assertThat(decoder.getDecodedCount()).as("decoded units").isEqualTo(1);
+        assertThat(decoder.getReusedCount()).as("reused units").isZero();
+    }
+
+    @Test
+    void generalizesUnitsOfDeserializedObservationRaw() throws IOException, ClassNotFoundException {
+        UnitDecoder decoder = new UnitDecoder();
+        decoder.setAbilityRemap(generalizingRemap());
+        ObservationRaw observationRaw = ObservationRaw.from(sc2ApiObservationRaw());
+        Set<Unit> generalized = observationRaw.getUnits(decoder);
+
+        ObservationRaw deserialized = serializeAndDeserialize(observationRaw);
+
+        assertThat(deserialized.getUnits(decoder)).isEqualTo(generalized);
+        assertThat(deserialized.getUnits(new UnitDecoder())).isEqualTo(observationRaw.getUnits());
+    }
+
+    private static AbilityRemap generalizingRemap() {
+        return AbilityRemap.from(List.of(AbilityData.from(sc2ApiAbilityData().toBuilder()
+                .setAbilityId(sc2ApiUnit().getOrders(0).getAbilityId())
+                .build())));
+    }
+
+    private static ObservationRaw serializeAndDeserialize(ObservationRaw observationRaw)
+            throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(observationRaw);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (ObservationRaw) in.readObject();
+        }
+    }
+
+    private static Raw.Unit unit(long tag, float x) {
+        return sc2ApiUnit().toBuilder().setTag(tag).setPos(sc2ApiUnit().getPos().toBuilder().setX(x)).build();
+    }
+
+    private static Unit single(Set<Unit> units) {
+        assertThat(units).hasSize(1);
+        return units.iterator().next();
+    }
+}
@@ -0,0 +1,132 @@
+package com.github.ocraft.s2client.protocol.observation.spatial;
+
+/*-
+ * #%L
+ * ocraft-s2client-protocol
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import SC2APIProtocol.Common;
+import com.github.ocraft.s2client.protocol.spatial.Point2d;
+import com.google.protobuf.ByteString;
+import nl.jqno.equalsverifier.EqualsVerifier;
+import org.junit.jupiter.api.Test;
+
+import static com.github.ocraft.s2client.protocol.Constants.nothing;
+import static com.github.ocraft.s2client.protocol.Fixtures.sc2ApiImageData;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class BitGridTest {
+
+    @Test
+    void throwsExceptionWhenImageDataIsNull() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> BitGrid.from(nothing(), ImageData.Origin.UPPER_LEFT, value -> true))
+                .withMessage("image data is required");
+    }
+
+    @Test
+    void decodesSameValuesAsSampling() {
+        ImageData imageData = ImageData.from(sc2ApiImageData());
+
+        for (ImageData.Origin origin : ImageData.Origin.values()) {
+            BitGrid grid = BitGrid.from(imageData, origin, value -> value > 100);
+            for (int y = 0; y < grid.getHeight(); y++) {
+                for (int x = 0; x < grid.getWidth(); x++) {
+                    assertThat(grid.get(x, y)).as("cell %d, %d", x, y)
+                            .isEqualTo(imageData.sample(Point2d.of(x, y), origin) > 100);
+                }
+            }
+        }
+    }
+
+    @Test
+    void decodesOneBitPerPixelImage() {
+        BitGrid grid = BitGrid.from(oneBitImage(), ImageData.Origin.UPPER_LEFT, value -> value == 1);
+
+        assertThat(grid.getWidth()).as("width").isEqualTo(72);
+        assertThat(grid.getHeight()).as("height").isEqualTo(2);
+        assertThat(grid.getWordsPerRow()).as("words per row").isEqualTo(2);
+        assertThat(grid.get(0, 1)).as("upper left").isTrue();
+        assertThat(grid.get(1, 1)).isFalse();
+        assertThat(grid.get(71, 0)).as("bottom right").isTrue();
+        assertThat(grid.get(70, 0)).isFalse();
+        assertThat(grid.get(-1, 0)).as("outside of the grid").isFalse();
+        assertThat(grid.get(0, 2)).as("outside of the grid").isFalse();
+    }
+
+    private static ImageData oneBitImage() {
+        byte[] data = new byte[18];
+        data[0] = (byte) 0x80;
+        data[17] = (byte) 0x01;
+        return ImageData.from(Common.ImageData.newBuilder()
+                .setBitsPerPixel(1)
+                .setSize(Common.Size2DI.newBuilder().setX(72).setY(2))
+                .setData(ByteString.copyFrom(data))
+                .build());
+    }
+
+    @Test
+    void countsCellsInRegion() {
+        BitGrid grid = BitGrid.from(eightBitImage(130, 3), ImageData.Origin.BOTTOM_LEFT, value -> value == 1);
+
+        assertThat(grid.count()).as("all set cells").isEqualTo(130);
+        assertThat(grid.count(60, 0, 70, 3)).as("region crossing words").isEqualTo(10);
+        assertThat(grid.count(-10, -10, 200, 200)).as("clipped region").isEqualTo(130);
+        assertThat(grid.count(5, 1, 5, 2)).as("empty region").isEqualTo(0);
+        assertThat(grid.all(0, 1, 130, 2)).as("full row").isTrue();
+        assertThat(grid.all(0, 0, 130, 2)).as("partially set").isFalse();
+        assertThat(grid.all(0, 1, 131, 2)).as("outside of the grid").isFalse();
+        assertThat(grid.any(0, 0, 130, 1)).as("empty row").isFalse();
+        assertThat(grid.any(129, 0, 130, 3)).as("last column").isTrue();
+    }
+
+    private static ImageData eightBitImage(int width, int height) {
+        byte[] data = new byte[width * height];
+        for (int x = 0; x < width; x++) {
+            data[x + width] = 1;
+        }
+        return ImageData.from(Common.ImageData.newBuilder()
+                .setBitsPerPixel(8)
+                .setSize(Common.Size2DI.newBuilder().setX(width).setY(height))
+                .setData(ByteString.copyFrom(data))
+                .build());
+    }
+
+    @Test
+    void copiesRows() {
+        BitGrid grid = BitGrid.from(eightBitImage(130, 3), ImageData.Origin.BOTTOM_LEFT, value -> value == 1);
+        long[] row = new long[4];
+
+        grid.getRow(1, row, 1);
+
+        assertThat(row).containsExactly(0L, -1L, -1L, 0x3L);
+        assertThatExceptionOfType(IndexOutOfBoundsException.class).isThrownBy(() -> grid.getRow(3, row, 0));
+    }
+
+    @Test
+    void fulfillsEqualsContract() {
+        EqualsVerifier.forClass(BitGrid.class).withNonnullFields("bits").withIgnoredFields("wordsPerRow").verify();
+    }
+}
@@ -0,0 +1,78 @@
+package com.github.ocraft.s2client.protocol.observation.spatial;
+
+/*-
+ * #%L
+ * ocraft-s2client-protocol
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import com.github.ocraft.s2client.protocol.spatial.Point2d;
+import nl.jqno.equalsverifier.EqualsVerifier;
+import org.junit.jupiter.api.Test;
+
+import static com.github.ocraft.s2client.protocol.Fixtures.sc2ApiImageData;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class ByteGridTest {
+
+    @Test
+    void decodesSameValuesAsSampling() {
+        ImageData imageData = ImageData.from(sc2ApiImageData());
+
+        for (ImageData.Origin origin : ImageData.Origin.values()) {
+            ByteGrid grid = ByteGrid.from(imageData, origin);
+            for (int y = 0; y < grid.getHeight(); y++) {
+                for (int x = 0; x < grid.getWidth(); x++) {
+                    assertThat(grid.get(x, y)).as("cell %d, %d", x, y)
+                            .isEqualTo(imageData.sample(Point2d.of(x, y), origin));
+                }
+            }
+        }
+        assertThat(ByteGrid.from(imageData, ImageData.Origin.UPPER_LEFT).get(-1, 0)).as("outside of the grid")
+                .isEqualTo(0);
+    }
+
+    @Test
+    void copiesRowsAndRegions() {
+        ImageData imageData = ImageData.from(sc2ApiImageData());
+        ByteGrid grid = ByteGrid.from(imageData, ImageData.Origin.UPPER_LEFT);
+
+        byte[] row = new byte[grid.getWidth()];
+        grid.getRow(63, row, 0);
+        assertThat(row[57] & 0xFF).as("row value").isEqualTo(grid.get(57, 63));
+
+        byte[] region = new byte[4];
+        grid.getRegion(56, 62, 58, 64, region);
+        assertThat(region[3] & 0xFF).as("region value").isEqualTo(grid.get(57, 63));
+        assertThat(region[0] & 0xFF).as("region value").isEqualTo(grid.get(56, 62));
+
+        assertThatExceptionOfType(IndexOutOfBoundsException.class)
+                .isThrownBy(() -> grid.getRegion(60, 60, 70, 70, new byte[100]));
+    }
+
+    @Test
+    void fulfillsEqualsContract() {
+        EqualsVerifier.forClass(ByteGrid.class).withNonnullFields("values").verify();
+    }
+}
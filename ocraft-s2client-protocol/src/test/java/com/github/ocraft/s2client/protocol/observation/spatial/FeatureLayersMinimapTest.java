@@ -26,18 +26,25 @@ package com.github.ocraft.s2client.protocol.observation.spatial;
  * #L%
  */
 
+import SC2APIProtocol.Common;
 import SC2APIProtocol.Spatial;
+import com.github.ocraft.s2client.protocol.spatial.Point2d;
 import com.google.protobuf.ByteString;
 import nl.jqno.equalsverifier.EqualsVerifier;
 import org.junit.jupiter.api.Test;
 
 import java.io.UnsupportedEncodingException;
+import java.nio.FloatBuffer;
+import java.util.EnumMap;
+import java.util.Map;
 
 import static com.github.ocraft.s2client.protocol.Constants.nothing;
 import static com.github.ocraft.s2client.protocol.Fixtures.sc2ApiFeatureLayersMinimap;
+import static com.github.ocraft.s2client.protocol.Fixtures.sc2ApiImageData;
 import static com.github.ocraft.s2client.protocol.Fixtures.without;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.within;
 
 class FeatureLayersMinimapTest {
     @Test
@@ -131,6 +138,23 @@ class FeatureLayersMinimapTest {
                 .withMessage("player relative is required");
     }
 
+    @Test
+    void writesSelectedLayersToTensor() {
+        FeatureLayersMinimap minimap = FeatureLayersMinimap.from(sc2ApiFeatureLayersMinimap());
+        Map<FeatureLayersMinimap.Layer, LayerEncoding> layers = new EnumMap<>(FeatureLayersMinimap.Layer.class);
+        layers.put(FeatureLayersMinimap.Layer.HEIGHT_MAP, LayerEncoding.raw());
+        layers.put(FeatureLayersMinimap.Layer.CAMERA, LayerEncoding.normalized());
+        FloatBuffer tensor = FloatBuffer.allocate(2 * 64 * 64);
+
+        minimap.toTensor(tensor, TensorLayout.CHANNELS_LAST, layers);
+
+        int value = minimap.getHeightMap().sample(Point2d.of(1, 2), ImageData.Origin.BOTTOM_LEFT);
+        assertThat(tensor.get((1 + 2 * 64) * 2)).as("height map").isEqualTo(value);
+        assertThat(tensor.get((1 + 2 * 64) * 2 + 1)).as("camera").isCloseTo(value / 255.0f, within(1e-6f));
+        assertThat(minimap.getLayer(FeatureLayersMinimap.Layer.UNIT_TYPE)).as("layer by selector")
+                .isEqualTo(minimap.getUnitType());
+    }
+
     @Test
     void fulfillsEqualsContract() throws UnsupportedEncodingException {
         EqualsVerifier
@@ -141,6 +165,10 @@ class FeatureLayersMinimapTest {
                         ByteString.class,
                         ByteString.copyFrom("test", "UTF-8"),
                         ByteString.copyFrom("test2", "UTF-8"))
+                .withPrefabValues(
+                        Common.ImageData.class,
+                        sc2ApiImageData(),
+                        sc2ApiImageData().toBuilder().setBitsPerPixel(1).build())
                 .verify();
     }
 }
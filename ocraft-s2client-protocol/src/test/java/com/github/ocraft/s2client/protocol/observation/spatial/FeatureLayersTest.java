@@ -26,18 +26,30 @@ package com.github.ocraft.s2client.protocol.observation.spatial;
  * #L%
  */
 
+import SC2APIProtocol.Common;
 import SC2APIProtocol.Spatial;
+import com.github.ocraft.s2client.protocol.spatial.Point2d;
 import com.google.protobuf.ByteString;
 import nl.jqno.equalsverifier.EqualsVerifier;
 import org.junit.jupiter.api.Test;
 
 import java.io.UnsupportedEncodingException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import static com.github.ocraft.s2client.protocol.Constants.nothing;
+import static com.github.ocraft.s2client.protocol.Fixtures.corruptedSc2ApiImageData;
 import static com.github.ocraft.s2client.protocol.Fixtures.sc2ApiFeatureLayers;
+import static com.github.ocraft.s2client.protocol.Fixtures.sc2ApiImageData;
 import static com.github.ocraft.s2client.protocol.Fixtures.without;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.within;
 
 class FeatureLayersTest {
 
@@ -208,6 +220,125 @@ class FeatureLayersTest {
                 .withMessage("unit density is required");
     }
 
+    @Test
+    void decodesLayersOnFirstAccess() {
+        FeatureLayers featureLayers = FeatureLayers.from(sc2ApiFeatureLayers().toBuilder()
+                .setUnitType(corruptedSc2ApiImageData())
+                .build());
+
+        assertThat(featureLayers.getHeightMap()).as("decoded once").isSameAs(featureLayers.getHeightMap());
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(featureLayers::getUnitType)
+                .withMessage("expected image size [4096] is not equal actual size [1]");
+    }
+
+    @Test
+    void writesSelectedLayersChannelsFirst() {
+        FeatureLayers featureLayers = FeatureLayers.from(sc2ApiFeatureLayers());
+        ImageData heightMap = featureLayers.getHeightMap();
+        int pixels = 64 * 64;
+        Map<FeatureLayers.Layer, LayerEncoding> layers = new EnumMap<>(FeatureLayers.Layer.class);
+        layers.put(FeatureLayers.Layer.VISIBILITY_MAP, LayerEncoding.normalized());
+        layers.put(FeatureLayers.Layer.HEIGHT_MAP, LayerEncoding.raw());
+        FloatBuffer tensor = ByteBuffer.allocateDirect((2 * pixels + 1) * Float.BYTES)
+                .order(ByteOrder.nativeOrder()).asFloatBuffer();
+        tensor.put(-1.0f);
+
+        featureLayers.toTensor(tensor, TensorLayout.CHANNELS_FIRST, layers);
+
+        assertThat(tensor.position()).as("position after tensor").isEqualTo(2 * pixels + 1);
+        assertThat(tensor.get(0)).as("preceding data").isEqualTo(-1.0f);
+        for (int y = 0; y < 64; y++) {
+            for (int x = 0; x < 64; x++) {
+                int value = heightMap.sample(Point2d.of(x, y), ImageData.Origin.BOTTOM_LEFT);
+                assertThat(tensor.get(1 + x + y * 64)).as("height map %d, %d", x, y).isEqualTo(value);
+                assertThat(tensor.get(1 + pixels + x + y * 64)).as("visibility map %d, %d", x, y)
+                        .isCloseTo(value / 255.0f, within(1e-6f));
+            }
+        }
+    }
+
+    @Test
+    void writesOneHotLayersChannelsLast() {
+        FeatureLayers featureLayers = FeatureLayers.from(sc2ApiFeatureLayers());
+        ImageData heightMap = featureLayers.getHeightMap();
+        Map<FeatureLayers.Layer, LayerEncoding> layers = new LinkedHashMap<>();
+        layers.put(FeatureLayers.Layer.PLAYER_RELATIVE, LayerEncoding.oneHot(256));
+        layers.put(FeatureLayers.Layer.CREEP, LayerEncoding.scaled(2.0f));
+        int channels = LayerEncoding.channels(layers.values());
+        FloatBuffer tensor = FloatBuffer.allocate(64 * 64 * channels);
+
+        featureLayers.toTensor(tensor, TensorLayout.CHANNELS_LAST, layers);
+
+        int value = heightMap.sample(Point2d.of(57, 63), ImageData.Origin.BOTTOM_LEFT);
+        int pixel = (57 + 63 * 64) * channels;
+        assertThat(channels).as("channels").isEqualTo(257);
+        assertThat(tensor.get(pixel + value)).as("hot class").isEqualTo(1.0f);
+        assertThat(tensor.get(pixel + (value + 1) % 256)).as("cold class").isEqualTo(0.0f);
+        assertThat(tensor.get(pixel + 256)).as("scaled layer").isEqualTo(2.0f * value);
+        assertThat(tensor.remaining()).as("remaining").isEqualTo(0);
+    }
+
+    @Test
+    void writesMissingLayersAsZeros() {
+        FeatureLayers featureLayers = FeatureLayers.from(without(
+                () -> sc2ApiFeatureLayers().toBuilder(),
+                Spatial.FeatureLayers.Builder::clearEffects).build());
+        Map<FeatureLayers.Layer, LayerEncoding> layers = new EnumMap<>(FeatureLayers.Layer.class);
+        layers.put(FeatureLayers.Layer.EFFECTS, LayerEncoding.raw());
+        layers.put(FeatureLayers.Layer.HEIGHT_MAP, LayerEncoding.raw());
+        ByteBuffer tensor = ByteBuffer.allocateDirect(2 * 64 * 64);
+        tensor.put(1, (byte) 1);
+
+        featureLayers.toTensor(tensor, TensorLayout.CHANNELS_LAST, layers);
+
+        assertThat(tensor.get(0)).as("present layer")
+                .isEqualTo((byte) featureLayers.getHeightMap().sample(Point2d.of(0, 0), ImageData.Origin.BOTTOM_LEFT));
+        assertThat(tensor.get(1)).as("missing layer").isEqualTo((byte) 0);
+    }
+
+    @Test
+    void writesInt32Layers() {
+        ByteBuffer unitTypes = ByteBuffer.allocate(64 * 64 * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        unitTypes.putInt(5 * Integer.BYTES, 1911);
+        FeatureLayers featureLayers = FeatureLayers.from(sc2ApiFeatureLayers().toBuilder()
+                .setUnitType(Common.ImageData.newBuilder()
+                        .setBitsPerPixel(32)
+                        .setSize(Common.Size2DI.newBuilder().setX(64).setY(64))
+                        .setData(ByteString.copyFrom(unitTypes.array())))
+                .build());
+        Map<FeatureLayers.Layer, LayerEncoding> layers = new EnumMap<>(FeatureLayers.Layer.class);
+        layers.put(FeatureLayers.Layer.UNIT_TYPE, LayerEncoding.raw());
+        FloatBuffer tensor = FloatBuffer.allocate(64 * 64);
+
+        featureLayers.toTensor(tensor, TensorLayout.CHANNELS_FIRST, layers);
+
+        assertThat(tensor.get(5)).as("unit type").isEqualTo(1911.0f);
+        assertThat(tensor.get(4)).as("no unit").isEqualTo(0.0f);
+    }
+
+    @Test
+    void throwsExceptionWhenTensorDoesNotFit() {
+        FeatureLayers featureLayers = FeatureLayers.from(sc2ApiFeatureLayers());
+        Map<FeatureLayers.Layer, LayerEncoding> layers = new EnumMap<>(FeatureLayers.Layer.class);
+        layers.put(FeatureLayers.Layer.HEIGHT_MAP, LayerEncoding.raw());
+
+        assertThatExceptionOfType(BufferOverflowException.class).isThrownBy(() ->
+                featureLayers.toTensor(FloatBuffer.allocate(100), TensorLayout.CHANNELS_FIRST, layers));
+    }
+
+    @Test
+    void throwsExceptionWhenEncodingIsNotSupportedByByteTensor() {
+        FeatureLayers featureLayers = FeatureLayers.from(sc2ApiFeatureLayers());
+        Map<FeatureLayers.Layer, LayerEncoding> layers = new EnumMap<>(FeatureLayers.Layer.class);
+        layers.put(FeatureLayers.Layer.HEIGHT_MAP, LayerEncoding.normalized());
+
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> featureLayers.toTensor(
+                        ByteBuffer.allocate(64 * 64), TensorLayout.CHANNELS_FIRST, layers))
+                .withMessage("encoding [NORMALIZED] is not supported by uint8 tensors");
+    }
+
     @Test
     void fulfillsEqualsContract() throws UnsupportedEncodingException {
         EqualsVerifier
@@ -219,6 +350,10 @@ class FeatureLayersTest {
                         ByteString.class,
                         ByteString.copyFrom("test", "UTF-8"),
                         ByteString.copyFrom("test2", "UTF-8"))
+                .withPrefabValues(
+                        Common.ImageData.class,
+                        sc2ApiImageData(),
+                        sc2ApiImageData().toBuilder().setBitsPerPixel(1).build())
                 .verify();
     }
 
@@ -0,0 +1,58 @@
+package com.github.ocraft.s2client.protocol.observation.spatial;
+
+/*-
+ * #%L
+ * ocraft-s2client-protocol
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import com.github.ocraft.s2client.protocol.spatial.Point2d;
+import nl.jqno.equalsverifier.EqualsVerifier;
+import org.junit.jupiter.api.Test;
+
+import static com.github.ocraft.s2client.protocol.Fixtures.sc2ApiImageData;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class FloatGridTest {
+
+    @Test
+    void mapsPixelValuesToRange() {
+        ImageData imageData = ImageData.from(sc2ApiImageData());
+        FloatGrid grid = FloatGrid.from(imageData, ImageData.Origin.UPPER_LEFT, -16.0f, 16.0f);
+
+        int sample = imageData.sample(Point2d.of(57.0f, 63.0f));
+        assertThat(grid.get(57, 63)).as("height").isCloseTo(-16.0f + 32.0f * sample / 255.0f, within(1e-4f));
+        assertThat(grid.max(57, 63, 58, 64)).as("max of single cell").isEqualTo(grid.get(57, 63));
+        assertThat(grid.max(0, 0, 0, 0)).as("max of empty region").isNaN();
+
+        float[] row = new float[grid.getWidth() + 1];
+        grid.getRow(63, row, 1);
+        assertThat(row[58]).as("row value").isEqualTo(grid.get(57, 63));
+    }
+
+    @Test
+    void fulfillsEqualsContract() {
+        EqualsVerifier.forClass(FloatGrid.class).withNonnullFields("values").verify();
+    }
+}
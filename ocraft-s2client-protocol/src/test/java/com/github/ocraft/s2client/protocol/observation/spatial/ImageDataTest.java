@@ -35,11 +35,14 @@ import org.junit.jupiter.api.Test;
 
 import java.awt.image.BufferedImage;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 import static com.github.ocraft.s2client.protocol.Constants.nothing;
 import static com.github.ocraft.s2client.protocol.Fixtures.*;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.within;
 
 class ImageDataTest {
     @Test
@@ -118,6 +121,80 @@ class ImageDataTest {
         assertThat(imageData.sample(Point2d.of(57.0f, 63.0f))).as("image sample").isEqualTo(121);
     }
 
+    @Test
+    void providesReadOnlyViewOfData() {
+        ImageData imageData = ImageData.from(sc2ApiImageData());
+
+        ByteBuffer view = imageData.getDataView();
+
+        assertThat(view.isReadOnly()).as("read only view").isTrue();
+        assertThat(view).as("view content").isEqualTo(ByteBuffer.wrap(imageData.getData()));
+    }
+
+    @Test
+    void unpacksDataThatIsPartOfLargerBuffer() {
+        byte[] buffer = new byte[3 + 64];
+        Images.HEIGHT_MAP.copyTo(buffer, 0, 3, 64);
+        ImageData imageData = ImageData.from(Common.ImageData.newBuilder()
+                .setBitsPerPixel(8)
+                .setSize(Common.Size2DI.newBuilder().setX(8).setY(8))
+                .setData(ByteString.copyFrom(buffer).substring(3))
+                .build());
+
+        byte[] unpacked = new byte[64];
+        imageData.unpack(unpacked, ImageData.Origin.UPPER_LEFT);
+
+        assertThat(imageData.getDataView().position()).as("view starts at first pixel").isZero();
+        for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < 8; x++) {
+                assertThat(unpacked[x + y * 8] & 0xFF).as("pixel %d, %d", x, y)
+                        .isEqualTo(imageData.sample(Point2d.of(x, y), ImageData.Origin.UPPER_LEFT));
+            }
+        }
+    }
+
+    @Test
+    void unpacksSameValuesAsSampling() {
+        ImageData eightBitImage = ImageData.from(sc2ApiImageData());
+        ImageData oneBitImage = ImageData.from(Common.ImageData.newBuilder()
+                .setBitsPerPixel(1)
+                .setSize(Common.Size2DI.newBuilder().setX(12).setY(6))
+                .setData(Images.HEIGHT_MAP.substring(0, 9))
+                .build());
+
+        for (ImageData imageData : Arrays.asList(eightBitImage, oneBitImage)) {
+            int width = imageData.getSize().getX();
+            int height = imageData.getSize().getY();
+            float maxValue = imageData.getBitsPerPixel() == 1 ? 1.0f : 255.0f;
+            for (ImageData.Origin origin : ImageData.Origin.values()) {
+                byte[] bytes = new byte[width * height];
+                int[] ints = new int[width * height];
+                float[] floats = new float[width * height];
+                imageData.unpack(bytes, origin);
+                imageData.unpack(ints, origin);
+                imageData.unpackNormalized(floats, origin);
+
+                for (int y = 0; y < height; y++) {
+                    for (int x = 0; x < width; x++) {
+                        int sample = imageData.sample(Point2d.of(x, y), origin);
+                        int index = x + y * width;
+                        assertThat(bytes[index] & 0xFF).as("byte pixel %d, %d", x, y).isEqualTo(sample);
+                        assertThat(ints[index]).as("int pixel %d, %d", x, y).isEqualTo(sample);
+                        assertThat(floats[index]).as("normalized pixel %d, %d", x, y)
+                                .isCloseTo(sample / maxValue, within(1e-6f));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void throwsExceptionWhenUnpackTargetIsTooSmall() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> ImageData.from(sc2ApiImageData()).unpack(new int[10], ImageData.Origin.UPPER_LEFT))
+                .withMessage("target length [10] is less than image size [4096]");
+    }
+
     @Test
     void fulfillsEqualsContract() throws UnsupportedEncodingException {
         EqualsVerifier
@@ -0,0 +1,57 @@
+package com.github.ocraft.s2client.protocol.observation.spatial;
+
+/*-
+ * #%L
+ * ocraft-s2client-protocol
+ * %%
+ * Copyright (C) 2017 - 2018 Ocraft Project
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class LayerEncodingTest {
+
+    @Test
+    void countsChannels() {
+        assertThat(LayerEncoding.channels(Arrays.asList(
+                LayerEncoding.raw(), LayerEncoding.normalized(), LayerEncoding.scaled(0.5f), LayerEncoding.oneHot(5))))
+                .as("channels").isEqualTo(8);
+    }
+
+    @Test
+    void throwsExceptionWhenOneHotHasNoClasses() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> LayerEncoding.oneHot(0))
+                .withMessage("classes [0] must be positive");
+    }
+
+    @Test
+    void fulfillsEqualsContract() {
+        EqualsVerifier.forClass(LayerEncoding.class).withNonnullFields("type").verify();
+    }
+}
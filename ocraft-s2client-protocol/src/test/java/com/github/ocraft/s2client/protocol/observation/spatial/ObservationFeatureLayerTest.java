@@ -26,6 +26,7 @@ package com.github.ocraft.s2client.protocol.observation.spatial;
  * #L%
  */
 
+import SC2APIProtocol.Common;
 import SC2APIProtocol.Spatial;
 import com.google.protobuf.ByteString;
 import nl.jqno.equalsverifier.EqualsVerifier;
@@ -34,6 +35,7 @@ import org.junit.jupiter.api.Test;
 import java.io.UnsupportedEncodingException;
 
 import static com.github.ocraft.s2client.protocol.Constants.nothing;
+import static com.github.ocraft.s2client.protocol.Fixtures.sc2ApiImageData;
 import static com.github.ocraft.s2client.protocol.Fixtures.sc2ApiObservationFeatureLayer;
 import static com.github.ocraft.s2client.protocol.Fixtures.without;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -84,6 +86,10 @@ class ObservationFeatureLayerTest {
                         ByteString.class,
                         ByteString.copyFrom("test", "UTF-8"),
                         ByteString.copyFrom("test2", "UTF-8"))
+                .withPrefabValues(
+                        Common.ImageData.class,
+                        sc2ApiImageData(),
+                        sc2ApiImageData().toBuilder().setBitsPerPixel(1).build())
                 .verify();
     }
 }
@@ -26,16 +26,22 @@ package com.github.ocraft.s2client.protocol.observation.spatial;
  * #L%
  */
 
+import SC2APIProtocol.Common;
 import SC2APIProtocol.Spatial;
 import com.google.protobuf.ByteString;
 import nl.jqno.equalsverifier.EqualsVerifier;
 import org.junit.jupiter.api.Test;
 
 import java.io.UnsupportedEncodingException;
+import java.util.List;
+import java.util.stream.IntStream;
 
 import static com.github.ocraft.s2client.protocol.Constants.nothing;
+import static com.github.ocraft.s2client.protocol.Fixtures.corruptedSc2ApiImageData;
+import static com.github.ocraft.s2client.protocol.Fixtures.sc2ApiImageData;
 import static com.github.ocraft.s2client.protocol.Fixtures.sc2ApiObservationRender;
 import static com.github.ocraft.s2client.protocol.Fixtures.without;
+import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
@@ -75,6 +81,29 @@ class ObservationRenderTest {
                 .withMessage("minimap is required");
     }
 
+    @Test
+    void decodesImagesOnFirstAccess() {
+        ObservationRender render = ObservationRender.from(sc2ApiObservationRender().toBuilder()
+                .setMap(corruptedSc2ApiImageData())
+                .build());
+
+        assertThat(render.getMinimap()).as("decoded once").isSameAs(render.getMinimap());
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(render::getMap)
+                .withMessage("expected image size [4096] is not equal actual size [1]");
+    }
+
+    @Test
+    void decodesImageOnceWhenReadConcurrently() {
+        ObservationRender render = ObservationRender.from(sc2ApiObservationRender());
+
+        List<ImageData> minimaps = IntStream.range(0, 1000).parallel()
+                .mapToObj(i -> render.getMinimap())
+                .collect(toList());
+
+        assertThat(minimaps).allSatisfy(minimap -> assertThat(minimap).isSameAs(render.getMinimap()));
+    }
+
     @Test
     void fulfillsEqualsContract() throws UnsupportedEncodingException {
         EqualsVerifier.forClass(ObservationRender.class)
@@ -83,6 +112,10 @@ class ObservationRenderTest {
                         ByteString.class,
                         ByteString.copyFrom("test", "UTF-8"),
                         ByteString.copyFrom("test2", "UTF-8"))
+                .withPrefabValues(
+                        Common.ImageData.class,
+                        sc2ApiImageData(),
+                        sc2ApiImageData().toBuilder().setBitsPerPixel(1).build())
                 .verify();
     }
 }
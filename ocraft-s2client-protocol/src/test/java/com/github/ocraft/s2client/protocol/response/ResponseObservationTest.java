@@ -26,6 +26,8 @@ package com.github.ocraft.s2client.protocol.response;
  * #L%
  */
 
+import SC2APIProtocol.Common;
+import SC2APIProtocol.Raw;
 import com.github.ocraft.s2client.protocol.game.GameStatus;
 import com.github.ocraft.s2client.protocol.unit.UnitInfo;
 import com.google.protobuf.ByteString;
@@ -102,6 +104,11 @@ class ResponseObservationTest {
                         ByteString.class,
                         ByteString.copyFrom("test", "UTF-8"),
                         ByteString.copyFrom("test2", "UTF-8"))
+                .withPrefabValues(
+                        Common.ImageData.class,
+                        sc2ApiImageData(),
+                        sc2ApiImageData().toBuilder().setBitsPerPixel(1).build())
+                .withPrefabValues(Raw.Unit.class, sc2ApiUnit(), sc2ApiUnit().toBuilder().setTag(2L).build())
                 .verify();
     }
 